@@ -0,0 +1,81 @@
+package com.bsa.campcard.config;
+
+import com.bsa.campcard.entity.CampaignRecipient.Channel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Campaign dispatch settings bound from {@code campcard.campaigns.dispatch}.
+ *
+ * Each provider-backed channel gets its own worker pool and send rate. Rates are per
+ * API node, so set them to the provider quota divided by the number of nodes that
+ * dispatch campaigns. Defaults match the providers' standard account limits: SES
+ * 14 emails/s, SNS 20 SMS/s.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "campcard.campaigns.dispatch")
+public class CampaignDispatchProperties {
+
+    private ChannelSettings email = new ChannelSettings(4, 14, 500);
+
+    private ChannelSettings sms = new ChannelSettings(4, 20, 500);
+
+    private ChannelSettings push = new ChannelSettings(8, 500, 2000);
+
+    /**
+     * Send campaign email as SES bulk templated sends of up to 50 recipients each,
+     * rather than one SendEmail call per recipient
+     */
+    private boolean bulkEmail = true;
+
+    /**
+     * Users whose recipient rows are inserted per statement when a campaign starts
+     */
+    private int materializeBatchSize = 5000;
+
+    /**
+     * A SENDING campaign whose dispatch has not committed a chunk for this long is
+     * considered abandoned and resumed from its cursor
+     */
+    private int staleAfterMinutes = 10;
+
+    /**
+     * Scheduled or resumed campaigns this node sends at once. Further campaigns are left
+     * for the next check, or another node, rather than queued behind them
+     */
+    private int concurrentCampaigns = 2;
+
+    public ChannelSettings settings(Channel channel) {
+        return switch (channel) {
+            case EMAIL -> email;
+            case SMS -> sms;
+            case PUSH -> push;
+            case IN_APP -> throw new IllegalArgumentException("In-app notifications are not sent through a provider");
+        };
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChannelSettings {
+
+        /**
+         * Worker threads calling the provider
+         */
+        private int concurrency;
+
+        /**
+         * Maximum sends per second; 0 for unlimited
+         */
+        private double ratePerSecond;
+
+        /**
+         * Sends queued per channel before the dispatching thread runs them itself
+         */
+        private int queueCapacity;
+    }
+}
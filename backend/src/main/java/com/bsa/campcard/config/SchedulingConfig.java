@@ -0,0 +1,40 @@
+package com.bsa.campcard.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Thread pool for {@code @Scheduled} methods.
+ *
+ * Without it every scheduled job shares a single thread, so one slow run (a campaign
+ * check, a Redis timeout) holds up the buffer flushes, the dashboard stream and every
+ * other job behind it. The pool is set here rather than through
+ * {@code spring.task.scheduling}, which Spring Boot ignores once the STOMP broker has
+ * registered its own task scheduler. Long-running work started by a job, such as
+ * sending a campaign, runs on that job's own executor, not on this pool.
+ */
+@Configuration
+public class SchedulingConfig implements SchedulingConfigurer, DisposableBean {
+
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    public SchedulingConfig(@Value("${campcard.scheduling.pool-size:8}") int poolSize) {
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("campcard-scheduled-");
+        scheduler.initialize();
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.setTaskScheduler(scheduler);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+    }
+}
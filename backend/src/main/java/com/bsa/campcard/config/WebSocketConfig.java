@@ -13,8 +13,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable a simple in-memory message broker for broadcasting
-        // Clients subscribe to /topic/* destinations
-        config.enableSimpleBroker("/topic");
+        // Clients subscribe to /topic/* destinations, and /user/queue/* for replies to themselves
+        config.enableSimpleBroker("/topic", "/queue");
 
         // Application destination prefix for messages from clients
         // Clients send to /app/* destinations, which are routed to @MessageMapping methods
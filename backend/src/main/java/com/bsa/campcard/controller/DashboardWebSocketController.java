@@ -1,14 +1,17 @@
 package com.bsa.campcard.controller;
 
 import com.bsa.campcard.dto.DashboardResponse;
+import com.bsa.campcard.dto.DashboardStreamMessage;
 import com.bsa.campcard.service.DashboardService;
+import com.bsa.campcard.service.dashboard.DashboardBroadcastBroker;
+import com.bsa.campcard.service.dashboard.DashboardStreamService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Controller;
 
 @Controller
@@ -17,34 +20,30 @@ import org.springframework.stereotype.Controller;
 @EnableScheduling
 public class DashboardWebSocketController {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final DashboardBroadcastBroker broadcastBroker;
     private final DashboardService dashboardService;
+    private final DashboardStreamService dashboardStreamService;
 
     /**
-     * Handle client request for dashboard refresh
-     * Client sends to /app/dashboard/refresh
-     * Response is broadcast to /topic/dashboard
+     * Full dashboard snapshot for a client subscribing to /app/dashboard.
+     * Clients then apply the versioned patches published on /topic/dashboard.
      */
-    @MessageMapping("/dashboard/refresh")
-    @SendTo("/topic/dashboard")
-    public DashboardResponse refreshDashboard() {
-        log.info("WebSocket: Dashboard refresh requested");
-        return dashboardService.getDashboardData();
+    @SubscribeMapping("/dashboard")
+    public DashboardStreamMessage subscribeDashboard() {
+        log.info("WebSocket: Dashboard snapshot requested on subscribe");
+        return dashboardStreamService.snapshot();
     }
 
     /**
-     * Broadcast dashboard updates every 30 seconds
-     * All subscribed clients receive updates automatically
+     * Handle client request for dashboard refresh
+     * Client sends to /app/dashboard/refresh
+     * The snapshot is sent only to the requesting client on /user/queue/dashboard
      */
-    @Scheduled(fixedRate = 30000) // Every 30 seconds
-    public void broadcastDashboardUpdate() {
-        try {
-            DashboardResponse data = dashboardService.getDashboardData();
-            messagingTemplate.convertAndSend("/topic/dashboard", data);
-            log.debug("WebSocket: Broadcast dashboard update to /topic/dashboard");
-        } catch (Exception e) {
-            log.error("WebSocket: Failed to broadcast dashboard update", e);
-        }
+    @MessageMapping("/dashboard/refresh")
+    @SendToUser(destinations = "/queue/dashboard", broadcast = false)
+    public DashboardStreamMessage refreshDashboard() {
+        log.info("WebSocket: Dashboard refresh requested");
+        return dashboardStreamService.snapshot();
     }
 
     /**
@@ -82,25 +81,25 @@ public class DashboardWebSocketController {
      */
     public void notifySaleRecorded(Long scoutId, java.math.BigDecimal amount) {
         log.info("WebSocket: Broadcasting sale notification for scout {}", scoutId);
-        messagingTemplate.convertAndSend("/topic/notifications", java.util.Map.of(
+        broadcastBroker.publish("/topic/notifications", java.util.Map.of(
                 "type", "SALE_RECORDED",
                 "scoutId", scoutId,
                 "amount", amount,
                 "timestamp", java.time.Instant.now().toString()
         ));
-        // Also broadcast updated dashboard
-        broadcastDashboardUpdate();
+        // Dashboard changes go out with the next coalesced patch
+        dashboardStreamService.markChanged();
     }
 
     public void notifyReferralCompleted(String referrerId, String referredUserId) {
         log.info("WebSocket: Broadcasting referral notification");
-        messagingTemplate.convertAndSend("/topic/notifications", java.util.Map.of(
+        broadcastBroker.publish("/topic/notifications", java.util.Map.of(
                 "type", "REFERRAL_COMPLETED",
                 "referrerId", referrerId,
                 "referredUserId", referredUserId,
                 "timestamp", java.time.Instant.now().toString()
         ));
-        // Also broadcast updated dashboard
-        broadcastDashboardUpdate();
+        // Dashboard changes go out with the next coalesced patch
+        dashboardStreamService.markChanged();
     }
 }
@@ -23,6 +23,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -107,25 +108,36 @@ public class OfferController {
     
     @GetMapping("/active")
     public ResponseEntity<Page<OfferResponse>> getActiveOffers(
+            @RequestParam(required = false) Long councilId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<OfferResponse> offers = offerService.getActiveOffers(pageable);
+        Page<OfferResponse> offers = offerService.getActiveOffers(councilId, pageable);
         return ResponseEntity.ok(offers);
     }
 
     @GetMapping("/active/user/{userId}")
     public ResponseEntity<Page<OfferResponse>> getActiveOffersForUser(
             @PathVariable UUID userId,
+            @RequestParam(required = false) Long councilId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<OfferResponse> offers = offerService.getActiveOffersForUser(userId, pageable);
+        Page<OfferResponse> offers = offerService.getActiveOffersForUser(userId, councilId, pageable);
         return ResponseEntity.ok(offers);
     }
     
+    @GetMapping("/suggest")
+    @Operation(summary = "Typeahead suggestions", description = "Top active offers matching a partially typed search term")
+    public ResponseEntity<List<OfferResponse>> suggestOffers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit) {
+
+        return ResponseEntity.ok(offerService.suggestOffers(q, limit));
+    }
+
     @GetMapping("/featured")
     public ResponseEntity<Page<OfferResponse>> getFeaturedOffers(
             @RequestParam(defaultValue = "0") int page,
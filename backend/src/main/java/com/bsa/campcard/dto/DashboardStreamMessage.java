@@ -0,0 +1,31 @@
+package com.bsa.campcard.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Message on the dashboard stream. A SNAPSHOT carries the full dashboard at a version;
+ * a PATCH carries the RFC 6902 operations that turn version {@code version - 1} into
+ * {@code version}. Clients that see a gap in versions should re-request a snapshot.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DashboardStreamMessage {
+
+    private MessageType type;
+    private Long version;
+    private DashboardResponse data;
+    private JsonNode patch;
+
+    public enum MessageType {
+        SNAPSHOT,
+        PATCH
+    }
+}
@@ -27,6 +27,7 @@ public class OfferResponse {
     private String category;
     private String terms;
     private String imageUrl;
+    private String thumbnailUrl;
     private String status;
     private LocalDateTime validFrom;
     private LocalDateTime validUntil;
@@ -74,6 +75,7 @@ public class OfferResponse {
         response.setCategory(offer.getCategory());
         response.setTerms(offer.getTerms());
         response.setImageUrl(offer.getImageUrl());
+        response.setThumbnailUrl(offer.getThumbnailUrl() != null ? offer.getThumbnailUrl() : offer.getImageUrl());
         response.setStatus(offer.getStatus().name());
         response.setValidFrom(offer.getValidFrom());
         response.setValidUntil(offer.getValidUntil());
@@ -1,5 +1,7 @@
 package com.bsa.campcard.entity;
 
+import com.bsa.campcard.service.dashboard.DashboardAggregateListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,6 +9,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -14,12 +17,13 @@ import java.util.UUID;
  * Tracks the purchase of 1-10 cards in a single order.
  */
 @Entity
+@EntityListeners(DashboardAggregateListener.class)
 @Table(name = "card_orders")
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class CardOrder {
+public class CardOrder implements DashboardAggregated {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -68,6 +72,11 @@ public class CardOrder {
     @Builder.Default
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    // Dashboard counter contribution as of the last load/flush (see DashboardAggregateListener)
+    @Transient
+    @JsonIgnore
+    private transient Map<String, Long> aggregateSnapshot;
+
     @PrePersist
     protected void onCreate() {
         if (uuid == null) {
@@ -0,0 +1,16 @@
+package com.bsa.campcard.entity;
+
+import java.util.Map;
+
+/**
+ * Entities whose rows feed the pre-computed dashboard counters.
+ *
+ * The snapshot holds the entity's counter contribution as of its last load or flush,
+ * so the aggregate listener can apply only the difference when the row changes.
+ */
+public interface DashboardAggregated {
+
+    Map<String, Long> getAggregateSnapshot();
+
+    void setAggregateSnapshot(Map<String, Long> aggregateSnapshot);
+}
@@ -97,6 +97,10 @@ public class MarketingCampaign {
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
+    // Last user ID of the last committed dispatch chunk; dispatch resumes after it
+    @Column(name = "dispatch_cursor")
+    private UUID dispatchCursor;
+
     // Settings
     @Column(name = "enable_geofencing")
     private Boolean enableGeofencing;
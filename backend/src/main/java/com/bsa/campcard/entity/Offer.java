@@ -1,15 +1,19 @@
 package com.bsa.campcard.entity;
 
+import com.bsa.campcard.service.dashboard.DashboardAggregateListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.UUID;
 
 @Data
 @Entity
+@EntityListeners(DashboardAggregateListener.class)
 @Table(name = "offers")
-public class Offer {
+public class Offer implements DashboardAggregated {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -47,6 +51,9 @@ public class Offer {
     
     @Column(name = "image_url")
     private String imageUrl;
+
+    @Column(name = "thumbnail_url")
+    private String thumbnailUrl;
     
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -93,6 +100,11 @@ public class Offer {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt = LocalDateTime.now();
     
+    // Dashboard counter contribution as of the last load/flush (see DashboardAggregateListener)
+    @Transient
+    @JsonIgnore
+    private transient Map<String, Long> aggregateSnapshot;
+
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
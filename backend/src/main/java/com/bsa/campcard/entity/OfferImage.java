@@ -7,7 +7,8 @@ import java.time.LocalDateTime;
 
 /**
  * Entity for storing offer images as base64 data.
- * This is a workaround for the offers.image_url VARCHAR(255) limitation.
+ * Legacy storage: new uploads go to the blob store, and existing rows are migrated
+ * and deleted by {@link com.bsa.campcard.service.image.OfferImageMigrationJob}.
  */
 @Entity
 @Table(name = "offer_images", schema = "campcard")
@@ -1,5 +1,7 @@
 package com.bsa.campcard.entity;
 
+import com.bsa.campcard.service.dashboard.DashboardAggregateListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -8,15 +10,17 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(DashboardAggregateListener.class)
 @Table(name = "referrals")
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class Referral {
+public class Referral implements DashboardAggregated {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -49,6 +53,11 @@ public class Referral {
     
     private LocalDateTime completedAt;
     
+    // Dashboard counter contribution as of the last load/flush (see DashboardAggregateListener)
+    @Transient
+    @JsonIgnore
+    private transient Map<String, Long> aggregateSnapshot;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -1,5 +1,7 @@
 package com.bsa.campcard.entity;
 
+import com.bsa.campcard.service.dashboard.DashboardAggregateListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,15 +9,17 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(DashboardAggregateListener.class)
 @Table(name = "subscriptions")
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class Subscription {
+public class Subscription implements DashboardAggregated {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -73,6 +77,11 @@ public class Subscription {
     
     private LocalDateTime deletedAt;
     
+    // Dashboard counter contribution as of the last load/flush (see DashboardAggregateListener)
+    @Transient
+    @JsonIgnore
+    private transient Map<String, Long> aggregateSnapshot;
+
     @PrePersist
     protected void onCreate() {
         if (uuid == null) {
@@ -122,4 +122,6 @@ public interface CampCardRepository extends JpaRepository<CampCard, Long> {
     @Query("SELECT DISTINCT c.ownerUserId FROM CampCard c WHERE c.status = 'UNASSIGNED' " +
            "AND c.expiresAt > :now")
     List<UUID> findUsersWithUnusedCards(@Param("now") LocalDateTime now);
+
+    long countByStatusIn(List<CampCardStatus> statuses);
 }
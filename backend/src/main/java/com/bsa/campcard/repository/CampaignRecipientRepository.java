@@ -10,8 +10,10 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -38,6 +40,49 @@ public interface CampaignRecipientRepository extends JpaRepository<CampaignRecip
     // Check if already sent to user for this campaign and channel
     boolean existsByCampaignIdAndUserIdAndChannel(Long campaignId, UUID userId, Channel channel);
 
+    // Record a geofence trigger's recipient rows unless the user was already recorded for the
+    // campaign and channel (here or on another node); returns the IDs of the rows inserted
+    @Transactional
+    @Query(value = "INSERT INTO campaign_recipients (uuid, campaign_id, user_id, channel, status, retry_count, " +
+           "open_count, click_count, triggered_by_geofence, geofence_id, trigger_latitude, trigger_longitude, " +
+           "created_at, updated_at) " +
+           "SELECT gen_random_uuid(), :campaignId, u.id, ch.channel, 'PENDING', 0, 0, 0, true, :geofenceId, " +
+           ":latitude, :longitude, :now, :now " +
+           "FROM users u CROSS JOIN (VALUES ('EMAIL'), ('SMS'), ('PUSH'), ('IN_APP')) AS ch(channel) " +
+           "WHERE u.id = :userId AND ch.channel IN (:channels) " +
+           "ON CONFLICT (campaign_id, user_id, channel) DO NOTHING " +
+           "RETURNING id",
+           nativeQuery = true)
+    List<Long> insertGeofenceRecipients(
+        @Param("campaignId") Long campaignId,
+        @Param("userId") UUID userId,
+        @Param("channels") Collection<String> channels,
+        @Param("geofenceId") String geofenceId,
+        @Param("latitude") double latitude,
+        @Param("longitude") double longitude,
+        @Param("now") LocalDateTime now
+    );
+
+    // Materialize a campaign's recipients for a batch of users; existing rows are left as they are
+    @Modifying
+    @Query(value = "INSERT INTO campaign_recipients (uuid, campaign_id, user_id, channel, status, retry_count, " +
+           "open_count, click_count, triggered_by_geofence, created_at, updated_at) " +
+           "SELECT gen_random_uuid(), :campaignId, u.id, ch.channel, 'PENDING', 0, 0, 0, false, :now, :now " +
+           "FROM users u CROSS JOIN (VALUES ('EMAIL'), ('SMS'), ('PUSH'), ('IN_APP')) AS ch(channel) " +
+           "WHERE u.id IN (:userIds) AND ch.channel IN (:channels) " +
+           "ON CONFLICT (campaign_id, user_id, channel) DO NOTHING",
+           nativeQuery = true)
+    int insertPendingRecipients(
+        @Param("campaignId") Long campaignId,
+        @Param("userIds") Collection<UUID> userIds,
+        @Param("channels") Collection<String> channels,
+        @Param("now") LocalDateTime now
+    );
+
+    // Next page of a campaign's pending recipients, by ID
+    List<CampaignRecipient> findByCampaignIdAndStatusAndIdGreaterThanOrderByIdAsc(
+        Long campaignId, DeliveryStatus status, Long afterId, Pageable pageable);
+
     // Find scheduled recipients ready to send
     @Query("SELECT r FROM CampaignRecipient r WHERE r.status = 'SCHEDULED' AND r.scheduledAt <= :now")
     List<CampaignRecipient> findScheduledRecipientsReadyToSend(@Param("now") LocalDateTime now);
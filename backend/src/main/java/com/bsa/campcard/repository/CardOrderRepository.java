@@ -94,4 +94,8 @@ public interface CardOrderRepository extends JpaRepository<CardOrder, Long> {
         @Param("startDate") LocalDateTime startDate,
         @Param("endDate") LocalDateTime endDate
     );
+
+    @Query("SELECT o.paymentStatus, COUNT(o), COALESCE(SUM(o.totalPriceCents), 0) FROM CardOrder o " +
+           "GROUP BY o.paymentStatus")
+    List<Object[]> countAndRevenueGroupedByPaymentStatus();
 }
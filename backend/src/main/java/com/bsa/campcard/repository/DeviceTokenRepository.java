@@ -1,9 +1,17 @@
 package com.bsa.campcard.repository;
 
 import com.bsa.campcard.entity.DeviceToken;
+import com.bsa.campcard.entity.DeviceToken.DeviceType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,5 +24,16 @@ public interface DeviceTokenRepository extends JpaRepository<DeviceToken, Long>
 
     List<DeviceToken> findByUserIdInAndActiveTrue(List<Long> userIds);
 
+    // Keyset page of a platform's active tokens, for announcements to every device
+    List<DeviceToken> findByDeviceTypeAndActiveTrueAndIdGreaterThanOrderByIdAsc(
+            DeviceType deviceType, Long afterId, Pageable pageable);
+
+    // Deactivate tokens FCM reported as unregistered or invalid
+    @Modifying
+    @Transactional
+    @Query("UPDATE DeviceToken d SET d.active = false, d.updatedAt = :now " +
+           "WHERE d.token IN :tokens AND d.active = true")
+    int deactivateTokens(@Param("tokens") Collection<String> tokens, @Param("now") LocalDateTime now);
+
     void deleteByToken(String token);
 }
@@ -6,11 +6,14 @@ import com.bsa.campcard.entity.MarketingCampaign.CampaignType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -82,4 +85,38 @@ public interface MarketingCampaignRepository extends JpaRepository<MarketingCamp
 
     // Find campaigns by status list
     List<MarketingCampaign> findByStatusIn(List<CampaignStatus> statuses);
+
+    // Claim a campaign for dispatch; 0 when it is not in a dispatchable status (e.g. another node claimed it first)
+    @Modifying
+    @Transactional
+    @Query("UPDATE MarketingCampaign c SET c.status = 'SENDING', c.startedAt = :now, c.updatedAt = :now " +
+           "WHERE c.id = :id AND c.status IN :from")
+    int claimForDispatch(@Param("id") Long id, @Param("from") Collection<CampaignStatus> from,
+                         @Param("now") LocalDateTime now);
+
+    // Campaigns whose dispatch stopped heartbeating (node crashed or was redeployed mid-send)
+    @Query("SELECT c.id FROM MarketingCampaign c WHERE c.status = 'SENDING' AND c.updatedAt < :staleBefore")
+    List<Long> findStalledDispatchIds(@Param("staleBefore") LocalDateTime staleBefore);
+
+    // Take over a stalled dispatch; 0 when another node took it over first
+    @Modifying
+    @Transactional
+    @Query("UPDATE MarketingCampaign c SET c.updatedAt = :now " +
+           "WHERE c.id = :id AND c.status = 'SENDING' AND c.updatedAt < :staleBefore")
+    int claimStalledDispatch(@Param("id") Long id, @Param("staleBefore") LocalDateTime staleBefore,
+                             @Param("now") LocalDateTime now);
+
+    // Record the last user whose recipients were materialized; also the dispatch heartbeat
+    @Modifying
+    @Query("UPDATE MarketingCampaign c SET c.dispatchCursor = :cursor, c.updatedAt = :now WHERE c.id = :id")
+    int advanceDispatchCursor(@Param("id") Long id, @Param("cursor") UUID cursor, @Param("now") LocalDateTime now);
+
+    // Dispatch heartbeat for a committed send chunk; only a SENDING campaign can stall, and
+    // touching an active geofence campaign would make its audience index rebuild
+    @Modifying
+    @Query("UPDATE MarketingCampaign c SET c.updatedAt = :now WHERE c.id = :id AND c.status = 'SENDING'")
+    int recordDispatchHeartbeat(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Query("SELECT c.status FROM MarketingCampaign c WHERE c.id = :id")
+    Optional<CampaignStatus> findStatusById(@Param("id") Long id);
 }
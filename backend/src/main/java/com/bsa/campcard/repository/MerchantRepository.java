@@ -4,10 +4,14 @@ import com.bsa.campcard.entity.Merchant;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -49,4 +53,26 @@ public interface MerchantRepository extends JpaRepository<Merchant, Long> {
     List<Merchant> findByCategory(@Param("category") String category);
     
     Long countByStatusAndDeletedAtIsNull(Merchant.MerchantStatus status);
+
+    @Query("SELECT MAX(m.updatedAt) FROM Merchant m")
+    LocalDateTime findLastUpdate();
+
+    /**
+     * Recount total and active offers for the given merchants in one grouped statement.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE merchants m SET total_offers = c.total, active_offers = c.active, updated_at = now() " +
+                   "FROM (SELECT mm.id, COUNT(o.id) AS total, " +
+                   "COUNT(o.id) FILTER (WHERE o.status = 'ACTIVE') AS active " +
+                   "FROM merchants mm LEFT JOIN offers o ON o.merchant_id = mm.id " +
+                   "WHERE mm.id IN (:merchantIds) GROUP BY mm.id) c " +
+                   "WHERE m.id = c.id",
+           nativeQuery = true)
+    int recountOffers(@Param("merchantIds") Collection<Long> merchantIds);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Merchant m SET m.totalRedemptions = m.totalRedemptions + :count WHERE m.id = :merchantId")
+    int incrementRedemptions(@Param("merchantId") Long merchantId, @Param("count") int count);
 }
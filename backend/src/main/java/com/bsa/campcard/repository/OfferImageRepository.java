@@ -1,9 +1,11 @@
 package com.bsa.campcard.repository;
 
 import com.bsa.campcard.entity.OfferImage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +14,6 @@ public interface OfferImageRepository extends JpaRepository<OfferImage, Long> {
     Optional<OfferImage> findByOfferId(Long offerId);
 
     void deleteByOfferId(Long offerId);
+
+    List<OfferImage> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
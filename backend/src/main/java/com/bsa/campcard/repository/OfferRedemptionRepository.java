@@ -5,9 +5,11 @@ import com.bsa.campcard.entity.OfferRedemption.RedemptionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -56,6 +58,17 @@ public interface OfferRedemptionRepository extends JpaRepository<OfferRedemption
     List<OfferRedemption> findByStatusAndCreatedAtBefore(RedemptionStatus status,
                                                          LocalDateTime dateTime);
 
+    /**
+     * Expire up to {@code limit} PENDING redemptions created before the cutoff.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE offer_redemptions SET status = 'EXPIRED' WHERE id IN (" +
+                   "SELECT id FROM offer_redemptions WHERE status = 'PENDING' AND created_at < :cutoff " +
+                   "ORDER BY created_at, id LIMIT :limit FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int expirePendingBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
     @Query("SELECT r.offerId, COUNT(r) FROM OfferRedemption r WHERE r.userId = :userId " +
            "AND r.offerId IN :offerIds AND r.status IN ('VERIFIED', 'COMPLETED') " +
            "GROUP BY r.offerId")
@@ -90,4 +103,8 @@ public interface OfferRedemptionRepository extends JpaRepository<OfferRedemption
      * Delete all redemptions for an offer (used when deleting an offer)
      */
     void deleteByOfferId(Long offerId);
+
+    @Query("SELECT COUNT(r) FROM OfferRedemption r WHERE r.userId IN :userIds " +
+           "AND r.status IN ('VERIFIED', 'COMPLETED')")
+    long countCompletedByUserIds(@Param("userIds") List<UUID> userIds);
 }
@@ -5,9 +5,11 @@ import com.bsa.campcard.entity.Offer.OfferStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -41,14 +43,16 @@ public interface OfferRepository extends JpaRepository<Offer, Long> {
                                           @Param("now") LocalDateTime now,
                                           Pageable pageable);
     
-    @Query("SELECT o FROM Offer o WHERE o.featured = true " +
-           "AND o.status = :status " +
-           "AND o.validFrom <= :now AND o.validUntil >= :now " +
-           "ORDER BY o.createdAt DESC")
-    List<Offer> findFeaturedOffers(@Param("status") OfferStatus status,
-                                    @Param("now") LocalDateTime now,
-                                    Pageable pageable);
-    
+    /**
+     * Offers with the given status whose date window overlaps {@code [now, horizon]},
+     * regardless of usage limits.
+     */
+    @Query("SELECT o FROM Offer o WHERE o.status = :status " +
+           "AND o.validFrom <= :horizon AND o.validUntil >= :now")
+    List<Offer> findListedBetween(@Param("status") OfferStatus status,
+                                  @Param("now") LocalDateTime now,
+                                  @Param("horizon") LocalDateTime horizon);
+
     @Query("SELECT o FROM Offer o WHERE o.scoutExclusive = true " +
            "AND o.status = :status " +
            "AND o.validFrom <= :now AND o.validUntil >= :now " +
@@ -66,6 +70,9 @@ public interface OfferRepository extends JpaRepository<Offer, Long> {
                                                @Param("now") LocalDateTime now,
                                                Pageable pageable);
     
+    /**
+     * Unindexed substring search; use {@link #searchRanked} for user-facing search.
+     */
     @Query("SELECT o FROM Offer o WHERE " +
            "(LOWER(o.title) LIKE LOWER(CONCAT('%', :search, '%')) " +
            "OR LOWER(o.description) LIKE LOWER(CONCAT('%', :search, '%'))) " +
@@ -74,6 +81,77 @@ public interface OfferRepository extends JpaRepository<Offer, Long> {
                              @Param("status") OfferStatus status,
                              Pageable pageable);
     
+    /**
+     * Ranked search over the indexed offer search document (title, merchant name,
+     * category, city, description). Matches words by prefix through the full-text
+     * index and tolerates typos through the trigram index; best matches first.
+     *
+     * Unlike {@link #searchOffers}, which only checks the status, this returns only
+     * ACTIVE offers that are not soft-deleted and are inside their valid window at
+     * {@code now}.
+     *
+     * @param tsQuery prefix query in to_tsquery syntax, e.g. {@code pizz:* & denv:*}
+     * @param text normalized search text for trigram similarity
+     * @param now reference time for the valid window
+     */
+    @Query(value = "SELECT o.* FROM offers o " +
+           "WHERE o.status = 'ACTIVE' AND o.deleted_at IS NULL " +
+           "AND o.valid_from <= :now AND o.valid_until >= :now " +
+           "AND (o.search_vector @@ to_tsquery('simple', :tsQuery) OR :text <% o.search_text) " +
+           "ORDER BY ts_rank_cd(o.search_vector, to_tsquery('simple', :tsQuery)) " +
+           "+ word_similarity(:text, o.search_text) DESC, o.featured DESC, o.id DESC",
+           countQuery = "SELECT COUNT(*) FROM offers o " +
+           "WHERE o.status = 'ACTIVE' AND o.deleted_at IS NULL " +
+           "AND o.valid_from <= :now AND o.valid_until >= :now " +
+           "AND (o.search_vector @@ to_tsquery('simple', :tsQuery) OR :text <% o.search_text)",
+           nativeQuery = true)
+    Page<Offer> searchRanked(@Param("tsQuery") String tsQuery,
+                             @Param("text") String text,
+                             @Param("now") LocalDateTime now,
+                             Pageable pageable);
+
+    /**
+     * Point an offer at migrated image URLs unless an image URL has been set since.
+     */
+    @Modifying
+    @Query("UPDATE Offer o SET o.imageUrl = :imageUrl, o.thumbnailUrl = :thumbnailUrl " +
+           "WHERE o.id = :offerId AND o.imageUrl IS NULL")
+    int updateImageUrlsIfUnset(@Param("offerId") Long offerId,
+                               @Param("imageUrl") String imageUrl,
+                               @Param("thumbnailUrl") String thumbnailUrl);
+
+    /**
+     * Take one redemption of a limited offer. Returns 0 once the limit has been reached,
+     * so concurrent redemptions cannot both take the last one. Taking the last one also
+     * sets {@code updatedAt}, so every node's offer catalog sees the sell-out.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Offer o SET o.totalRedemptions = o.totalRedemptions + 1, " +
+           "o.updatedAt = CASE WHEN o.totalRedemptions + 1 >= o.usageLimit THEN :now ELSE o.updatedAt END " +
+           "WHERE o.id = :offerId AND o.usageLimit IS NOT NULL AND o.totalRedemptions < o.usageLimit")
+    int claimLimitedRedemption(@Param("offerId") Long offerId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Offer o SET o.totalRedemptions = o.totalRedemptions + :count WHERE o.id = :offerId")
+    int incrementRedemptions(@Param("offerId") Long offerId, @Param("count") int count);
+
+    /**
+     * Expire up to {@code limit} ACTIVE offers past their end date.
+     *
+     * @return the merchant ID and category of each expired offer
+     */
+    @Query(value = "WITH due AS (" +
+                   "SELECT id FROM offers WHERE status = 'ACTIVE' AND valid_until < :now " +
+                   "ORDER BY valid_until, id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+                   "UPDATE offers o SET status = 'EXPIRED', updated_at = :now FROM due WHERE o.id = due.id " +
+                   "RETURNING o.merchant_id, o.category",
+           nativeQuery = true)
+    List<Object[]> expireActiveOffers(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByMerchantId(Long merchantId);
+
     @Query("SELECT COUNT(o) FROM Offer o WHERE o.merchantId = :merchantId AND o.status = :status")
     long countByMerchantIdAndStatus(@Param("merchantId") Long merchantId, 
                                     @Param("status") OfferStatus status);
@@ -85,4 +163,10 @@ public interface OfferRepository extends JpaRepository<Offer, Long> {
     List<Offer> findByStatusAndValidUntilBefore(OfferStatus status, LocalDateTime dateTime);
 
     Long countByStatus(OfferStatus status);
+
+    @Query("SELECT COUNT(o), MAX(o.updatedAt) FROM Offer o")
+    List<Object[]> countAndLastUpdate();
+
+    @Query("SELECT o.status, o.category, COUNT(o) FROM Offer o GROUP BY o.status, o.category")
+    List<Object[]> countGroupedByStatusAndCategory();
 }
@@ -0,0 +1,14 @@
+package com.bsa.campcard.repository;
+
+import com.bsa.campcard.entity.QrCodeRegistration;
+import com.bsa.campcard.entity.QrCodeRegistration.OwnerType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface QrCodeRegistrationRepository extends JpaRepository<QrCodeRegistration, String> {
+
+    Optional<QrCodeRegistration> findFirstByOwnerTypeAndOwnerIdOrderByCreatedAtDesc(OwnerType ownerType, String ownerId);
+}
@@ -1,6 +1,7 @@
 package com.bsa.campcard.repository;
 
 import com.bsa.campcard.entity.Referral;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -36,4 +37,25 @@ public interface ReferralRepository extends JpaRepository<Referral, Long> {
     @Query("SELECT r.referrerId, COUNT(r) FROM Referral r WHERE r.referrerId IN :referrerIds " +
            "AND r.status IN ('COMPLETED', 'SUBSCRIBED', 'REWARDED') GROUP BY r.referrerId")
     List<Object[]> countConversionsByReferrerIds(@Param("referrerIds") List<UUID> referrerIds);
+
+    @Query("SELECT r.status, COUNT(r) FROM Referral r GROUP BY r.status")
+    List<Object[]> countGroupedByStatus();
+
+    /**
+     * Customer referral leaderboard rows:
+     * [referrerId, referrals, conversions, totalRewardAmount, lastReferralAt]
+     */
+    @Query("SELECT r.referrerId, COUNT(r), " +
+           "SUM(CASE WHEN r.status IN ('COMPLETED', 'REWARDED') THEN 1 ELSE 0 END), " +
+           "COALESCE(SUM(r.rewardAmount), 0), MAX(r.createdAt) " +
+           "FROM Referral r WHERE r.referrerId IS NOT NULL " +
+           "GROUP BY r.referrerId ORDER BY COUNT(r) DESC")
+    List<Object[]> findTopReferrersWithStats(Pageable pageable);
+
+    /**
+     * Totals across a set of referrers: [referrals, conversions]
+     */
+    @Query("SELECT COUNT(r), SUM(CASE WHEN r.status IN ('COMPLETED', 'REWARDED') THEN 1 ELSE 0 END) " +
+           "FROM Referral r WHERE r.referrerId IN :referrerIds")
+    List<Object[]> sumReferralStatsByReferrerIds(@Param("referrerIds") List<UUID> referrerIds);
 }
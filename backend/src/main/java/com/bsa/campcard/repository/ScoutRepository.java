@@ -69,4 +69,28 @@ public interface ScoutRepository extends JpaRepository<Scout, Long> {
     
     @Query("SELECT AVG(s.totalSales) FROM Scout s WHERE s.troopId = :troopId AND s.status = 'ACTIVE'")
     java.math.BigDecimal avgSalesByTroop(@Param("troopId") Long troopId);
+
+    long countByStatus(ScoutStatus status);
+
+    /**
+     * Sales leaderboard rows: [Scout, troopNumber, referralCount]
+     */
+    @Query("SELECT s, t.troopNumber, " +
+           "(SELECT COUNT(r) FROM Referral r WHERE r.referrerId = s.userId) " +
+           "FROM Scout s LEFT JOIN Troop t ON t.id = s.troopId " +
+           "WHERE s.status = 'ACTIVE' ORDER BY s.totalSales DESC")
+    List<Object[]> findTopSellersGlobalWithTroopAndReferrals(Pageable pageable);
+
+    /**
+     * Referral leaderboard rows for scouts with at least one referral:
+     * [scoutId, firstName, lastName, troopNumber, referrals, conversions, claimedRewardRevenue]
+     */
+    @Query("SELECT s.id, s.firstName, s.lastName, t.troopNumber, COUNT(r), " +
+           "SUM(CASE WHEN r.status IN ('COMPLETED', 'REWARDED') THEN 1 ELSE 0 END), " +
+           "COALESCE(SUM(CASE WHEN r.rewardClaimed = true THEN r.rewardAmount ELSE 0 END), 0) " +
+           "FROM Scout s JOIN Referral r ON r.referrerId = s.userId " +
+           "LEFT JOIN Troop t ON t.id = s.troopId " +
+           "GROUP BY s.id, s.firstName, s.lastName, t.troopNumber " +
+           "ORDER BY COUNT(r) DESC, s.id")
+    List<Object[]> findTopReferrersWithStats(Pageable pageable);
 }
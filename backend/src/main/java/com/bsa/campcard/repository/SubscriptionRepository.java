@@ -52,4 +52,11 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
      * Find active subscription by user ID
      */
     Optional<Subscription> findByUserIdAndStatus(UUID userId, Subscription.SubscriptionStatus status);
+
+    /**
+     * Live subscription counts grouped for the dashboard aggregates: councilId, status, planId, count
+     */
+    @Query("SELECT s.councilId, s.status, s.planId, COUNT(s) FROM Subscription s " +
+           "WHERE s.deletedAt IS NULL GROUP BY s.councilId, s.status, s.planId")
+    List<Object[]> countGroupedByCouncilStatusAndPlan();
 }
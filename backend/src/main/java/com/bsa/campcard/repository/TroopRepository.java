@@ -61,4 +61,20 @@ public interface TroopRepository extends JpaRepository<Troop, Long> {
     
     @Query("SELECT SUM(t.cardsSold) FROM Troop t WHERE t.councilId = :councilId")
     Integer sumCardsSoldByCouncil(@Param("councilId") Long councilId);
+
+    long countByStatus(TroopStatus status);
+
+    @Query("SELECT COALESCE(SUM(t.cardsSold), 0) FROM Troop t")
+    Long sumCardsSold();
+
+    /**
+     * Leaderboard rows joined with their council name: [Troop, councilName]
+     */
+    @Query("SELECT t, c.name FROM Troop t LEFT JOIN Council c ON c.id = t.councilId " +
+           "ORDER BY t.totalSales DESC")
+    List<Object[]> findTopPerformingTroopsWithCouncilName(Pageable pageable);
+
+    @Query("SELECT t, c.name FROM Troop t LEFT JOIN Council c ON c.id = t.councilId " +
+           "ORDER BY t.activeScouts DESC")
+    List<Object[]> findTopRecruitingTroopsWithCouncilName(Pageable pageable);
 }
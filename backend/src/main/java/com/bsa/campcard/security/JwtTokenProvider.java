@@ -9,7 +9,11 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
 import java.util.UUID;
 
 @Component
@@ -37,6 +41,7 @@ public class JwtTokenProvider {
         Date expiryDate = new Date(now.getTime() + accessTokenExpiration);
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(user.getId().toString())
                 .claim("email", user.getEmail())
                 .claim("role", user.getRole().name())
@@ -52,6 +57,7 @@ public class JwtTokenProvider {
         Date expiryDate = new Date(now.getTime() + refreshTokenExpiration);
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(user.getId().toString())
                 .claim("type", "refresh")
                 .issuedAt(now)
@@ -81,26 +87,60 @@ public class JwtTokenProvider {
     }
 
     public boolean validateToken(String token) {
+        return parseValidToken(token).isPresent();
+    }
+
+    /**
+     * Verify the token once and return its claims. Empty if the signature is invalid,
+     * the token has expired or it has been revoked.
+     */
+    public Optional<Claims> parseValidToken(String token) {
         try {
-            // Check Redis-backed blacklist for distributed invalidation
-            if (tokenBlacklistService.isBlacklisted(token)) {
-                log.debug("Token is blacklisted");
-                return false;
-            }
-            Jwts.parser()
+            Claims claims = Jwts.parser()
                     .verifyWith(secretKey)
                     .build()
-                    .parseSignedClaims(token);
-            return true;
+                    .parseSignedClaims(token)
+                    .getPayload();
+            // Revocations are shared across nodes through Redis
+            if (tokenBlacklistService.isRevoked(getTokenId(claims, token))) {
+                log.debug("Token is revoked");
+                return Optional.empty();
+            }
+            return Optional.of(claims);
         } catch (JwtException | IllegalArgumentException e) {
             log.warn("Invalid JWT token: {}", e.getMessage());
-            return false;
+            return Optional.empty();
         }
     }
 
     public void invalidateToken(String token) {
-        // Add to Redis-backed blacklist with TTL matching token expiration
-        tokenBlacklistService.blacklistToken(token, getAccessTokenExpiration());
+        try {
+            Claims claims = Jwts.parser()
+                    .verifyWith(secretKey)
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+            // Revoke until the token would have expired anyway
+            tokenBlacklistService.revoke(getTokenId(claims, token), claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Not revoking invalid or expired token: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The token's jti. Tokens issued before jti was added are identified by a hash
+     * of the token so the revocation list never stores whole tokens.
+     */
+    private String getTokenId(Claims claims, String token) {
+        if (claims.getId() != null) {
+            return claims.getId();
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return "sha256:" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     public long getAccessTokenExpiration() {
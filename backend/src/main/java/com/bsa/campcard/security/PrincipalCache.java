@@ -0,0 +1,113 @@
+package com.bsa.campcard.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bsa.campcard.domain.user.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded, short-lived local cache of authenticated users keyed by user ID.
+ *
+ * Lets {@code JwtAuthenticationFilter} resolve the principal for a verified token
+ * without a database round trip on every request. {@link #invalidate(UUID)} must be
+ * called whenever a change could affect authentication (deactivation, role or troop
+ * changes, deletion); the TTL bounds how long other nodes may keep serving the
+ * previous state.
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+
+    private final Clock clock;
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public PrincipalCache(MeterRegistry meterRegistry,
+                          @Value("${security.jwt.principal-cache.ttl:30s}") Duration ttl,
+                          @Value("${security.jwt.principal-cache.max-size:10000}") int maxSize) {
+        this(meterRegistry, Clock.systemUTC(), ttl, maxSize);
+    }
+
+    PrincipalCache(MeterRegistry meterRegistry, Clock clock, Duration ttl, int maxSize) {
+        this.clock = clock;
+        this.ttlMillis = ttl.toMillis();
+        this.maxSize = maxSize;
+        this.hits = Counter.builder("campcard.auth.principal.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("campcard.auth.principal.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        meterRegistry.gauge("campcard.auth.principal.cache.size", entries, Map::size);
+    }
+
+    /**
+     * Cached user for the ID, loading it on a miss. Missing users are not cached.
+     */
+    public Optional<User> get(UUID userId, Function<UUID, Optional<User>> loader) {
+        long now = clock.millis();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.expiresAt() > now) {
+            hits.increment();
+            return Optional.of(entry.user());
+        }
+
+        misses.increment();
+        Optional<User> loaded = loader.apply(userId);
+        loaded.ifPresentOrElse(user -> put(userId, user, now), () -> entries.remove(userId));
+        return loaded;
+    }
+
+    /**
+     * Drop the cached user. Inside a transaction the entry is dropped again after
+     * completion, so a request racing the transaction cannot re-cache the old state.
+     */
+    public void invalidate(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        entries.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entries.remove(userId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private void put(UUID userId, User user, long now) {
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (entries.size() >= maxSize) {
+                log.debug("Principal cache full ({} entries), not caching user {}", maxSize, userId);
+                return;
+            }
+        }
+        entries.put(userId, new Entry(user, now + ttlMillis));
+    }
+
+    private record Entry(User user, long expiresAt) {
+    }
+}
@@ -1,64 +1,186 @@
 package com.bsa.campcard.security;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
- * Redis-backed token blacklist service for distributed token invalidation.
- * Tokens are stored with TTL matching their expiration time.
+ * Redis-backed token revocation list keyed by JWT ID ({@code jti}).
+ *
+ * Each node keeps a local bloom filter of revoked IDs so the common case, a token
+ * that was never revoked, is answered without a network hop. Only filter hits are
+ * confirmed against Redis. Revocations reach other nodes over pub/sub, and the filter
+ * is rebuilt from the Redis index periodically (dropping expired entries) and whenever
+ * Redis becomes reachable again after an outage, since messages may have been missed.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class TokenBlacklistService {
 
-    private static final String BLACKLIST_PREFIX = "token:blacklist:";
+    static final String REVOKED_PREFIX = "token:revoked:";
+    static final String REVOKED_INDEX = "token:revoked";
+    static final String CHANNEL = "campcard:token:revoked";
 
     private final StringRedisTemplate redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final int expectedRevocations;
+    private final long rebuildIntervalMillis;
+
+    private volatile BloomFilter filter;
+    private volatile boolean stale = true;
+    private volatile long lastRebuildAt;
+    private Set<String> rebuildBuffer;
+    private RedisMessageListenerContainer listenerContainer;
+
+    public TokenBlacklistService(
+            StringRedisTemplate redisTemplate,
+            RedisConnectionFactory connectionFactory,
+            @Value("${security.jwt.revocation.expected-entries:100000}") int expectedRevocations,
+            @Value("${security.jwt.revocation.rebuild-interval-ms:300000}") long rebuildIntervalMillis) {
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.expectedRevocations = expectedRevocations;
+        this.rebuildIntervalMillis = rebuildIntervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener(this::onRevoked, new ChannelTopic(CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+        rebuild();
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
 
     /**
-     * Adds a token to the blacklist with automatic expiration.
+     * Revokes a token until it would have expired anyway.
      *
-     * @param token The JWT token to blacklist
-     * @param expirationSeconds Time until the token would naturally expire (seconds)
+     * @param tokenId The token's jti
+     * @param expiresAt When the token expires; nothing is stored for expired tokens
      */
-    public void blacklistToken(String token, long expirationSeconds) {
-        String key = BLACKLIST_PREFIX + token;
-        // Store with TTL - no need to keep blacklisted tokens after they expire anyway
-        redisTemplate.opsForValue().set(key, "1", Duration.ofSeconds(expirationSeconds));
-        log.debug("Token blacklisted, TTL: {} seconds", expirationSeconds);
+    public void revoke(String tokenId, Instant expiresAt) {
+        Duration ttl = Duration.between(Instant.now(), expiresAt);
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+        record(tokenId);
+        redisTemplate.opsForValue().set(REVOKED_PREFIX + tokenId, "1", ttl);
+        redisTemplate.opsForZSet().add(REVOKED_INDEX, tokenId, expiresAt.toEpochMilli());
+        redisTemplate.convertAndSend(CHANNEL, tokenId);
+        log.debug("Token {} revoked, TTL: {} seconds", tokenId, ttl.toSeconds());
     }
 
     /**
-     * Checks if a token is blacklisted.
-     * Gracefully handles Redis connection failures to allow authentication when Redis is unavailable.
+     * Checks if a token has been revoked.
+     * Gracefully handles Redis connection failures to allow authentication when Redis is unavailable;
+     * a token the local filter knows about is still treated as revoked.
      *
-     * @param token The JWT token to check
-     * @return true if the token is blacklisted, false if not blacklisted or if Redis is unavailable
+     * @param tokenId The token's jti
+     * @return true if the token is revoked
      */
-    public boolean isBlacklisted(String token) {
+    public boolean isRevoked(String tokenId) {
+        BloomFilter current = filter;
+        if (current != null && !stale && !current.mightContain(tokenId)) {
+            return false;
+        }
         try {
-            String key = BLACKLIST_PREFIX + token;
-            Boolean exists = redisTemplate.hasKey(key);
-            return Boolean.TRUE.equals(exists);
+            return Boolean.TRUE.equals(redisTemplate.hasKey(REVOKED_PREFIX + tokenId));
         } catch (Exception e) {
-            // Log warning but don't fail authentication - token revocation won't work during Redis outage
-            log.warn("Redis unavailable for blacklist check, assuming token is valid: {}", e.getMessage());
-            return false;
+            stale = true;
+            boolean likelyRevoked = current != null && current.mightContain(tokenId);
+            log.warn("Redis unavailable for revocation check, using local filter (revoked={}): {}",
+                    likelyRevoked, e.getMessage());
+            return likelyRevoked;
         }
     }
 
     /**
-     * Removes a token from the blacklist (useful for testing).
+     * Removes a revocation (useful for testing). Other nodes may keep a filter entry
+     * until their next rebuild, which only costs them a Redis lookup.
      *
-     * @param token The JWT token to remove
+     * @param tokenId The token's jti
+     */
+    public void removeRevocation(String tokenId) {
+        redisTemplate.delete(REVOKED_PREFIX + tokenId);
+        redisTemplate.opsForZSet().remove(REVOKED_INDEX, tokenId);
+    }
+
+    /**
+     * Rebuilds the filter when it may have missed revocations (startup, Redis outage)
+     * and otherwise on the rebuild interval so expired entries are dropped.
      */
-    public void removeFromBlacklist(String token) {
-        String key = BLACKLIST_PREFIX + token;
-        redisTemplate.delete(key);
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.check-interval-ms:10000}")
+    public void refresh() {
+        if (stale || System.currentTimeMillis() - lastRebuildAt >= rebuildIntervalMillis) {
+            rebuild();
+        }
+    }
+
+    void rebuild() {
+        synchronized (this) {
+            rebuildBuffer = new HashSet<>();
+        }
+        try {
+            long now = System.currentTimeMillis();
+            redisTemplate.opsForZSet().removeRangeByScore(REVOKED_INDEX, Double.NEGATIVE_INFINITY, now);
+            Set<String> revoked = redisTemplate.opsForZSet().rangeByScore(REVOKED_INDEX, now, Double.POSITIVE_INFINITY);
+
+            int size = revoked != null ? revoked.size() : 0;
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, size * 2), 0.01);
+            if (revoked != null) {
+                revoked.forEach(rebuilt::put);
+            }
+            synchronized (this) {
+                rebuildBuffer.forEach(rebuilt::put);
+                filter = rebuilt;
+            }
+            if (stale) {
+                log.info("Token revocation filter rebuilt with {} entries", size);
+            }
+            stale = false;
+            lastRebuildAt = now;
+        } catch (Exception e) {
+            stale = true;
+            log.warn("Could not rebuild token revocation filter: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                rebuildBuffer = null;
+            }
+        }
+    }
+
+    private void onRevoked(Message message, byte[] pattern) {
+        record(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private synchronized void record(String tokenId) {
+        if (filter != null) {
+            filter.put(tokenId);
+        }
+        if (rebuildBuffer != null) {
+            rebuildBuffer.add(tokenId);
+        }
     }
 }
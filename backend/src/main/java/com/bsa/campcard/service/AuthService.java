@@ -6,6 +6,7 @@ import com.bsa.campcard.exception.AuthenticationException;
 import com.bsa.campcard.repository.ParentalConsentRepository;
 import com.bsa.campcard.repository.SubscriptionRepository;
 import com.bsa.campcard.security.JwtTokenProvider;
+import com.bsa.campcard.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bsa.campcard.domain.user.User;
@@ -30,6 +31,7 @@ public class AuthService {
     private final SmsService smsService;
     private final SubscriptionRepository subscriptionRepository;
     private final ParentalConsentRepository parentalConsentRepository;
+    private final PrincipalCache principalCache;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -409,6 +411,7 @@ public class AuthService {
         }
 
         User savedUser = userRepository.save(user);
+        principalCache.invalidate(userId);
 
         log.info("Profile updated for user: {}", savedUser.getEmail());
 
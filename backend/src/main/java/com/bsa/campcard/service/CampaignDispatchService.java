@@ -1,23 +1,28 @@
 package com.bsa.campcard.service;
 
-import com.bsa.campcard.dto.notification.NotificationRequest;
+import com.bsa.campcard.config.CampaignDispatchProperties;
 import com.bsa.campcard.entity.CampaignRecipient;
 import com.bsa.campcard.entity.CampaignRecipient.Channel;
 import com.bsa.campcard.entity.CampaignRecipient.DeliveryStatus;
 import com.bsa.campcard.entity.MarketingCampaign;
 import com.bsa.campcard.entity.MarketingCampaign.CampaignStatus;
-import com.bsa.campcard.entity.MarketingSegment;
-import com.bsa.campcard.entity.Notification;
 import com.bsa.campcard.repository.CampaignRecipientRepository;
 import com.bsa.campcard.repository.MarketingCampaignRepository;
-import com.bsa.campcard.repository.MarketingSegmentRepository;
-import com.bsa.campcard.repository.NotificationRepository;
+import com.bsa.campcard.service.campaign.CampaignAudienceResolver;
+import com.bsa.campcard.service.campaign.CampaignChannelSender;
+import com.bsa.campcard.service.campaign.CampaignDispatchEngine;
+import com.bsa.campcard.service.campaign.CampaignDispatchEngine.ChunkResult;
+import com.bsa.campcard.service.campaign.GeofenceCampaignIndex;
+import com.bsa.campcard.service.campaign.GeofenceCampaignIndex.IndexedCampaign;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bsa.campcard.domain.user.User;
 import org.bsa.campcard.domain.user.UserRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -25,8 +30,17 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Campaign Dispatch Orchestrator Service
@@ -38,29 +52,59 @@ import java.util.stream.Collectors;
  * 4. Retrying failed deliveries
  * 5. Updating campaign metrics
  *
+ * Campaigns are claimed with a conditional status update so only one node sends
+ * each one. {@link CampaignDispatchEngine} first materializes the audience's
+ * recipient rows in set-based batches, advancing the campaign's dispatch cursor,
+ * then sends the pending recipients a chunk at a time, each chunk committing its
+ * statuses on its own. A dispatch that stops heartbeating (crash, redeploy) is
+ * resumed from the cursor and the recipients still pending. Scheduled and resumed
+ * campaigns are sent on a campaign executor of {@code concurrent-campaigns} threads,
+ * never on the scheduler thread.
+ *
  * Integration with AWS Services:
  * - AWS SES for email campaigns via EmailService
  * - AWS SNS for SMS campaigns via SmsService
  * - Firebase FCM for push notifications via NotificationService
  * - AWS Location Service for geofence-triggered campaigns via LocationService
+ *
+ * Geofence entries are queued and processed in batches every second against
+ * {@link GeofenceCampaignIndex}, which keeps each active geofence campaign's audience
+ * in memory. Triggered recipients are recorded before anything is sent and sent on a
+ * geofence thread through {@link CampaignDispatchEngine}.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CampaignDispatchService {
 
+    // Statuses a campaign can be dispatched from; SENDING means another run owns it
+    private static final List<CampaignStatus> DISPATCHABLE_STATUSES = List.of(
+        CampaignStatus.DRAFT, CampaignStatus.PENDING_APPROVAL, CampaignStatus.APPROVED,
+        CampaignStatus.SCHEDULED, CampaignStatus.ACTIVE, CampaignStatus.PAUSED, CampaignStatus.FAILED);
+
+    private static final int GEOFENCE_QUEUE_CAPACITY = 10_000;
+    private static final int GEOFENCE_BATCH_SIZE = 500;
+
     private final MarketingCampaignRepository campaignRepository;
-    private final MarketingSegmentRepository segmentRepository;
     private final CampaignRecipientRepository recipientRepository;
     private final UserRepository userRepository;
-    private final NotificationRepository notificationRepository;
+    private final CampaignAudienceResolver audienceResolver;
+    private final CampaignDispatchEngine dispatchEngine;
+    private final CampaignChannelSender channelSender;
+    private final CampaignDispatchProperties dispatchProperties;
+    private final GeofenceCampaignIndex geofenceIndex;
 
-    // AWS Services
-    private final EmailService emailService;
-    private final SmsService smsService;
-    private final NotificationService notificationService;
+    // Scheduled and resumed campaign sends; started by startExecutors
+    private ThreadPoolExecutor campaignExecutor;
 
-    @Value("${campcard.campaigns.batch-size:100}")
+    // Sends recorded geofence recipients, one batch at a time
+    private ExecutorService geofenceExecutor;
+    private final AtomicBoolean geofenceSending = new AtomicBoolean();
+
+    // Geofence entries waiting for the next batch; bounded so a burst cannot exhaust the heap
+    private final BlockingQueue<GeofenceEntry> geofenceEvents = new LinkedBlockingQueue<>(GEOFENCE_QUEUE_CAPACITY);
+
+    @Value("${campcard.campaigns.batch-size:500}")
     private int batchSize;
 
     @Value("${campcard.campaigns.max-retries:3}")
@@ -77,7 +121,6 @@ public class CampaignDispatchService {
      * Check for scheduled campaigns every minute and execute them
      */
     @Scheduled(fixedRate = 60000) // Every minute
-    @Transactional
     public void processScheduledCampaigns() {
         LocalDateTime now = LocalDateTime.now();
 
@@ -86,17 +129,89 @@ public class CampaignDispatchService {
             .findByStatusAndScheduledAtBefore(CampaignStatus.SCHEDULED, now);
 
         for (MarketingCampaign campaign : readyCampaigns) {
-            try {
-                log.info("Starting scheduled campaign: {} (ID: {})", campaign.getName(), campaign.getId());
-                executeCampaign(campaign.getId());
-            } catch (Exception e) {
-                log.error("Failed to execute scheduled campaign {}: {}", campaign.getId(), e.getMessage(), e);
-                campaign.setStatus(CampaignStatus.FAILED);
-                campaignRepository.save(campaign);
+            boolean started = startDispatch(() -> {
+                try {
+                    log.info("Starting scheduled campaign: {} (ID: {})", campaign.getName(), campaign.getId());
+                    executeCampaign(campaign.getId());
+                } catch (Exception e) {
+                    log.error("Failed to execute scheduled campaign {}: {}", campaign.getId(), e.getMessage(), e);
+                }
+            });
+            if (!started) {
+                log.info("All campaign dispatch threads busy - campaign {} waits for the next check", campaign.getId());
+                break;
+            }
+        }
+    }
+
+    /**
+     * Resume campaigns whose dispatch stopped committing chunks (the node sending them
+     * crashed or was redeployed) from their last committed chunk
+     */
+    @Scheduled(fixedRate = 60000) // Every minute
+    public void resumeStalledCampaigns() {
+        LocalDateTime staleBefore = LocalDateTime.now().minusMinutes(dispatchProperties.getStaleAfterMinutes());
+
+        for (Long campaignId : campaignRepository.findStalledDispatchIds(staleBefore)) {
+            if (!startDispatch(() -> resume(campaignId, staleBefore))) {
+                log.info("All campaign dispatch threads busy - stalled campaign {} waits for the next check", campaignId);
+                break;
             }
         }
     }
 
+    private void resume(Long campaignId, LocalDateTime staleBefore) {
+        if (campaignRepository.claimStalledDispatch(campaignId, staleBefore, LocalDateTime.now()) == 0) {
+            return; // Resumed by another node
+        }
+        campaignRepository.findById(campaignId).ifPresent(campaign -> {
+            log.warn("Resuming stalled campaign {} after user {}", campaignId, campaign.getDispatchCursor());
+            dispatch(campaign);
+        });
+    }
+
+    /**
+     * Run a campaign dispatch on the campaign executor rather than the scheduler thread.
+     * The executor has no queue, so a campaign is only claimed once a thread is free to
+     * send it; a claimed campaign waiting in a queue would look stalled to other nodes.
+     *
+     * @return false if every dispatch thread is busy
+     */
+    private boolean startDispatch(Runnable dispatch) {
+        try {
+            campaignExecutor.execute(dispatch);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    @PostConstruct
+    void startExecutors() {
+        int threads = dispatchProperties.getConcurrentCampaigns();
+        AtomicInteger threadCount = new AtomicInteger();
+        campaignExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "campaign-dispatch-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        campaignExecutor.allowCoreThreadTimeOut(true);
+
+        geofenceExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "campaign-geofence");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupted dispatches stay SENDING and are resumed from their last committed chunk
+        campaignExecutor.shutdownNow();
+        geofenceExecutor.shutdownNow();
+    }
+
     /**
      * Retry failed deliveries every 30 minutes
      */
@@ -133,10 +248,8 @@ public class CampaignDispatchService {
 
                 recipient.setRetryCount(recipient.getRetryCount() + 1);
                 recipient.setLastRetryAt(LocalDateTime.now());
-                recipient.setStatus(DeliveryStatus.SENDING);
+                channelSender.send(campaign, user, recipient);
                 recipientRepository.save(recipient);
-
-                sendToChannel(campaign, user, recipient);
             } catch (Exception e) {
                 log.error("Retry failed for recipient {}: {}", recipient.getId(), e.getMessage());
                 recipient.setStatus(DeliveryStatus.FAILED);
@@ -154,7 +267,6 @@ public class CampaignDispatchService {
      * Execute a campaign - main entry point
      */
     @Async
-    @Transactional
     public CompletableFuture<CampaignExecutionResult> executeCampaign(Long campaignId) {
         MarketingCampaign campaign = campaignRepository.findById(campaignId)
             .orElseThrow(() -> new RuntimeException("Campaign not found: " + campaignId));
@@ -168,63 +280,83 @@ public class CampaignDispatchService {
             );
         }
 
-        // Update campaign status to SENDING
-        campaign.setStatus(CampaignStatus.SENDING);
-        campaign.setStartedAt(LocalDateTime.now());
-        campaignRepository.save(campaign);
+        // Update campaign status to SENDING, unless another node got there first
+        if (campaignRepository.claimForDispatch(campaignId, DISPATCHABLE_STATUSES, LocalDateTime.now()) == 0) {
+            log.info("Campaign {} is already being dispatched - skipping execution", campaignId);
+            return CompletableFuture.completedFuture(
+                new CampaignExecutionResult(campaignId, 0, 0, "Campaign already being dispatched")
+            );
+        }
 
+        return dispatch(campaignRepository.findById(campaignId).orElse(campaign));
+    }
+
+    /**
+     * Send a claimed (SENDING) campaign to its audience, starting after its dispatch cursor
+     */
+    private CompletableFuture<CampaignExecutionResult> dispatch(MarketingCampaign campaign) {
+        Long campaignId = campaign.getId();
         log.info("Executing campaign {} with channels: {}", campaignId, Arrays.toString(campaign.getChannels()));
 
         try {
-            // Get target users based on segment or audience criteria
-            List<User> targetUsers = getTargetUsers(campaign);
-            log.info("Campaign {} targeting {} users", campaignId, targetUsers.size());
-
-            if (targetUsers.isEmpty()) {
-                campaign.setStatus(CampaignStatus.COMPLETED);
-                campaign.setCompletedAt(LocalDateTime.now());
-                campaignRepository.save(campaign);
-                return CompletableFuture.completedFuture(
-                    new CampaignExecutionResult(campaignId, 0, 0, "No target users found")
-                );
+            // Compile the segment or audience criteria into a query
+            Specification<User> audience = audienceResolver.audienceOf(campaign).orElse(null);
+            if (audience == null) {
+                return completeWithoutAudience(campaignId);
             }
 
-            // Create recipient records and dispatch
-            int successCount = 0;
-            int failCount = 0;
-            String[] channels = campaign.getChannels();
-
-            for (String channelStr : channels) {
-                Channel channel = Channel.valueOf(channelStr.toUpperCase());
-                log.info("Dispatching campaign {} via {} channel", campaignId, channel);
-
-                for (int i = 0; i < targetUsers.size(); i += batchSize) {
-                    List<User> batch = targetUsers.subList(i, Math.min(i + batchSize, targetUsers.size()));
-
-                    for (User user : batch) {
-                        try {
-                            // Skip if already sent to this user via this channel
-                            if (recipientRepository.existsByCampaignIdAndUserIdAndChannel(
-                                    campaignId, user.getId(), channel)) {
-                                continue;
-                            }
-
-                            CampaignRecipient recipient = createRecipient(campaign, user, channel);
-                            sendToChannel(campaign, user, recipient);
-                            successCount++;
-                        } catch (Exception e) {
-                            log.error("Failed to send to user {} via {}: {}",
-                                user.getId(), channel, e.getMessage());
-                            failCount++;
-                        }
+            List<Channel> channels = Arrays.stream(campaign.getChannels())
+                .map(channelStr -> Channel.valueOf(channelStr.toUpperCase()))
+                .toList();
+            log.info("Dispatching campaign {} via {}", campaignId, channels);
+
+            // Stage 1: insert the audience's recipient rows in set-based batches
+            AtomicBoolean cancelled = new AtomicBoolean();
+            long targeted = audienceResolver.forEachChunk(audience, dispatchProperties.getMaterializeBatchSize(),
+                campaign.getDispatchCursor(), batch -> {
+                    if (isCancelled(campaignId)) {
+                        cancelled.set(true);
+                        return false;
                     }
+                    dispatchEngine.materialize(campaign, channels, batch);
+                    return true;
+                });
+            log.info("Campaign {} targeted {} users", campaignId, targeted);
+
+            // Stage 2: send pending recipients a chunk at a time
+            int[] counts = new int[2]; // sent, failed
+            long lastRecipientId = 0;
+            while (!cancelled.get()) {
+                List<CampaignRecipient> chunk = recipientRepository.findByCampaignIdAndStatusAndIdGreaterThanOrderByIdAsc(
+                    campaignId, DeliveryStatus.PENDING, lastRecipientId, PageRequest.of(0, batchSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                if (isCancelled(campaignId)) {
+                    cancelled.set(true);
+                    break;
                 }
+                ChunkResult result = dispatchEngine.dispatchChunk(campaign, chunk);
+                counts[0] += result.sent();
+                counts[1] += result.failed();
+                lastRecipientId = chunk.get(chunk.size() - 1).getId();
+            }
+
+            if (cancelled.get()) {
+                releaseEmailTemplate(campaign);
+                log.info("Campaign {} cancelled during dispatch: {} sent, {} failed", campaignId, counts[0], counts[1]);
+                return CompletableFuture.completedFuture(
+                    new CampaignExecutionResult(campaignId, counts[0], counts[1], "Campaign cancelled")
+                );
             }
+            if (targeted == 0 && campaign.getDispatchCursor() == null) {
+                return completeWithoutAudience(campaignId);
+            }
+            int successCount = counts[0];
+            int failCount = counts[1];
 
             // Update campaign status
-            campaign.setStatus(CampaignStatus.COMPLETED);
-            campaign.setCompletedAt(LocalDateTime.now());
-            campaignRepository.save(campaign);
+            finish(campaignId, CampaignStatus.COMPLETED);
 
             log.info("Campaign {} completed: {} sent, {} failed", campaignId, successCount, failCount);
             return CompletableFuture.completedFuture(
@@ -232,15 +364,70 @@ public class CampaignDispatchService {
             );
 
         } catch (Exception e) {
+            if (isShutdown(e)) {
+                // Left SENDING; resumeStalledCampaigns picks it up from the last committed chunk
+                log.warn("Campaign {} dispatch interrupted - it will resume from its last committed chunk", campaignId);
+                return CompletableFuture.completedFuture(
+                    new CampaignExecutionResult(campaignId, 0, 0, "Dispatch interrupted")
+                );
+            }
             log.error("Campaign {} execution failed: {}", campaignId, e.getMessage(), e);
-            campaign.setStatus(CampaignStatus.FAILED);
-            campaignRepository.save(campaign);
+            finish(campaignId, CampaignStatus.FAILED);
             return CompletableFuture.completedFuture(
                 new CampaignExecutionResult(campaignId, 0, 0, "Execution failed: " + e.getMessage())
             );
         }
     }
 
+    private CompletableFuture<CampaignExecutionResult> completeWithoutAudience(Long campaignId) {
+        finish(campaignId, CampaignStatus.COMPLETED);
+        return CompletableFuture.completedFuture(
+            new CampaignExecutionResult(campaignId, 0, 0, "No target users found")
+        );
+    }
+
+    /**
+     * Set the final status on a fresh copy of the campaign, so a cancellation or the
+     * dispatch cursor written while sending is not overwritten
+     */
+    private void finish(Long campaignId, CampaignStatus status) {
+        campaignRepository.findById(campaignId).ifPresent(campaign -> {
+            if (campaign.getStatus() != CampaignStatus.SENDING) {
+                return;
+            }
+            campaign.setStatus(status);
+            if (status == CampaignStatus.COMPLETED) {
+                campaign.setCompletedAt(LocalDateTime.now());
+            }
+            campaignRepository.save(campaign);
+            releaseEmailTemplate(campaign);
+        });
+    }
+
+    /**
+     * Bulk email registers one SES template per campaign; drop it when the dispatch ends
+     */
+    private void releaseEmailTemplate(MarketingCampaign campaign) {
+        boolean email = campaign.getChannels() != null &&
+            Arrays.stream(campaign.getChannels()).anyMatch(Channel.EMAIL.name()::equalsIgnoreCase);
+        if (email && dispatchProperties.isBulkEmail()) {
+            channelSender.releaseEmailTemplate(campaign);
+        }
+    }
+
+    private boolean isCancelled(Long campaignId) {
+        return campaignRepository.findStatusById(campaignId).orElse(null) == CampaignStatus.CANCELLED;
+    }
+
+    private static boolean isShutdown(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException || cause instanceof RejectedExecutionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Schedule a campaign for future execution
      */
@@ -280,250 +467,97 @@ public class CampaignDispatchService {
     }
 
     // ========================================================================
-    // CHANNEL-SPECIFIC DISPATCH
+    // GEOFENCE-TRIGGERED CAMPAIGNS
     // ========================================================================
 
-    private void sendToChannel(MarketingCampaign campaign, User user, CampaignRecipient recipient) {
-        try {
-            switch (recipient.getChannel()) {
-                case EMAIL -> sendEmail(campaign, user, recipient);
-                case SMS -> sendSms(campaign, user, recipient);
-                case PUSH -> sendPush(campaign, user, recipient);
-                case IN_APP -> sendInApp(campaign, user, recipient);
-            }
-        } catch (Exception e) {
-            recipient.setStatus(DeliveryStatus.FAILED);
-            recipient.setErrorMessage(e.getMessage());
-            recipient.setFailedAt(LocalDateTime.now());
-            recipientRepository.save(recipient);
-            throw e;
-        }
-    }
-
     /**
-     * Send campaign via EMAIL (AWS SES)
+     * Called when a user enters a geofence - queues the event for the next geofence batch
      */
-    private void sendEmail(MarketingCampaign campaign, User user, CampaignRecipient recipient) {
-        if (user.getEmail() == null || user.getEmail().isBlank()) {
-            recipient.setStatus(DeliveryStatus.SKIPPED);
-            recipient.setErrorMessage("No email address");
-            recipientRepository.save(recipient);
-            return;
-        }
-
-        recipient.setContactInfo(user.getEmail());
-        recipient.setStatus(DeliveryStatus.SENDING);
-        recipientRepository.save(recipient);
-
-        try {
-            // Use EmailService to send via AWS SES
-            emailService.sendCampaignEmail(
-                user.getEmail(),
-                user.getFirstName(),
-                campaign.getSubjectLine(),
-                campaign.getContentHtml(),
-                campaign.getContentText(),
-                campaign.getId().toString()
-            );
-
-            recipient.setStatus(DeliveryStatus.SENT);
-            recipient.setSentAt(LocalDateTime.now());
-            recipientRepository.save(recipient);
+    public void onGeofenceEntry(UUID userId, String geofenceId, double latitude, double longitude) {
+        log.debug("Geofence entry detected: user={}, geofence={}", userId, geofenceId);
 
-            log.debug("Email sent for campaign {} to user {}", campaign.getId(), user.getId());
-        } catch (Exception e) {
-            recipient.setStatus(DeliveryStatus.FAILED);
-            recipient.setErrorMessage("Email send failed: " + e.getMessage());
-            recipient.setFailedAt(LocalDateTime.now());
-            recipientRepository.save(recipient);
-            throw new RuntimeException("Email send failed", e);
+        if (!geofenceEvents.offer(new GeofenceEntry(userId, geofenceId, latitude, longitude))) {
+            log.warn("Geofence event queue full - dropping entry for user {} at {}", userId, geofenceId);
         }
     }
 
     /**
-     * Send campaign via SMS (AWS SNS)
+     * Process queued geofence entries in bulk: match each user against the in-memory
+     * campaign index and record the triggered recipients, then hand the rows this node
+     * inserted to the geofence sender. Recipients are recorded with ON CONFLICT DO
+     * NOTHING first, so when nodes race for the same user only the node whose row was
+     * inserted sends. While a batch is still sending, new entries wait in the queue.
      */
-    private void sendSms(MarketingCampaign campaign, User user, CampaignRecipient recipient) {
-        if (user.getPhoneNumber() == null || user.getPhoneNumber().isBlank()) {
-            recipient.setStatus(DeliveryStatus.SKIPPED);
-            recipient.setErrorMessage("No phone number");
-            recipientRepository.save(recipient);
+    @Scheduled(fixedDelayString = "${campcard.campaigns.geofence.drain-ms:1000}")
+    public void processGeofenceEntries() {
+        if (geofenceSending.get()) {
             return;
         }
-
-        recipient.setContactInfo(user.getPhoneNumber());
-        recipient.setStatus(DeliveryStatus.SENDING);
-        recipientRepository.save(recipient);
-
-        try {
-            // Format SMS message (limit to 160 chars for single SMS)
-            String smsContent = formatSmsContent(campaign);
-
-            // Use SmsService to send via AWS SNS
-            smsService.sendCampaignSms(user.getPhoneNumber(), smsContent, campaign.getId().toString());
-
-            recipient.setStatus(DeliveryStatus.SENT);
-            recipient.setSentAt(LocalDateTime.now());
-            recipientRepository.save(recipient);
-
-            log.debug("SMS sent for campaign {} to user {}", campaign.getId(), user.getId());
-        } catch (Exception e) {
-            recipient.setStatus(DeliveryStatus.FAILED);
-            recipient.setErrorMessage("SMS send failed: " + e.getMessage());
-            recipient.setFailedAt(LocalDateTime.now());
-            recipientRepository.save(recipient);
-            throw new RuntimeException("SMS send failed", e);
+        List<GeofenceEntry> entries = new ArrayList<>();
+        geofenceEvents.drainTo(entries, GEOFENCE_BATCH_SIZE);
+        if (entries.isEmpty()) {
+            return;
         }
-    }
-
-    /**
-     * Send campaign via PUSH notification (Firebase FCM)
-     */
-    private void sendPush(MarketingCampaign campaign, User user, CampaignRecipient recipient) {
-        recipient.setStatus(DeliveryStatus.SENDING);
-        recipientRepository.save(recipient);
 
-        try {
-            // Convert UUID to Long for notification service (temporary until DBA migration)
-            Long userIdAsLong = user.getId().getMostSignificantBits() & Long.MAX_VALUE;
-
-            // Create push notification request
-            NotificationRequest pushRequest = NotificationRequest.builder()
-                .userIds(List.of(userIdAsLong))
-                .title(campaign.getSubjectLine() != null ? campaign.getSubjectLine() : campaign.getName())
-                .body(campaign.getContentText() != null ?
-                    truncate(campaign.getContentText(), 200) :
-                    campaign.getDescription())
-                .type(Notification.NotificationType.MARKETING)
-                .data(Map.of(
-                    "campaignId", campaign.getId().toString(),
-                    "campaignUuid", campaign.getUuid().toString(),
-                    "type", "CAMPAIGN"
-                ))
-                .saveToDatabase(true)
-                .build();
-
-            // Send via NotificationService (Firebase FCM)
-            notificationService.sendNotification(pushRequest);
-
-            recipient.setStatus(DeliveryStatus.SENT);
-            recipient.setSentAt(LocalDateTime.now());
-            recipientRepository.save(recipient);
+        // First entry per user wins; a user can only trigger each campaign once
+        Map<UUID, GeofenceEntry> entriesByUser = new LinkedHashMap<>();
+        entries.forEach(entry -> entriesByUser.putIfAbsent(entry.userId(), entry));
 
-            log.debug("Push notification sent for campaign {} to user {}", campaign.getId(), user.getId());
-        } catch (Exception e) {
-            recipient.setStatus(DeliveryStatus.FAILED);
-            recipient.setErrorMessage("Push send failed: " + e.getMessage());
-            recipient.setFailedAt(LocalDateTime.now());
-            recipientRepository.save(recipient);
-            throw new RuntimeException("Push send failed", e);
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, MarketingCampaign> campaignsById = new HashMap<>();
+        Map<Long, List<Long>> recordedByCampaign = new LinkedHashMap<>();
+        entriesByUser.forEach((userId, entry) -> {
+            for (IndexedCampaign indexed : geofenceIndex.campaignsFor(userId)) {
+                MarketingCampaign campaign = indexed.campaign();
+                List<String> channels = indexed.channels().stream().map(Channel::name).toList();
+                if (channels.isEmpty()) {
+                    continue;
+                }
+                try {
+                    List<Long> inserted = recipientRepository.insertGeofenceRecipients(campaign.getId(), userId,
+                        channels, entry.geofenceId(), entry.latitude(), entry.longitude(), now);
+                    if (!inserted.isEmpty()) {
+                        campaignsById.putIfAbsent(campaign.getId(), campaign);
+                        recordedByCampaign.computeIfAbsent(campaign.getId(), id -> new ArrayList<>()).addAll(inserted);
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to record geofence campaign {} for user {}: {}",
+                        campaign.getId(), userId, e.getMessage());
+                }
+            }
+        });
+        if (recordedByCampaign.isEmpty()) {
+            return;
         }
-    }
-
-    /**
-     * Send campaign via IN_APP notification
-     */
-    private void sendInApp(MarketingCampaign campaign, User user, CampaignRecipient recipient) {
-        recipient.setStatus(DeliveryStatus.SENDING);
-        recipientRepository.save(recipient);
 
+        geofenceSending.set(true);
         try {
-            // Convert UUID to Long for notification entity (temporary until DBA migration)
-            Long userIdAsLong = user.getId().getMostSignificantBits() & Long.MAX_VALUE;
-
-            // Create in-app notification record
-            Notification notification = Notification.builder()
-                .userId(userIdAsLong)
-                .title(campaign.getSubjectLine() != null ? campaign.getSubjectLine() : campaign.getName())
-                .body(campaign.getContentText() != null ? campaign.getContentText() : campaign.getDescription())
-                .type(Notification.NotificationType.MARKETING)
-                .imageUrl(getImageUrl(campaign))
-                .data(serializeData(Map.of(
-                    "campaignId", campaign.getId().toString(),
-                    "campaignUuid", campaign.getUuid().toString()
-                )))
-                .sent(true)
-                .read(false)
-                .build();
-
-            notificationRepository.save(notification);
-
-            recipient.setStatus(DeliveryStatus.DELIVERED);
-            recipient.setSentAt(LocalDateTime.now());
-            recipient.setDeliveredAt(LocalDateTime.now());
-            recipientRepository.save(recipient);
-
-            log.debug("In-app notification created for campaign {} to user {}", campaign.getId(), user.getId());
-        } catch (Exception e) {
-            recipient.setStatus(DeliveryStatus.FAILED);
-            recipient.setErrorMessage("In-app notification failed: " + e.getMessage());
-            recipient.setFailedAt(LocalDateTime.now());
-            recipientRepository.save(recipient);
-            throw new RuntimeException("In-app notification failed", e);
+            geofenceExecutor.execute(() -> {
+                try {
+                    sendGeofenceRecipients(entries.size(), campaignsById, recordedByCampaign);
+                } finally {
+                    geofenceSending.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            geofenceSending.set(false);
+            log.warn("Geofence sender shut down - {} recorded campaigns left pending", recordedByCampaign.size());
         }
     }
 
-    // ========================================================================
-    // GEOFENCE-TRIGGERED CAMPAIGNS
-    // ========================================================================
-
-    /**
-     * Called when a user enters a geofence - triggers location-based campaigns
-     */
-    @Transactional
-    public void onGeofenceEntry(UUID userId, String geofenceId, double latitude, double longitude) {
-        log.info("Geofence entry detected: user={}, geofence={}", userId, geofenceId);
-
-        // Find active location-based campaigns
-        List<MarketingCampaign> locationCampaigns = campaignRepository
-            .findActiveCampaignsWithGeofencing();
-
-        User user = userRepository.findById(userId).orElse(null);
-        if (user == null) {
-            log.warn("User not found for geofence trigger: {}", userId);
-            return;
-        }
-
-        for (MarketingCampaign campaign : locationCampaigns) {
+    private void sendGeofenceRecipients(int entryCount, Map<Long, MarketingCampaign> campaignsById,
+                                        Map<Long, List<Long>> recordedByCampaign) {
+        int sent = 0;
+        for (Map.Entry<Long, List<Long>> recorded : recordedByCampaign.entrySet()) {
             try {
-                // Check if user is in target segment
-                if (!isUserInTargetSegment(campaign, user)) {
-                    continue;
-                }
-
-                // Check if already sent to this user
-                for (String channelStr : campaign.getChannels()) {
-                    Channel channel = Channel.valueOf(channelStr.toUpperCase());
-
-                    if (recipientRepository.existsByCampaignIdAndUserIdAndChannel(
-                            campaign.getId(), userId, channel)) {
-                        continue;
-                    }
-
-                    // Create recipient with geofence info
-                    CampaignRecipient recipient = CampaignRecipient.builder()
-                        .campaignId(campaign.getId())
-                        .userId(userId)
-                        .channel(channel)
-                        .status(DeliveryStatus.PENDING)
-                        .triggeredByGeofence(true)
-                        .geofenceId(geofenceId)
-                        .triggerLatitude(latitude)
-                        .triggerLongitude(longitude)
-                        .build();
-                    recipientRepository.save(recipient);
-
-                    // Send immediately
-                    sendToChannel(campaign, user, recipient);
-
-                    log.info("Geofence-triggered campaign {} sent to user {} via {}",
-                        campaign.getId(), userId, channel);
-                }
+                ChunkResult result = dispatchEngine.dispatchChunk(campaignsById.get(recorded.getKey()),
+                    recipientRepository.findAllById(recorded.getValue()));
+                sent += result.sent();
             } catch (Exception e) {
-                log.error("Failed to process geofence campaign {} for user {}: {}",
-                    campaign.getId(), userId, e.getMessage());
+                log.error("Failed to send geofence campaign {}: {}", recorded.getKey(), e.getMessage());
             }
         }
+        log.info("Processed {} geofence entries: {} campaign messages sent", entryCount, sent);
     }
 
     // ========================================================================
@@ -609,148 +643,12 @@ public class CampaignDispatchService {
     }
 
     // ========================================================================
-    // HELPER METHODS
+    // RESULT CLASSES
     // ========================================================================
 
-    private List<User> getTargetUsers(MarketingCampaign campaign) {
-        // If segment is specified, get users from segment
-        if (campaign.getSegmentId() != null) {
-            MarketingSegment segment = segmentRepository.findById(campaign.getSegmentId())
-                .orElse(null);
-
-            if (segment != null) {
-                return getUsersFromSegment(segment, campaign.getCouncilId());
-            }
-        }
-
-        // If target audience criteria is specified
-        if (campaign.getTargetAudience() != null && !campaign.getTargetAudience().isEmpty()) {
-            return getUsersFromAudienceCriteria(campaign.getTargetAudience(), campaign.getCouncilId());
-        }
-
-        // Default: all active users in the council
-        if (campaign.getCouncilId() != null) {
-            return userRepository.findByCouncilId(
-                UUID.fromString(campaign.getCouncilId().toString()),
-                PageRequest.of(0, 10000)
-            ).getContent();
-        }
-
-        return Collections.emptyList();
-    }
-
-    private List<User> getUsersFromSegment(MarketingSegment segment, Long councilId) {
-        Map<String, Object> rules = segment.getRules();
-        if (rules == null || rules.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        // Apply segment rules to query users
-        // This is a simplified implementation - in production, use dynamic query building
-        String segmentType = segment.getSegmentType().name();
-
-        return switch (segmentType) {
-            case "ALL_USERS" -> userRepository.findAll(PageRequest.of(0, 10000)).getContent();
-            case "ACTIVE_SUBSCRIBERS" -> userRepository.findAll(PageRequest.of(0, 10000)).getContent()
-                .stream()
-                .filter(u -> u.getIsActive() != null && u.getIsActive())
-                .collect(Collectors.toList());
-            case "SCOUTS" -> userRepository.findByRole(User.UserRole.SCOUT, PageRequest.of(0, 10000)).getContent();
-            case "PARENTS" -> userRepository.findByRole(User.UserRole.PARENT, PageRequest.of(0, 10000)).getContent();
-            case "UNIT_LEADERS" -> userRepository.findByRole(User.UserRole.UNIT_LEADER, PageRequest.of(0, 10000)).getContent();
-            default -> Collections.emptyList();
-        };
-    }
-
-    private List<User> getUsersFromAudienceCriteria(Map<String, Object> criteria, Long councilId) {
-        // Build query based on audience criteria
-        List<User> users = userRepository.findAll(PageRequest.of(0, 10000)).getContent();
-
-        // Apply filters
-        if (criteria.containsKey("roles")) {
-            @SuppressWarnings("unchecked")
-            List<String> roles = (List<String>) criteria.get("roles");
-            users = users.stream()
-                .filter(u -> roles.contains(u.getRole().name()))
-                .collect(Collectors.toList());
-        }
-
-        if (criteria.containsKey("isActive")) {
-            boolean isActive = (Boolean) criteria.get("isActive");
-            users = users.stream()
-                .filter(u -> u.getIsActive() != null && u.getIsActive() == isActive)
-                .collect(Collectors.toList());
-        }
-
-        return users;
-    }
-
-    private boolean isUserInTargetSegment(MarketingCampaign campaign, User user) {
-        if (campaign.getSegmentId() == null &&
-            (campaign.getTargetAudience() == null || campaign.getTargetAudience().isEmpty())) {
-            return true; // No targeting = everyone
-        }
-
-        List<User> targetUsers = getTargetUsers(campaign);
-        return targetUsers.stream().anyMatch(u -> u.getId().equals(user.getId()));
-    }
-
-    private CampaignRecipient createRecipient(MarketingCampaign campaign, User user, Channel channel) {
-        CampaignRecipient recipient = CampaignRecipient.builder()
-            .campaignId(campaign.getId())
-            .userId(user.getId())
-            .channel(channel)
-            .status(DeliveryStatus.PENDING)
-            .build();
-        return recipientRepository.save(recipient);
-    }
-
-    private String formatSmsContent(MarketingCampaign campaign) {
-        String content = campaign.getContentText();
-        if (content == null || content.isBlank()) {
-            content = campaign.getDescription();
-        }
-        if (content == null) {
-            content = campaign.getName();
-        }
-
-        // Prepend identifier and truncate to SMS limit
-        String prefix = "Camp Card: ";
-        int maxLength = 160 - prefix.length() - 20; // Leave room for opt-out
-
-        if (content.length() > maxLength) {
-            content = content.substring(0, maxLength - 3) + "...";
-        }
-
-        return prefix + content + " Reply STOP to unsubscribe.";
-    }
-
-    private String truncate(String text, int maxLength) {
-        if (text == null) return "";
-        if (text.length() <= maxLength) return text;
-        return text.substring(0, maxLength - 3) + "...";
-    }
-
-    private String getImageUrl(MarketingCampaign campaign) {
-        if (campaign.getContentJson() != null && campaign.getContentJson().containsKey("imageUrl")) {
-            return (String) campaign.getContentJson().get("imageUrl");
-        }
-        return null;
+    private record GeofenceEntry(UUID userId, String geofenceId, double latitude, double longitude) {
     }
 
-    private String serializeData(Map<String, String> data) {
-        if (data == null || data.isEmpty()) return null;
-        try {
-            return new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(data);
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    // ========================================================================
-    // RESULT CLASSES
-    // ========================================================================
-
     @lombok.Data
     @lombok.Builder
     @lombok.AllArgsConstructor
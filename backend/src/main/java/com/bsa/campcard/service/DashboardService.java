@@ -6,12 +6,13 @@ import com.bsa.campcard.entity.*;
 import com.bsa.campcard.entity.CardOrder;
 import com.bsa.campcard.entity.CampCard;
 import com.bsa.campcard.repository.*;
+import com.bsa.campcard.service.dashboard.DashboardAggregateService;
+import com.bsa.campcard.service.dashboard.DashboardAggregates;
+import com.bsa.campcard.service.dashboard.DashboardScope;
+import com.bsa.campcard.service.dashboard.DashboardSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -39,23 +40,26 @@ public class DashboardService {
     private final CampCardRepository campCardRepository;
     private final CardOrderRepository cardOrderRepository;
     private final OfferRedemptionRepository offerRedemptionRepository;
+    private final DashboardAggregateService dashboardAggregateService;
+    private final DashboardSnapshotCache snapshotCache;
 
+    /**
+     * National dashboard, served from the snapshot cache. The returned object is a copy
+     * and may be modified (e.g. filtered) by the caller.
+     */
     public DashboardResponse getDashboardData() {
-        return getDashboardData(null);
+        return snapshotCache.get(DashboardScope.NATIONAL, null, this::computeDashboardData)
+                .toBuilder().build();
     }
 
-    /**
-     * Get dashboard data filtered by troop ID (for Unit Leaders)
-     * @param troopId Optional troop ID to filter data - if null, returns all data
-     */
-    public DashboardResponse getDashboardData(Long troopId) {
-        log.info("Fetching dashboard data" + (troopId != null ? " for troop " + troopId : ""));
+    private DashboardResponse computeDashboardData() {
+        log.info("Computing dashboard data");
 
         // Get summary metrics
         long totalTroops = troopRepository.count();
-        long activeTroops = troopRepository.findByStatus(Troop.TroopStatus.ACTIVE, Pageable.unpaged()).getTotalElements();
+        long activeTroops = troopRepository.countByStatus(Troop.TroopStatus.ACTIVE);
         long totalScouts = scoutRepository.count();
-        long activeScouts = scoutRepository.findByStatus(Scout.ScoutStatus.ACTIVE, Pageable.unpaged()).getTotalElements();
+        long activeScouts = scoutRepository.countByStatus(Scout.ScoutStatus.ACTIVE);
 
         BigDecimal totalSales = councilRepository.getTotalActiveSales();
         if (totalSales == null) totalSales = BigDecimal.ZERO;
@@ -63,37 +67,30 @@ public class DashboardService {
         long totalMerchants = merchantRepository.count();
         long activeMerchants = merchantRepository.countByStatusAndDeletedAtIsNull(Merchant.MerchantStatus.APPROVED);
 
-        long totalOffers = offerRepository.count();
-        long activeOffers = offerRepository.countByStatus(Offer.OfferStatus.ACTIVE);
+        // Subscription, referral, user, order and offer counters are maintained incrementally
+        DashboardAggregates aggregates = dashboardAggregateService.getAggregates(DashboardAggregates.NATIONAL_SCOPE);
+
+        long totalOffers = aggregates.get(DashboardAggregates.OFFERS_TOTAL);
+        long activeOffers = aggregates.get(DashboardAggregates.OFFERS_STATUS + Offer.OfferStatus.ACTIVE.name());
 
         // Get referral stats
-        long totalReferrals = referralRepository.count();
-        long successfulReferrals = referralRepository.findAll().stream()
-                .filter(r -> r.getStatus() == Referral.ReferralStatus.COMPLETED || r.getStatus() == Referral.ReferralStatus.REWARDED)
-                .count();
+        long totalReferrals = aggregates.get(DashboardAggregates.REFERRALS_TOTAL);
+        long successfulReferrals =
+                aggregates.get(DashboardAggregates.REFERRALS_STATUS + Referral.ReferralStatus.COMPLETED.name())
+                + aggregates.get(DashboardAggregates.REFERRALS_STATUS + Referral.ReferralStatus.REWARDED.name());
         double referralConversionRate = totalReferrals > 0 ?
                 (double) successfulReferrals / totalReferrals * 100 : 0.0;
 
         // Calculate total cards sold
-        int totalCardsSold = 0;
-        List<Troop> allTroops = troopRepository.findAll();
-        for (Troop troop : allTroops) {
-            if (troop.getCardsSold() != null) {
-                totalCardsSold += troop.getCardsSold();
-            }
-        }
+        Long cardsSoldSum = troopRepository.sumCardsSold();
+        int totalCardsSold = cardsSoldSum != null ? cardsSoldSum.intValue() : 0;
 
         // Subscription analytics
-        List<Subscription> allSubscriptions = subscriptionRepository.findAll();
-        long totalSubscriptions = allSubscriptions.stream()
-                .filter(s -> s.getDeletedAt() == null)
-                .count();
-        long activeSubscriptions = allSubscriptions.stream()
-                .filter(s -> s.getStatus() == Subscription.SubscriptionStatus.ACTIVE && s.getDeletedAt() == null)
-                .count();
-        long canceledSubscriptions = allSubscriptions.stream()
-                .filter(s -> s.getStatus() == Subscription.SubscriptionStatus.CANCELED && s.getDeletedAt() == null)
-                .count();
+        long totalSubscriptions = aggregates.get(DashboardAggregates.SUBSCRIPTIONS_TOTAL);
+        long activeSubscriptions = aggregates.get(
+                DashboardAggregates.SUBSCRIPTIONS_STATUS + Subscription.SubscriptionStatus.ACTIVE.name());
+        long canceledSubscriptions = aggregates.get(
+                DashboardAggregates.SUBSCRIPTIONS_STATUS + Subscription.SubscriptionStatus.CANCELED.name());
 
         // Count plans by billing interval
         Map<Long, SubscriptionPlan> planMap = new HashMap<>();
@@ -104,16 +101,16 @@ public class DashboardService {
         long monthlyPlans = 0;
         long annualPlans = 0;
         long mrrCents = 0;
-        for (Subscription sub : allSubscriptions) {
-            if (sub.getStatus() != Subscription.SubscriptionStatus.ACTIVE || sub.getDeletedAt() != null) continue;
-            SubscriptionPlan plan = planMap.get(sub.getPlanId());
-            if (plan == null) continue;
+        for (Map.Entry<String, Long> entry : aggregates.withPrefix(DashboardAggregates.SUBSCRIPTIONS_ACTIVE_PLAN).entrySet()) {
+            SubscriptionPlan plan = planMap.get(Long.valueOf(entry.getKey()));
+            long count = entry.getValue();
+            if (plan == null || count <= 0) continue;
             if (plan.getBillingInterval() == SubscriptionPlan.BillingInterval.MONTHLY) {
-                monthlyPlans++;
-                mrrCents += plan.getPriceCents();
+                monthlyPlans += count;
+                mrrCents += plan.getPriceCents() * count;
             } else {
-                annualPlans++;
-                mrrCents += plan.getPriceCents() / 12;
+                annualPlans += count;
+                mrrCents += plan.getPriceCents() / 12 * count;
             }
         }
         long arrCents = mrrCents * 12;
@@ -124,29 +121,23 @@ public class DashboardService {
         double retentionRate = 100.0 - churnRate;
 
         // User metrics
-        long totalUsersCount = userRepository.count();
-        long activeUsersCount = userRepository.findAll().stream()
-                .filter(u -> u.getIsActive() != null && u.getIsActive())
-                .count();
-        long newUsersLast30Days = userRepository.findAll().stream()
-                .filter(u -> u.getCreatedAt() != null &&
-                        u.getCreatedAt().isAfter(LocalDateTime.now().minusDays(30)))
-                .count();
+        long totalUsersCount = aggregates.get(DashboardAggregates.USERS_TOTAL);
+        long activeUsersCount = aggregates.get(DashboardAggregates.USERS_ACTIVE);
+        long newUsersLast30Days = userRepository.countByCreatedAtAfter(LocalDateTime.now().minusDays(30));
 
         // Card metrics
         long totalCardsCount = campCardRepository.count();
-        long activeCardsCount = campCardRepository.findByStatusIn(
-                List.of(CampCard.CampCardStatus.ACTIVE, CampCard.CampCardStatus.UNASSIGNED))
-                .size();
+        long activeCardsCount = campCardRepository.countByStatusIn(
+                List.of(CampCard.CampCardStatus.ACTIVE, CampCard.CampCardStatus.UNASSIGNED));
         long totalRedemptionsCount = offerRedemptionRepository.count();
 
         // Transaction / Revenue metrics
-        Long totalRevenueCentsVal = cardOrderRepository.getTotalRevenueCents();
-        if (totalRevenueCentsVal == null) totalRevenueCentsVal = 0L;
-        long totalTransactionsCount = cardOrderRepository.findByPaymentStatusIn(
-                List.of(CardOrder.PaymentStatus.PAID)).size();
-        long failedTransactionsCount = cardOrderRepository.findByPaymentStatusIn(
-                List.of(CardOrder.PaymentStatus.FAILED)).size();
+        long totalRevenueCentsVal = aggregates.get(
+                DashboardAggregates.ORDERS_REVENUE_CENTS + CardOrder.PaymentStatus.PAID.name());
+        long totalTransactionsCount = aggregates.get(
+                DashboardAggregates.ORDERS_STATUS + CardOrder.PaymentStatus.PAID.name());
+        long failedTransactionsCount = aggregates.get(
+                DashboardAggregates.ORDERS_STATUS + CardOrder.PaymentStatus.FAILED.name());
         long avgTransactionCentsVal = totalTransactionsCount > 0 ?
                 totalRevenueCentsVal / totalTransactionsCount : 0L;
 
@@ -161,7 +152,7 @@ public class DashboardService {
         List<TimeSeriesPoint> salesTrend30Days = generateSalesTrend30Days();
 
         // Offer distribution by category
-        List<DashboardResponse.CategoryCount> offerDistribution = getOfferDistribution();
+        List<DashboardResponse.CategoryCount> offerDistribution = getOfferDistribution(aggregates);
 
         return DashboardResponse.builder()
                 .totalTroops(totalTroops)
@@ -219,18 +210,13 @@ public class DashboardService {
     }
 
     private List<TroopSalesData> getTroopSalesData() {
-        Pageable pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "totalSales"));
-        Page<Troop> topTroops = troopRepository.findTopPerformingTroops(pageable);
-
-        return topTroops.getContent().stream()
-                .map(troop -> {
-                    // Get council name
-                    String councilName = "Unknown Council";
-                    if (troop.getCouncilId() != null) {
-                        councilName = councilRepository.findById(troop.getCouncilId())
-                                .map(Council::getName)
-                                .orElse("Unknown Council");
-                    }
+        // row: Troop, councilName
+        List<Object[]> rows = troopRepository.findTopPerformingTroopsWithCouncilName(PageRequest.of(0, 20));
+
+        return rows.stream()
+                .map(row -> {
+                    Troop troop = (Troop) row[0];
+                    String councilName = row[1] != null ? (String) row[1] : "Unknown Council";
 
                     BigDecimal avgPerScout = troop.getAverageSalesPerScout() != null ?
                             troop.getAverageSalesPerScout() : BigDecimal.ZERO;
@@ -249,17 +235,13 @@ public class DashboardService {
     }
 
     private List<TroopRecruitingData> getTroopRecruitingData() {
-        Pageable pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "activeScouts"));
-        Page<Troop> troops = troopRepository.findAll(pageable);
-
-        return troops.getContent().stream()
-                .map(troop -> {
-                    String councilName = "Unknown Council";
-                    if (troop.getCouncilId() != null) {
-                        councilName = councilRepository.findById(troop.getCouncilId())
-                                .map(Council::getName)
-                                .orElse("Unknown Council");
-                    }
+        // row: Troop, councilName
+        List<Object[]> rows = troopRepository.findTopRecruitingTroopsWithCouncilName(PageRequest.of(0, 20));
+
+        return rows.stream()
+                .map(row -> {
+                    Troop troop = (Troop) row[0];
+                    String councilName = row[1] != null ? (String) row[1] : "Unknown Council";
 
                     int totalScouts = troop.getTotalScouts() != null ? troop.getTotalScouts() : 0;
                     int activeScouts = troop.getActiveScouts() != null ? troop.getActiveScouts() : 0;
@@ -283,23 +265,14 @@ public class DashboardService {
     }
 
     private List<ScoutSalesData> getScoutSalesData() {
-        Pageable pageable = PageRequest.of(0, 20);
-        Page<Scout> topScouts = scoutRepository.findTopSellersGlobal(pageable);
-
-        return topScouts.getContent().stream()
-                .map(scout -> {
-                    String troopName = "Unknown Troop";
-                    if (scout.getTroopId() != null) {
-                        troopName = troopRepository.findById(scout.getTroopId())
-                                .map(t -> "Troop " + t.getTroopNumber())
-                                .orElse("Unknown Troop");
-                    }
-
-                    // Count referrals for this scout
-                    int referralCount = 0;
-                    if (scout.getUserId() != null) {
-                        referralCount = referralRepository.findByReferrerId(scout.getUserId()).size();
-                    }
+        // row: Scout, troopNumber, referralCount
+        List<Object[]> rows = scoutRepository.findTopSellersGlobalWithTroopAndReferrals(PageRequest.of(0, 20));
+
+        return rows.stream()
+                .map(row -> {
+                    Scout scout = (Scout) row[0];
+                    String troopName = row[1] != null ? "Troop " + row[1] : "Unknown Troop";
+                    int referralCount = row[2] != null ? ((Number) row[2]).intValue() : 0;
 
                     return ScoutSalesData.builder()
                             .id(scout.getId())
@@ -316,56 +289,23 @@ public class DashboardService {
     }
 
     private List<ScoutReferralData> getScoutReferralData() {
-        // Get scouts with referrals
-        List<Scout> allScouts = scoutRepository.findAll();
-        Map<Long, Integer> scoutReferralCounts = new HashMap<>();
-        Map<Long, Integer> scoutConversionCounts = new HashMap<>();
-        Map<Long, BigDecimal> scoutReferralRevenue = new HashMap<>();
-
-        for (Scout scout : allScouts) {
-            if (scout.getUserId() != null) {
-                List<Referral> referrals = referralRepository.findByReferrerId(scout.getUserId());
-                int total = referrals.size();
-                int converted = (int) referrals.stream()
-                        .filter(r -> r.getStatus() == Referral.ReferralStatus.COMPLETED || r.getStatus() == Referral.ReferralStatus.REWARDED)
-                        .count();
-                BigDecimal revenue = referrals.stream()
-                        .filter(r -> r.getRewardAmount() != null && r.getRewardClaimed() != null && r.getRewardClaimed())
-                        .map(Referral::getRewardAmount)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                if (total > 0) {
-                    scoutReferralCounts.put(scout.getId(), total);
-                    scoutConversionCounts.put(scout.getId(), converted);
-                    scoutReferralRevenue.put(scout.getId(), revenue);
-                }
-            }
-        }
-
-        // Sort by referral count and take top 20
-        return allScouts.stream()
-                .filter(s -> scoutReferralCounts.containsKey(s.getId()))
-                .sorted((a, b) -> scoutReferralCounts.getOrDefault(b.getId(), 0) - scoutReferralCounts.getOrDefault(a.getId(), 0))
-                .limit(20)
-                .map(scout -> {
-                    String troopName = "Unknown Troop";
-                    if (scout.getTroopId() != null) {
-                        troopName = troopRepository.findById(scout.getTroopId())
-                                .map(t -> "Troop " + t.getTroopNumber())
-                                .orElse("Unknown Troop");
-                    }
-
-                    int referrals = scoutReferralCounts.getOrDefault(scout.getId(), 0);
-                    int conversions = scoutConversionCounts.getOrDefault(scout.getId(), 0);
+        // row: scoutId, firstName, lastName, troopNumber, referrals, conversions, claimedRewardRevenue
+        List<Object[]> rows = scoutRepository.findTopReferrersWithStats(PageRequest.of(0, 20));
+
+        return rows.stream()
+                .map(row -> {
+                    String troopName = row[3] != null ? "Troop " + row[3] : "Unknown Troop";
+                    int referrals = ((Number) row[4]).intValue();
+                    int conversions = row[5] != null ? ((Number) row[5]).intValue() : 0;
                     double conversionRate = referrals > 0 ? (double) conversions / referrals * 100 : 0;
 
                     return ScoutReferralData.builder()
-                            .id(scout.getId())
-                            .name(scout.getFullName())
+                            .id((Long) row[0])
+                            .name(row[1] + " " + row[2])
                             .troop(troopName)
                             .referrals(referrals)
                             .conversions(conversions)
-                            .revenue(scoutReferralRevenue.getOrDefault(scout.getId(), BigDecimal.ZERO))
+                            .revenue(toBigDecimal(row[6]))
                             .conversionRate(Math.round(conversionRate * 10.0) / 10.0)
                             .trend(calculateTrend())
                             .build();
@@ -374,38 +314,20 @@ public class DashboardService {
     }
 
     private List<CustomerReferralData> getCustomerReferralData() {
-        // Group referrals by referrer and aggregate
-        List<Referral> allReferrals = referralRepository.findAll();
-        Map<UUID, List<Referral>> referralsByReferrer = allReferrals.stream()
-                .filter(r -> r.getReferrerId() != null)
-                .collect(Collectors.groupingBy(Referral::getReferrerId));
-
-        return referralsByReferrer.entrySet().stream()
-                .sorted((a, b) -> b.getValue().size() - a.getValue().size())
-                .limit(20)
-                .map(entry -> {
-                    UUID referrerId = entry.getKey();
-                    List<Referral> referrals = entry.getValue();
-
-                    int total = referrals.size();
-                    int converted = (int) referrals.stream()
-                            .filter(r -> r.getStatus() == Referral.ReferralStatus.COMPLETED || r.getStatus() == Referral.ReferralStatus.REWARDED)
-                            .count();
-                    BigDecimal revenue = referrals.stream()
-                            .filter(r -> r.getRewardAmount() != null)
-                            .map(Referral::getRewardAmount)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // row: referrerId, referrals, conversions, totalRewardAmount, lastReferralAt
+        List<Object[]> rows = referralRepository.findTopReferrersWithStats(PageRequest.of(0, 20));
+
+        return rows.stream()
+                .map(row -> {
+                    UUID referrerId = (UUID) row[0];
+                    int total = ((Number) row[1]).intValue();
+                    int converted = row[2] != null ? ((Number) row[2]).intValue() : 0;
+                    BigDecimal revenue = toBigDecimal(row[3]);
 
                     BigDecimal avgOrderValue = converted > 0 ?
                             revenue.divide(BigDecimal.valueOf(converted), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
 
-                    // Find most recent referral
-                    String lastReferral = referrals.stream()
-                            .map(Referral::getCreatedAt)
-                            .filter(Objects::nonNull)
-                            .max(LocalDateTime::compareTo)
-                            .map(this::formatRelativeTime)
-                            .orElse("N/A");
+                    String lastReferral = row[4] != null ? formatRelativeTime((LocalDateTime) row[4]) : "N/A";
 
                     return CustomerReferralData.builder()
                             .id(referrerId.toString())
@@ -472,14 +394,9 @@ public class DashboardService {
         return data;
     }
 
-    private List<DashboardResponse.CategoryCount> getOfferDistribution() {
-        List<Offer> allOffers = offerRepository.findAll();
-        Map<String, Long> countByCategory = allOffers.stream()
-                .filter(o -> o.getStatus() == Offer.OfferStatus.ACTIVE)
-                .collect(Collectors.groupingBy(
-                        o -> o.getCategory() != null ? o.getCategory() : "Uncategorized",
-                        Collectors.counting()
-                ));
+    private List<DashboardResponse.CategoryCount> getOfferDistribution(DashboardAggregates aggregates) {
+        Map<String, Long> countByCategory = aggregates.withPrefix(DashboardAggregates.OFFERS_ACTIVE_CATEGORY);
+        countByCategory.values().removeIf(count -> count <= 0);
         return countByCategory.entrySet().stream()
                 .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
                 .map(e -> DashboardResponse.CategoryCount.builder()
@@ -493,7 +410,12 @@ public class DashboardService {
      * Get a lightweight summary scoped to a single troop (for UNIT_LEADER role).
      */
     public DashboardResponse getTroopSummary(Long troopId) {
-        log.info("Fetching troop summary for troopId: {}", troopId);
+        return snapshotCache.get(DashboardScope.TROOP, troopId, () -> computeTroopSummary(troopId))
+                .toBuilder().build();
+    }
+
+    private DashboardResponse computeTroopSummary(Long troopId) {
+        log.info("Computing troop summary for troopId: {}", troopId);
 
         Troop troop = troopRepository.findById(troopId).orElse(null);
         if (troop == null) {
@@ -507,19 +429,20 @@ public class DashboardService {
 
         // Count redemptions and referrals across all scouts in the troop
         List<Scout> troopScouts = scoutRepository.findActiveTroopMembers(troopId);
+        List<UUID> scoutUserIds = troopScouts.stream()
+                .map(Scout::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
         long totalRedemptions = 0;
         long totalReferrals = 0;
         long successfulReferrals = 0;
 
-        for (Scout scout : troopScouts) {
-            if (scout.getUserId() != null) {
-                totalRedemptions += offerRedemptionRepository.countCompletedByUserId(scout.getUserId());
-                List<Referral> referrals = referralRepository.findByReferrerId(scout.getUserId());
-                totalReferrals += referrals.size();
-                successfulReferrals += referrals.stream()
-                        .filter(r -> r.getStatus() == Referral.ReferralStatus.COMPLETED ||
-                                     r.getStatus() == Referral.ReferralStatus.REWARDED)
-                        .count();
+        if (!scoutUserIds.isEmpty()) {
+            totalRedemptions = offerRedemptionRepository.countCompletedByUserIds(scoutUserIds);
+            // row: referrals, conversions
+            for (Object[] row : referralRepository.sumReferralStatsByReferrerIds(scoutUserIds)) {
+                totalReferrals += row[0] != null ? ((Number) row[0]).longValue() : 0;
+                successfulReferrals += row[1] != null ? ((Number) row[1]).longValue() : 0;
             }
         }
 
@@ -541,6 +464,12 @@ public class DashboardService {
                 .build();
     }
 
+    private BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) return decimal;
+        if (value instanceof Number number) return BigDecimal.valueOf(number.doubleValue());
+        return BigDecimal.ZERO;
+    }
+
     private Double calculateTrend() {
         // No historical period comparison data available yet
         return 0.0;
@@ -0,0 +1,181 @@
+package com.bsa.campcard.service;
+
+import com.bsa.campcard.repository.DeviceTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks push send failures per device token and deactivates dead tokens in batches.
+ *
+ * A permanent failure (the provider reports the token unregistered or invalid) queues
+ * the token for deactivation. A transient failure backs the token off exponentially,
+ * so senders skip it for a while; after {@code max-failures} consecutive transient
+ * failures it is queued for deactivation too. The queue is flushed with one batched
+ * UPDATE every {@code flush-ms}, keeping writes out of the send loops.
+ *
+ * Token churn is published as {@code campcard.push.tokens.churn}, tagged
+ * {@code event=registered} or {@code event=deactivated}.
+ */
+@Component
+@Slf4j
+public class DeviceTokenHealth {
+
+    // Tokens per deactivation UPDATE, well under the JDBC bind parameter limit
+    private static final int DEACTIVATE_BATCH_SIZE = 10000;
+
+    private final DeviceTokenRepository deviceTokenRepository;
+    private final Clock clock;
+    private final int maxFailures;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+    private final int maxTracked;
+    private final Map<String, Failures> failures = new ConcurrentHashMap<>();
+    private final Set<String> pendingDeactivation = ConcurrentHashMap.newKeySet();
+
+    private final Counter permanentFailures;
+    private final Counter transientFailures;
+    private final Counter registered;
+    private final Counter deactivated;
+
+    public DeviceTokenHealth(DeviceTokenRepository deviceTokenRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${campcard.notifications.push.token-health.max-failures:5}") int maxFailures,
+                             @Value("${campcard.notifications.push.token-health.backoff-base:1m}") Duration backoffBase,
+                             @Value("${campcard.notifications.push.token-health.backoff-max:6h}") Duration backoffMax,
+                             @Value("${campcard.notifications.push.token-health.max-tracked:100000}") int maxTracked) {
+        this(deviceTokenRepository, meterRegistry, Clock.systemUTC(), maxFailures, backoffBase, backoffMax, maxTracked);
+    }
+
+    DeviceTokenHealth(DeviceTokenRepository deviceTokenRepository, MeterRegistry meterRegistry, Clock clock,
+                      int maxFailures, Duration backoffBase, Duration backoffMax, int maxTracked) {
+        this.deviceTokenRepository = deviceTokenRepository;
+        this.clock = clock;
+        this.maxFailures = maxFailures;
+        this.backoffBaseMillis = backoffBase.toMillis();
+        this.backoffMaxMillis = backoffMax.toMillis();
+        this.maxTracked = maxTracked;
+
+        this.permanentFailures = Counter.builder("campcard.push.token.failures")
+                .tag("kind", "permanent")
+                .register(meterRegistry);
+        this.transientFailures = Counter.builder("campcard.push.token.failures")
+                .tag("kind", "transient")
+                .register(meterRegistry);
+        this.registered = Counter.builder("campcard.push.tokens.churn")
+                .tag("event", "registered")
+                .register(meterRegistry);
+        this.deactivated = Counter.builder("campcard.push.tokens.churn")
+                .tag("event", "deactivated")
+                .register(meterRegistry);
+        meterRegistry.gauge("campcard.push.tokens.backoff", failures, Map::size);
+        meterRegistry.gauge("campcard.push.tokens.pending.deactivation", pendingDeactivation, Set::size);
+    }
+
+    /**
+     * Whether senders should skip the token: it is backing off or about to be deactivated.
+     */
+    public boolean isBackedOff(String token) {
+        if (pendingDeactivation.contains(token)) {
+            return true;
+        }
+        Failures state = failures.get(token);
+        return state != null && state.retryAt() > clock.millis();
+    }
+
+    public void recordSuccess(String token) {
+        if (!failures.isEmpty()) {
+            failures.remove(token);
+        }
+    }
+
+    /**
+     * The provider rejected the token for good; deactivate it with the next flush.
+     */
+    public void recordPermanentFailure(String token) {
+        permanentFailures.increment();
+        failures.remove(token);
+        pendingDeactivation.add(token);
+    }
+
+    /**
+     * The send failed for a reason that may pass; back the token off and deactivate it
+     * once it has failed {@code max-failures} times in a row.
+     */
+    public void recordTransientFailure(String token) {
+        transientFailures.increment();
+        long now = clock.millis();
+        Failures state = failures.compute(token, (key, previous) -> {
+            if (previous == null && failures.size() >= maxTracked) {
+                return null;
+            }
+            int count = previous == null ? 1 : previous.count() + 1;
+            long delay = Math.min(backoffMaxMillis, backoffBaseMillis << Math.min(count - 1, 20));
+            return new Failures(count, now + delay);
+        });
+
+        if (state != null && state.count() >= maxFailures) {
+            failures.remove(token);
+            pendingDeactivation.add(token);
+        }
+    }
+
+    /**
+     * A device (re-)registered the token: forget its failures and count it toward churn.
+     */
+    public void recordRegistration(String token) {
+        registered.increment();
+        failures.remove(token);
+        pendingDeactivation.remove(token);
+    }
+
+    /**
+     * Deactivate every queued token and forget back-offs that ended long ago.
+     */
+    @Scheduled(fixedDelayString = "${campcard.notifications.push.token-health.flush-ms:10000}")
+    public void flush() {
+        long forgetBefore = clock.millis() - backoffMaxMillis;
+        failures.values().removeIf(state -> state.retryAt() < forgetBefore);
+
+        if (pendingDeactivation.isEmpty()) {
+            return;
+        }
+        List<String> tokens = new ArrayList<>(pendingDeactivation);
+        pendingDeactivation.removeAll(tokens);
+
+        int count = 0;
+        try {
+            for (int i = 0; i < tokens.size(); i += DEACTIVATE_BATCH_SIZE) {
+                count += deviceTokenRepository.deactivateTokens(
+                        tokens.subList(i, Math.min(i + DEACTIVATE_BATCH_SIZE, tokens.size())), LocalDateTime.now(clock));
+            }
+        } catch (Exception e) {
+            log.error("Failed to deactivate {} device tokens, retrying on next flush: {}", tokens.size(), e.getMessage());
+            pendingDeactivation.addAll(tokens);
+        }
+
+        deactivated.increment(count);
+        log.info("Deactivated {} invalid device tokens", count);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private record Failures(int count, long retryAt) {
+    }
+}
@@ -1,5 +1,9 @@
 package com.bsa.campcard.service;
 
+import com.bsa.campcard.service.email.CompiledTemplate;
+import com.bsa.campcard.service.email.EmailTemplateEngine;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -9,8 +13,19 @@ import software.amazon.awssdk.services.ses.SesClient;
 import software.amazon.awssdk.services.ses.model.*;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
+import java.time.Year;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -18,6 +33,7 @@ import java.time.format.DateTimeFormatter;
 public class EmailService {
 
     private final SesClient sesClient;
+    private final EmailTemplateEngine templates;
 
     @Value("${campcard.notifications.email.from:no-reply@campcardapp.org}")
     private String fromEmail;
@@ -34,6 +50,26 @@ public class EmailService {
     @Value("${campcard.notifications.email.enabled:true}")
     private boolean emailEnabled;
 
+    /**
+     * SES limit on destinations per SendBulkTemplatedEmail call
+     */
+    public static final int MAX_BULK_DESTINATIONS = 50;
+
+    // Used when a recipient has no first name
+    private static final String DEFAULT_TEMPLATE_DATA = "{\"firstName\":\"there\"}";
+
+    private static final ObjectMapper TEMPLATE_DATA_MAPPER = new ObjectMapper();
+
+    // Content hash of each SES template this node has registered, by template name
+    private final Map<String, String> registeredTemplates = new ConcurrentHashMap<>();
+
+    private static final String CAMPAIGN_EMAIL_TEMPLATE = "campaign-email";
+    private static final String CAMPAIGN_EMAIL_TEXT_TEMPLATE = "campaign-email-text";
+    private static final int MAX_CACHED_CAMPAIGN_TEMPLATES = 64;
+
+    // Compiled per-recipient campaign emails, by campaign id
+    private final Map<String, CampaignEmailTemplate> campaignTemplates = new ConcurrentHashMap<>();
+
     // BSA Brand Colors
     private static final String BSA_NAVY = "#003f87";
     private static final String BSA_RED = "#ce1126";
@@ -1510,9 +1546,10 @@ public class EmailService {
 
     /**
      * Send a marketing campaign email with tracking
-     * Used by CampaignDispatchService for bulk campaign delivery
+     * Used by the campaign dispatch engine for bulk campaign delivery. Runs on the
+     * caller's thread so the engine's email workers and SES rate limit govern the send
+     * and failures reach the recipient's delivery status.
      */
-    @Async
     public void sendCampaignEmail(String to, String firstName, String subject,
                                    String htmlContent, String textContent, String campaignId) {
         if (!emailEnabled) {
@@ -1520,124 +1557,83 @@ public class EmailService {
             return;
         }
 
-        // Add tracking pixel for open tracking
-        String trackingPixel = String.format(
-            "<img src=\"%s/api/v1/campaigns/%s/track/open?email=%s\" width=\"1\" height=\"1\" alt=\"\" />",
-            baseUrl, campaignId, java.net.URLEncoder.encode(to, java.nio.charset.StandardCharsets.UTF_8)
-        );
-
-        // Wrap links for click tracking
-        String trackedHtml = htmlContent;
-        if (trackedHtml != null) {
-            trackedHtml = addClickTracking(trackedHtml, campaignId, to);
+        CampaignEmailTemplate template = campaignTemplate(subject, htmlContent, textContent, campaignId);
+        Map<String, String> values = new HashMap<>(4);
+        values.put("email", java.net.URLEncoder.encode(to, java.nio.charset.StandardCharsets.UTF_8));
+        if (firstName != null) {
+            values.put("firstName", firstName);
+            values.put("first_name", firstName);
         }
+        String htmlBody = templates.render(template.html(), values);
+        String textBody = templates.render(template.text(), values);
 
-        // Build the campaign email template
-        String personalizedHtml = trackedHtml;
-        if (personalizedHtml != null && firstName != null) {
-            personalizedHtml = personalizedHtml.replace("{{firstName}}", firstName);
-            personalizedHtml = personalizedHtml.replace("{{first_name}}", firstName);
-        }
+        sendEmail(to, subject, htmlBody, textBody);
+        log.info("Campaign email sent to: {} for campaign {}", to, campaignId);
+    }
 
-        // Add unsubscribe link
-        String unsubscribeUrl = String.format(
-            "%s/unsubscribe?email=%s&campaign=%s",
-            baseUrl,
-            java.net.URLEncoder.encode(to, java.nio.charset.StandardCharsets.UTF_8),
-            campaignId
-        );
+    /**
+     * Build email template specifically for marketing campaigns
+     */
+    private String buildCampaignEmailTemplate(String title, String content, String trackingPixel, String unsubscribeUrl) {
+        return templates.render(EmailTemplateEngine.CAMPAIGN_LAYOUT, Map.of(
+            "title", String.valueOf(title),
+            "content", content,
+            "trackingPixel", trackingPixel,
+            "unsubscribeUrl", unsubscribeUrl,
+            "baseUrl", baseUrl
+        ));
+    }
+
+    /**
+     * The campaign's email with tracking and layout applied, compiled once per content.
+     * Recipients differ only in the {@code {{email}}} and first name placeholders.
+     */
+    private CampaignEmailTemplate campaignTemplate(String subject, String htmlContent, String textContent, String campaignId) {
+        CampaignEmailTemplate cached = campaignTemplates.get(campaignId);
+        if (cached != null && cached.matches(subject, htmlContent, textContent)) {
+            return cached;
+        }
 
-        String htmlBody = buildCampaignEmailTemplate(
-            subject,
-            personalizedHtml != null ? personalizedHtml : "",
-            trackingPixel,
-            unsubscribeUrl
+        String trackingPixel = String.format(
+            "<img src=\"%s/api/v1/campaigns/%s/track/open?email={{email}}\" width=\"1\" height=\"1\" alt=\"\" />",
+            baseUrl, campaignId
         );
+        String trackedHtml = htmlContent != null
+            ? addClickTracking(htmlContent, baseUrl + "/api/v1/campaigns/" + campaignId + "/track/click?email={{email}}&url=")
+            : "";
+        String unsubscribeUrl = baseUrl + "/unsubscribe?email={{email}}&campaign=" + campaignId;
+        String htmlBody = buildCampaignEmailTemplate(subject, trackedHtml, trackingPixel, unsubscribeUrl);
 
-        String textBody = textContent;
-        if (textBody != null && firstName != null) {
-            textBody = textBody.replace("{{firstName}}", firstName);
-            textBody = textBody.replace("{{first_name}}", firstName);
-        }
-        if (textBody == null) {
-            textBody = "Visit " + baseUrl + " to view this message.";
-        }
+        String textBody = textContent != null ? textContent : "Visit " + baseUrl + " to view this message.";
         textBody += "\n\n---\nTo unsubscribe: " + unsubscribeUrl;
 
-        sendEmail(to, subject, htmlBody, textBody);
-        log.info("Campaign email sent to: {} for campaign {}", to, campaignId);
+        CampaignEmailTemplate template = new CampaignEmailTemplate(subject, htmlContent, textContent,
+            templates.compile(CAMPAIGN_EMAIL_TEMPLATE, htmlBody),
+            templates.compile(CAMPAIGN_EMAIL_TEXT_TEMPLATE, textBody));
+        if (campaignTemplates.size() >= MAX_CACHED_CAMPAIGN_TEMPLATES) {
+            campaignTemplates.clear();
+        }
+        campaignTemplates.put(campaignId, template);
+        return template;
     }
 
     /**
-     * Build email template specifically for marketing campaigns
+     * A campaign's compiled email and the content it was compiled from
      */
-    private String buildCampaignEmailTemplate(String title, String content, String trackingPixel, String unsubscribeUrl) {
-        return """
-            <!DOCTYPE html>
-            <html lang="en">
-            <head>
-                <meta charset="UTF-8">
-                <meta name="viewport" content="width=device-width, initial-scale=1.0">
-                <title>%s</title>
-            </head>
-            <body style="margin: 0; padding: 0; font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, 'Helvetica Neue', Arial, sans-serif; background-color: #f4f4f4;">
-                <table role="presentation" style="width: 100%%; border-collapse: collapse;">
-                    <tr>
-                        <td style="padding: 20px 0;">
-                            <table role="presentation" style="max-width: 600px; margin: 0 auto; background-color: white; border-radius: 12px; overflow: hidden; box-shadow: 0 4px 6px rgba(0, 0, 0, 0.1);">
-                                <!-- Header -->
-                                <tr>
-                                    <td style="background: linear-gradient(135deg, %s 0%%, #004494 100%%); padding: 24px; text-align: center;">
-                                        <h1 style="color: white; margin: 0; font-size: 24px;">BSA Camp Card</h1>
-                                    </td>
-                                </tr>
-
-                                <!-- Content -->
-                                <tr>
-                                    <td style="padding: 32px 24px;">
-                                        %s
-                                    </td>
-                                </tr>
-
-                                <!-- Footer -->
-                                <tr>
-                                    <td style="background-color: #f8f9fa; padding: 24px; border-top: 1px solid #dee2e6;">
-                                        <table role="presentation" style="width: 100%%;">
-                                            <tr>
-                                                <td style="text-align: center;">
-                                                    <p style="margin: 0 0 8px 0; font-size: 14px; color: #666666;">
-                                                        <strong>BSA Camp Card</strong> | Supporting Scouts, One Card at a Time
-                                                    </p>
-                                                    <p style="margin: 0 0 8px 0; font-size: 12px; color: #999999;">
-                                                        You received this email because you're a BSA Camp Card member.
-                                                    </p>
-                                                    <p style="margin: 0; font-size: 11px; color: #aaaaaa;">
-                                                        <a href="%s" style="color: #999999;">Unsubscribe</a> |
-                                                        <a href="%s/privacy" style="color: #999999;">Privacy Policy</a>
-                                                    </p>
-                                                </td>
-                                            </tr>
-                                        </table>
-                                    </td>
-                                </tr>
-                            </table>
-                        </td>
-                    </tr>
-                </table>
-                %s
-            </body>
-            </html>
-            """.formatted(title, BSA_NAVY, content, unsubscribeUrl, baseUrl, trackingPixel);
+    private record CampaignEmailTemplate(String subject, String htmlContent, String textContent,
+                                         CompiledTemplate html, CompiledTemplate text) {
+
+        boolean matches(String subject, String htmlContent, String textContent) {
+            return Objects.equals(this.subject, subject)
+                && Objects.equals(this.htmlContent, htmlContent)
+                && Objects.equals(this.textContent, textContent);
+        }
     }
 
     /**
-     * Add click tracking to links in HTML content
+     * Wrap href URLs in HTML content with the tracking prefix
      */
-    private String addClickTracking(String html, String campaignId, String email) {
-        // Simple link wrapping for tracking - wraps href URLs
-        String encodedEmail = java.net.URLEncoder.encode(email, java.nio.charset.StandardCharsets.UTF_8);
-        String trackingPrefix = baseUrl + "/api/v1/campaigns/" + campaignId + "/track/click?email=" + encodedEmail + "&url=";
-
+    private String addClickTracking(String html, String trackingPrefix) {
         // Use regex to find and wrap links
         java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(
             "href=[\"']([^\"']+)[\"']",
@@ -1664,6 +1660,168 @@ public class EmailService {
         return result.toString();
     }
 
+    // ========================================================================
+    // BULK CAMPAIGN EMAILS (SES TEMPLATES)
+    // ========================================================================
+
+    /**
+     * Register the campaign's content as its SES template, once per node and content, and
+     * return the template name. Each campaign has one template; an edited campaign
+     * updates it in place. Personalization is left to SES: {@code {{firstName}}},
+     * {@code {{trackingId}}} and {@code {{unsubscribeUrl}}} are filled from each
+     * destination's replacement data.
+     */
+    public String registerCampaignTemplate(String campaignId, String subject, String htmlContent, String textContent) {
+        String html = htmlContent != null ? templateVariables(htmlContent) : "";
+        html = addClickTracking(html, baseUrl + "/api/v1/campaigns/" + campaignId + "/track/click?rid={{trackingId}}&url=");
+        String trackingPixel = String.format(
+            "<img src=\"%s/api/v1/campaigns/%s/track/open?rid={{trackingId}}\" width=\"1\" height=\"1\" alt=\"\" />",
+            baseUrl, campaignId
+        );
+        String subjectPart = templateVariables(subject);
+        String htmlPart = buildCampaignEmailTemplate(subjectPart, html, trackingPixel, "{{unsubscribeUrl}}");
+
+        String textPart = textContent != null ? templateVariables(textContent) : "Visit " + baseUrl + " to view this message.";
+        textPart += "\n\n---\nTo unsubscribe: {{unsubscribeUrl}}";
+
+        String templateName = campaignTemplateName(campaignId);
+        String hash = contentHash(subjectPart, htmlPart, textPart);
+        if (hash.equals(registeredTemplates.get(templateName))) {
+            return templateName;
+        }
+
+        Template template = Template.builder()
+                .templateName(templateName)
+                .subjectPart(subjectPart)
+                .htmlPart(htmlPart)
+                .textPart(textPart)
+                .build();
+        if (registeredTemplates.containsKey(templateName)) {
+            sesClient.updateTemplate(UpdateTemplateRequest.builder().template(template).build());
+            log.info("Updated SES template {} for edited campaign {}", templateName, campaignId);
+        } else {
+            try {
+                sesClient.createTemplate(CreateTemplateRequest.builder().template(template).build());
+                log.info("Registered SES template {} for campaign {}", templateName, campaignId);
+            } catch (AlreadyExistsException e) {
+                // Registered by another node or an earlier run, possibly with older content
+                sesClient.updateTemplate(UpdateTemplateRequest.builder().template(template).build());
+                log.debug("SES template {} already registered, updated its content", templateName);
+            }
+        }
+        registeredTemplates.put(templateName, hash);
+        return templateName;
+    }
+
+    /**
+     * Delete the campaign's SES template once its dispatch is over, so finished campaigns
+     * do not count against the account's template quota.
+     */
+    public void deleteCampaignTemplate(String campaignId) {
+        String templateName = campaignTemplateName(campaignId);
+        registeredTemplates.remove(templateName);
+        try {
+            sesClient.deleteTemplate(DeleteTemplateRequest.builder().templateName(templateName).build());
+            log.info("Deleted SES template {} for campaign {}", templateName, campaignId);
+        } catch (SesException e) {
+            log.warn("Failed to delete SES template {}: {}", templateName, e.getMessage());
+        }
+    }
+
+    private static String campaignTemplateName(String campaignId) {
+        return "campcard-campaign-" + campaignId;
+    }
+
+    /**
+     * Send a registered campaign template to up to {@value #MAX_BULK_DESTINATIONS}
+     * recipients with one SendBulkTemplatedEmail call.
+     *
+     * @return one status per recipient, in order
+     */
+    public List<BulkEmailDestinationStatus> sendCampaignEmailBatch(String templateName, String campaignId,
+                                                                  List<CampaignEmailDestination> recipients) {
+        if (recipients.size() > MAX_BULK_DESTINATIONS) {
+            throw new IllegalArgumentException("SES accepts at most " + MAX_BULK_DESTINATIONS + " destinations per call");
+        }
+        if (!emailEnabled) {
+            log.info("Email disabled - would send campaign {} to {} recipients", campaignId, recipients.size());
+            return recipients.stream()
+                    .map(recipient -> BulkEmailDestinationStatus.builder().status(BulkEmailStatus.SUCCESS).build())
+                    .toList();
+        }
+
+        List<BulkEmailDestination> destinations = recipients.stream()
+                .map(recipient -> BulkEmailDestination.builder()
+                        .destination(Destination.builder().toAddresses(recipient.email()).build())
+                        .replacementTemplateData(templateData(campaignId, recipient))
+                        .build())
+                .toList();
+
+        try {
+            SendBulkTemplatedEmailResponse response = sesClient.sendBulkTemplatedEmail(SendBulkTemplatedEmailRequest.builder()
+                    .source("BSA Camp Card <" + fromEmail + ">")
+                    .replyToAddresses("support@campcardapp.org")
+                    .template(templateName)
+                    .defaultTemplateData(DEFAULT_TEMPLATE_DATA)
+                    .destinations(destinations)
+                    .build());
+            log.info("Campaign {} bulk email sent to {} recipients", campaignId, recipients.size());
+            return response.status();
+        } catch (SesException e) {
+            if (e instanceof TemplateDoesNotExistException) {
+                // Deleted by the node that finished the campaign; register it again next batch
+                registeredTemplates.remove(templateName);
+            }
+            log.error("Failed to send campaign {} bulk email: {}", campaignId, e.getMessage());
+            throw new RuntimeException("Failed to send bulk email", e);
+        }
+    }
+
+    private String templateData(String campaignId, CampaignEmailDestination recipient) {
+        Map<String, String> data = new HashMap<>();
+        if (recipient.firstName() != null) {
+            data.put("firstName", recipient.firstName());
+        }
+        data.put("trackingId", recipient.trackingId().toString());
+        data.put("unsubscribeUrl", String.format(
+            "%s/unsubscribe?email=%s&campaign=%s",
+            baseUrl,
+            java.net.URLEncoder.encode(recipient.email(), java.nio.charset.StandardCharsets.UTF_8),
+            campaignId
+        ));
+        try {
+            return TEMPLATE_DATA_MAPPER.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize template data", e);
+        }
+    }
+
+    /**
+     * Campaign content uses both {{firstName}} and {{first_name}}; SES templates get one
+     */
+    private String templateVariables(String content) {
+        return content.replace("{{first_name}}", "{{firstName}}");
+    }
+
+    private String contentHash(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * One recipient of a bulk campaign send; the tracking ID is the recipient's UUID
+     */
+    public record CampaignEmailDestination(String email, String firstName, UUID trackingId) {
+    }
+
     @Async
     public void sendMerchantRejectionEmail(String to, String businessName, String contactName, String reason) {
         if (!emailEnabled) {
@@ -2750,102 +2908,17 @@ public class EmailService {
     }
 
     private String buildButton(String text, String url, String color) {
-        return """
-            <p style="text-align: center; margin: 24px 0;">
-                <a href="%s" style="display: inline-block; background-color: %s; color: white; padding: 14px 32px; text-decoration: none; border-radius: 8px; font-weight: bold; font-size: 16px;">%s</a>
-            </p>
-            """.formatted(url, color, text);
+        return templates.render(EmailTemplateEngine.BUTTON, Map.of("url", url, "color", color, "text", text));
     }
 
     private String buildEmailTemplate(String title, String headerColor, String content) {
-        return """
-            <!DOCTYPE html>
-            <html lang="en">
-            <head>
-                <meta charset="UTF-8">
-                <meta name="viewport" content="width=device-width, initial-scale=1.0">
-                <title>%s</title>
-                <!--[if mso]>
-                <style type="text/css">
-                    table {border-collapse: collapse;}
-                    .button {padding: 14px 32px !important;}
-                </style>
-                <![endif]-->
-            </head>
-            <body style="margin: 0; padding: 0; font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, 'Helvetica Neue', Arial, sans-serif; background-color: #f4f4f4;">
-                <table role="presentation" style="width: 100%%; border-collapse: collapse;">
-                    <tr>
-                        <td style="padding: 20px 0;">
-                            <table role="presentation" style="max-width: 600px; margin: 0 auto; background-color: white; border-radius: 12px; overflow: hidden; box-shadow: 0 4px 6px rgba(0, 0, 0, 0.1);">
-                                <!-- Header -->
-                                <tr>
-                                    <td style="background: linear-gradient(135deg, %s 0%%, %s 100%%); padding: 32px 24px; text-align: center;">
-                                        <table role="presentation" style="width: 100%%;">
-                                            <tr>
-                                                <td style="text-align: center;">
-                                                    <!-- Camp Card Logo -->
-                                                    <img src="%s/images/campcard-logo.png" alt="BSA Camp Card" style="max-width: 200px; height: auto; margin-bottom: 16px;" />
-                                                    <p style="color: rgba(255,255,255,0.9); margin: 8px 0 0 0; font-size: 14px;">Supporting Scouts, One Card at a Time</p>
-                                                </td>
-                                            </tr>
-                                        </table>
-                                    </td>
-                                </tr>
-
-                                <!-- Title Bar -->
-                                <tr>
-                                    <td style="background-color: %s; padding: 16px 24px; text-align: center;">
-                                        <h2 style="color: white; margin: 0; font-size: 20px;">%s</h2>
-                                    </td>
-                                </tr>
-
-                                <!-- Content -->
-                                <tr>
-                                    <td style="padding: 32px 24px;">
-                                        %s
-                                    </td>
-                                </tr>
-
-                                <!-- Footer -->
-                                <tr>
-                                    <td style="background-color: #f8f9fa; padding: 24px; border-top: 1px solid #dee2e6;">
-                                        <table role="presentation" style="width: 100%%;">
-                                            <tr>
-                                                <td style="text-align: center;">
-                                                    <p style="margin: 0 0 8px 0; font-size: 14px; color: #666666;">
-                                                        <strong>BSA Camp Card</strong> | A Boy Scouts of America Fundraising Program
-                                                    </p>
-                                                    <p style="margin: 0 0 16px 0; font-size: 12px; color: #999999;">
-                                                        Questions? Contact us at <a href="mailto:support@campcardapp.org" style="color: %s;">support@campcardapp.org</a>
-                                                    </p>
-                                                    <p style="margin: 0; font-size: 11px; color: #aaaaaa;">
-                                                        © %d Boy Scouts of America. All rights reserved.<br/>
-                                                        <a href="%s/privacy" style="color: #999999;">Privacy Policy</a> |
-                                                        <a href="%s/terms" style="color: #999999;">Terms of Service</a> |
-                                                        <a href="%s/unsubscribe" style="color: #999999;">Unsubscribe</a>
-                                                    </p>
-                                                </td>
-                                            </tr>
-                                        </table>
-                                    </td>
-                                </tr>
-                            </table>
-                        </td>
-                    </tr>
-                </table>
-            </body>
-            </html>
-            """.formatted(
-                title,
-                BSA_NAVY,
-                "#004494",
-                webPortalUrl,
-                headerColor,
-                title,
-                content,
-                BSA_NAVY,
-                java.time.Year.now().getValue(),
-                baseUrl, baseUrl, baseUrl
-            );
+        return templates.render(EmailTemplateEngine.LAYOUT, Map.of(
+            "title", title,
+            "headerColor", headerColor,
+            "content", content,
+            "webPortalUrl", webPortalUrl,
+            "baseUrl", baseUrl,
+            "year", String.valueOf(Year.now().getValue())
+        ));
     }
 }
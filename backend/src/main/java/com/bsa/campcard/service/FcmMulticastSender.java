@@ -0,0 +1,98 @@
+package com.bsa.campcard.service;
+
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MulticastMessage;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends FCM multicast messages on a bounded worker pool, so a fan-out keeps several
+ * multicasts in flight without opening unbounded connections to FCM. When the queue
+ * is full the submitting thread sends the multicast itself, which throttles a large
+ * fan-out to what FCM accepts.
+ */
+@Component
+public class FcmMulticastSender {
+
+    /**
+     * FCM rejects multicasts addressed to more tokens than this
+     */
+    public static final int MAX_TOKENS_PER_MULTICAST = 500;
+
+    private final ThreadPoolExecutor executor;
+
+    public FcmMulticastSender(@Value("${campcard.notifications.push.multicast-concurrency:8}") int concurrency) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            concurrency, concurrency, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(concurrency * 4),
+            runnable -> {
+                Thread thread = new Thread(runnable, "fcm-multicast-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            (task, pool) -> {
+                if (pool.isShutdown()) {
+                    throw new RejectedExecutionException("FCM multicast workers are shut down");
+                }
+                task.run();
+            });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Send a multicast on the worker pool.
+     *
+     * @return the per-token responses, or a future failed with the FCM error
+     */
+    public CompletableFuture<BatchResponse> submit(MulticastMessage message) {
+        CompletableFuture<BatchResponse> result = new CompletableFuture<>();
+        executor.execute(new SendTask(message, result));
+        return result;
+    }
+
+    BatchResponse send(MulticastMessage message) throws FirebaseMessagingException {
+        return FirebaseMessaging.getInstance().sendEachForMulticast(message);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Fail queued multicasts so a fan-out waiting on them gives up instead of hanging
+        executor.shutdownNow().forEach(task ->
+            ((SendTask) task).result().completeExceptionally(new RejectedExecutionException("FCM sender shut down")));
+    }
+
+    private class SendTask implements Runnable {
+
+        private final MulticastMessage message;
+        private final CompletableFuture<BatchResponse> result;
+
+        SendTask(MulticastMessage message, CompletableFuture<BatchResponse> result) {
+            this.message = message;
+            this.result = result;
+        }
+
+        CompletableFuture<BatchResponse> result() {
+            return result;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result.complete(send(message));
+            } catch (FirebaseMessagingException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
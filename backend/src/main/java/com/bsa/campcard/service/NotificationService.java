@@ -27,6 +27,7 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final DeviceTokenRepository deviceTokenRepository;
+    private final DeviceTokenHealth tokenHealth;
     private final ObjectMapper objectMapper;
 
     /**
@@ -35,6 +36,7 @@ public class NotificationService {
     @Transactional
     public void registerDeviceToken(Long userId, DeviceTokenRequest request) {
         log.info("Registering device token for user: {}", userId);
+        tokenHealth.recordRegistration(request.getToken());
 
         // Check if token already exists
         var existingToken = deviceTokenRepository.findByToken(request.getToken());
@@ -0,0 +1,165 @@
+package com.bsa.campcard.service;
+
+import com.bsa.campcard.entity.Offer;
+import com.bsa.campcard.entity.Offer.OfferStatus;
+import com.bsa.campcard.repository.MerchantRepository;
+import com.bsa.campcard.repository.OfferRedemptionRepository;
+import com.bsa.campcard.repository.OfferRepository;
+import com.bsa.campcard.service.dashboard.DashboardAggregateService;
+import com.bsa.campcard.service.dashboard.DashboardAggregates;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires offers past their end date (hourly) and week-old pending redemptions (nightly).
+ *
+ * Both jobs are chunked UPDATE statements of {@code batch-size} rows, each chunk in its
+ * own transaction, so the year-end run that expires every offer at once never holds
+ * locks on the whole table. Merchants whose offers expired are recounted afterwards in
+ * grouped statements. Bulk updates bypass the dashboard entity listener, so the status
+ * change is recorded with the dashboard aggregates directly.
+ *
+ * Each run is timed as {@code campcard.jobs.duration} and counts the rows it changed as
+ * {@code campcard.jobs.rows}, both tagged with {@code job}.
+ */
+@Component
+@Slf4j
+public class OfferExpiryJob {
+
+    static final String OFFER_EXPIRY = "offer-expiry";
+    static final String REDEMPTION_EXPIRY = "redemption-expiry";
+
+    private static final int PENDING_REDEMPTION_DAYS = 7;
+
+    private final OfferRepository offerRepository;
+    private final OfferRedemptionRepository redemptionRepository;
+    private final MerchantRepository merchantRepository;
+    private final DashboardAggregateService dashboardAggregateService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+
+    public OfferExpiryJob(OfferRepository offerRepository,
+                          OfferRedemptionRepository redemptionRepository,
+                          MerchantRepository merchantRepository,
+                          DashboardAggregateService dashboardAggregateService,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${campcard.offers.expiry.batch-size:1000}") int batchSize) {
+        this.offerRepository = offerRepository;
+        this.redemptionRepository = redemptionRepository;
+        this.merchantRepository = merchantRepository;
+        this.dashboardAggregateService = dashboardAggregateService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return the number of offers expired
+     */
+    @Scheduled(cron = "0 0 * * * *") // Every hour
+    public int expireOffers() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> merchantIds = new LinkedHashSet<>();
+        int expired = 0;
+
+        List<Object[]> rows;
+        do {
+            rows = transactionTemplate.execute(status -> {
+                List<Object[]> chunk = offerRepository.expireActiveOffers(now, batchSize);
+                dashboardAggregateService.record(expiryDelta(chunk));
+                return chunk;
+            });
+            for (Object[] row : rows) {
+                merchantIds.add(((Number) row[0]).longValue());
+            }
+            expired += rows.size();
+        } while (rows.size() == batchSize);
+
+        List<Long> merchants = new ArrayList<>(merchantIds);
+        for (int from = 0; from < merchants.size(); from += batchSize) {
+            merchantRepository.recountOffers(merchants.subList(from, Math.min(from + batchSize, merchants.size())));
+        }
+
+        record(OFFER_EXPIRY, start, expired);
+        if (expired > 0) {
+            log.info("Expired {} offers across {} merchants", expired, merchantIds.size());
+        }
+        return expired;
+    }
+
+    /**
+     * @return the number of redemptions expired
+     */
+    @Scheduled(cron = "0 0 0 * * *") // Daily at midnight
+    public int expireRedemptions() {
+        long start = System.nanoTime();
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(PENDING_REDEMPTION_DAYS);
+        int expired = 0;
+
+        int updated;
+        do {
+            updated = redemptionRepository.expirePendingBefore(cutoff, batchSize);
+            expired += updated;
+        } while (updated == batchSize);
+
+        record(REDEMPTION_EXPIRY, start, expired);
+        if (expired > 0) {
+            log.info("Expired {} pending redemptions created before {}", expired, cutoff);
+        }
+        return expired;
+    }
+
+    // ACTIVE -> EXPIRED for each expired offer, grouped by category
+    private static Map<String, Long> expiryDelta(List<Object[]> rows) {
+        Map<String, Long> perCategory = new HashMap<>();
+        for (Object[] row : rows) {
+            perCategory.merge(row[1] != null ? row[1].toString() : "", 1L, Long::sum);
+        }
+
+        Map<String, Long> delta = new HashMap<>();
+        perCategory.forEach((category, count) -> {
+            Map<String, Long> change = DashboardAggregates.delta(
+                    DashboardAggregates.contributionOf(offer(category, OfferStatus.ACTIVE)),
+                    DashboardAggregates.contributionOf(offer(category, OfferStatus.EXPIRED)));
+            change.forEach((key, value) -> delta.merge(key, value * count, Long::sum));
+        });
+        return delta;
+    }
+
+    private static Offer offer(String category, OfferStatus status) {
+        Offer offer = new Offer();
+        offer.setCategory(category.isEmpty() ? null : category);
+        offer.setStatus(status);
+        return offer;
+    }
+
+    private void record(String job, long startNanos, int rows) {
+        Timer.builder("campcard.jobs.duration")
+                .tag("job", job)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("campcard.jobs.rows")
+                .tag("job", job)
+                .register(meterRegistry)
+                .increment(rows);
+    }
+}
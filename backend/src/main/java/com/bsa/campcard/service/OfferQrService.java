@@ -10,7 +10,13 @@ import com.bsa.campcard.entity.OfferScanAttempt;
 import com.bsa.campcard.exception.ResourceNotFoundException;
 import com.bsa.campcard.repository.OfferRedemptionRepository;
 import com.bsa.campcard.repository.OfferRepository;
-import com.bsa.campcard.repository.OfferScanAttemptRepository;
+import com.bsa.campcard.service.abuse.AbuseCheckResult;
+import com.bsa.campcard.service.abuse.ScanAbuseDetector;
+import com.bsa.campcard.service.abuse.ScanAttemptWriter;
+import com.bsa.campcard.service.abuse.ScanEvent;
+import com.bsa.campcard.service.qr.QrToken;
+import com.bsa.campcard.service.qr.QrTokenCodec;
+import com.bsa.campcard.service.redemption.RedemptionCounters;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bsa.campcard.domain.user.User;
@@ -19,16 +25,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.ZoneOffset;
-import java.util.Base64;
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -42,24 +42,17 @@ public class OfferQrService {
 
     private final OfferRepository offerRepository;
     private final OfferRedemptionRepository offerRedemptionRepository;
-    private final OfferScanAttemptRepository scanAttemptRepository;
     private final UserRepository userRepository;
-
-    @Value("${campcard.qr.secret-key:campcard-qr-secret-key-2026}")
-    private String secretKey;
+    private final ScanAbuseDetector abuseDetector;
+    private final ScanAttemptWriter scanAttemptWriter;
+    private final QrTokenCodec qrTokenCodec;
+    private final RedemptionCounters redemptionCounters;
 
     @Value("${campcard.qr.token-expiry-hours:24}")
     private int tokenExpiryHours;
 
-    // Abuse detection thresholds
-    private static final int MAX_SCANS_BEFORE_FLAG = 2;
-    private static final double MAX_DISTANCE_KM_PER_MINUTE = 2.0; // ~120 km/h max speed
     private static final int ABUSE_FLAG_THRESHOLD = 3; // Auto-suspend after this many flags
 
-    // Merchant abuse detection thresholds
-    private static final int MAX_MERCHANT_SCANS_PER_MINUTE = 10; // Velocity limit
-    private static final int MAX_MERCHANT_SCANS_SAME_USER = 3; // Same user repeat scan limit
-
     /**
      * Generate a unique QR code data payload for a user to redeem an offer.
      * The QR code contains an HMAC-signed token that cannot be forged.
@@ -95,11 +88,7 @@ public class OfferQrService {
                 .plusHours(tokenExpiryHours)
                 .toEpochSecond(ZoneOffset.UTC);
 
-        String tokenData = String.format("%d:%s:%d", offerId, userId, expirationTime);
-        String signature = generateHmacSignature(tokenData);
-        String redemptionToken = Base64.getUrlEncoder().encodeToString(
-                (tokenData + ":" + signature).getBytes(StandardCharsets.UTF_8)
-        );
+        String redemptionToken = qrTokenCodec.encode(offerId, userId, expirationTime);
 
         // Build QR code data
         QrCodeData qrData = QrCodeData.builder()
@@ -132,6 +121,7 @@ public class OfferQrService {
 
         // Create scan attempt record (includes merchant tracking)
         OfferScanAttempt scanAttempt = OfferScanAttempt.builder()
+                .uuid(UUID.randomUUID())
                 .offerId(validation.getOfferId())
                 .userId(validation.getUserId())
                 .redemptionToken(request.getToken())
@@ -146,14 +136,14 @@ public class OfferQrService {
                 .build();
 
         // Check for abuse patterns
-        AbuseCheckResult abuseCheck = checkForAbuse(request.getToken(), request, validation);
+        AbuseCheckResult abuseCheck = checkForAbuse(scanAttempt, request, validation);
 
         if (!validation.isValid()) {
             scanAttempt.markFailed(
                     OfferScanAttempt.ScanResult.valueOf(validation.getFailureReason()),
                     validation.getErrorMessage()
             );
-            scanAttemptRepository.save(scanAttempt);
+            scanAttemptWriter.write(scanAttempt);
 
             return QrScanResponse.builder()
                     .success(false)
@@ -164,7 +154,7 @@ public class OfferQrService {
 
         if (abuseCheck.isAbusive()) {
             scanAttempt.flagSuspicious(abuseCheck.reason());
-            scanAttemptRepository.save(scanAttempt);
+            scanAttemptWriter.write(scanAttempt);
 
             // Increment user's abuse flag count
             flagUserForAbuse(validation.getUserId(), abuseCheck.reason());
@@ -182,7 +172,7 @@ public class OfferQrService {
         try {
             OfferRedemption redemption = processRedemption(validation, request);
             scanAttempt.markSuccess(redemption.getId());
-            scanAttemptRepository.save(scanAttempt);
+            scanAttemptWriter.write(scanAttempt);
 
             // Update redemption with scan tracking
             redemption.setScanCount(redemption.getScanCount() != null ? redemption.getScanCount() + 1 : 1);
@@ -206,7 +196,7 @@ public class OfferQrService {
 
         } catch (IllegalStateException e) {
             scanAttempt.markFailed(OfferScanAttempt.ScanResult.ALREADY_REDEEMED, e.getMessage());
-            scanAttemptRepository.save(scanAttempt);
+            scanAttemptWriter.write(scanAttempt);
 
             return QrScanResponse.builder()
                     .success(false)
@@ -221,29 +211,18 @@ public class OfferQrService {
      */
     private QrValidationResult validateToken(String token) {
         try {
-            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
-            String[] parts = decoded.split(":");
-
-            if (parts.length != 4) {
-                return QrValidationResult.invalid("INVALID", "Invalid token format");
-            }
-
-            Long offerId = Long.parseLong(parts[0]);
-            UUID userId = UUID.fromString(parts[1]);
-            long expirationTime = Long.parseLong(parts[2]);
-            String providedSignature = parts[3];
+            QrToken parsed = qrTokenCodec.decode(token);
+            Long offerId = parsed.offerId();
+            UUID userId = parsed.userId();
 
             // Verify signature
-            String tokenData = String.format("%d:%s:%d", offerId, userId, expirationTime);
-            String expectedSignature = generateHmacSignature(tokenData);
-
-            if (!providedSignature.equals(expectedSignature)) {
-                log.warn("Invalid signature for token, possible tampering attempt");
+            if (!parsed.signatureValid()) {
+                log.warn("Invalid signature for token (key {}), possible tampering attempt", parsed.keyId());
                 return QrValidationResult.invalid("INVALID", "Token signature verification failed");
             }
 
             // Check expiration
-            if (LocalDateTime.now().toEpochSecond(ZoneOffset.UTC) > expirationTime) {
+            if (parsed.isExpired(LocalDateTime.now().toEpochSecond(ZoneOffset.UTC))) {
                 return QrValidationResult.invalid("EXPIRED", "This QR code has expired");
             }
 
@@ -265,108 +244,23 @@ public class OfferQrService {
     }
 
     /**
-     * Check for abuse patterns in scan attempts
+     * Check a valid token's scan for abuse patterns
      */
-    private AbuseCheckResult checkForAbuse(String token, QrScanRequest request, QrValidationResult validation) {
+    private AbuseCheckResult checkForAbuse(OfferScanAttempt scanAttempt, QrScanRequest request, QrValidationResult validation) {
         if (!validation.isValid()) {
             return AbuseCheckResult.ok();
         }
 
-        // Check 1: Multiple scans of the same token
-        long scanCount = scanAttemptRepository.countByRedemptionToken(token);
-        if (scanCount >= MAX_SCANS_BEFORE_FLAG) {
-            return AbuseCheckResult.abusive(
-                    String.format("QR code scanned %d times (limit: %d). Possible screenshot sharing detected.",
-                            scanCount + 1, MAX_SCANS_BEFORE_FLAG)
-            );
-        }
-
-        // Check 2: Scans from different devices
-        if (request.getDeviceFingerprint() != null) {
-            boolean differentDevice = scanAttemptRepository.hasScansFromDifferentDevice(
-                    token, request.getDeviceFingerprint()
-            );
-            if (differentDevice) {
-                return AbuseCheckResult.abusive(
-                        "QR code scanned from multiple devices. Possible screenshot sharing detected."
-                );
-            }
-        }
-
-        // Check 3: Impossible travel (geographic anomaly)
-        if (request.getLatitude() != null && request.getLongitude() != null) {
-            List<OfferScanAttempt> recentScans = scanAttemptRepository.findScansWithLocationForToken(
-                    token, LocalDateTime.now().minusHours(1)
-            );
-
-            for (OfferScanAttempt prevScan : recentScans) {
-                if (prevScan.getLatitude() != null && prevScan.getLongitude() != null) {
-                    double distance = calculateDistanceKm(
-                            prevScan.getLatitude().doubleValue(),
-                            prevScan.getLongitude().doubleValue(),
-                            request.getLatitude().doubleValue(),
-                            request.getLongitude().doubleValue()
-                    );
-
-                    long minutesBetween = java.time.Duration.between(
-                            prevScan.getScannedAt(), LocalDateTime.now()
-                    ).toMinutes();
-
-                    if (minutesBetween > 0) {
-                        double speedKmPerMinute = distance / minutesBetween;
-                        if (speedKmPerMinute > MAX_DISTANCE_KM_PER_MINUTE) {
-                            return AbuseCheckResult.abusive(
-                                    String.format("Impossible travel detected: %.1f km in %d minutes",
-                                            distance, minutesBetween)
-                            );
-                        }
-                    }
-                }
-            }
-        }
-
-        // Check 4: User has history of suspicious activity
-        long suspiciousCount = scanAttemptRepository.countByUserIdAndIsSuspiciousTrue(validation.getUserId());
-        if (suspiciousCount >= 3) {
-            return AbuseCheckResult.abusive(
-                    "User has multiple prior suspicious scan attempts"
-            );
-        }
-
-        // Check 5: Merchant velocity check (too many scans in short time)
-        if (request.getMerchantId() != null) {
-            long merchantScansLastMinute = scanAttemptRepository.countMerchantScansInWindow(
-                    request.getMerchantId(), LocalDateTime.now().minusMinutes(1)
-            );
-            if (merchantScansLastMinute >= MAX_MERCHANT_SCANS_PER_MINUTE) {
-                return AbuseCheckResult.abusive(
-                        String.format("Merchant scanning too rapidly: %d scans in last minute (limit: %d)",
-                                merchantScansLastMinute + 1, MAX_MERCHANT_SCANS_PER_MINUTE)
-                );
-            }
-
-            // Check 6: Merchant scanning same user repeatedly
-            long merchantUserScans = scanAttemptRepository.countMerchantScansForUser(
-                    request.getMerchantId(), validation.getUserId()
-            );
-            if (merchantUserScans >= MAX_MERCHANT_SCANS_SAME_USER) {
-                return AbuseCheckResult.abusive(
-                        String.format("Merchant has scanned this user's QR codes %d times (limit: %d)",
-                                merchantUserScans + 1, MAX_MERCHANT_SCANS_SAME_USER)
-                );
-            }
-
-            // Check 7: Merchant has history of suspicious scans
-            long merchantSuspiciousCount = scanAttemptRepository.countByMerchantIdAndIsSuspiciousTrue(
-                    request.getMerchantId()
-            );
-            if (merchantSuspiciousCount >= 5) {
-                log.warn("Merchant {} has {} suspicious scans on record",
-                        request.getMerchantId(), merchantSuspiciousCount);
-            }
-        }
-
-        return AbuseCheckResult.ok();
+        return abuseDetector.check(new ScanEvent(
+                scanAttempt.getUuid(),
+                request.getToken(),
+                validation.getUserId(),
+                request.getMerchantId(),
+                request.getDeviceFingerprint(),
+                request.getLatitude(),
+                request.getLongitude(),
+                scanAttempt.getScannedAt().atZone(ZoneId.systemDefault()).toInstant()
+        ));
     }
 
     /**
@@ -408,6 +302,11 @@ public class OfferQrService {
             throw new IllegalStateException("You have already redeemed this offer");
         }
 
+        // The offer-wide limit is enforced by the claim itself
+        if (!redemptionCounters.claim(offer)) {
+            throw new IllegalStateException("This offer has reached its redemption limit");
+        }
+
         // Calculate discount
         BigDecimal purchaseAmount = request.getPurchaseAmount() != null ?
                 request.getPurchaseAmount() : BigDecimal.ZERO;
@@ -435,33 +334,12 @@ public class OfferQrService {
 
         redemption = offerRedemptionRepository.save(redemption);
 
-        // Update offer redemption count
-        offer.setTotalRedemptions(offer.getTotalRedemptions() + 1);
-        offerRepository.save(offer);
-
         log.info("Redemption created: {} for offer {} by user {}",
                 redemption.getVerificationCode(), offer.getId(), validation.getUserId());
 
         return redemption;
     }
 
-    /**
-     * Generate HMAC-SHA256 signature
-     */
-    private String generateHmacSignature(String data) {
-        try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKeySpec = new SecretKeySpec(
-                    secretKey.getBytes(StandardCharsets.UTF_8), "HmacSHA256"
-            );
-            mac.init(secretKeySpec);
-            byte[] hmacBytes = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            return Base64.getUrlEncoder().withoutPadding().encodeToString(hmacBytes);
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-            throw new RuntimeException("Failed to generate HMAC signature", e);
-        }
-    }
-
     /**
      * Generate 8-character verification code
      */
@@ -474,33 +352,4 @@ public class OfferQrService {
         }
         return code.toString();
     }
-
-    /**
-     * Calculate distance between two coordinates using Haversine formula
-     */
-    private double calculateDistanceKm(double lat1, double lon1, double lat2, double lon2) {
-        final double R = 6371; // Earth's radius in km
-
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        return R * c;
-    }
-
-    // Inner classes for results
-    private record AbuseCheckResult(boolean isAbusive, String reason) {
-        static AbuseCheckResult ok() {
-            return new AbuseCheckResult(false, null);
-        }
-
-        static AbuseCheckResult abusive(String reason) {
-            return new AbuseCheckResult(true, reason);
-        }
-    }
 }
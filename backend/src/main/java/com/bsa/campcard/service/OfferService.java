@@ -6,76 +6,82 @@ import com.bsa.campcard.entity.Offer.DiscountType;
 import com.bsa.campcard.entity.Offer.OfferStatus;
 import com.bsa.campcard.entity.OfferRedemption.RedemptionStatus;
 import com.bsa.campcard.repository.*;
-import lombok.RequiredArgsConstructor;
+import com.bsa.campcard.service.catalog.OfferCatalog;
+import com.bsa.campcard.service.image.OfferImageService;
+import com.bsa.campcard.service.redemption.RedemptionCounters;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.Month;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class OfferService {
 
+    private static final int MAX_SEARCH_LENGTH = 100;
+    private static final int MAX_SEARCH_TERMS = 8;
+    private static final int MAX_SUGGESTIONS = 20;
+
     private final OfferRepository offerRepository;
     private final OfferRedemptionRepository redemptionRepository;
     private final MerchantRepository merchantRepository;
     private final OfferScanAttemptRepository scanAttemptRepository;
-    private final OfferImageRepository offerImageRepository;
+    private final OfferImageService offerImageService;
+    private final RedemptionCounters redemptionCounters;
+    private final OfferCatalog offerCatalog;
+    private final TransactionTemplate transactionTemplate;
 
-    /**
-     * Helper method to enrich an offer with merchant data and image from separate table
-     */
-    private OfferResponse enrichWithMerchant(Offer offer, Map<Long, Merchant> merchantCache) {
-        Merchant merchant = merchantCache.get(offer.getMerchantId());
-        OfferResponse response;
-        if (merchant != null) {
-            response = OfferResponse.fromEntity(offer, merchant.getBusinessName(), merchant.getLogoUrl());
-        } else {
-            response = OfferResponse.fromEntity(offer);
-        }
-        // If no imageUrl in offer, check separate images table
-        if (response.getImageUrl() == null) {
-            offerImageRepository.findByOfferId(offer.getId())
-                .ifPresent(img -> response.setImageUrl(img.getImageData()));
-        }
-        return response;
+    public OfferService(OfferRepository offerRepository,
+                        OfferRedemptionRepository redemptionRepository,
+                        MerchantRepository merchantRepository,
+                        OfferScanAttemptRepository scanAttemptRepository,
+                        OfferImageService offerImageService,
+                        RedemptionCounters redemptionCounters,
+                        OfferCatalog offerCatalog,
+                        PlatformTransactionManager transactionManager) {
+        this.offerRepository = offerRepository;
+        this.redemptionRepository = redemptionRepository;
+        this.merchantRepository = merchantRepository;
+        this.scanAttemptRepository = scanAttemptRepository;
+        this.offerImageService = offerImageService;
+        this.redemptionCounters = redemptionCounters;
+        this.offerCatalog = offerCatalog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
-     * Helper method to enrich an offer with merchant and user redemption data
+     * Helper method to enrich an offer with merchant data
      */
-    private OfferResponse enrichWithMerchantAndUserData(Offer offer, Map<Long, Merchant> merchantCache, Map<Long, Integer> userRedemptionCache) {
+    private OfferResponse enrichWithMerchant(Offer offer, Map<Long, Merchant> merchantCache) {
         Merchant merchant = merchantCache.get(offer.getMerchantId());
-        int userRedemptionCount = userRedemptionCache.getOrDefault(offer.getId(), 0);
-        String businessName = merchant != null ? merchant.getBusinessName() : null;
-        String logoUrl = merchant != null ? merchant.getLogoUrl() : null;
-        OfferResponse response = OfferResponse.fromEntityWithUserData(offer, businessName, logoUrl, userRedemptionCount);
-        // If no imageUrl in offer, check separate images table
-        if (response.getImageUrl() == null) {
-            offerImageRepository.findByOfferId(offer.getId())
-                .ifPresent(img -> response.setImageUrl(img.getImageData()));
+        if (merchant != null) {
+            return OfferResponse.fromEntity(offer, merchant.getBusinessName(), merchant.getLogoUrl());
         }
-        return response;
+        return OfferResponse.fromEntity(offer);
     }
 
     /**
-     * Helper method to build user redemption cache from a list of offers
+     * Helper method to build user redemption cache for a list of offer IDs
      */
-    private Map<Long, Integer> buildUserRedemptionCache(List<Offer> offers, UUID userId) {
-        if (userId == null || offers.isEmpty()) {
+    private Map<Long, Integer> buildUserRedemptionCache(List<Long> offerIds, UUID userId) {
+        if (userId == null || offerIds.isEmpty()) {
             return Map.of();
         }
-        List<Long> offerIds = offers.stream().map(Offer::getId).collect(Collectors.toList());
         List<Object[]> results = redemptionRepository.countUserRedemptionsByOfferIds(userId, offerIds);
         return results.stream().collect(Collectors.toMap(
             r -> (Long) r[0],
@@ -93,9 +99,39 @@ public class OfferService {
         return merchantRepository.findAllById(merchantIds).stream()
             .collect(Collectors.toMap(Merchant::getId, m -> m));
     }
+
+    /**
+     * Upload an image given as a base64 data URL to the blob store, or return null for
+     * anything else. Called before the offer's transaction opens, so no connection is
+     * held while the blob store responds.
+     */
+    private OfferImageService.StoredImage storeImage(String imageUrl) {
+        if (imageUrl != null && imageUrl.startsWith("data:")) {
+            return offerImageService.storeDataUrl(imageUrl);
+        }
+        return null;
+    }
+
+    /**
+     * Set the offer's image: the stored upload's URLs, or else {@code imageUrl} as an
+     * external URL.
+     */
+    private void applyImage(Offer offer, String imageUrl, OfferImageService.StoredImage stored) {
+        if (stored != null) {
+            offer.setImageUrl(stored.url());
+            offer.setThumbnailUrl(stored.thumbnailUrl());
+        } else {
+            offer.setImageUrl(imageUrl);
+            offer.setThumbnailUrl(null);
+        }
+    }
     
-    @Transactional
     public OfferResponse createOffer(CreateOfferRequest request) {
+        OfferImageService.StoredImage image = storeImage(request.getImageUrl());
+        return transactionTemplate.execute(status -> saveNewOffer(request, image));
+    }
+
+    private OfferResponse saveNewOffer(CreateOfferRequest request, OfferImageService.StoredImage image) {
         // Validate merchant exists and is approved
         Merchant merchant = merchantRepository.findById(request.getMerchantId())
             .orElseThrow(() -> new IllegalArgumentException("Merchant not found"));
@@ -124,12 +160,7 @@ public class OfferService {
         offer.setMaxDiscountAmount(request.getMaxDiscountAmount());
         offer.setCategory(request.getCategory());
         offer.setTerms(request.getTerms());
-        // Handle image URL - if it's base64, store in separate table; if URL, store directly
-        String imageUrl = request.getImageUrl();
-        boolean isBase64 = imageUrl != null && imageUrl.startsWith("data:");
-        if (!isBase64) {
-            offer.setImageUrl(imageUrl);
-        }
+        applyImage(offer, request.getImageUrl(), image);
         offer.setValidFrom(request.getValidFrom());
         // All offers expire on December 31st of the current year
         offer.setValidUntil(expirationDate);
@@ -146,28 +177,19 @@ public class OfferService {
         
         Offer savedOffer = offerRepository.save(offer);
 
-        // If base64 image, store in separate table
-        if (isBase64) {
-            OfferImage offerImage = OfferImage.builder()
-                .offerId(savedOffer.getId())
-                .imageData(imageUrl)
-                .build();
-            offerImageRepository.save(offerImage);
-        }
-
         // Update merchant offer counts
         updateMerchantOfferCounts(merchant.getId());
 
-        // Return response with image data if stored separately
-        OfferResponse response = OfferResponse.fromEntity(savedOffer, merchant.getBusinessName(), merchant.getLogoUrl());
-        if (isBase64) {
-            response.setImageUrl(imageUrl);
-        }
-        return response;
+        return OfferResponse.fromEntity(savedOffer, merchant.getBusinessName(), merchant.getLogoUrl());
     }
     
-    @Transactional
     public OfferResponse updateOffer(Long offerId, CreateOfferRequest request) {
+        OfferImageService.StoredImage image = storeImage(request.getImageUrl());
+        return transactionTemplate.execute(status -> saveOfferChanges(offerId, request, image));
+    }
+
+    private OfferResponse saveOfferChanges(Long offerId, CreateOfferRequest request,
+                                           OfferImageService.StoredImage image) {
         Offer offer = offerRepository.findById(offerId)
             .orElseThrow(() -> new IllegalArgumentException("Offer not found"));
         
@@ -179,12 +201,7 @@ public class OfferService {
         if (request.getMaxDiscountAmount() != null) offer.setMaxDiscountAmount(request.getMaxDiscountAmount());
         if (request.getCategory() != null) offer.setCategory(request.getCategory());
         if (request.getTerms() != null) offer.setTerms(request.getTerms());
-        // Handle image URL - if base64, store in separate table; if URL, store directly
-        String imageUrl = request.getImageUrl();
-        boolean isBase64Image = imageUrl != null && imageUrl.startsWith("data:");
-        if (imageUrl != null && !isBase64Image) {
-            offer.setImageUrl(imageUrl);
-        }
+        if (request.getImageUrl() != null) applyImage(offer, request.getImageUrl(), image);
         if (request.getValidFrom() != null) offer.setValidFrom(request.getValidFrom());
         // Allow custom expiration date if provided, otherwise default to December 31st of current year
         if (request.getValidUntil() != null) {
@@ -202,17 +219,6 @@ public class OfferService {
 
         Offer updatedOffer = offerRepository.save(offer);
 
-        // Handle base64 image storage in separate table
-        if (isBase64Image) {
-            // Delete existing image if any, then save new one
-            offerImageRepository.findByOfferId(offerId).ifPresent(offerImageRepository::delete);
-            OfferImage offerImage = OfferImage.builder()
-                .offerId(offerId)
-                .imageData(imageUrl)
-                .build();
-            offerImageRepository.save(offerImage);
-        }
-
         Merchant merchant = merchantRepository.findById(updatedOffer.getMerchantId()).orElse(null);
         OfferResponse response;
         if (merchant != null) {
@@ -220,13 +226,6 @@ public class OfferService {
         } else {
             response = OfferResponse.fromEntity(updatedOffer);
         }
-        // Include image from separate table if base64 was stored
-        if (isBase64Image) {
-            response.setImageUrl(imageUrl);
-        } else if (response.getImageUrl() == null) {
-            offerImageRepository.findByOfferId(offerId)
-                .ifPresent(img -> response.setImageUrl(img.getImageData()));
-        }
         return response;
     }
 
@@ -240,11 +239,6 @@ public class OfferService {
         } else {
             response = OfferResponse.fromEntity(offer);
         }
-        // Check for image in separate table
-        if (response.getImageUrl() == null) {
-            offerImageRepository.findByOfferId(offerId)
-                .ifPresent(img -> response.setImageUrl(img.getImageData()));
-        }
         return response;
     }
 
@@ -265,19 +259,25 @@ public class OfferService {
         String logoUrl = merchant != null ? merchant.getLogoUrl() : null;
         OfferResponse response = OfferResponse.fromEntityWithUserData(offer, businessName, logoUrl, userRedemptionCount);
 
-        // Check for image in separate table
-        if (response.getImageUrl() == null) {
-            offerImageRepository.findByOfferId(offerId)
-                .ifPresent(img -> response.setImageUrl(img.getImageData()));
-        }
         return response;
     }
 
     public Page<OfferResponse> getActiveOffers(Pageable pageable) {
-        LocalDateTime now = LocalDateTime.now();
-        Page<Offer> offerPage = offerRepository.findActiveOffers(OfferStatus.ACTIVE, now, pageable);
-        Map<Long, Merchant> merchantCache = buildMerchantCache(offerPage.getContent());
-        return offerPage.map(offer -> enrichWithMerchant(offer, merchantCache));
+        if (!inCatalogOrder(pageable)) {
+            LocalDateTime now = LocalDateTime.now();
+            Page<Offer> offerPage = offerRepository.findActiveOffers(OfferStatus.ACTIVE, now, pageable);
+            Map<Long, Merchant> merchantCache = buildMerchantCache(offerPage.getContent());
+            return offerPage.map(offer -> enrichWithMerchant(offer, merchantCache));
+        }
+        return getActiveOffers(null, pageable);
+    }
+
+    /**
+     * Active offers of one council's merchants (all councils if {@code councilId} is
+     * null), newest first, from the offer catalog.
+     */
+    public Page<OfferResponse> getActiveOffers(Long councilId, Pageable pageable) {
+        return page(offerCatalog.snapshot().view(councilId).active(), pageable).map(OfferCatalog.Entry::toResponse);
     }
 
     /**
@@ -285,11 +285,18 @@ public class OfferService {
      * This allows filtering out offers the user has already fully redeemed
      */
     public Page<OfferResponse> getActiveOffersForUser(UUID userId, Pageable pageable) {
-        LocalDateTime now = LocalDateTime.now();
-        Page<Offer> offerPage = offerRepository.findActiveOffers(OfferStatus.ACTIVE, now, pageable);
-        Map<Long, Merchant> merchantCache = buildMerchantCache(offerPage.getContent());
-        Map<Long, Integer> userRedemptionCache = buildUserRedemptionCache(offerPage.getContent(), userId);
-        return offerPage.map(offer -> enrichWithMerchantAndUserData(offer, merchantCache, userRedemptionCache));
+        return getActiveOffersForUser(userId, null, pageable);
+    }
+
+    /**
+     * Catalog offers as for {@link #getActiveOffers(Long, Pageable)}, with the user's
+     * redemption counts for the offers on the page.
+     */
+    public Page<OfferResponse> getActiveOffersForUser(UUID userId, Long councilId, Pageable pageable) {
+        Page<OfferCatalog.Entry> entries = page(offerCatalog.snapshot().view(councilId).active(), pageable);
+        Map<Long, Integer> userRedemptionCache = buildUserRedemptionCache(
+            entries.stream().map(entry -> entry.offer().getId()).toList(), userId);
+        return entries.map(entry -> entry.toResponse(userRedemptionCache.getOrDefault(entry.offer().getId(), 0)));
     }
 
     public Page<OfferResponse> getMerchantOffers(Long merchantId, Pageable pageable) {
@@ -304,27 +311,95 @@ public class OfferService {
     }
 
     public Page<OfferResponse> getOffersByCategory(String category, Pageable pageable) {
-        LocalDateTime now = LocalDateTime.now();
-        Page<Offer> offerPage = offerRepository.findActiveByCategoryAndStatus(category, OfferStatus.ACTIVE, now, pageable);
-        Map<Long, Merchant> merchantCache = buildMerchantCache(offerPage.getContent());
-        return offerPage.map(offer -> enrichWithMerchant(offer, merchantCache));
+        if (!inCatalogOrder(pageable)) {
+            LocalDateTime now = LocalDateTime.now();
+            Page<Offer> offerPage = offerRepository.findActiveByCategoryAndStatus(category, OfferStatus.ACTIVE, now, pageable);
+            Map<Long, Merchant> merchantCache = buildMerchantCache(offerPage.getContent());
+            return offerPage.map(offer -> enrichWithMerchant(offer, merchantCache));
+        }
+        return page(offerCatalog.snapshot().all().category(category), pageable).map(OfferCatalog.Entry::toResponse);
     }
 
+    /**
+     * Featured active offers, newest first. The pageable's sort is ignored.
+     */
     public Page<OfferResponse> getFeaturedOffers(Pageable pageable) {
-        LocalDateTime now = LocalDateTime.now();
-        List<Offer> offersList = offerRepository.findFeaturedOffers(OfferStatus.ACTIVE, now, pageable);
-        Map<Long, Merchant> merchantCache = buildMerchantCache(offersList);
-        List<OfferResponse> responses = offersList.stream()
-                .map(offer -> enrichWithMerchant(offer, merchantCache))
-                .toList();
-        return new org.springframework.data.domain.PageImpl<>(responses, pageable, responses.size());
+        return page(offerCatalog.snapshot().all().featured(), pageable).map(OfferCatalog.Entry::toResponse);
+    }
+
+    /**
+     * The catalog is sorted newest first; other orders are left to the database.
+     */
+    private static boolean inCatalogOrder(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        return sort.isUnsorted() || sort.equals(Sort.by(Sort.Direction.DESC, "createdAt"));
     }
 
+    private static <T> Page<T> page(List<T> sorted, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(sorted, pageable, sorted.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), sorted.size());
+        int to = Math.min(from + pageable.getPageSize(), sorted.size());
+        return new PageImpl<>(sorted.subList(from, to), pageable, sorted.size());
+    }
+
+    /**
+     * Ranked search over active offers by title, merchant name, category, city and
+     * description. Every word matches by prefix, so partial input works for typeahead;
+     * results are ordered by relevance and the pageable's sort is ignored.
+     */
     public Page<OfferResponse> searchOffers(String search, Pageable pageable) {
-        Page<Offer> offerPage = offerRepository.searchOffers(search, OfferStatus.ACTIVE, pageable);
+        String text = normalizeSearch(search);
+        String tsQuery = toPrefixQuery(text);
+        if (tsQuery.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        Page<Offer> offerPage = offerRepository.searchRanked(tsQuery, text, LocalDateTime.now(),
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
         Map<Long, Merchant> merchantCache = buildMerchantCache(offerPage.getContent());
         return offerPage.map(offer -> enrichWithMerchant(offer, merchantCache));
     }
+
+    /**
+     * Top matches for a partially typed search term.
+     */
+    public List<OfferResponse> suggestOffers(String prefix, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return searchOffers(prefix, PageRequest.of(0, size)).getContent();
+    }
+
+    /**
+     * Lower-cases the term and reduces it to letters and digits separated by single
+     * spaces, capped at {@value #MAX_SEARCH_LENGTH} characters.
+     */
+    static String normalizeSearch(String search) {
+        if (search == null) {
+            return "";
+        }
+        String normalized = search.toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+        if (normalized.length() > MAX_SEARCH_LENGTH) {
+            normalized = normalized.substring(0, MAX_SEARCH_LENGTH).trim();
+        }
+        return normalized;
+    }
+
+    /**
+     * Builds a to_tsquery expression requiring every word as a prefix, e.g.
+     * {@code "pizza den"} becomes {@code "pizza:* & den:*"}.
+     */
+    static String toPrefixQuery(String normalized) {
+        if (normalized.isEmpty()) {
+            return "";
+        }
+        return Arrays.stream(normalized.split(" "))
+                .limit(MAX_SEARCH_TERMS)
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+    }
     
     @Transactional
     public OfferRedemptionResponse redeemOffer(RedeemOfferRequest request) {
@@ -346,6 +421,11 @@ public class OfferService {
             throw new IllegalStateException("User has reached redemption limit for this offer");
         }
         
+        // The offer-wide limit is enforced by the claim itself, not the read above
+        if (!redemptionCounters.claim(offer)) {
+            throw new IllegalStateException("Offer has reached its redemption limit");
+        }
+        
         // Calculate discount
         BigDecimal discountAmount = offer.calculateDiscount(request.getPurchaseAmount());
         BigDecimal finalAmount = request.getPurchaseAmount() != null 
@@ -370,13 +450,6 @@ public class OfferService {
         
         OfferRedemption savedRedemption = redemptionRepository.save(redemption);
         
-        // Increment offer redemption count
-        offer.setTotalRedemptions(offer.getTotalRedemptions() + 1);
-        offerRepository.save(offer);
-        
-        // Update merchant redemption stats
-        updateMerchantRedemptionStats(offer.getMerchantId());
-        
         return OfferRedemptionResponse.fromEntity(savedRedemption);
     }
     
@@ -438,57 +511,18 @@ public class OfferService {
         updateMerchantOfferCounts(merchantId);
     }
     
-    @Scheduled(cron = "0 0 * * * *") // Every hour
-    @Transactional
-    public void expireOldOffers() {
-        LocalDateTime now = LocalDateTime.now();
-        List<Offer> expiredOffers = offerRepository.findByStatusAndValidUntilBefore(
-            OfferStatus.ACTIVE, 
-            now
-        );
-        
-        expiredOffers.forEach(offer -> {
-            offer.setStatus(OfferStatus.EXPIRED);
-            offerRepository.save(offer);
-            updateMerchantOfferCounts(offer.getMerchantId());
-        });
-    }
-    
-    @Scheduled(cron = "0 0 0 * * *") // Daily at midnight
-    @Transactional
-    public void expireOldRedemptions() {
-        LocalDateTime cutoff = LocalDateTime.now().minusDays(7);
-        List<OfferRedemption> oldRedemptions = redemptionRepository
-            .findByStatusAndCreatedAtBefore(RedemptionStatus.PENDING, cutoff);
-        
-        oldRedemptions.forEach(redemption -> {
-            redemption.setStatus(RedemptionStatus.EXPIRED);
-            redemptionRepository.save(redemption);
-        });
-    }
-    
     private void updateMerchantOfferCounts(Long merchantId) {
         Merchant merchant = merchantRepository.findById(merchantId).orElse(null);
         if (merchant == null) return;
         
         long activeCount = offerRepository.countByMerchantIdAndStatus(merchantId, OfferStatus.ACTIVE);
-        long totalCount = offerRepository.findByMerchantId(merchantId, Pageable.unpaged()).getTotalElements();
+        long totalCount = offerRepository.countByMerchantId(merchantId);
         
         merchant.setActiveOffers((int) activeCount);
         merchant.setTotalOffers((int) totalCount);
         merchantRepository.save(merchant);
     }
     
-    private void updateMerchantRedemptionStats(Long merchantId) {
-        Merchant merchant = merchantRepository.findById(merchantId).orElse(null);
-        if (merchant == null) return;
-        
-        // Count could be calculated from all merchant offers' redemptions
-        // For simplicity, increment the counter
-        merchant.setTotalRedemptions(merchant.getTotalRedemptions() + 1);
-        merchantRepository.save(merchant);
-    }
-    
     private String generateVerificationCode() {
         return UUID.randomUUID().toString().replace("-", "").substring(0, 8).toUpperCase();
     }
@@ -5,16 +5,23 @@ import com.bsa.campcard.repository.DeviceTokenRepository;
 import com.google.firebase.messaging.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Push Notification Service for BSA Camp Card
@@ -27,6 +34,9 @@ import java.util.stream.Collectors;
  * - Engagement: Referrals, milestones, offers
  * - Informational: Updates, announcements
  *
+ * Bulk sends and announcements stream device tokens in pages and pack them into
+ * 500-token multicasts per platform, sent concurrently by {@link FcmMulticastSender}.
+ *
  * All notifications follow BSA Camp Card branding:
  * - Clear, concise messaging
  * - Professional tone for family audiences
@@ -38,6 +48,18 @@ import java.util.stream.Collectors;
 public class PushNotificationService {
 
     private final DeviceTokenRepository deviceTokenRepository;
+    private final FcmMulticastSender fcmSender;
+    private final DeviceTokenHealth tokenHealth;
+
+    // Platforms sent through FCM
+    private static final Set<DeviceToken.DeviceType> FCM_PLATFORMS =
+            EnumSet.of(DeviceToken.DeviceType.IOS, DeviceToken.DeviceType.ANDROID);
+
+    // Users whose tokens are loaded per query for bulk sends
+    private static final int USER_PAGE_SIZE = 1000;
+
+    // Tokens loaded per query for announcements
+    private static final int TOKEN_PAGE_SIZE = 5000;
 
     // BSA Brand Color for Android notifications
     private static final String BSA_NAVY_COLOR = "#003f87";
@@ -608,24 +630,47 @@ public class PushNotificationService {
     // ========================================================================
 
     /**
-     * Send notification to multiple users
+     * Send notification to multiple users. Their active tokens are loaded a page of users
+     * at a time and packed into full multicasts per platform.
      */
     @Async
     public void sendBulkNotification(List<Long> userIds, String title, String body, String channel, Map<String, String> data) {
-        for (Long userId : userIds) {
-            sendPushNotification(userId, title, body, channel, data);
+        PushFanout fanout = new PushFanout(title, body, channel, data);
+        for (int i = 0; i < userIds.size(); i += USER_PAGE_SIZE) {
+            deviceTokenRepository.findByUserIdInAndActiveTrue(userIds.subList(i, Math.min(i + USER_PAGE_SIZE, userIds.size())))
+                    .forEach(fanout::add);
         }
+        fanout.finish();
+
+        log.info("Bulk push notification sent to {} users - Success: {}, Failure: {}",
+                userIds.size(), fanout.successCount.get(), fanout.failureCount.get());
     }
 
     /**
-     * Send announcement to all active users
+     * Send announcement to all active users, streaming every active device token a page
+     * at a time per platform
      */
     @Async
     public void sendAnnouncementNotification(String title, String body, Map<String, String> data) {
-        // This would typically query for all users with active device tokens
-        // For now, log the announcement
         log.info("Sending announcement to all users: {} - {}", title, body);
-        // Implementation would depend on scale requirements
+
+        PushFanout fanout = new PushFanout(title, body, CHANNEL_GENERAL, data);
+        for (DeviceToken.DeviceType platform : FCM_PLATFORMS) {
+            long afterId = 0;
+            List<DeviceToken> page;
+            do {
+                page = deviceTokenRepository.findByDeviceTypeAndActiveTrueAndIdGreaterThanOrderByIdAsc(
+                        platform, afterId, PageRequest.of(0, TOKEN_PAGE_SIZE));
+                page.forEach(fanout::add);
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == TOKEN_PAGE_SIZE);
+        }
+        fanout.finish();
+
+        log.info("Announcement sent - Success: {}, Failure: {}",
+                fanout.successCount.get(), fanout.failureCount.get());
     }
 
     // ========================================================================
@@ -645,33 +690,9 @@ public class PushNotificationService {
                 return;
             }
 
-            // Add channel and notification metadata to data payload
-            Map<String, String> enrichedData = new HashMap<>(data);
-            enrichedData.put("channel", channel);
-            enrichedData.put("notification_id", java.util.UUID.randomUUID().toString());
-
-            // Group tokens by platform
-            Map<DeviceToken.DeviceType, List<String>> tokensByPlatform = tokens.stream()
-                    .collect(Collectors.groupingBy(
-                            DeviceToken::getDeviceType,
-                            Collectors.mapping(DeviceToken::getToken, Collectors.toList())
-                    ));
-
-            // Build notification
-            Notification notification = Notification.builder()
-                    .setTitle(title)
-                    .setBody(body)
-                    .build();
-
-            // Send to iOS devices
-            if (tokensByPlatform.containsKey(DeviceToken.DeviceType.IOS)) {
-                sendToIOS(tokensByPlatform.get(DeviceToken.DeviceType.IOS), notification, enrichedData, channel);
-            }
-
-            // Send to Android devices
-            if (tokensByPlatform.containsKey(DeviceToken.DeviceType.ANDROID)) {
-                sendToAndroid(tokensByPlatform.get(DeviceToken.DeviceType.ANDROID), notification, enrichedData, channel);
-            }
+            PushFanout fanout = new PushFanout(title, body, channel, data);
+            tokens.forEach(fanout::add);
+            fanout.finish();
 
             log.info("Push notification sent to user {} - {} devices", userId, tokens.size());
 
@@ -681,118 +702,134 @@ public class PushNotificationService {
     }
 
     /**
-     * Send to iOS devices via FCM with APNs configuration
+     * APNs configuration for iOS devices
      */
-    private void sendToIOS(List<String> tokens, Notification notification, Map<String, String> data, String channel) {
-        try {
-            // Build APNs configuration
-            ApnsConfig apnsConfig = ApnsConfig.builder()
-                    .setAps(Aps.builder()
-                            .setSound("default")
-                            .setBadge(1)
-                            .setCategory(channel)
-                            .setThreadId(channel)
-                            .build())
-                    .putHeader("apns-priority", "10")
-                    .putHeader("apns-push-type", "alert")
-                    .build();
-
-            // Send in batches of 500 (FCM limit)
-            for (int i = 0; i < tokens.size(); i += 500) {
-                List<String> batch = tokens.subList(i, Math.min(i + 500, tokens.size()));
-
-                MulticastMessage message = MulticastMessage.builder()
-                        .setNotification(notification)
-                        .putAllData(data)
-                        .setApnsConfig(apnsConfig)
-                        .addAllTokens(batch)
-                        .build();
-
-                BatchResponse response = FirebaseMessaging.getInstance().sendEachForMulticast(message);
-                handleSendResponse(response, batch, "iOS");
-            }
+    private ApnsConfig apnsConfig(String channel) {
+        return ApnsConfig.builder()
+                .setAps(Aps.builder()
+                        .setSound("default")
+                        .setBadge(1)
+                        .setCategory(channel)
+                        .setThreadId(channel)
+                        .build())
+                .putHeader("apns-priority", "10")
+                .putHeader("apns-push-type", "alert")
+                .build();
+    }
 
-        } catch (FirebaseMessagingException e) {
-            log.error("Error sending to iOS devices: {}", e.getMessage());
-        }
+    /**
+     * Android configuration with BSA branding
+     */
+    private AndroidConfig androidConfig(String channel) {
+        return AndroidConfig.builder()
+                .setPriority(AndroidConfig.Priority.HIGH)
+                .setNotification(AndroidNotification.builder()
+                        .setSound("default")
+                        .setColor(BSA_NAVY_COLOR)
+                        .setChannelId(channel)
+                        .setIcon("ic_notification")
+                        .build())
+                .build();
     }
 
     /**
-     * Send to Android devices via FCM
+     * One notification sent to any number of device tokens. Tokens are buffered per
+     * platform and each full buffer goes out as one multicast on the FCM sender's pool,
+     * so multicasts are sent concurrently while further tokens are still loading. Send
+     * outcomes feed {@link DeviceTokenHealth}; tokens it is backing off are skipped.
      */
-    private void sendToAndroid(List<String> tokens, Notification notification, Map<String, String> data, String channel) {
-        try {
-            // Build Android configuration with BSA branding
-            AndroidConfig androidConfig = AndroidConfig.builder()
-                    .setPriority(AndroidConfig.Priority.HIGH)
-                    .setNotification(AndroidNotification.builder()
-                            .setSound("default")
-                            .setColor(BSA_NAVY_COLOR)
-                            .setChannelId(channel)
-                            .setIcon("ic_notification")
-                            .build())
-                    .build();
+    private class PushFanout {
 
-            // Send in batches of 500 (FCM limit)
-            for (int i = 0; i < tokens.size(); i += 500) {
-                List<String> batch = tokens.subList(i, Math.min(i + 500, tokens.size()));
+        private final Notification notification;
+        private final Map<String, String> data;
+        private final String channel;
+        private final Map<DeviceToken.DeviceType, List<String>> buffers = new EnumMap<>(DeviceToken.DeviceType.class);
+        private final List<CompletableFuture<Void>> multicasts = new ArrayList<>();
+        private final AtomicInteger successCount = new AtomicInteger();
+        private final AtomicInteger failureCount = new AtomicInteger();
 
-                MulticastMessage message = MulticastMessage.builder()
-                        .setNotification(notification)
-                        .putAllData(data)
-                        .setAndroidConfig(androidConfig)
-                        .addAllTokens(batch)
-                        .build();
+        PushFanout(String title, String body, String channel, Map<String, String> data) {
+            this.notification = Notification.builder()
+                    .setTitle(title)
+                    .setBody(body)
+                    .build();
+            this.channel = channel;
 
-                BatchResponse response = FirebaseMessaging.getInstance().sendEachForMulticast(message);
-                handleSendResponse(response, batch, "Android");
+            // Add channel and notification metadata to data payload
+            this.data = new HashMap<>(data);
+            this.data.put("channel", channel);
+            this.data.put("notification_id", UUID.randomUUID().toString());
+        }
+
+        void add(DeviceToken token) {
+            if (!FCM_PLATFORMS.contains(token.getDeviceType()) || tokenHealth.isBackedOff(token.getToken())) {
+                return;
+            }
+            List<String> buffer = buffers.computeIfAbsent(token.getDeviceType(), platform -> new ArrayList<>());
+            buffer.add(token.getToken());
+            if (buffer.size() == FcmMulticastSender.MAX_TOKENS_PER_MULTICAST) {
+                send(token.getDeviceType(), buffers.remove(token.getDeviceType()));
             }
+        }
 
-        } catch (FirebaseMessagingException e) {
-            log.error("Error sending to Android devices: {}", e.getMessage());
+        /**
+         * Send the partly filled buffers and wait for every multicast
+         */
+        void finish() {
+            buffers.forEach(this::send);
+            buffers.clear();
+            CompletableFuture.allOf(multicasts.toArray(CompletableFuture[]::new)).join();
         }
-    }
 
-    /**
-     * Handle FCM send response and clean up invalid tokens
-     */
-    private void handleSendResponse(BatchResponse response, List<String> tokens, String platform) {
-        log.info("{} notifications - Success: {}, Failure: {}",
-                platform, response.getSuccessCount(), response.getFailureCount());
+        private void send(DeviceToken.DeviceType platform, List<String> tokens) {
+            MulticastMessage.Builder message = MulticastMessage.builder()
+                    .setNotification(notification)
+                    .putAllData(data)
+                    .addAllTokens(tokens);
+            if (platform == DeviceToken.DeviceType.IOS) {
+                message.setApnsConfig(apnsConfig(channel));
+            } else {
+                message.setAndroidConfig(androidConfig(channel));
+            }
+            String platformName = platform == DeviceToken.DeviceType.IOS ? "iOS" : "Android";
+
+            multicasts.add(fcmSender.submit(message.build())
+                    .thenAccept(response -> handleSendResponse(response, tokens, platformName))
+                    .exceptionally(e -> {
+                        log.error("Error sending to {} devices: {}", platformName, e.getMessage());
+                        failureCount.addAndGet(tokens.size());
+                        return null;
+                    }));
+        }
+
+        /**
+         * Count the FCM send response and report each token's outcome to token health
+         */
+        private void handleSendResponse(BatchResponse response, List<String> tokens, String platform) {
+            log.debug("{} notifications - Success: {}, Failure: {}",
+                    platform, response.getSuccessCount(), response.getFailureCount());
+            successCount.addAndGet(response.getSuccessCount());
+            failureCount.addAndGet(response.getFailureCount());
 
-        // Handle failed tokens
-        if (response.getFailureCount() > 0) {
             List<SendResponse> responses = response.getResponses();
             for (int i = 0; i < responses.size(); i++) {
-                if (!responses.get(i).isSuccessful()) {
-                    FirebaseMessagingException exception = responses.get(i).getException();
-                    if (exception != null) {
-                        String errorCode = exception.getMessagingErrorCode() != null
-                                ? exception.getMessagingErrorCode().name()
-                                : "UNKNOWN";
-
-                        // Deactivate invalid tokens
-                        if ("UNREGISTERED".equals(errorCode) || "INVALID_ARGUMENT".equals(errorCode)) {
-                            String invalidToken = tokens.get(i);
-                            deactivateToken(invalidToken);
-                        }
-                    }
+                String token = tokens.get(i);
+                if (responses.get(i).isSuccessful()) {
+                    tokenHealth.recordSuccess(token);
+                    continue;
+                }
+
+                FirebaseMessagingException exception = responses.get(i).getException();
+                MessagingErrorCode errorCode = exception != null ? exception.getMessagingErrorCode() : null;
+                if (errorCode == MessagingErrorCode.UNREGISTERED || errorCode == MessagingErrorCode.INVALID_ARGUMENT) {
+                    tokenHealth.recordPermanentFailure(token);
+                } else if (errorCode == MessagingErrorCode.UNAVAILABLE || errorCode == MessagingErrorCode.INTERNAL) {
+                    tokenHealth.recordTransientFailure(token);
                 }
             }
         }
     }
 
-    /**
-     * Deactivate an invalid device token
-     */
-    private void deactivateToken(String token) {
-        deviceTokenRepository.findByToken(token).ifPresent(deviceToken -> {
-            deviceToken.setActive(false);
-            deviceTokenRepository.save(deviceToken);
-            log.info("Deactivated invalid device token");
-        });
-    }
-
     /**
      * Get ordinal suffix for rank (1st, 2nd, 3rd, etc.)
      */
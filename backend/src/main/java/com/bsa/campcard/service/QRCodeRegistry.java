@@ -0,0 +1,190 @@
+package com.bsa.campcard.service;
+
+import com.bsa.campcard.entity.QrCodeRegistration;
+import com.bsa.campcard.entity.QrCodeRegistration.OwnerType;
+import com.bsa.campcard.repository.QrCodeRegistrationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Bidirectional registry of user and card QR codes.
+ *
+ * Redis holds both directions: {@code qr:user:{id}} / {@code qr:card:{id}} → code, and
+ * {@code qr:code:{code}} → {@code USER:{id}} / {@code CARD:{id}}, so resolving a scanned
+ * code is a single GET instead of a scan over every owner. The qr_code_registry table
+ * keeps the same mapping durably and answers when a key has been evicted or Redis is
+ * down; hits there re-populate Redis.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QRCodeRegistry {
+
+    static final String USER_PREFIX = "qr:user:";
+    static final String CARD_PREFIX = "qr:card:";
+    static final String CODE_PREFIX = "qr:code:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final QrCodeRegistrationRepository registrationRepository;
+
+    /**
+     * Owner of a QR code: a user (UUID) or a camp card (numeric ID).
+     */
+    public record Owner(OwnerType type, String id) {
+
+        public Owner {
+            // Reject malformed IDs up front so userId()/cardId() cannot fail later
+            if (type == OwnerType.USER) {
+                UUID.fromString(id);
+            } else {
+                Long.parseLong(id);
+            }
+        }
+
+        public static Owner user(UUID userId) {
+            return new Owner(OwnerType.USER, userId.toString());
+        }
+
+        public static Owner card(Long cardId) {
+            return new Owner(OwnerType.CARD, cardId.toString());
+        }
+
+        public UUID userId() {
+            return UUID.fromString(id);
+        }
+
+        public Long cardId() {
+            return Long.parseLong(id);
+        }
+
+        String ownerKey() {
+            return (type == OwnerType.USER ? USER_PREFIX : CARD_PREFIX) + id;
+        }
+
+        String encode() {
+            return type.name() + ":" + id;
+        }
+
+        static Optional<Owner> decode(String value) {
+            int separator = value.indexOf(':');
+            if (separator < 0) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(new Owner(OwnerType.valueOf(value.substring(0, separator)),
+                        value.substring(separator + 1)));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring malformed QR code owner: {}", value);
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * The code currently issued to an owner, if it has one that has not expired.
+     */
+    public Optional<String> currentCode(Owner owner) {
+        try {
+            Object cached = redisTemplate.opsForValue().get(owner.ownerKey());
+            if (cached != null) {
+                return Optional.of(cached.toString());
+            }
+        } catch (Exception e) {
+            log.warn("Redis unavailable for QR code lookup of {}, using registry table: {}",
+                    owner.ownerKey(), e.getMessage());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        return registrationRepository
+                .findFirstByOwnerTypeAndOwnerIdOrderByCreatedAtDesc(owner.type(), owner.id())
+                .filter(registration -> !registration.isExpired(now))
+                .map(registration -> {
+                    cache(owner, registration.getCode(), remaining(registration, now), true);
+                    return registration.getCode();
+                });
+    }
+
+    /**
+     * Issue a code to an owner, replacing the owner's current code. The previous code
+     * keeps resolving until it expires.
+     */
+    public void register(Owner owner, String code, Duration ttl) {
+        save(owner, code, ttl);
+        cache(owner, code, ttl, true);
+    }
+
+    /**
+     * Make an additional code resolve to an owner without changing the owner's current code.
+     */
+    public void registerAlias(Owner owner, String code, Duration ttl) {
+        save(owner, code, ttl);
+        cache(owner, code, ttl, false);
+    }
+
+    /**
+     * Resolve a code to its owner with one Redis round trip, falling back to the registry table.
+     */
+    public Optional<Owner> resolve(String code) {
+        if (code == null || code.isBlank()) {
+            return Optional.empty();
+        }
+
+        try {
+            Object cached = redisTemplate.opsForValue().get(CODE_PREFIX + code);
+            if (cached != null) {
+                return Owner.decode(cached.toString());
+            }
+        } catch (Exception e) {
+            log.warn("Redis unavailable for QR code resolution, using registry table: {}", e.getMessage());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        return registrationRepository.findById(code)
+                .filter(registration -> !registration.isExpired(now))
+                .map(registration -> {
+                    Owner owner = new Owner(registration.getOwnerType(), registration.getOwnerId());
+                    cache(owner, code, remaining(registration, now), false);
+                    return owner;
+                });
+    }
+
+    private void save(Owner owner, String code, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        registrationRepository.save(QrCodeRegistration.builder()
+                .code(code)
+                .ownerType(owner.type())
+                .ownerId(owner.id())
+                .expiresAt(ttl != null ? now.plus(ttl) : null)
+                .createdAt(now)
+                .build());
+    }
+
+    private void cache(Owner owner, String code, Duration ttl, boolean current) {
+        try {
+            if (ttl != null) {
+                redisTemplate.opsForValue().set(CODE_PREFIX + code, owner.encode(), ttl);
+                if (current) {
+                    redisTemplate.opsForValue().set(owner.ownerKey(), code, ttl);
+                }
+            } else {
+                redisTemplate.opsForValue().set(CODE_PREFIX + code, owner.encode());
+                if (current) {
+                    redisTemplate.opsForValue().set(owner.ownerKey(), code);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Redis unavailable for QR code caching of {}: {}", owner.ownerKey(), e.getMessage());
+        }
+    }
+
+    private static Duration remaining(QrCodeRegistration registration, LocalDateTime now) {
+        return registration.getExpiresAt() != null ? Duration.between(now, registration.getExpiresAt()) : null;
+    }
+}
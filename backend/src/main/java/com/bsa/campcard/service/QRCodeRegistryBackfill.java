@@ -0,0 +1,116 @@
+package com.bsa.campcard.service;
+
+import com.bsa.campcard.entity.QrCodeRegistration.OwnerType;
+import com.bsa.campcard.service.QRCodeRegistry.Owner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One-shot backfill of the QR code registry from the owner → code keys written before
+ * the reverse index existed. Walks {@code qr:user:*} and {@code qr:card:*} with SCAN
+ * (never KEYS) and registers each code with its remaining TTL. A marker key records
+ * completion so later startups skip it; a lock keeps concurrent instances from
+ * running it twice.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QRCodeRegistryBackfill {
+
+    static final String DONE_KEY = "qr:registry:backfilled";
+    static final String LOCK_KEY = "qr:registry:backfill-lock";
+    private static final int BATCH_SIZE = 500;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final QRCodeRegistry registry;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(DONE_KEY))) {
+                return;
+            }
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", Duration.ofMinutes(30)))) {
+                log.info("QR code registry backfill already running elsewhere");
+                return;
+            }
+            try {
+                int users = backfill(QRCodeRegistry.USER_PREFIX, OwnerType.USER);
+                int cards = backfill(QRCodeRegistry.CARD_PREFIX, OwnerType.CARD);
+                redisTemplate.opsForValue().set(DONE_KEY, System.currentTimeMillis());
+                log.info("QR code registry backfilled: {} user codes, {} card codes", users, cards);
+            } finally {
+                redisTemplate.delete(LOCK_KEY);
+            }
+        } catch (Exception e) {
+            // Retried on the next startup; lookups still fall back to the registry table
+            log.warn("QR code registry backfill failed: {}", e.getMessage());
+        }
+    }
+
+    int backfill(String prefix, OwnerType ownerType) {
+        int registered = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(BATCH_SIZE).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            List<String> batch = new ArrayList<>(BATCH_SIZE);
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == BATCH_SIZE) {
+                    registered += backfillBatch(batch, prefix, ownerType);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                registered += backfillBatch(batch, prefix, ownerType);
+            }
+        }
+        return registered;
+    }
+
+    private int backfillBatch(List<String> keys, String prefix, OwnerType ownerType) {
+        List<Object> codes = redisTemplate.opsForValue().multiGet(keys);
+        List<Object> ttls = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                keys.forEach(key -> operations.getExpire((K) key, TimeUnit.SECONDS));
+                return null;
+            }
+        });
+
+        int registered = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            Object code = codes != null ? codes.get(i) : null;
+            long ttlSeconds = ttls.get(i) instanceof Long ttl ? ttl : -2L;
+            // -2: key expired between SCAN and GET; -1: no expiry
+            if (code == null || ttlSeconds == -2L) {
+                continue;
+            }
+            Owner owner;
+            try {
+                owner = new Owner(ownerType, keys.get(i).substring(prefix.length()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping malformed QR code key: {}", keys.get(i));
+                continue;
+            }
+            registry.registerAlias(owner, code.toString(), ttlSeconds > 0 ? Duration.ofSeconds(ttlSeconds) : null);
+            registered++;
+        }
+        return registered;
+    }
+}
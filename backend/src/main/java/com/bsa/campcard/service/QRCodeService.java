@@ -2,8 +2,10 @@ package com.bsa.campcard.service;
 
 import com.bsa.campcard.dto.qr.*;
 import com.bsa.campcard.entity.CampCard;
+import com.bsa.campcard.entity.QrCodeRegistration.OwnerType;
 import com.bsa.campcard.exception.ResourceNotFoundException;
 import com.bsa.campcard.repository.CampCardRepository;
+import com.bsa.campcard.service.QRCodeRegistry.Owner;
 import org.bsa.campcard.domain.user.User;
 import org.bsa.campcard.domain.user.UserRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -17,6 +19,7 @@ import org.springframework.stereotype.Service;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.HashMap;
@@ -33,6 +36,7 @@ public class QRCodeService {
     private final CampCardRepository campCardRepository;
     private final RedisTemplate<String, Object> redisTemplate;
     private final ObjectMapper objectMapper;
+    private final QRCodeRegistry qrCodeRegistry;
 
     @Value("${campcard.base-url:https://api.campcardapp.org}")
     private String baseUrl;
@@ -40,8 +44,8 @@ public class QRCodeService {
     @Value("${campcard.static-site-url:https://www.campcardapp.org}")
     private String staticSiteUrl;
 
-    private static final String QR_CODE_PREFIX = "qr:user:";
-    private static final String QR_CARD_PREFIX = "qr:card:";
+    private static final Duration USER_CODE_TTL = Duration.ofDays(30);
+    private static final Duration CARD_CODE_TTL = Duration.ofDays(365);
     private static final String LINK_PREFIX = "link:offer:";
     private static final int CODE_LENGTH = 12;
     private static final SecureRandom random = new SecureRandom();
@@ -52,27 +56,11 @@ public class QRCodeService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        String cacheKey = QR_CODE_PREFIX + userId.toString();
-        String existingCode = null;
-
-        // Try to get cached code, but handle Redis failures gracefully
-        try {
-            existingCode = (String) redisTemplate.opsForValue().get(cacheKey);
-        } catch (Exception e) {
-            log.warn("Redis unavailable for QR code cache read, generating new code: {}", e.getMessage());
-        }
-
-        String uniqueCode;
-        if (existingCode != null) {
-            uniqueCode = existingCode;
-        } else {
+        Owner owner = Owner.user(userId);
+        String uniqueCode = qrCodeRegistry.currentCode(owner).orElse(null);
+        if (uniqueCode == null) {
             uniqueCode = generateUniqueCode();
-            // Try to cache, but don't fail if Redis is unavailable
-            try {
-                redisTemplate.opsForValue().set(cacheKey, uniqueCode, 30, TimeUnit.DAYS);
-            } catch (Exception e) {
-                log.warn("Redis unavailable for QR code caching, code won't be persisted: {}", e.getMessage());
-            }
+            qrCodeRegistry.register(owner, uniqueCode, USER_CODE_TTL);
         }
 
         Map<String, Object> qrData = new HashMap<>();
@@ -184,21 +172,10 @@ public class QRCodeService {
     }
 
     public QRCodeResponse validateUserQRCode(String uniqueCode) {
-        String pattern = QR_CODE_PREFIX + "*";
-        var keys = redisTemplate.keys(pattern);
-
-        if (keys != null) {
-            for (String key : keys) {
-                String storedCode = (String) redisTemplate.opsForValue().get(key);
-                if (uniqueCode.equals(storedCode)) {
-                    String userIdStr = key.replace(QR_CODE_PREFIX, "");
-                    UUID userId = UUID.fromString(userIdStr);
-                    return generateUserQRCode(userId);
-                }
-            }
-        }
-
-        throw new ResourceNotFoundException("Invalid QR code");
+        return qrCodeRegistry.resolve(uniqueCode)
+                .filter(owner -> owner.type() == OwnerType.USER)
+                .map(owner -> generateUserQRCode(owner.userId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Invalid QR code"));
     }
 
     /**
@@ -221,28 +198,12 @@ public class QRCodeService {
             throw new IllegalStateException("Card is not active or has expired");
         }
 
-        String cacheKey = QR_CARD_PREFIX + cardId.toString();
-        String existingCode = null;
-
-        // Try to get cached code, but handle Redis failures gracefully
-        try {
-            existingCode = (String) redisTemplate.opsForValue().get(cacheKey);
-        } catch (Exception e) {
-            log.warn("Redis unavailable for card QR code cache read: {}", e.getMessage());
-        }
-
-        String uniqueCode;
-        if (existingCode != null) {
-            uniqueCode = existingCode;
-        } else {
+        Owner owner = Owner.card(cardId);
+        String uniqueCode = qrCodeRegistry.currentCode(owner).orElse(null);
+        if (uniqueCode == null) {
             uniqueCode = generateUniqueCode();
-            // Try to cache, but don't fail if Redis is unavailable
-            try {
-                // Card QR codes valid until card expiry (max 365 days)
-                redisTemplate.opsForValue().set(cacheKey, uniqueCode, 365, TimeUnit.DAYS);
-            } catch (Exception e) {
-                log.warn("Redis unavailable for card QR code caching: {}", e.getMessage());
-            }
+            // Card QR codes valid until card expiry (max 365 days)
+            qrCodeRegistry.register(owner, uniqueCode, CARD_CODE_TTL);
         }
 
         Map<String, Object> qrData = new HashMap<>();
@@ -275,25 +236,14 @@ public class QRCodeService {
      * Validate a card QR code for offer redemption
      */
     public CardQRCodeResponse validateCardQRCode(String uniqueCode) {
-        String pattern = QR_CARD_PREFIX + "*";
-        var keys = redisTemplate.keys(pattern);
+        Owner owner = qrCodeRegistry.resolve(uniqueCode)
+                .filter(o -> o.type() == OwnerType.CARD)
+                .orElseThrow(() -> new ResourceNotFoundException("Invalid card QR code"));
 
-        if (keys != null) {
-            for (String key : keys) {
-                String storedCode = (String) redisTemplate.opsForValue().get(key);
-                if (uniqueCode.equals(storedCode)) {
-                    String cardIdStr = key.replace(QR_CARD_PREFIX, "");
-                    Long cardId = Long.parseLong(cardIdStr);
-
-                    CampCard card = campCardRepository.findById(cardId)
-                            .orElseThrow(() -> new ResourceNotFoundException("Card not found"));
-
-                    return generateCardQRCode(cardId, card.getOwnerUserId());
-                }
-            }
-        }
+        CampCard card = campCardRepository.findById(owner.cardId())
+                .orElseThrow(() -> new ResourceNotFoundException("Card not found"));
 
-        throw new ResourceNotFoundException("Invalid card QR code");
+        return generateCardQRCode(owner.cardId(), card.getOwnerUserId());
     }
 
     private String generateUniqueCode() {
@@ -423,13 +423,13 @@ public class SmsService {
 
     /**
      * Send a marketing campaign SMS
-     * Used by CampaignDispatchService for bulk campaign delivery
+     * Used by the campaign dispatch engine for bulk campaign delivery. Runs on the
+     * caller's thread so the engine's SMS workers and SNS rate limit govern the send.
      *
      * @param phoneNumber The recipient's phone number
      * @param content The campaign message content (will be prefixed and have opt-out appended)
      * @param campaignId The campaign ID for tracking/logging
      */
-    @Async
     public void sendCampaignSms(String phoneNumber, String content, String campaignId) {
         if (!smsEnabled) {
             log.info("SMS disabled - would send campaign SMS to {} for campaign {}",
@@ -437,7 +437,7 @@ public class SmsService {
             return;
         }
 
-        // Content should already be formatted by CampaignDispatchService
+        // Content should already be formatted by CampaignChannelSender
         // Just ensure it doesn't exceed limits
         String message = content;
         if (message.length() > 160) {
@@ -31,6 +31,7 @@ public class SnsNotificationService {
     private final SnsClient snsClient;
     private final NotificationRepository notificationRepository;
     private final DeviceTokenRepository deviceTokenRepository;
+    private final DeviceTokenHealth tokenHealth;
     private final ObjectMapper objectMapper;
 
     @Value("${aws.sns.platform-application-arn.ios:}")
@@ -128,6 +129,7 @@ public class SnsNotificationService {
      * Save device token to local database
      */
     private void saveDeviceTokenLocally(Long userId, DeviceTokenRequest request, String endpointArn) {
+        tokenHealth.recordRegistration(request.getToken());
         var existingToken = deviceTokenRepository.findByToken(request.getToken());
 
         if (existingToken.isPresent()) {
@@ -220,9 +222,13 @@ public class SnsNotificationService {
         int failureCount = 0;
 
         for (DeviceToken deviceToken : tokens) {
+            if (tokenHealth.isBackedOff(deviceToken.getToken())) {
+                continue;
+            }
             if (deviceToken.getEndpointArn() != null) {
                 try {
                     sendToEndpoint(deviceToken, request);
+                    tokenHealth.recordSuccess(deviceToken.getToken());
                     successCount++;
                 } catch (Exception e) {
                     log.error("Failed to send to endpoint: {}", deviceToken.getEndpointArn(), e);
@@ -307,7 +313,8 @@ public class SnsNotificationService {
     }
 
     /**
-     * Handle failed endpoint (disable or delete)
+     * Handle failed endpoint: a disabled or deleted endpoint is queued for deactivation,
+     * anything else backs the token off
      */
     private void handleFailedEndpoint(DeviceToken deviceToken) {
         try {
@@ -321,17 +328,17 @@ public class SnsNotificationService {
 
             if ("false".equals(enabled)) {
                 log.info("Endpoint disabled, marking device token as inactive: {}", deviceToken.getId());
-                deviceToken.setActive(false);
-                deviceTokenRepository.save(deviceToken);
+                tokenHealth.recordPermanentFailure(deviceToken.getToken());
+            } else {
+                tokenHealth.recordTransientFailure(deviceToken.getToken());
             }
         } catch (NotFoundException e) {
             // Endpoint doesn't exist anymore
             log.info("Endpoint not found, marking device token as inactive: {}", deviceToken.getId());
-            deviceToken.setActive(false);
-            deviceToken.setEndpointArn(null);
-            deviceTokenRepository.save(deviceToken);
+            tokenHealth.recordPermanentFailure(deviceToken.getToken());
         } catch (SnsException e) {
             log.error("Error checking endpoint status", e);
+            tokenHealth.recordTransientFailure(deviceToken.getToken());
         }
     }
 
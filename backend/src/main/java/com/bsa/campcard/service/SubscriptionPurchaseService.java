@@ -5,6 +5,7 @@ import com.bsa.campcard.dto.payment.PaymentResponse;
 import com.bsa.campcard.dto.payment.SubscriptionCheckoutRequest;
 import com.bsa.campcard.dto.payment.SubscriptionPurchaseRequest;
 import com.bsa.campcard.dto.payment.SubscriptionPurchaseResponse;
+import com.bsa.campcard.entity.QrCodeRegistration.OwnerType;
 import com.bsa.campcard.entity.Referral;
 import com.bsa.campcard.entity.Subscription;
 import com.bsa.campcard.repository.ReferralRepository;
@@ -15,12 +16,13 @@ import org.bsa.campcard.domain.user.User;
 import org.bsa.campcard.domain.user.UserRepository;
 import com.bsa.campcard.security.JwtTokenProvider;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -37,13 +39,11 @@ public class SubscriptionPurchaseService {
     private final ReferralRepository referralRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final QRCodeRegistry qrCodeRegistry;
 
     @Value("${app.referral.reward.amount:10.00}")
     private BigDecimal referralRewardAmount;
 
-    private static final String QR_CODE_PREFIX = "qr:user:";
-
     /**
      * Complete a subscription purchase after successful payment.
      * 1. Verify the transaction with Authorize.Net
@@ -238,30 +238,18 @@ public class SubscriptionPurchaseService {
             return null;
         }
 
-        // First, try to find in Redis (reverse lookup through all QR codes)
-        String pattern = QR_CODE_PREFIX + "*";
-        var keys = redisTemplate.keys(pattern);
-
-        if (keys != null) {
-            for (String key : keys) {
-                String storedCode = (String) redisTemplate.opsForValue().get(key);
-                if (code.equals(storedCode)) {
-                    String userIdStr = key.replace(QR_CODE_PREFIX, "");
-                    try {
-                        UUID userId = UUID.fromString(userIdStr);
-                        // Verify this user is actually a Scout and is active
-                        Optional<User> userOpt = userRepository.findById(userId);
-                        if (userOpt.isPresent()) {
-                            User user = userOpt.get();
-                            if (user.getRole() == User.UserRole.SCOUT &&
-                                Boolean.TRUE.equals(user.getIsActive()) &&
-                                user.getDeletedAt() == null) {
-                                return userId;
-                            }
-                        }
-                    } catch (IllegalArgumentException e) {
-                        log.warn("Invalid UUID in Redis key: {}", key);
-                    }
+        // First, resolve the code through the QR code registry
+        Optional<UUID> registeredUserId = qrCodeRegistry.resolve(code)
+                .filter(owner -> owner.type() == OwnerType.USER)
+                .map(QRCodeRegistry.Owner::userId);
+        if (registeredUserId.isPresent()) {
+            Optional<User> userOpt = userRepository.findById(registeredUserId.get());
+            if (userOpt.isPresent()) {
+                User user = userOpt.get();
+                if (user.getRole() == User.UserRole.SCOUT &&
+                    Boolean.TRUE.equals(user.getIsActive()) &&
+                    user.getDeletedAt() == null) {
+                    return user.getId();
                 }
             }
         }
@@ -280,25 +268,20 @@ public class SubscriptionPurchaseService {
         // Fallback: handle mobile app fallback codes in format "SC-{first8CharsOfUUID}"
         // The mobile app generates these locally when the QR code API fails
         if (code.startsWith("SC-") && code.length() == 11) {
-            String uuidPrefix = code.substring(3).toLowerCase();
-            // Search for a Scout user whose UUID starts with this prefix
-            List<User> scouts = userRepository.findByRole(User.UserRole.SCOUT,
-                    org.springframework.data.domain.PageRequest.of(0, 1000)).getContent();
-            for (User scout : scouts) {
-                if (scout.getId().toString().replace("-", "").startsWith(uuidPrefix) &&
-                    Boolean.TRUE.equals(scout.getIsActive()) &&
-                    scout.getDeletedAt() == null) {
-                    log.info("Matched SC- fallback code {} to scout {}", code, scout.getId());
-                    // Store in Redis so future lookups are faster
-                    try {
-                        redisTemplate.opsForValue().set(
-                                QR_CODE_PREFIX + scout.getId().toString(), code,
-                                30, java.util.concurrent.TimeUnit.DAYS);
-                    } catch (Exception e) {
-                        log.warn("Failed to cache SC- code in Redis: {}", e.getMessage());
-                    }
-                    return scout.getId();
+            // Resolved through the indexed users.short_code column
+            List<User> scouts = userRepository.findActiveScoutsByShortCode(
+                    code.substring(3).toUpperCase(), PageRequest.of(0, 2));
+            if (!scouts.isEmpty()) {
+                User scout = scouts.get(0);
+                if (scouts.size() > 1) {
+                    log.warn("SC- fallback code {} matches more than one scout, using the earliest: {}",
+                            code, scout.getId());
                 }
+                log.info("Matched SC- fallback code {} to scout {}", code, scout.getId());
+                // Register the code so future lookups resolve it directly
+                qrCodeRegistry.registerAlias(QRCodeRegistry.Owner.user(scout.getId()), code,
+                        Duration.ofDays(30));
+                return scout.getId();
             }
         }
 
@@ -325,27 +308,11 @@ public class SubscriptionPurchaseService {
             return null;
         }
 
-        // First, find the user who has this QR code
-        UUID referrerUserId = null;
-
-        // Check Redis for the QR code
-        String pattern = QR_CODE_PREFIX + "*";
-        var keys = redisTemplate.keys(pattern);
-
-        if (keys != null) {
-            for (String key : keys) {
-                String storedCode = (String) redisTemplate.opsForValue().get(key);
-                if (code.equals(storedCode)) {
-                    String userIdStr = key.replace(QR_CODE_PREFIX, "");
-                    try {
-                        referrerUserId = UUID.fromString(userIdStr);
-                        break;
-                    } catch (IllegalArgumentException e) {
-                        log.warn("Invalid UUID in Redis key: {}", key);
-                    }
-                }
-            }
-        }
+        // First, find the user who has this QR code through the QR code registry
+        UUID referrerUserId = qrCodeRegistry.resolve(code)
+                .filter(owner -> owner.type() == OwnerType.USER)
+                .map(QRCodeRegistry.Owner::userId)
+                .orElse(null);
 
         // Fallback: check referralCode field
         if (referrerUserId == null) {
@@ -0,0 +1,15 @@
+package com.bsa.campcard.service.abuse;
+
+/**
+ * Outcome of the abuse checks for one scan
+ */
+public record AbuseCheckResult(boolean isAbusive, String reason) {
+
+    public static AbuseCheckResult ok() {
+        return new AbuseCheckResult(false, null);
+    }
+
+    public static AbuseCheckResult abusive(String reason) {
+        return new AbuseCheckResult(true, reason);
+    }
+}
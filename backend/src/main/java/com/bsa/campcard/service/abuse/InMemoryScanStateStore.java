@@ -0,0 +1,157 @@
+package com.bsa.campcard.service.abuse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Scan state held in this node's memory, for single-node deployments and development.
+ * Keeps the same windows and retention as {@link RedisScanStateStore}; expired state is
+ * pruned every minute.
+ */
+@Component
+@ConditionalOnProperty(name = "campcard.qr.abuse.state-store", havingValue = "memory")
+public class InMemoryScanStateStore implements ScanStateStore {
+
+    private final Clock clock;
+    private final Duration tokenTtl;
+    private final Duration historyRetention;
+
+    private final Map<String, TokenState> tokens = new ConcurrentHashMap<>();
+    private final Map<Long, Deque<Instant>> merchantWindows = new ConcurrentHashMap<>();
+    private final Map<String, Count> counts = new ConcurrentHashMap<>();
+
+    public InMemoryScanStateStore(@Value("${campcard.qr.token-expiry-hours:24}") int tokenExpiryHours,
+                                  @Value("${campcard.qr.abuse.history-retention:30d}") Duration historyRetention) {
+        this(Clock.systemUTC(), Duration.ofHours(tokenExpiryHours), historyRetention);
+    }
+
+    InMemoryScanStateStore(Clock clock, Duration tokenTtl, Duration historyRetention) {
+        this.clock = clock;
+        this.tokenTtl = tokenTtl;
+        this.historyRetention = historyRetention;
+    }
+
+    @Override
+    public Optional<ScanHistory> record(ScanEvent scan) {
+        Instant now = scan.scannedAt();
+        TokenState token = tokens.computeIfAbsent(scan.token(), key -> new TokenState());
+
+        long tokenScans;
+        long devices = 0;
+        BigDecimal lastLatitude;
+        BigDecimal lastLongitude;
+        Instant lastLocatedAt;
+        synchronized (token) {
+            tokenScans = token.scans++;
+            lastLatitude = token.latitude;
+            lastLongitude = token.longitude;
+            lastLocatedAt = token.locatedAt;
+            if (scan.hasLocation()) {
+                token.latitude = scan.latitude();
+                token.longitude = scan.longitude();
+                token.locatedAt = now;
+            }
+            if (scan.deviceFingerprint() != null) {
+                token.devices.add(scan.deviceFingerprint());
+                devices = token.devices.size();
+            }
+            token.expiresAt = now.plus(tokenTtl);
+        }
+
+        long merchantWindow = 0;
+        long merchantUser = 0;
+        long merchantFlags = 0;
+        if (scan.merchantId() != null) {
+            Deque<Instant> window = merchantWindows.computeIfAbsent(scan.merchantId(), key -> new ArrayDeque<>());
+            synchronized (window) {
+                Instant since = now.minus(ScanAbuseDetector.VELOCITY_WINDOW);
+                while (!window.isEmpty() && !window.peekFirst().isAfter(since)) {
+                    window.pollFirst();
+                }
+                merchantWindow = window.size();
+                window.addLast(now);
+            }
+            merchantUser = increment(merchantUserKey(scan), now) - 1;
+            merchantFlags = current(merchantFlagsKey(scan.merchantId()), now);
+        }
+
+        return Optional.of(new ScanHistory(tokenScans, devices, lastLatitude, lastLongitude, lastLocatedAt,
+                current(userFlagsKey(scan), now), merchantWindow, merchantUser, merchantFlags));
+    }
+
+    @Override
+    public void recordSuspicious(ScanEvent scan) {
+        increment(userFlagsKey(scan), scan.scannedAt());
+        if (scan.merchantId() != null) {
+            increment(merchantFlagsKey(scan.merchantId()), scan.scannedAt());
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void prune() {
+        Instant now = clock.instant();
+        tokens.values().removeIf(token -> {
+            synchronized (token) {
+                return token.expiresAt.isBefore(now);
+            }
+        });
+        merchantWindows.values().removeIf(window -> {
+            synchronized (window) {
+                return window.isEmpty() || window.peekLast().isBefore(now.minus(ScanAbuseDetector.VELOCITY_WINDOW));
+            }
+        });
+        counts.values().removeIf(count -> count.expiresAt().isBefore(now));
+    }
+
+    int trackedTokens() {
+        return tokens.size();
+    }
+
+    private long increment(String key, Instant now) {
+        return counts.merge(key, new Count(1, now.plus(historyRetention)), (previous, one) ->
+                previous.expiresAt().isBefore(now) ? one : new Count(previous.value() + 1, one.expiresAt())).value();
+    }
+
+    private long current(String key, Instant now) {
+        Count count = counts.get(key);
+        return count != null && !count.expiresAt().isBefore(now) ? count.value() : 0;
+    }
+
+    private static String userFlagsKey(ScanEvent scan) {
+        return "user-flags:" + scan.userId();
+    }
+
+    private static String merchantFlagsKey(Long merchantId) {
+        return "merchant-flags:" + merchantId;
+    }
+
+    private static String merchantUserKey(ScanEvent scan) {
+        return "merchant-user:" + scan.merchantId() + ":" + scan.userId();
+    }
+
+    private static final class TokenState {
+        private long scans;
+        private final Set<String> devices = new HashSet<>();
+        private BigDecimal latitude;
+        private BigDecimal longitude;
+        private Instant locatedAt;
+        private Instant expiresAt = Instant.MAX;
+    }
+
+    private record Count(long value, Instant expiresAt) {
+    }
+}
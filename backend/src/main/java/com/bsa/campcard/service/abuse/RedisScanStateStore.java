@@ -0,0 +1,142 @@
+package com.bsa.campcard.service.abuse;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Scan state shared by all API nodes through Redis.
+ *
+ * One Lua script reads a scan's history and records the scan atomically, so concurrent
+ * scans of a token on different nodes each see the other. Per token: a hash of the scan
+ * count and last location, and a HyperLogLog of device fingerprints, both kept as long
+ * as a token is valid. Per merchant: a sorted set of the last minute's scans. Flag
+ * counts and merchant-per-user counts are kept for {@code history-retention}.
+ */
+@Component
+@ConditionalOnProperty(name = "campcard.qr.abuse.state-store", havingValue = "redis", matchIfMissing = true)
+@Slf4j
+public class RedisScanStateStore implements ScanStateStore {
+
+    static final String PREFIX = "scan:";
+
+    // KEYS token hash, token devices, user flags, merchant window, merchant-user count, merchant flags
+    // ARGV device, latitude, longitude, now ms, token ttl ms, history ttl ms, has merchant, scan id, window ms
+    private static final RedisScript<List> RECORD_SCRIPT = new DefaultRedisScript<>(
+            "local prior = redis.call('HMGET', KEYS[1], 'scans', 'lat', 'lon', 'at')\n" +
+            "redis.call('HINCRBY', KEYS[1], 'scans', 1)\n" +
+            "if ARGV[2] ~= '' then redis.call('HSET', KEYS[1], 'lat', ARGV[2], 'lon', ARGV[3], 'at', ARGV[4]) end\n" +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[5])\n" +
+            "local devices = 0\n" +
+            "if ARGV[1] ~= '' then\n" +
+            "  redis.call('PFADD', KEYS[2], ARGV[1])\n" +
+            "  redis.call('PEXPIRE', KEYS[2], ARGV[5])\n" +
+            "  devices = redis.call('PFCOUNT', KEYS[2])\n" +
+            "end\n" +
+            "local userFlags = redis.call('GET', KEYS[3]) or '0'\n" +
+            "local window, merchantUser, merchantFlags = 0, '0', '0'\n" +
+            "if ARGV[7] == '1' then\n" +
+            "  local now = tonumber(ARGV[4])\n" +
+            "  redis.call('ZREMRANGEBYSCORE', KEYS[4], '-inf', now - tonumber(ARGV[9]))\n" +
+            "  window = redis.call('ZCARD', KEYS[4])\n" +
+            "  redis.call('ZADD', KEYS[4], now, ARGV[8])\n" +
+            "  redis.call('PEXPIRE', KEYS[4], ARGV[9])\n" +
+            "  merchantUser = redis.call('GET', KEYS[5]) or '0'\n" +
+            "  redis.call('INCR', KEYS[5])\n" +
+            "  redis.call('PEXPIRE', KEYS[5], ARGV[6])\n" +
+            "  merchantFlags = redis.call('GET', KEYS[6]) or '0'\n" +
+            "end\n" +
+            "return {prior[1] or '0', tostring(devices), prior[2] or '', prior[3] or '', prior[4] or '', " +
+            "userFlags, tostring(window), merchantUser, merchantFlags}",
+            List.class);
+
+    // KEYS user flags, merchant flags (optional); ARGV history ttl ms
+    private static final RedisScript<Long> FLAG_SCRIPT = new DefaultRedisScript<>(
+            "for i = 1, #KEYS do\n" +
+            "  redis.call('INCR', KEYS[i])\n" +
+            "  redis.call('PEXPIRE', KEYS[i], ARGV[1])\n" +
+            "end\n" +
+            "return #KEYS",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final long tokenTtlMillis;
+    private final long historyRetentionMillis;
+
+    public RedisScanStateStore(StringRedisTemplate redisTemplate,
+                               @Value("${campcard.qr.token-expiry-hours:24}") int tokenExpiryHours,
+                               @Value("${campcard.qr.abuse.history-retention:30d}") Duration historyRetention) {
+        this.redisTemplate = redisTemplate;
+        this.tokenTtlMillis = Duration.ofHours(tokenExpiryHours).toMillis();
+        this.historyRetentionMillis = historyRetention.toMillis();
+    }
+
+    @Override
+    public Optional<ScanHistory> record(ScanEvent scan) {
+        String merchant = scan.merchantId() != null ? scan.merchantId().toString() : "none";
+        List<?> result;
+        try {
+            result = redisTemplate.execute(RECORD_SCRIPT,
+                    List.of(
+                            PREFIX + "token:" + scan.token(),
+                            PREFIX + "token-devices:" + scan.token(),
+                            userFlagsKey(scan),
+                            PREFIX + "merchant-window:" + merchant,
+                            PREFIX + "merchant-user:" + merchant + ":" + scan.userId(),
+                            PREFIX + "merchant-flags:" + merchant),
+                    scan.deviceFingerprint() != null ? scan.deviceFingerprint() : "",
+                    scan.hasLocation() ? scan.latitude().toPlainString() : "",
+                    scan.hasLocation() ? scan.longitude().toPlainString() : "",
+                    String.valueOf(scan.scannedAt().toEpochMilli()),
+                    String.valueOf(tokenTtlMillis),
+                    String.valueOf(historyRetentionMillis),
+                    scan.merchantId() != null ? "1" : "0",
+                    scan.scanId().toString(),
+                    String.valueOf(ScanAbuseDetector.VELOCITY_WINDOW.toMillis()));
+        } catch (Exception e) {
+            log.warn("Redis unavailable for scan abuse state, checking the database: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (result == null || result.size() < 9) {
+            return Optional.empty();
+        }
+
+        String latitude = result.get(2).toString();
+        return Optional.of(new ScanHistory(
+                Long.parseLong(result.get(0).toString()),
+                Long.parseLong(result.get(1).toString()),
+                latitude.isEmpty() ? null : new BigDecimal(latitude),
+                latitude.isEmpty() ? null : new BigDecimal(result.get(3).toString()),
+                latitude.isEmpty() ? null : Instant.ofEpochMilli(Long.parseLong(result.get(4).toString())),
+                Long.parseLong(result.get(5).toString()),
+                Long.parseLong(result.get(6).toString()),
+                Long.parseLong(result.get(7).toString()),
+                Long.parseLong(result.get(8).toString())));
+    }
+
+    @Override
+    public void recordSuspicious(ScanEvent scan) {
+        List<String> keys = scan.merchantId() != null
+                ? List.of(userFlagsKey(scan), PREFIX + "merchant-flags:" + scan.merchantId())
+                : List.of(userFlagsKey(scan));
+        try {
+            redisTemplate.execute(FLAG_SCRIPT, keys, String.valueOf(historyRetentionMillis));
+        } catch (Exception e) {
+            log.warn("Redis unavailable to count flagged scan for user {}: {}", scan.userId(), e.getMessage());
+        }
+    }
+
+    private static String userFlagsKey(ScanEvent scan) {
+        return PREFIX + "user-flags:" + scan.userId();
+    }
+}
@@ -0,0 +1,177 @@
+package com.bsa.campcard.service.abuse;
+
+import com.bsa.campcard.entity.OfferScanAttempt;
+import com.bsa.campcard.repository.OfferScanAttemptRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Detects screenshot sharing and merchant-side abuse of offer QR codes.
+ *
+ * Each scan is judged against a {@link ScanHistory} from the {@link ScanStateStore}, which
+ * records the scan in the same step, so a scan costs one store round trip and no SQL.
+ * When the store is unavailable the history is rebuilt from the scan attempt table.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ScanAbuseDetector {
+
+    public static final int MAX_SCANS_BEFORE_FLAG = 2;
+    public static final double MAX_DISTANCE_KM_PER_MINUTE = 2.0; // ~120 km/h max speed
+    public static final int MAX_USER_SUSPICIOUS_SCANS = 3;
+    public static final int MAX_MERCHANT_SCANS_PER_MINUTE = 10; // Velocity limit
+    public static final int MAX_MERCHANT_SCANS_SAME_USER = 3; // Same user repeat scan limit
+    public static final int MERCHANT_SUSPICIOUS_WARNING = 5;
+
+    // Impossible travel is checked against scans this recent
+    static final Duration TRAVEL_WINDOW = Duration.ofHours(1);
+    static final Duration VELOCITY_WINDOW = Duration.ofMinutes(1);
+
+    private final ScanStateStore stateStore;
+    private final OfferScanAttemptRepository scanAttemptRepository;
+
+    /**
+     * Record a scan of a valid token and check it for abuse
+     */
+    public AbuseCheckResult check(ScanEvent scan) {
+        ScanHistory history = stateStore.record(scan).orElseGet(() -> historyFromDatabase(scan));
+        AbuseCheckResult result = judge(scan, history);
+        if (result.isAbusive()) {
+            stateStore.recordSuspicious(scan);
+        }
+        return result;
+    }
+
+    static AbuseCheckResult judge(ScanEvent scan, ScanHistory history) {
+        // Check 1: Multiple scans of the same token
+        if (history.tokenScans() >= MAX_SCANS_BEFORE_FLAG) {
+            return AbuseCheckResult.abusive(
+                    String.format("QR code scanned %d times (limit: %d). Possible screenshot sharing detected.",
+                            history.tokenScans() + 1, MAX_SCANS_BEFORE_FLAG)
+            );
+        }
+
+        // Check 2: Scans from different devices
+        if (history.tokenDevices() > 1) {
+            return AbuseCheckResult.abusive(
+                    "QR code scanned from multiple devices. Possible screenshot sharing detected."
+            );
+        }
+
+        // Check 3: Impossible travel since the last located scan
+        if (scan.hasLocation() && history.hasLastLocation()
+                && !history.lastLocatedAt().isBefore(scan.scannedAt().minus(TRAVEL_WINDOW))) {
+            long minutesBetween = Duration.between(history.lastLocatedAt(), scan.scannedAt()).toMinutes();
+            if (minutesBetween > 0) {
+                double distance = distanceKm(
+                        history.lastLatitude().doubleValue(), history.lastLongitude().doubleValue(),
+                        scan.latitude().doubleValue(), scan.longitude().doubleValue());
+                if (distance / minutesBetween > MAX_DISTANCE_KM_PER_MINUTE) {
+                    return AbuseCheckResult.abusive(
+                            String.format("Impossible travel detected: %.1f km in %d minutes",
+                                    distance, minutesBetween)
+                    );
+                }
+            }
+        }
+
+        // Check 4: User has history of suspicious activity
+        if (history.userSuspiciousScans() >= MAX_USER_SUSPICIOUS_SCANS) {
+            return AbuseCheckResult.abusive(
+                    "User has multiple prior suspicious scan attempts"
+            );
+        }
+
+        if (scan.merchantId() != null) {
+            // Check 5: Merchant velocity check (too many scans in short time)
+            if (history.merchantScansInWindow() >= MAX_MERCHANT_SCANS_PER_MINUTE) {
+                return AbuseCheckResult.abusive(
+                        String.format("Merchant scanning too rapidly: %d scans in last minute (limit: %d)",
+                                history.merchantScansInWindow() + 1, MAX_MERCHANT_SCANS_PER_MINUTE)
+                );
+            }
+
+            // Check 6: Merchant scanning same user repeatedly
+            if (history.merchantUserScans() >= MAX_MERCHANT_SCANS_SAME_USER) {
+                return AbuseCheckResult.abusive(
+                        String.format("Merchant has scanned this user's QR codes %d times (limit: %d)",
+                                history.merchantUserScans() + 1, MAX_MERCHANT_SCANS_SAME_USER)
+                );
+            }
+
+            // Check 7: Merchant has history of suspicious scans
+            if (history.merchantSuspiciousScans() >= MERCHANT_SUSPICIOUS_WARNING) {
+                log.warn("Merchant {} has {} suspicious scans on record",
+                        scan.merchantId(), history.merchantSuspiciousScans());
+            }
+        }
+
+        return AbuseCheckResult.ok();
+    }
+
+    /**
+     * The same history from the scan attempt table; attempts still waiting for the
+     * batched writer are not counted.
+     */
+    private ScanHistory historyFromDatabase(ScanEvent scan) {
+        LocalDateTime now = LocalDateTime.ofInstant(scan.scannedAt(), ZoneId.systemDefault());
+
+        long devices = 0;
+        if (scan.deviceFingerprint() != null) {
+            devices = scanAttemptRepository.hasScansFromDifferentDevice(scan.token(), scan.deviceFingerprint()) ? 2 : 1;
+        }
+
+        OfferScanAttempt lastLocated = null;
+        if (scan.hasLocation()) {
+            List<OfferScanAttempt> located = scanAttemptRepository.findScansWithLocationForToken(
+                    scan.token(), now.minus(TRAVEL_WINDOW));
+            lastLocated = located.isEmpty() ? null : located.get(0);
+        }
+
+        long merchantWindow = 0;
+        long merchantUser = 0;
+        long merchantSuspicious = 0;
+        if (scan.merchantId() != null) {
+            merchantWindow = scanAttemptRepository.countMerchantScansInWindow(scan.merchantId(), now.minus(VELOCITY_WINDOW));
+            merchantUser = scanAttemptRepository.countMerchantScansForUser(scan.merchantId(), scan.userId());
+            merchantSuspicious = scanAttemptRepository.countByMerchantIdAndIsSuspiciousTrue(scan.merchantId());
+        }
+
+        return new ScanHistory(
+                scanAttemptRepository.countByRedemptionToken(scan.token()),
+                devices,
+                lastLocated != null ? lastLocated.getLatitude() : null,
+                lastLocated != null ? lastLocated.getLongitude() : null,
+                lastLocated != null ? lastLocated.getScannedAt().atZone(ZoneId.systemDefault()).toInstant() : null,
+                scanAttemptRepository.countByUserIdAndIsSuspiciousTrue(scan.userId()),
+                merchantWindow,
+                merchantUser,
+                merchantSuspicious
+        );
+    }
+
+    /**
+     * Calculate distance between two coordinates using Haversine formula
+     */
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        final double R = 6371; // Earth's radius in km
+
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return R * c;
+    }
+}
@@ -0,0 +1,80 @@
+package com.bsa.campcard.service.abuse;
+
+import com.bsa.campcard.entity.OfferScanAttempt;
+import com.bsa.campcard.repository.OfferScanAttemptRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Persists scan attempts off the scan path, in batches every {@code flush-ms}.
+ *
+ * Scans only need the attempt table for audit and the database fallback of the abuse
+ * checks, so the request does not wait for the insert. When the queue is full the
+ * attempt is saved on the caller's thread instead of being dropped.
+ */
+@Component
+@Slf4j
+public class ScanAttemptWriter {
+
+    static final int BATCH_SIZE = 500;
+
+    private final OfferScanAttemptRepository scanAttemptRepository;
+    private final BlockingQueue<OfferScanAttempt> queue;
+
+    public ScanAttemptWriter(OfferScanAttemptRepository scanAttemptRepository,
+                             @Value("${campcard.qr.abuse.write-queue-capacity:10000}") int queueCapacity) {
+        this.scanAttemptRepository = scanAttemptRepository;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    public void write(OfferScanAttempt attempt) {
+        if (!queue.offer(attempt)) {
+            log.warn("Scan attempt queue full, saving on the request thread");
+            scanAttemptRepository.save(attempt);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${campcard.qr.abuse.flush-ms:1000}")
+    public void flush() {
+        List<OfferScanAttempt> batch = new ArrayList<>(BATCH_SIZE);
+        while (queue.drainTo(batch, BATCH_SIZE) > 0) {
+            save(batch);
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    int pending() {
+        return queue.size();
+    }
+
+    private void save(List<OfferScanAttempt> batch) {
+        try {
+            scanAttemptRepository.saveAll(batch);
+        } catch (Exception e) {
+            // Save one at a time so a bad row does not lose the rest of the batch
+            log.warn("Failed to save {} scan attempts as a batch, saving individually: {}", batch.size(), e.getMessage());
+            for (OfferScanAttempt attempt : batch) {
+                try {
+                    attempt.setId(null);
+                    scanAttemptRepository.save(attempt);
+                } catch (Exception single) {
+                    log.error("Failed to save scan attempt {} for offer {}: {}",
+                            attempt.getUuid(), attempt.getOfferId(), single.getMessage());
+                }
+            }
+        }
+    }
+}
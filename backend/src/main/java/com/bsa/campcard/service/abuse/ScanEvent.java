@@ -0,0 +1,27 @@
+package com.bsa.campcard.service.abuse;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A scan of a valid offer QR token, as the abuse checks see it
+ *
+ * @param scanId unique per scan attempt
+ * @param merchantId null when the scanning merchant is unknown
+ */
+public record ScanEvent(
+    UUID scanId,
+    String token,
+    UUID userId,
+    Long merchantId,
+    String deviceFingerprint,
+    BigDecimal latitude,
+    BigDecimal longitude,
+    Instant scannedAt
+) {
+
+    public boolean hasLocation() {
+        return latitude != null && longitude != null;
+    }
+}
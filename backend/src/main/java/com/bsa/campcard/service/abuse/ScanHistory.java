@@ -0,0 +1,29 @@
+package com.bsa.campcard.service.abuse;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * What the token, user and merchant of a scan did before it
+ *
+ * @param tokenDevices distinct devices that have scanned the token, including this scan's;
+ *                     0 when this scan has no device fingerprint
+ * @param lastLatitude where the token was last scanned with a location, or null
+ * @param merchantScansInWindow the merchant's scans in the last minute
+ */
+public record ScanHistory(
+    long tokenScans,
+    long tokenDevices,
+    BigDecimal lastLatitude,
+    BigDecimal lastLongitude,
+    Instant lastLocatedAt,
+    long userSuspiciousScans,
+    long merchantScansInWindow,
+    long merchantUserScans,
+    long merchantSuspiciousScans
+) {
+
+    public boolean hasLastLocation() {
+        return lastLatitude != null && lastLongitude != null && lastLocatedAt != null;
+    }
+}
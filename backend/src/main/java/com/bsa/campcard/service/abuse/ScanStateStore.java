@@ -0,0 +1,22 @@
+package com.bsa.campcard.service.abuse;
+
+import java.util.Optional;
+
+/**
+ * Per-token, per-user and per-merchant scan state kept outside the database, so a scan
+ * can be judged without querying scan attempts.
+ */
+public interface ScanStateStore {
+
+    /**
+     * Record a scan and return the history from before it.
+     *
+     * @return empty if the store is unavailable
+     */
+    Optional<ScanHistory> record(ScanEvent scan);
+
+    /**
+     * Count a scan that was flagged against its user and merchant
+     */
+    void recordSuspicious(ScanEvent scan);
+}
@@ -0,0 +1,276 @@
+package com.bsa.campcard.service.campaign;
+
+import com.bsa.campcard.entity.Council;
+import com.bsa.campcard.entity.MarketingCampaign;
+import com.bsa.campcard.entity.MarketingSegment;
+import com.bsa.campcard.repository.CouncilRepository;
+import com.bsa.campcard.repository.MarketingSegmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bsa.campcard.domain.user.User;
+import org.bsa.campcard.domain.user.UserRepository;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.bsa.campcard.domain.user.UserSpecifications.*;
+
+/**
+ * Compiles a campaign's targeting (segment, audience criteria or council) into a
+ * {@link Specification} and streams the matching users in keyset-paginated chunks,
+ * so the database does the filtering and memory stays bounded by the chunk size.
+ *
+ * Segment rules use the stored form {@code {"condition", "operator", "value"}}, or
+ * {@code {"conditions": [...]}} for several conditions that must all hold; predefined
+ * segment types (scouts, parents, ...) add their role or active filter. A segment
+ * with no rules resolves to no audience. Conditions that have no backing column
+ * (engagement scores, spend percentiles) cannot be compiled: a custom segment with
+ * them resolves to no audience, a predefined one to its whole type.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CampaignAudienceResolver {
+
+    private final UserRepository userRepository;
+    private final MarketingSegmentRepository segmentRepository;
+    private final CouncilRepository councilRepository;
+
+    /**
+     * The campaign's audience, or empty when it targets nobody (unknown segment,
+     * custom rules that cannot be compiled, unknown council, or no targeting at all).
+     */
+    public Optional<Specification<User>> audienceOf(MarketingCampaign campaign) {
+        Optional<Specification<User>> targeting = targetingOf(campaign);
+        if (targeting.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Specification<User> audience = notDeleted().and(targeting.get());
+        if (campaign.getCouncilId() != null) {
+            Optional<UUID> councilUuid = councilRepository.findById(campaign.getCouncilId()).map(Council::getUuid);
+            if (councilUuid.isEmpty()) {
+                log.warn("Campaign {} targets unknown council {}", campaign.getId(), campaign.getCouncilId());
+                return Optional.empty();
+            }
+            audience = audience.and(inCouncil(councilUuid.get()));
+        }
+        return Optional.of(audience);
+    }
+
+    /**
+     * Whether a single user is in the campaign's audience, answered with one query.
+     */
+    public boolean includes(MarketingCampaign campaign, UUID userId) {
+        return audienceOf(campaign)
+                .map(audience -> includes(audience, userId))
+                .orElse(false);
+    }
+
+    /**
+     * Whether a single user is in an already compiled audience, answered with one query.
+     */
+    public boolean includes(Specification<User> audience, UUID userId) {
+        return userRepository.exists(audience.and(hasId(userId)));
+    }
+
+    /**
+     * Stream the audience to the consumer in chunks ordered by user ID. Each chunk is
+     * fetched with a keyset predicate on the last ID seen, so late chunks cost the same
+     * as early ones and no count query is issued.
+     *
+     * @return the number of users streamed
+     */
+    public long forEachChunk(Specification<User> audience, int chunkSize, Consumer<List<User>> consumer) {
+        return forEachChunk(audience, chunkSize, null, chunk -> {
+            consumer.accept(chunk);
+            return true;
+        });
+    }
+
+    /**
+     * Stream the audience after {@code startAfter} (null for the start) in chunks ordered
+     * by user ID, stopping early when the consumer returns false.
+     *
+     * @return the number of users streamed
+     */
+    public long forEachChunk(Specification<User> audience, int chunkSize, UUID startAfter,
+                             Predicate<List<User>> consumer) {
+        long total = 0;
+        UUID lastId = startAfter;
+        while (true) {
+            Specification<User> page = lastId != null ? audience.and(idAfter(lastId)) : audience;
+            List<User> chunk = userRepository.findBy(page, query -> query
+                    .sortBy(Sort.by("id"))
+                    .limit(chunkSize)
+                    .all());
+            if (chunk.isEmpty()) {
+                return total;
+            }
+
+            lastId = chunk.get(chunk.size() - 1).getId();
+            total += chunk.size();
+            if (!consumer.test(chunk) || chunk.size() < chunkSize) {
+                return total;
+            }
+        }
+    }
+
+    // ========================================================================
+    // TARGETING
+    // ========================================================================
+
+    private Optional<Specification<User>> targetingOf(MarketingCampaign campaign) {
+        if (campaign.getSegmentId() != null) {
+            Optional<MarketingSegment> segment = segmentRepository.findById(campaign.getSegmentId());
+            if (segment.isPresent()) {
+                return compileSegment(segment.get());
+            }
+        }
+
+        if (campaign.getTargetAudience() != null && !campaign.getTargetAudience().isEmpty()) {
+            return compileAudienceCriteria(campaign.getTargetAudience());
+        }
+
+        // Default: all active users in the council
+        if (campaign.getCouncilId() != null) {
+            return Optional.of(isActive(true));
+        }
+
+        return Optional.empty();
+    }
+
+    Optional<Specification<User>> compileSegment(MarketingSegment segment) {
+        Specification<User> base = switch (segment.getSegmentType()) {
+            case ALL_USERS -> Specification.where(null);
+            case ACTIVE_SUBSCRIBERS -> isActive(true);
+            case SCOUTS -> hasRole(User.UserRole.SCOUT);
+            case PARENTS -> hasRole(User.UserRole.PARENT);
+            case UNIT_LEADERS -> hasRole(User.UserRole.UNIT_LEADER);
+            default -> null;
+        };
+
+        Map<String, Object> rules = segment.getRules();
+        if (rules == null || rules.isEmpty()) {
+            // A segment without rules targets nobody, predefined or not
+            log.warn("Segment {} ({}) has no rules; it resolves to no audience", segment.getId(), segment.getName());
+            return Optional.empty();
+        }
+
+        Optional<Specification<User>> compiled = compileRules(rules);
+        if (compiled.isEmpty()) {
+            if (base != null) {
+                // A predefined segment keeps targeting its whole type rather than nobody
+                log.warn("Segment {} ({}) has rules that cannot be compiled to a query, targeting all {}: {}",
+                        segment.getId(), segment.getName(), segment.getSegmentType(), rules);
+                return Optional.of(base);
+            }
+            log.warn("Segment {} ({}) has rules that cannot be compiled to a query: {}",
+                    segment.getId(), segment.getName(), rules);
+            return Optional.empty();
+        }
+        return Optional.of(base != null ? base.and(compiled.get()) : compiled.get());
+    }
+
+    private Optional<Specification<User>> compileRules(Map<String, Object> rules) {
+        List<Map<String, Object>> conditions = new ArrayList<>();
+        if (rules.get("conditions") instanceof Collection<?> list) {
+            for (Object item : list) {
+                if (!(item instanceof Map<?, ?> map)) {
+                    return Optional.empty();
+                }
+                @SuppressWarnings("unchecked")
+                Map<String, Object> condition = (Map<String, Object>) map;
+                conditions.add(condition);
+            }
+        } else {
+            conditions.add(rules);
+        }
+
+        Specification<User> spec = Specification.where(null);
+        for (Map<String, Object> condition : conditions) {
+            Optional<Specification<User>> compiled = compileCondition(condition);
+            if (compiled.isEmpty()) {
+                return Optional.empty();
+            }
+            spec = spec.and(compiled.get());
+        }
+        return Optional.of(spec);
+    }
+
+    private Optional<Specification<User>> compileCondition(Map<String, Object> condition) {
+        String field = String.valueOf(condition.get("condition"));
+        String operator = String.valueOf(condition.getOrDefault("operator", "="));
+        Object value = condition.get("value");
+        if (value == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return switch (field) {
+                case "account_age_days" -> ageCondition(operator, daysAgo(value), true);
+                case "last_activity_days" -> ageCondition(operator, daysAgo(value), false);
+                case "role" -> roleCondition(operator, value);
+                case "is_active" -> "=".equals(operator)
+                        ? Optional.of(isActive(Boolean.parseBoolean(value.toString())))
+                        : Optional.empty();
+                default -> Optional.empty();
+            };
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * "Age > N days" means the timestamp is before now - N days, so the comparison flips.
+     */
+    private Optional<Specification<User>> ageCondition(String operator, LocalDateTime threshold, boolean created) {
+        return switch (operator) {
+            case ">" -> Optional.of(created ? createdBefore(threshold, false) : lastLoginBefore(threshold, false));
+            case ">=" -> Optional.of(created ? createdBefore(threshold, true) : lastLoginBefore(threshold, true));
+            case "<" -> Optional.of(created ? createdAfter(threshold, false) : lastLoginAfter(threshold, false));
+            case "<=" -> Optional.of(created ? createdAfter(threshold, true) : lastLoginAfter(threshold, true));
+            default -> Optional.empty();
+        };
+    }
+
+    private Optional<Specification<User>> roleCondition(String operator, Object value) {
+        if ("=".equals(operator)) {
+            return Optional.of(hasRole(User.UserRole.valueOf(value.toString())));
+        }
+        if ("in".equalsIgnoreCase(operator) && value instanceof Collection<?> values) {
+            return Optional.of(hasRoleIn(values.stream().map(v -> User.UserRole.valueOf(v.toString())).toList()));
+        }
+        return Optional.empty();
+    }
+
+    Optional<Specification<User>> compileAudienceCriteria(Map<String, Object> criteria) {
+        Specification<User> spec = Specification.where(null);
+        try {
+            if (criteria.get("roles") instanceof Collection<?> roles) {
+                spec = spec.and(hasRoleIn(roles.stream().map(r -> User.UserRole.valueOf(r.toString())).toList()));
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Audience criteria has an unknown role: {}", criteria.get("roles"));
+            return Optional.empty();
+        }
+        if (criteria.get("isActive") instanceof Boolean active) {
+            spec = spec.and(isActive(active));
+        }
+        return Optional.of(spec);
+    }
+
+    private static LocalDateTime daysAgo(Object days) {
+        return LocalDateTime.now().minusDays(Long.parseLong(days.toString().split("\\.")[0]));
+    }
+}
@@ -0,0 +1,273 @@
+package com.bsa.campcard.service.campaign;
+
+import com.bsa.campcard.dto.notification.NotificationRequest;
+import com.bsa.campcard.entity.CampaignRecipient;
+import com.bsa.campcard.entity.CampaignRecipient.DeliveryStatus;
+import com.bsa.campcard.entity.MarketingCampaign;
+import com.bsa.campcard.entity.Notification;
+import com.bsa.campcard.repository.NotificationRepository;
+import com.bsa.campcard.service.EmailService;
+import com.bsa.campcard.service.EmailService.CampaignEmailDestination;
+import com.bsa.campcard.service.NotificationService;
+import com.bsa.campcard.service.SmsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bsa.campcard.domain.user.User;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.ses.model.BulkEmailDestinationStatus;
+import software.amazon.awssdk.services.ses.model.BulkEmailStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sends a campaign message to one recipient over its channel and records the outcome
+ * (status, contact info, timestamps, error) on the recipient. Callers persist the
+ * recipient, so a dispatch chunk can write all of its statuses at once.
+ *
+ * Integration with AWS Services:
+ * - AWS SES for email campaigns via EmailService
+ * - AWS SNS for SMS campaigns via SmsService
+ * - Firebase FCM for push notifications via NotificationService
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CampaignChannelSender {
+
+    private final NotificationRepository notificationRepository;
+    private final EmailService emailService;
+    private final SmsService smsService;
+    private final NotificationService notificationService;
+
+    /**
+     * Send to the recipient's channel. Failures are recorded on the recipient, not thrown.
+     */
+    public void send(MarketingCampaign campaign, User user, CampaignRecipient recipient) {
+        try {
+            switch (recipient.getChannel()) {
+                case EMAIL -> sendEmail(campaign, user, recipient);
+                case SMS -> sendSms(campaign, user, recipient);
+                case PUSH -> sendPush(campaign, user, recipient);
+                case IN_APP -> notificationRepository.save(inAppNotification(campaign, user, recipient));
+            }
+        } catch (Exception e) {
+            log.error("Failed to send campaign {} to user {} via {}: {}",
+                campaign.getId(), user.getId(), recipient.getChannel(), e.getMessage());
+            markFailed(recipient, recipient.getChannel() + " send failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Send campaign via EMAIL (AWS SES)
+     */
+    private void sendEmail(MarketingCampaign campaign, User user, CampaignRecipient recipient) {
+        if (user.getEmail() == null || user.getEmail().isBlank()) {
+            recipient.setStatus(DeliveryStatus.SKIPPED);
+            recipient.setErrorMessage("No email address");
+            return;
+        }
+
+        recipient.setContactInfo(user.getEmail());
+        emailService.sendCampaignEmail(
+            user.getEmail(),
+            user.getFirstName(),
+            campaign.getSubjectLine(),
+            campaign.getContentHtml(),
+            campaign.getContentText(),
+            campaign.getId().toString()
+        );
+        markSent(recipient);
+
+        log.debug("Email sent for campaign {} to user {}", campaign.getId(), user.getId());
+    }
+
+    /**
+     * Send the campaign email to up to {@value EmailService#MAX_BULK_DESTINATIONS}
+     * recipients with one SES bulk templated call and record each destination's outcome
+     * on its recipient. Failures are recorded, not thrown.
+     */
+    public void sendEmails(MarketingCampaign campaign, List<CampaignRecipient> recipients, Map<UUID, User> usersById) {
+        List<CampaignRecipient> sendable = new ArrayList<>();
+        List<CampaignEmailDestination> destinations = new ArrayList<>();
+        for (CampaignRecipient recipient : recipients) {
+            User user = usersById.get(recipient.getUserId());
+            if (user.getEmail() == null || user.getEmail().isBlank()) {
+                recipient.setStatus(DeliveryStatus.SKIPPED);
+                recipient.setErrorMessage("No email address");
+                continue;
+            }
+            recipient.setContactInfo(user.getEmail());
+            sendable.add(recipient);
+            destinations.add(new CampaignEmailDestination(user.getEmail(), user.getFirstName(), recipient.getUuid()));
+        }
+        if (sendable.isEmpty()) {
+            return;
+        }
+
+        try {
+            String campaignId = campaign.getId().toString();
+            String template = emailService.registerCampaignTemplate(
+                campaignId,
+                campaign.getSubjectLine() != null ? campaign.getSubjectLine() : campaign.getName(),
+                campaign.getContentHtml(),
+                campaign.getContentText()
+            );
+            List<BulkEmailDestinationStatus> statuses = emailService.sendCampaignEmailBatch(template, campaignId, destinations);
+
+            for (int i = 0; i < sendable.size(); i++) {
+                BulkEmailDestinationStatus status = statuses.get(i);
+                if (status.status() == BulkEmailStatus.SUCCESS) {
+                    markSent(sendable.get(i));
+                } else {
+                    markFailed(sendable.get(i), "EMAIL send failed: " + status.statusAsString() +
+                        (status.error() != null ? " - " + status.error() : ""));
+                }
+            }
+            log.debug("Bulk email sent for campaign {} to {} recipients", campaign.getId(), sendable.size());
+        } catch (Exception e) {
+            log.error("Failed to send campaign {} bulk email to {} recipients: {}",
+                campaign.getId(), sendable.size(), e.getMessage());
+            sendable.forEach(recipient -> markFailed(recipient, "EMAIL send failed: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Delete the SES template the campaign's bulk email sends registered, once its
+     * dispatch is over.
+     */
+    public void releaseEmailTemplate(MarketingCampaign campaign) {
+        emailService.deleteCampaignTemplate(campaign.getId().toString());
+    }
+
+    /**
+     * Send campaign via SMS (AWS SNS)
+     */
+    private void sendSms(MarketingCampaign campaign, User user, CampaignRecipient recipient) {
+        if (user.getPhoneNumber() == null || user.getPhoneNumber().isBlank()) {
+            recipient.setStatus(DeliveryStatus.SKIPPED);
+            recipient.setErrorMessage("No phone number");
+            return;
+        }
+
+        recipient.setContactInfo(user.getPhoneNumber());
+        smsService.sendCampaignSms(user.getPhoneNumber(), formatSmsContent(campaign), campaign.getId().toString());
+        markSent(recipient);
+
+        log.debug("SMS sent for campaign {} to user {}", campaign.getId(), user.getId());
+    }
+
+    /**
+     * Send campaign via PUSH notification (Firebase FCM)
+     */
+    private void sendPush(MarketingCampaign campaign, User user, CampaignRecipient recipient) {
+        // Convert UUID to Long for notification service (temporary until DBA migration)
+        Long userIdAsLong = user.getId().getMostSignificantBits() & Long.MAX_VALUE;
+
+        NotificationRequest pushRequest = NotificationRequest.builder()
+            .userIds(List.of(userIdAsLong))
+            .title(campaign.getSubjectLine() != null ? campaign.getSubjectLine() : campaign.getName())
+            .body(campaign.getContentText() != null ?
+                truncate(campaign.getContentText(), 200) :
+                campaign.getDescription())
+            .type(Notification.NotificationType.MARKETING)
+            .data(Map.of(
+                "campaignId", campaign.getId().toString(),
+                "campaignUuid", campaign.getUuid().toString(),
+                "type", "CAMPAIGN"
+            ))
+            .saveToDatabase(true)
+            .build();
+
+        notificationService.sendNotification(pushRequest);
+        markSent(recipient);
+
+        log.debug("Push notification sent for campaign {} to user {}", campaign.getId(), user.getId());
+    }
+
+    /**
+     * Build the IN_APP notification for a recipient and mark it delivered. The caller
+     * saves the notification, so a chunk's notifications can be inserted together.
+     */
+    public Notification inAppNotification(MarketingCampaign campaign, User user, CampaignRecipient recipient) {
+        // Convert UUID to Long for notification entity (temporary until DBA migration)
+        Long userIdAsLong = user.getId().getMostSignificantBits() & Long.MAX_VALUE;
+
+        Notification notification = Notification.builder()
+            .userId(userIdAsLong)
+            .title(campaign.getSubjectLine() != null ? campaign.getSubjectLine() : campaign.getName())
+            .body(campaign.getContentText() != null ? campaign.getContentText() : campaign.getDescription())
+            .type(Notification.NotificationType.MARKETING)
+            .imageUrl(getImageUrl(campaign))
+            .data(serializeData(Map.of(
+                "campaignId", campaign.getId().toString(),
+                "campaignUuid", campaign.getUuid().toString()
+            )))
+            .sent(true)
+            .read(false)
+            .build();
+
+        LocalDateTime now = LocalDateTime.now();
+        recipient.setStatus(DeliveryStatus.DELIVERED);
+        recipient.setSentAt(now);
+        recipient.setDeliveredAt(now);
+        return notification;
+    }
+
+    private void markSent(CampaignRecipient recipient) {
+        recipient.setStatus(DeliveryStatus.SENT);
+        recipient.setSentAt(LocalDateTime.now());
+        recipient.setErrorMessage(null);
+    }
+
+    private void markFailed(CampaignRecipient recipient, String errorMessage) {
+        recipient.setStatus(DeliveryStatus.FAILED);
+        recipient.setErrorMessage(errorMessage);
+        recipient.setFailedAt(LocalDateTime.now());
+    }
+
+    private String formatSmsContent(MarketingCampaign campaign) {
+        String content = campaign.getContentText();
+        if (content == null || content.isBlank()) {
+            content = campaign.getDescription();
+        }
+        if (content == null) {
+            content = campaign.getName();
+        }
+
+        // Prepend identifier and truncate to SMS limit
+        String prefix = "Camp Card: ";
+        int maxLength = 160 - prefix.length() - 20; // Leave room for opt-out
+
+        if (content.length() > maxLength) {
+            content = content.substring(0, maxLength - 3) + "...";
+        }
+
+        return prefix + content + " Reply STOP to unsubscribe.";
+    }
+
+    private String truncate(String text, int maxLength) {
+        if (text == null) return "";
+        if (text.length() <= maxLength) return text;
+        return text.substring(0, maxLength - 3) + "...";
+    }
+
+    private String getImageUrl(MarketingCampaign campaign) {
+        if (campaign.getContentJson() != null && campaign.getContentJson().containsKey("imageUrl")) {
+            return (String) campaign.getContentJson().get("imageUrl");
+        }
+        return null;
+    }
+
+    private String serializeData(Map<String, String> data) {
+        if (data == null || data.isEmpty()) return null;
+        try {
+            return new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(data);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
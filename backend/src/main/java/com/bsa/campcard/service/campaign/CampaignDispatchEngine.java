@@ -0,0 +1,255 @@
+package com.bsa.campcard.service.campaign;
+
+import com.bsa.campcard.config.CampaignDispatchProperties;
+import com.bsa.campcard.config.CampaignDispatchProperties.ChannelSettings;
+import com.bsa.campcard.entity.CampaignRecipient;
+import com.bsa.campcard.entity.CampaignRecipient.Channel;
+import com.bsa.campcard.entity.CampaignRecipient.DeliveryStatus;
+import com.bsa.campcard.entity.MarketingCampaign;
+import com.bsa.campcard.entity.Notification;
+import com.bsa.campcard.repository.CampaignRecipientRepository;
+import com.bsa.campcard.repository.MarketingCampaignRepository;
+import com.bsa.campcard.repository.NotificationRepository;
+import com.bsa.campcard.service.EmailService;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.bsa.campcard.domain.user.User;
+import org.bsa.campcard.domain.user.UserRepository;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dispatches a campaign in two stages.
+ *
+ * Materialization inserts the campaign's recipient rows for a batch of users with a
+ * single INSERT ... ON CONFLICT DO NOTHING; the unique (campaign, user, channel)
+ * constraint skips users already recorded by an earlier run or a geofence trigger.
+ *
+ * Sending takes a chunk of pending recipients and sends them in parallel. Provider-backed
+ * channels (SES email, SNS SMS, FCM push) each have a bounded worker pool and a send rate
+ * shared by every campaign on this node, so a slow or throttled provider only holds up
+ * its own channel. When a channel's queue is full the dispatching thread runs the send
+ * itself, which slows the dispatch down to what the providers accept. In-app
+ * notifications need no provider and are written with the chunk. Email goes out as SES
+ * bulk templated sends of up to 50 recipients, each counting every recipient against
+ * the email rate.
+ *
+ * Each chunk commits on its own: recipient statuses are flushed as JDBC-batched
+ * UPDATEs together with the chunk's in-app notifications in one short transaction
+ * once every send has finished. Recipients of a chunk interrupted mid-send are still
+ * pending and are sent again when the campaign resumes, so delivery is at least once.
+ */
+@Component
+public class CampaignDispatchEngine {
+
+    private final CampaignRecipientRepository recipientRepository;
+    private final MarketingCampaignRepository campaignRepository;
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final CampaignChannelSender sender;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean bulkEmail;
+    private final Map<Channel, ChannelWorkers> workers = new EnumMap<>(Channel.class);
+
+    public CampaignDispatchEngine(
+            CampaignRecipientRepository recipientRepository,
+            MarketingCampaignRepository campaignRepository,
+            NotificationRepository notificationRepository,
+            UserRepository userRepository,
+            CampaignChannelSender sender,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            CampaignDispatchProperties properties) {
+        this.recipientRepository = recipientRepository;
+        this.campaignRepository = campaignRepository;
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.sender = sender;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bulkEmail = properties.isBulkEmail();
+
+        for (Channel channel : List.of(Channel.EMAIL, Channel.SMS, Channel.PUSH)) {
+            workers.put(channel, new ChannelWorkers(channel, properties.settings(channel)));
+        }
+    }
+
+    /**
+     * Insert pending recipient rows for a batch of the audience and advance the
+     * campaign's dispatch cursor past it, in one transaction.
+     *
+     * @param users the batch, ordered by ID; the last ID becomes the dispatch cursor
+     * @return the number of rows inserted
+     */
+    public int materialize(MarketingCampaign campaign, List<Channel> channels, List<User> users) {
+        List<UUID> userIds = users.stream().map(User::getId).toList();
+        List<String> channelNames = channels.stream().map(Channel::name).toList();
+        UUID cursor = userIds.get(userIds.size() - 1);
+
+        Integer inserted = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            int rows = recipientRepository.insertPendingRecipients(campaign.getId(), userIds, channelNames, now);
+            campaignRepository.advanceDispatchCursor(campaign.getId(), cursor, now);
+            return rows;
+        });
+        return inserted != null ? inserted : 0;
+    }
+
+    /**
+     * Send a chunk of the campaign's pending recipients and commit their statuses.
+     * Recipients whose user no longer exists are skipped.
+     *
+     * @throws CompletionException if the dispatch was interrupted; nothing is committed
+     */
+    public ChunkResult dispatchChunk(MarketingCampaign campaign, List<CampaignRecipient> recipients) {
+        Map<UUID, User> usersById = new HashMap<>();
+        userRepository.findAllById(recipients.stream().map(CampaignRecipient::getUserId).distinct().toList())
+            .forEach(user -> usersById.put(user.getId(), user));
+
+        List<Notification> notifications = new ArrayList<>();
+        List<CampaignRecipient> emails = new ArrayList<>();
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (CampaignRecipient recipient : recipients) {
+            User user = usersById.get(recipient.getUserId());
+            if (user == null) {
+                recipient.setStatus(DeliveryStatus.SKIPPED);
+                recipient.setErrorMessage("User not found");
+            } else if (recipient.getChannel() == Channel.IN_APP) {
+                notifications.add(sender.inAppNotification(campaign, user, recipient));
+            } else if (recipient.getChannel() == Channel.EMAIL && bulkEmail) {
+                emails.add(recipient);
+            } else {
+                sends.add(workers.get(recipient.getChannel()).submit(() -> sender.send(campaign, user, recipient)));
+            }
+        }
+        for (int i = 0; i < emails.size(); i += EmailService.MAX_BULK_DESTINATIONS) {
+            List<CampaignRecipient> batch = emails.subList(i, Math.min(i + EmailService.MAX_BULK_DESTINATIONS, emails.size()));
+            sends.add(workers.get(Channel.EMAIL).submit(() -> sender.sendEmails(campaign, batch, usersById), batch.size()));
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            writeStatuses(recipients);
+            notificationRepository.saveAll(notifications);
+            campaignRepository.recordDispatchHeartbeat(campaign.getId(), LocalDateTime.now());
+        });
+
+        int failed = (int) recipients.stream().filter(r -> r.getStatus() == DeliveryStatus.FAILED).count();
+        int skipped = (int) recipients.stream().filter(r -> r.getStatus() == DeliveryStatus.SKIPPED).count();
+        return new ChunkResult(recipients.size() - failed - skipped, failed);
+    }
+
+    /**
+     * Copy each outcome onto the managed row, loaded with one query, and let the flush
+     * write them as JDBC-batched UPDATEs sized to the chunk.
+     */
+    private void writeStatuses(List<CampaignRecipient> outcomes) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(outcomes.size());
+
+        Map<Long, CampaignRecipient> outcomesById = new HashMap<>();
+        outcomes.forEach(outcome -> outcomesById.put(outcome.getId(), outcome));
+        for (CampaignRecipient recipient : recipientRepository.findAllById(outcomesById.keySet())) {
+            CampaignRecipient outcome = outcomesById.get(recipient.getId());
+            recipient.setStatus(outcome.getStatus());
+            recipient.setContactInfo(outcome.getContactInfo());
+            recipient.setSentAt(outcome.getSentAt());
+            recipient.setDeliveredAt(outcome.getDeliveredAt());
+            recipient.setFailedAt(outcome.getFailedAt());
+            recipient.setErrorMessage(outcome.getErrorMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.values().forEach(ChannelWorkers::shutdown);
+    }
+
+    public record ChunkResult(int sent, int failed) {
+    }
+
+    private record SendTask(Runnable send, int messages, ChannelRateLimiter rateLimiter, CompletableFuture<Void> result)
+            implements Runnable {
+
+        @Override
+        public void run() {
+            try {
+                rateLimiter.acquire(messages);
+                send.run();
+                result.complete(null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.completeExceptionally(e);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * One channel's worker pool and rate limit.
+     */
+    static class ChannelWorkers {
+
+        private final ThreadPoolExecutor executor;
+        private final ChannelRateLimiter rateLimiter;
+
+        ChannelWorkers(Channel channel, ChannelSettings settings) {
+            String name = "campaign-" + channel.name().toLowerCase().replace('_', '-') + "-";
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(
+                settings.getConcurrency(), settings.getConcurrency(), 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(settings.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, pool) -> {
+                    // Backpressure: the dispatching thread sends when the queue is full
+                    if (pool.isShutdown()) {
+                        throw new RejectedExecutionException(channel + " dispatch workers are shut down");
+                    }
+                    task.run();
+                });
+            this.executor.allowCoreThreadTimeOut(true);
+            this.rateLimiter = new ChannelRateLimiter(settings.getRatePerSecond());
+        }
+
+        CompletableFuture<Void> submit(Runnable send) {
+            return submit(send, 1);
+        }
+
+        /**
+         * Submit a send that counts as {@code messages} against the channel's rate
+         */
+        CompletableFuture<Void> submit(Runnable send, int messages) {
+            CompletableFuture<Void> result = new CompletableFuture<>();
+            executor.execute(new SendTask(send, messages, rateLimiter, result));
+            return result;
+        }
+
+        void shutdown() {
+            // Fail queued sends so a chunk waiting on them gives up instead of hanging
+            executor.shutdownNow().forEach(task ->
+                ((SendTask) task).result().completeExceptionally(new RejectedExecutionException("Dispatch shut down")));
+        }
+    }
+}
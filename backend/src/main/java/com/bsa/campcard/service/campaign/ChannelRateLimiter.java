@@ -0,0 +1,53 @@
+package com.bsa.campcard.service.campaign;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Paces sends to a provider at a fixed rate shared by all of a channel's workers.
+ * Each caller reserves the next free slot, one interval after the previous one, and
+ * sleeps until it arrives; idle time is not banked, so there are no bursts.
+ */
+class ChannelRateLimiter {
+
+    private final long intervalNanos;
+    private final AtomicLong nextSlot;
+
+    ChannelRateLimiter(double ratePerSecond) {
+        this.intervalNanos = ratePerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond) : 0;
+        this.nextSlot = new AtomicLong(System.nanoTime());
+    }
+
+    void acquire() throws InterruptedException {
+        acquire(1);
+    }
+
+    /**
+     * Wait for a send that counts as {@code permits} messages against the rate, such
+     * as a bulk email to that many destinations.
+     */
+    void acquire(int permits) throws InterruptedException {
+        long waitNanos = reserve(System.nanoTime(), permits);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    long reserve(long now) {
+        return reserve(now, 1);
+    }
+
+    /**
+     * Reserve the next slot at or after {@code now}; the slot after it is
+     * {@code permits} intervals later.
+     *
+     * @return how long the caller must wait for its slot, in nanoseconds
+     */
+    long reserve(long now, int permits) {
+        if (intervalNanos == 0) {
+            return 0;
+        }
+        long slot = nextSlot.getAndAccumulate(now, (next, time) -> Math.max(next, time) + intervalNanos * permits);
+        return Math.max(slot, now) - now;
+    }
+}
@@ -0,0 +1,173 @@
+package com.bsa.campcard.service.campaign;
+
+import com.bsa.campcard.entity.CampaignRecipient.Channel;
+import com.bsa.campcard.entity.MarketingCampaign;
+import com.bsa.campcard.entity.MarketingSegment;
+import com.bsa.campcard.repository.MarketingCampaignRepository;
+import com.bsa.campcard.repository.MarketingSegmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.bsa.campcard.domain.user.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory audience index for active geofence campaigns, so a geofence event is
+ * matched against every campaign with hash lookups instead of audience queries.
+ *
+ * Each campaign's audience is streamed once into a set of user IDs. Campaigns
+ * without targeting match everyone. An audience larger than
+ * {@code max-indexed-members} keeps only its compiled query and is checked with one
+ * query per event. The index is rebuilt when the active geofence campaigns or their
+ * segments change (checked every {@code change-check-ms}) and on a fixed interval
+ * to pick up users joining or leaving audiences.
+ */
+@Slf4j
+@Component
+public class GeofenceCampaignIndex {
+
+    private static final int LOAD_CHUNK_SIZE = 5000;
+
+    private final MarketingCampaignRepository campaignRepository;
+    private final MarketingSegmentRepository segmentRepository;
+    private final CampaignAudienceResolver audienceResolver;
+    private final int maxIndexedMembers;
+
+    private volatile List<IndexedCampaign> campaigns = List.of();
+    private volatile List<Object> signature;
+
+    public GeofenceCampaignIndex(
+            MarketingCampaignRepository campaignRepository,
+            MarketingSegmentRepository segmentRepository,
+            CampaignAudienceResolver audienceResolver,
+            @Value("${campcard.campaigns.geofence.max-indexed-members:500000}") int maxIndexedMembers) {
+        this.campaignRepository = campaignRepository;
+        this.segmentRepository = segmentRepository;
+        this.audienceResolver = audienceResolver;
+        this.maxIndexedMembers = maxIndexedMembers;
+    }
+
+    /**
+     * Active geofence campaigns whose audience includes the user.
+     */
+    public List<IndexedCampaign> campaignsFor(UUID userId) {
+        List<IndexedCampaign> matches = new ArrayList<>();
+        for (IndexedCampaign campaign : campaigns) {
+            if (campaign.includes(userId, audienceResolver)) {
+                matches.add(campaign);
+            }
+        }
+        return matches;
+    }
+
+    @Scheduled(fixedDelayString = "${campcard.campaigns.geofence.rebuild-ms:300000}",
+               initialDelayString = "${campcard.campaigns.geofence.rebuild-ms:300000}")
+    public synchronized void rebuild() {
+        List<MarketingCampaign> active = campaignRepository.findActiveCampaignsWithGeofencing();
+        List<Object> current = signatureOf(active);
+
+        List<IndexedCampaign> indexed = new ArrayList<>();
+        for (MarketingCampaign campaign : active) {
+            try {
+                index(campaign).ifPresent(indexed::add);
+            } catch (Exception e) {
+                log.error("Failed to index geofence campaign {}: {}", campaign.getId(), e.getMessage(), e);
+            }
+        }
+        campaigns = List.copyOf(indexed);
+        signature = current;
+        log.info("Indexed {} geofence campaigns", indexed.size());
+    }
+
+    /**
+     * Rebuild as soon as a geofence campaign or one of its segments changes. The first
+     * check after startup always builds the index.
+     */
+    @Scheduled(fixedDelayString = "${campcard.campaigns.geofence.change-check-ms:30000}")
+    public synchronized void rebuildIfChanged() {
+        List<MarketingCampaign> active = campaignRepository.findActiveCampaignsWithGeofencing();
+        if (!signatureOf(active).equals(signature)) {
+            rebuild();
+        }
+    }
+
+    private Optional<IndexedCampaign> index(MarketingCampaign campaign) {
+        List<Channel> channels = campaign.getChannels() == null ? List.of() : Arrays.stream(campaign.getChannels())
+            .map(channel -> Channel.valueOf(channel.toUpperCase()))
+            .toList();
+
+        // No targeting = everyone
+        if (campaign.getSegmentId() == null &&
+            (campaign.getTargetAudience() == null || campaign.getTargetAudience().isEmpty())) {
+            return Optional.of(new IndexedCampaign(campaign, channels, true, null, null));
+        }
+
+        Optional<Specification<User>> audience = audienceResolver.audienceOf(campaign);
+        if (audience.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Set<UUID> members = new HashSet<>();
+        audienceResolver.forEachChunk(audience.get(), LOAD_CHUNK_SIZE, null, chunk -> {
+            chunk.forEach(user -> members.add(user.getId()));
+            return members.size() <= maxIndexedMembers;
+        });
+        if (members.size() > maxIndexedMembers) {
+            log.warn("Geofence campaign {} audience exceeds {} users; checking membership per event",
+                campaign.getId(), maxIndexedMembers);
+            return Optional.of(new IndexedCampaign(campaign, channels, false, null, audience.get()));
+        }
+        return Optional.of(new IndexedCampaign(campaign, channels, false, Set.copyOf(members), null));
+    }
+
+    /**
+     * Campaign IDs and versions plus their segments' versions; equal signatures mean
+     * the index is current.
+     */
+    private List<Object> signatureOf(List<MarketingCampaign> active) {
+        List<Object> parts = new ArrayList<>();
+        List<Long> segmentIds = new ArrayList<>();
+        for (MarketingCampaign campaign : active) {
+            parts.add(campaign.getId());
+            parts.add(campaign.getUpdatedAt());
+            if (campaign.getSegmentId() != null) {
+                segmentIds.add(campaign.getSegmentId());
+            }
+        }
+        if (!segmentIds.isEmpty()) {
+            for (MarketingSegment segment : segmentRepository.findAllById(segmentIds)) {
+                parts.add(segment.getId());
+                parts.add(segment.getUpdatedAt());
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * An active geofence campaign and its audience: everyone, an ID set, or (for very
+     * large audiences) the compiled query.
+     */
+    public record IndexedCampaign(MarketingCampaign campaign, List<Channel> channels, boolean everyone,
+                                  Set<UUID> members, Specification<User> audience) {
+
+        boolean includes(UUID userId, CampaignAudienceResolver resolver) {
+            if (everyone) {
+                return true;
+            }
+            if (members != null) {
+                return members.contains(userId);
+            }
+            return resolver.includes(Objects.requireNonNull(audience), userId);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.bsa.campcard.service.catalog;
+
+import com.bsa.campcard.dto.OfferResponse;
+import com.bsa.campcard.entity.Merchant;
+import com.bsa.campcard.entity.Offer;
+import com.bsa.campcard.entity.Offer.OfferStatus;
+import com.bsa.campcard.repository.MerchantRepository;
+import com.bsa.campcard.repository.OfferRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory catalog of the offers currently shown to members, so the home screen feeds
+ * (active, by category, featured) are served without querying offers and merchants on
+ * every request.
+ *
+ * Each {@link Snapshot} is immutable and versioned: listed offers joined with their
+ * merchant's name and logo, newest first, once for all councils and once per council,
+ * with per-category and featured lists. A snapshot covers the date windows up to the
+ * next hour boundary or the next time an offer starts or ends, whichever is first; the
+ * first read after that rebuilds it. It is also rebuilt when offers or merchants change
+ * (checked every {@code change-check-ms}), which includes a limited offer's last
+ * redemption being claimed, and when redemption counters find an offer sold out
+ * through {@link #invalidate()}.
+ *
+ * Rebuilds are timed as {@code campcard.offers.catalog.rebuild}.
+ */
+@Slf4j
+@Component
+public class OfferCatalog {
+
+    // Same order as the feeds' default sort: createdAt DESC
+    private static final Comparator<Entry> NEWEST_FIRST = Comparator
+            .comparing((Entry entry) -> entry.offer().getCreatedAt(), Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(entry -> entry.offer().getId(), Comparator.reverseOrder());
+
+    private final OfferRepository offerRepository;
+    private final MerchantRepository merchantRepository;
+    private final Timer rebuildTimer;
+    private final Clock clock;
+
+    private final AtomicBoolean stale = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+    private volatile List<Object> signature;
+    private long version;
+
+    public OfferCatalog(OfferRepository offerRepository,
+                        MerchantRepository merchantRepository,
+                        MeterRegistry meterRegistry) {
+        this(offerRepository, merchantRepository, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    OfferCatalog(OfferRepository offerRepository,
+                 MerchantRepository merchantRepository,
+                 MeterRegistry meterRegistry,
+                 Clock clock) {
+        this.offerRepository = offerRepository;
+        this.merchantRepository = merchantRepository;
+        this.clock = clock;
+        this.rebuildTimer = Timer.builder("campcard.offers.catalog.rebuild")
+                .description("Offer catalog rebuilds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The current snapshot, rebuilt first if the date windows it covers have passed.
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && current.isCurrent(LocalDateTime.now(clock))) {
+            return current;
+        }
+        return rebuildIfOutdated();
+    }
+
+    /**
+     * Rebuild on the next change check, for changes that may not show in offer or
+     * merchant rows' {@code updated_at} yet (a claim finding a limited offer sold out).
+     */
+    public void invalidate() {
+        stale.set(true);
+    }
+
+    @Scheduled(cron = "0 0 * * * *") // Every hour
+    public synchronized Snapshot rebuild() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime nextHour = now.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+
+        // Read the signature first so a change made during the build triggers another
+        stale.set(false);
+        List<Object> current = currentSignature();
+        List<Offer> offers = offerRepository.findListedBetween(OfferStatus.ACTIVE, now, nextHour);
+        Set<Long> merchantIds = offers.stream().map(Offer::getMerchantId).collect(Collectors.toSet());
+        Map<Long, Merchant> merchants = merchantRepository.findAllById(merchantIds).stream()
+                .collect(Collectors.toMap(Merchant::getId, Function.identity()));
+
+        Snapshot built = Snapshot.of(++version, offers, merchants, now, nextHour);
+        snapshot = built;
+        signature = current;
+        rebuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.debug("Built offer catalog v{} with {} offers in {} councils",
+                built.version(), built.all().active().size(), built.councils().size());
+        return built;
+    }
+
+    /**
+     * Rebuild as soon as an offer or merchant changes on any node, or a sell-out was
+     * reported here. The first check after startup always builds the catalog.
+     */
+    @Scheduled(fixedDelayString = "${campcard.offers.catalog.change-check-ms:30000}")
+    public synchronized void rebuildIfChanged() {
+        if (stale.get() || snapshot == null || !currentSignature().equals(signature)) {
+            rebuild();
+        }
+    }
+
+    private synchronized Snapshot rebuildIfOutdated() {
+        Snapshot current = snapshot;
+        if (current != null && current.isCurrent(LocalDateTime.now(clock))) {
+            return current;
+        }
+        return rebuild();
+    }
+
+    /**
+     * Offer count and latest offer and merchant updates; equal signatures mean no offer
+     * has been created, changed or deleted and no merchant has changed.
+     */
+    private List<Object> currentSignature() {
+        List<Object[]> offers = offerRepository.countAndLastUpdate();
+        Object[] row = offers.isEmpty() ? new Object[2] : offers.get(0);
+        return Arrays.asList(row[0], row[1], merchantRepository.findLastUpdate());
+    }
+
+    /**
+     * A listed offer joined with its merchant. Entries are shared between requests and
+     * must not be modified.
+     */
+    public record Entry(Offer offer, String merchantName, String merchantLogoUrl) {
+
+        public OfferResponse toResponse() {
+            return OfferResponse.fromEntity(offer, merchantName, merchantLogoUrl);
+        }
+
+        public OfferResponse toResponse(int userRedemptionCount) {
+            return OfferResponse.fromEntityWithUserData(offer, merchantName, merchantLogoUrl, userRedemptionCount);
+        }
+    }
+
+    /**
+     * Listed offers for one audience, newest first.
+     */
+    public record View(List<Entry> active, Map<String, List<Entry>> byCategory, List<Entry> featured) {
+
+        static final View EMPTY = new View(List.of(), Map.of(), List.of());
+
+        public List<Entry> category(String category) {
+            return category != null ? byCategory.getOrDefault(category, List.of()) : List.of();
+        }
+
+        static View of(List<Entry> sorted) {
+            Map<String, List<Entry>> byCategory = new LinkedHashMap<>();
+            List<Entry> featured = new ArrayList<>();
+            for (Entry entry : sorted) {
+                if (entry.offer().getCategory() != null) {
+                    byCategory.computeIfAbsent(entry.offer().getCategory(), key -> new ArrayList<>()).add(entry);
+                }
+                if (Boolean.TRUE.equals(entry.offer().getFeatured())) {
+                    featured.add(entry);
+                }
+            }
+            byCategory.replaceAll((category, entries) -> List.copyOf(entries));
+            return new View(List.copyOf(sorted), Map.copyOf(byCategory), List.copyOf(featured));
+        }
+    }
+
+    /**
+     * One build of the catalog. {@code all} lists every council's offers; offers of
+     * merchants without a council appear only there.
+     *
+     * @param expiresAt first moment an offer starts or ends, or the next hour boundary
+     */
+    public record Snapshot(long version, LocalDateTime builtAt, LocalDateTime expiresAt,
+                           View all, Map<Long, View> councils) {
+
+        public View view(Long councilId) {
+            return councilId != null ? councils.getOrDefault(councilId, View.EMPTY) : all;
+        }
+
+        boolean isCurrent(LocalDateTime now) {
+            return now.isBefore(expiresAt);
+        }
+
+        /**
+         * @param offers ACTIVE offers whose date window overlaps {@code [now, horizon]}
+         */
+        static Snapshot of(long version, List<Offer> offers, Map<Long, Merchant> merchants,
+                           LocalDateTime now, LocalDateTime horizon) {
+            LocalDateTime expiresAt = horizon;
+            List<Entry> listed = new ArrayList<>();
+            Map<Long, List<Entry>> byCouncil = new HashMap<>();
+
+            for (Offer offer : offers) {
+                if (offer.getValidFrom().isAfter(now)) {
+                    // Starts before the horizon: list it from then on
+                    expiresAt = earliest(expiresAt, offer.getValidFrom());
+                    continue;
+                }
+                if (offer.getUsageLimit() != null && offer.getTotalRedemptions() >= offer.getUsageLimit()) {
+                    continue;
+                }
+                // Listed through validUntil inclusive
+                expiresAt = earliest(expiresAt, offer.getValidUntil().plusNanos(1));
+
+                Merchant merchant = merchants.get(offer.getMerchantId());
+                Entry entry = merchant != null
+                        ? new Entry(offer, merchant.getBusinessName(), merchant.getLogoUrl())
+                        : new Entry(offer, null, null);
+                listed.add(entry);
+                if (merchant != null && merchant.getCouncilId() != null) {
+                    byCouncil.computeIfAbsent(merchant.getCouncilId(), key -> new ArrayList<>()).add(entry);
+                }
+            }
+
+            listed.sort(NEWEST_FIRST);
+            Map<Long, View> councils = new HashMap<>();
+            byCouncil.forEach((councilId, entries) -> {
+                entries.sort(NEWEST_FIRST);
+                councils.put(councilId, View.of(entries));
+            });
+            return new Snapshot(version, now, expiresAt, View.of(listed), Map.copyOf(councils));
+        }
+
+        private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+            return b.isBefore(a) ? b : a;
+        }
+    }
+}
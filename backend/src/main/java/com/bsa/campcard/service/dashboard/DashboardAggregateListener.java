@@ -0,0 +1,88 @@
+package com.bsa.campcard.service.dashboard;
+
+import com.bsa.campcard.entity.DashboardAggregated;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * JPA entity listener that keeps the dashboard aggregate store in step with the
+ * subscriptions, referrals, users, card orders and offers tables.
+ *
+ * On load the entity's counter contribution is remembered; on insert, update or delete
+ * only the difference is handed to {@link DashboardAggregateService}, which applies it
+ * after the surrounding transaction commits.
+ */
+@Component
+@Slf4j
+public class DashboardAggregateListener {
+
+    // Resolved lazily: the aggregate service depends on repositories, which depend on
+    // the EntityManagerFactory that instantiates this listener.
+    private final ObjectProvider<DashboardAggregateService> aggregateService;
+
+    public DashboardAggregateListener(ObjectProvider<DashboardAggregateService> aggregateService) {
+        this.aggregateService = aggregateService;
+    }
+
+    @PostLoad
+    public void onLoad(Object entity) {
+        if (entity instanceof DashboardAggregated tracked) {
+            tracked.setAggregateSnapshot(DashboardAggregates.contributionOf(entity));
+        }
+    }
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        if (entity instanceof DashboardAggregated tracked) {
+            Map<String, Long> after = DashboardAggregates.contributionOf(entity);
+            record(DashboardAggregates.delta(Collections.emptyMap(), after));
+            tracked.setAggregateSnapshot(after);
+        }
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        if (entity instanceof DashboardAggregated tracked) {
+            Map<String, Long> after = DashboardAggregates.contributionOf(entity);
+            Map<String, Long> before = tracked.getAggregateSnapshot();
+            if (before == null) {
+                // Entity was never loaded through this persistence context; the nightly
+                // reconciliation picks up whatever this update changed.
+                log.debug("No aggregate snapshot for updated {}, skipping counter delta",
+                        entity.getClass().getSimpleName());
+            } else {
+                record(DashboardAggregates.delta(before, after));
+            }
+            tracked.setAggregateSnapshot(after);
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof DashboardAggregated tracked) {
+            Map<String, Long> before = tracked.getAggregateSnapshot() != null
+                    ? tracked.getAggregateSnapshot()
+                    : DashboardAggregates.contributionOf(entity);
+            record(DashboardAggregates.delta(before, Collections.emptyMap()));
+            tracked.setAggregateSnapshot(null);
+        }
+    }
+
+    private void record(Map<String, Long> delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        DashboardAggregateService service = aggregateService.getIfAvailable();
+        if (service != null) {
+            service.record(delta);
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package com.bsa.campcard.service.dashboard;
+
+import com.bsa.campcard.repository.CardOrderRepository;
+import com.bsa.campcard.repository.OfferRepository;
+import com.bsa.campcard.repository.ReferralRepository;
+import com.bsa.campcard.repository.SubscriptionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.bsa.campcard.domain.user.UserRepository;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.bsa.campcard.service.dashboard.DashboardAggregates.*;
+
+/**
+ * Materialized dashboard counters stored as one Redis hash per scope
+ * ({@code dashboard:aggregates:national}, {@code dashboard:aggregates:council:{id}}).
+ *
+ * Writes arrive as deltas from {@link DashboardAggregateListener} and are applied with
+ * HINCRBY once the originating transaction commits, so reads are a single HGETALL no
+ * matter how many users, subscriptions or offers exist. A missing hash is rebuilt from
+ * grouped COUNT/SUM queries, and a nightly reconciliation corrects any drift from
+ * bulk SQL updates that bypass the entity listener.
+ *
+ * A rebuild holds a cluster-wide lock while it computes and replaces the hashes. While
+ * the lock is held every delta is also journaled with the ID of the transaction that
+ * produced it; the counts are computed from a single database snapshot, and when a hash
+ * is replaced the journaled deltas of transactions that snapshot does not see are
+ * applied on top. A delta is therefore neither lost nor counted twice when its
+ * transaction commits during a rebuild.
+ */
+@Service
+@Slf4j
+public class DashboardAggregateService {
+
+    private static final String KEY_PREFIX = "dashboard:aggregates:";
+    private static final String SCOPES_KEY = KEY_PREFIX + "scopes";
+    private static final String REBUILD_LOCK_KEY = KEY_PREFIX + "rebuild-lock";
+    private static final String JOURNAL_KEY = KEY_PREFIX + "journal";
+    private static final String BUILT_MARKER = "_built";
+    private static final Duration REBUILD_LOCK_TTL = Duration.ofMinutes(10);
+
+    // ARGV[1] is the delta's transaction ID. During a rebuild the delta is journaled for
+    // the replacement hash. Only increment hashes that have been fully built; a partial
+    // hash would be mistaken for real totals.
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[2]) == 1 then\n" +
+            "  redis.call('RPUSH', KEYS[3], cjson.encode({KEYS[1], ARGV}))\n" +
+            "  redis.call('PEXPIRE', KEYS[3], math.max(redis.call('PTTL', KEYS[2]), 1))\n" +
+            "end\n" +
+            "if redis.call('HEXISTS', KEYS[1], '" + BUILT_MARKER + "') == 0 then return 0 end\n" +
+            "for i = 2, #ARGV, 2 do redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1]) end\n" +
+            "return 1", Long.class);
+
+    // ARGV[1..3] are the computing snapshot's xmin, xmax and in-progress transaction IDs.
+    // Journaled deltas of transactions the snapshot did not see are applied on top.
+    private static final RedisScript<Long> REPLACE_SCRIPT = new DefaultRedisScript<>(
+            "local xmin, xmax = tonumber(ARGV[1]), tonumber(ARGV[2])\n" +
+            "local inProgress = {}\n" +
+            "for txid in string.gmatch(ARGV[3], '%d+') do inProgress[txid] = true end\n" +
+            "redis.call('DEL', KEYS[1])\n" +
+            "for i = 4, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end\n" +
+            "for _, entry in ipairs(redis.call('LRANGE', KEYS[2], 0, -1)) do\n" +
+            "  local journaled = cjson.decode(entry)\n" +
+            "  local delta = journaled[2]\n" +
+            "  local txid = tonumber(delta[1])\n" +
+            "  if journaled[1] == KEYS[1] and (txid >= xmax or (txid >= xmin and inProgress[delta[1]])) then\n" +
+            "    for i = 2, #delta, 2 do redis.call('HINCRBY', KEYS[1], delta[i], delta[i + 1]) end\n" +
+            "  end\n" +
+            "end\n" +
+            "return 1", Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1], KEYS[2]) end\n" +
+            "return 0", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final SubscriptionRepository subscriptionRepository;
+    private final ReferralRepository referralRepository;
+    private final UserRepository userRepository;
+    private final CardOrderRepository cardOrderRepository;
+    private final OfferRepository offerRepository;
+    private final DashboardBroadcastBroker broadcastBroker;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+
+    public DashboardAggregateService(StringRedisTemplate redisTemplate,
+                                     SubscriptionRepository subscriptionRepository,
+                                     ReferralRepository referralRepository,
+                                     UserRepository userRepository,
+                                     CardOrderRepository cardOrderRepository,
+                                     OfferRepository offerRepository,
+                                     DashboardBroadcastBroker broadcastBroker,
+                                     JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager) {
+        this.redisTemplate = redisTemplate;
+        this.subscriptionRepository = subscriptionRepository;
+        this.referralRepository = referralRepository;
+        this.userRepository = userRepository;
+        this.cardOrderRepository = cardOrderRepository;
+        this.offerRepository = offerRepository;
+        this.broadcastBroker = broadcastBroker;
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Record a scope-qualified counter delta. Inside a transaction the delta is merged
+     * with any others from the same transaction and applied after commit; rolled back
+     * changes never reach the store.
+     */
+    public void record(Map<String, Long> delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Already committed; treated as seen by any rebuild snapshot
+            apply(0L, delta);
+            return;
+        }
+
+        Map<String, Long> pending = pendingDelta();
+        delta.forEach((key, value) -> pending.merge(key, value, Long::sum));
+    }
+
+    /**
+     * Current counters for a scope, rebuilding the store if the scope has never been built.
+     */
+    public DashboardAggregates getAggregates(String scope) {
+        try {
+            Map<Object, Object> entries = redisTemplate.opsForHash().entries(KEY_PREFIX + scope);
+            if (entries.containsKey(BUILT_MARKER)) {
+                return fromHash(entries);
+            }
+        } catch (Exception e) {
+            log.warn("Redis unavailable for dashboard aggregates, computing from database: {}", e.getMessage());
+            return compute().aggregates().getOrDefault(scope, DashboardAggregates.empty());
+        }
+
+        log.info("Dashboard aggregates for scope {} not built, rebuilding", scope);
+        return rebuild(Set.of(scope)).getOrDefault(scope, DashboardAggregates.empty());
+    }
+
+    /**
+     * Recompute every scope from the database and replace the stored hashes.
+     * Runs nightly to correct drift from bulk updates that bypass the entity listener.
+     */
+    @Scheduled(cron = "0 30 3 * * *") // Daily at 3:30 AM
+    public void reconcile() {
+        log.info("Reconciling dashboard aggregates");
+        rebuild(Set.of());
+    }
+
+    /**
+     * Recompute every scope and replace the stored hashes. If another node is already
+     * rebuilding, the computed counters are returned without being stored.
+     */
+    public Map<String, DashboardAggregates> rebuild(Set<String> requiredScopes) {
+        String lockToken = UUID.randomUUID().toString();
+        boolean locked;
+        try {
+            locked = Boolean.TRUE.equals(
+                    redisTemplate.opsForValue().setIfAbsent(REBUILD_LOCK_KEY, lockToken, REBUILD_LOCK_TTL));
+        } catch (Exception e) {
+            log.warn("Failed to lock dashboard aggregates for rebuild: {}", e.getMessage());
+            return compute().aggregates();
+        }
+        if (!locked) {
+            log.info("Dashboard aggregates already being rebuilt elsewhere");
+            return compute().aggregates();
+        }
+
+        try {
+            Computed computed = compute();
+            Set<String> scopes = new HashSet<>(computed.aggregates().keySet());
+            scopes.addAll(requiredScopes);
+            try {
+                Set<String> knownScopes = redisTemplate.opsForSet().members(SCOPES_KEY);
+                if (knownScopes != null) {
+                    scopes.addAll(knownScopes);
+                }
+
+                String builtAt = String.valueOf(System.currentTimeMillis());
+                for (String scope : scopes) {
+                    DashboardAggregates aggregates = computed.aggregates().getOrDefault(scope, DashboardAggregates.empty());
+                    List<String> args = new ArrayList<>(computed.snapshotArgs());
+                    args.add(BUILT_MARKER);
+                    args.add(builtAt);
+                    aggregates.asMap().forEach((metric, value) -> {
+                        args.add(metric);
+                        args.add(String.valueOf(value));
+                    });
+                    redisTemplate.execute(REPLACE_SCRIPT, List.of(KEY_PREFIX + scope, JOURNAL_KEY), args.toArray());
+                }
+                redisTemplate.opsForSet().add(SCOPES_KEY, scopes.toArray(new String[0]));
+            } catch (Exception e) {
+                log.warn("Failed to store rebuilt dashboard aggregates: {}", e.getMessage());
+            }
+
+            log.info("Rebuilt dashboard aggregates for {} scope(s)", scopes.size());
+            return computed.aggregates();
+        } finally {
+            try {
+                redisTemplate.execute(RELEASE_SCRIPT, List.of(REBUILD_LOCK_KEY, JOURNAL_KEY), lockToken);
+            } catch (Exception e) {
+                // The lock and journal expire on their own
+                log.warn("Failed to release dashboard aggregates rebuild lock: {}", e.getMessage());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> pendingDelta() {
+        Map<String, Long> pending = (Map<String, Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+
+        // Tells a concurrent rebuild whether its snapshot already counted this delta
+        long txid = currentTransactionId();
+        Map<String, Long> transactionDelta = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(this, transactionDelta);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(DashboardAggregateService.this);
+                if (status == STATUS_COMMITTED) {
+                    transactionDelta.values().removeIf(value -> value == 0L);
+                    apply(txid, transactionDelta);
+                }
+            }
+        });
+        return transactionDelta;
+    }
+
+    private long currentTransactionId() {
+        try {
+            Long txid = jdbcTemplate.queryForObject("SELECT txid_current()", Long.class);
+            return txid != null ? txid : 0L;
+        } catch (Exception e) {
+            // Counted as seen by a concurrent rebuild; reconciliation corrects it otherwise
+            log.warn("Failed to read transaction ID for dashboard aggregate delta: {}", e.getMessage());
+            return 0L;
+        }
+    }
+
+    private void apply(long txid, Map<String, Long> delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<String>> argsByScope = new HashMap<>();
+        delta.forEach((qualified, value) -> {
+            int separator = qualified.indexOf(SCOPE_SEPARATOR);
+            String scope = qualified.substring(0, separator);
+            List<String> args = argsByScope.computeIfAbsent(scope, s -> new ArrayList<>(List.of(String.valueOf(txid))));
+            args.add(qualified.substring(separator + 1));
+            args.add(String.valueOf(value));
+        });
+
+        argsByScope.forEach((scope, args) -> {
+            try {
+                redisTemplate.execute(INCREMENT_SCRIPT,
+                        List.of(KEY_PREFIX + scope, REBUILD_LOCK_KEY, JOURNAL_KEY), args.toArray());
+            } catch (Exception e) {
+                // Next reconciliation restores the correct totals
+                log.warn("Failed to apply dashboard aggregate delta for scope {}: {}", scope, e.getMessage());
+            }
+        });
+        broadcastBroker.markChanged();
+    }
+
+    /**
+     * Counters computed from one database snapshot, with the snapshot's xmin, xmax and
+     * in-progress transaction IDs as {@link #REPLACE_SCRIPT} arguments.
+     */
+    private record Computed(Map<String, DashboardAggregates> aggregates, List<String> snapshotArgs) {
+    }
+
+    /**
+     * Compute all scopes with grouped queries in one repeatable-read transaction, so
+     * every query sees the same snapshot.
+     */
+    private Computed compute() {
+        return snapshotTransaction.execute(status -> {
+            // txid_current_snapshot() is xmin:xmax:xip_list; the first query fixes the snapshot
+            String snapshot = jdbcTemplate.queryForObject("SELECT CAST(txid_current_snapshot() AS text)", String.class);
+            String[] parts = snapshot.split(":", -1);
+            return new Computed(computeAggregates(), List.of(parts[0], parts[1], parts[2]));
+        });
+    }
+
+    /**
+     * The same contributions the entity listener applies incrementally.
+     */
+    private Map<String, DashboardAggregates> computeAggregates() {
+        Map<String, Map<String, Long>> counters = new HashMap<>();
+        Map<String, Long> national = counters.computeIfAbsent(NATIONAL_SCOPE, s -> new HashMap<>());
+
+        // row: councilId, status, planId, count
+        for (Object[] row : subscriptionRepository.countGroupedByCouncilStatusAndPlan()) {
+            Long councilId = (Long) row[0];
+            String status = String.valueOf(row[1]);
+            Long planId = (Long) row[2];
+            long count = ((Number) row[3]).longValue();
+
+            List<Map<String, Long>> targets = new ArrayList<>();
+            targets.add(national);
+            if (councilId != null) {
+                targets.add(counters.computeIfAbsent(councilScope(councilId), s -> new HashMap<>()));
+            }
+            for (Map<String, Long> target : targets) {
+                target.merge(SUBSCRIPTIONS_TOTAL, count, Long::sum);
+                target.merge(SUBSCRIPTIONS_STATUS + status, count, Long::sum);
+                if ("ACTIVE".equals(status) && planId != null) {
+                    target.merge(SUBSCRIPTIONS_ACTIVE_PLAN + planId, count, Long::sum);
+                }
+            }
+        }
+
+        // row: status, count
+        for (Object[] row : referralRepository.countGroupedByStatus()) {
+            long count = ((Number) row[1]).longValue();
+            national.merge(REFERRALS_TOTAL, count, Long::sum);
+            if (row[0] != null) {
+                national.merge(REFERRALS_STATUS + row[0], count, Long::sum);
+            }
+        }
+
+        // row: isActive, count
+        for (Object[] row : userRepository.countGroupedByActive()) {
+            long count = ((Number) row[1]).longValue();
+            national.merge(USERS_TOTAL, count, Long::sum);
+            if (Boolean.TRUE.equals(row[0])) {
+                national.merge(USERS_ACTIVE, count, Long::sum);
+            }
+        }
+
+        // row: paymentStatus, count, revenueCents
+        for (Object[] row : cardOrderRepository.countAndRevenueGroupedByPaymentStatus()) {
+            if (row[0] == null) continue;
+            national.merge(ORDERS_STATUS + row[0], ((Number) row[1]).longValue(), Long::sum);
+            national.merge(ORDERS_REVENUE_CENTS + row[0], ((Number) row[2]).longValue(), Long::sum);
+        }
+
+        // row: status, category, count
+        for (Object[] row : offerRepository.countGroupedByStatusAndCategory()) {
+            long count = ((Number) row[2]).longValue();
+            national.merge(OFFERS_TOTAL, count, Long::sum);
+            if (row[0] != null) {
+                national.merge(OFFERS_STATUS + row[0], count, Long::sum);
+                if ("ACTIVE".equals(String.valueOf(row[0]))) {
+                    national.merge(OFFERS_ACTIVE_CATEGORY + categoryOf((String) row[1]), count, Long::sum);
+                }
+            }
+        }
+
+        Map<String, DashboardAggregates> result = new HashMap<>();
+        counters.forEach((scope, values) -> result.put(scope, new DashboardAggregates(values)));
+        return result;
+    }
+
+    private DashboardAggregates fromHash(Map<Object, Object> entries) {
+        Map<String, Long> values = new HashMap<>();
+        entries.forEach((field, value) -> {
+            if (!BUILT_MARKER.equals(field)) {
+                values.put((String) field, Long.parseLong((String) value));
+            }
+        });
+        return new DashboardAggregates(values);
+    }
+}
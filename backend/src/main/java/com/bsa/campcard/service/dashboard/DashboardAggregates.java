@@ -0,0 +1,170 @@
+package com.bsa.campcard.service.dashboard;
+
+import com.bsa.campcard.entity.CardOrder;
+import com.bsa.campcard.entity.Offer;
+import com.bsa.campcard.entity.Referral;
+import com.bsa.campcard.entity.Subscription;
+import org.bsa.campcard.domain.user.User;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pre-computed dashboard counters for a single scope (national or council).
+ *
+ * Counters are keyed by metric name. Each tracked entity contributes a fixed set of
+ * counters (see {@link #contributionOf(Object)}); the aggregate store keeps the running
+ * sum of those contributions so the dashboard never has to scan the underlying tables.
+ *
+ * Contribution keys are qualified with their scope as {@code scope|metric} so that a
+ * single map can describe a change that touches both the national and a council hash.
+ */
+public final class DashboardAggregates {
+
+    public static final String NATIONAL_SCOPE = "national";
+    public static final String COUNCIL_SCOPE_PREFIX = "council:";
+    static final String SCOPE_SEPARATOR = "|";
+
+    // Subscriptions (soft-deleted rows are excluded)
+    public static final String SUBSCRIPTIONS_TOTAL = "subscriptions.total";
+    public static final String SUBSCRIPTIONS_STATUS = "subscriptions.status.";
+    public static final String SUBSCRIPTIONS_ACTIVE_PLAN = "subscriptions.active_plan.";
+
+    // Referrals
+    public static final String REFERRALS_TOTAL = "referrals.total";
+    public static final String REFERRALS_STATUS = "referrals.status.";
+
+    // Users
+    public static final String USERS_TOTAL = "users.total";
+    public static final String USERS_ACTIVE = "users.active";
+
+    // Card orders
+    public static final String ORDERS_STATUS = "orders.status.";
+    public static final String ORDERS_REVENUE_CENTS = "orders.revenue_cents.";
+
+    // Offers
+    public static final String OFFERS_TOTAL = "offers.total";
+    public static final String OFFERS_STATUS = "offers.status.";
+    public static final String OFFERS_ACTIVE_CATEGORY = "offers.active_category.";
+
+    static final String UNCATEGORIZED = "Uncategorized";
+
+    private final Map<String, Long> counters;
+
+    public DashboardAggregates(Map<String, Long> counters) {
+        this.counters = Collections.unmodifiableMap(new HashMap<>(counters));
+    }
+
+    public static DashboardAggregates empty() {
+        return new DashboardAggregates(Collections.emptyMap());
+    }
+
+    public long get(String metric) {
+        return counters.getOrDefault(metric, 0L);
+    }
+
+    /**
+     * All counters whose name starts with the given prefix, keyed by the remainder of the name.
+     */
+    public Map<String, Long> withPrefix(String prefix) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        counters.forEach((metric, value) -> {
+            if (metric.startsWith(prefix)) {
+                result.put(metric.substring(prefix.length()), value);
+            }
+        });
+        return result;
+    }
+
+    public Map<String, Long> asMap() {
+        return counters;
+    }
+
+    public static String councilScope(Long councilId) {
+        return COUNCIL_SCOPE_PREFIX + councilId;
+    }
+
+    static String qualify(String scope, String metric) {
+        return scope + SCOPE_SEPARATOR + metric;
+    }
+
+    // ========================================================================
+    // ENTITY CONTRIBUTIONS
+    // ========================================================================
+
+    /**
+     * Scope-qualified counters contributed by an entity in its current state.
+     * Returns an empty map for entities that are not tracked.
+     */
+    public static Map<String, Long> contributionOf(Object entity) {
+        Map<String, Long> contribution = new HashMap<>();
+
+        if (entity instanceof Subscription subscription) {
+            if (subscription.getDeletedAt() != null) {
+                return contribution;
+            }
+            addSubscription(contribution, NATIONAL_SCOPE, subscription);
+            if (subscription.getCouncilId() != null) {
+                addSubscription(contribution, councilScope(subscription.getCouncilId()), subscription);
+            }
+        } else if (entity instanceof Referral referral) {
+            add(contribution, NATIONAL_SCOPE, REFERRALS_TOTAL, 1);
+            if (referral.getStatus() != null) {
+                add(contribution, NATIONAL_SCOPE, REFERRALS_STATUS + referral.getStatus().name(), 1);
+            }
+        } else if (entity instanceof User user) {
+            add(contribution, NATIONAL_SCOPE, USERS_TOTAL, 1);
+            if (Boolean.TRUE.equals(user.getIsActive())) {
+                add(contribution, NATIONAL_SCOPE, USERS_ACTIVE, 1);
+            }
+        } else if (entity instanceof CardOrder order) {
+            if (order.getPaymentStatus() != null) {
+                String status = order.getPaymentStatus().name();
+                add(contribution, NATIONAL_SCOPE, ORDERS_STATUS + status, 1);
+                if (order.getTotalPriceCents() != null) {
+                    add(contribution, NATIONAL_SCOPE, ORDERS_REVENUE_CENTS + status, order.getTotalPriceCents());
+                }
+            }
+        } else if (entity instanceof Offer offer) {
+            add(contribution, NATIONAL_SCOPE, OFFERS_TOTAL, 1);
+            if (offer.getStatus() != null) {
+                add(contribution, NATIONAL_SCOPE, OFFERS_STATUS + offer.getStatus().name(), 1);
+                if (offer.getStatus() == Offer.OfferStatus.ACTIVE) {
+                    add(contribution, NATIONAL_SCOPE, OFFERS_ACTIVE_CATEGORY + categoryOf(offer.getCategory()), 1);
+                }
+            }
+        }
+
+        return contribution;
+    }
+
+    /**
+     * Difference between two contributions (after - before), dropping zero entries.
+     */
+    public static Map<String, Long> delta(Map<String, Long> before, Map<String, Long> after) {
+        Map<String, Long> delta = new HashMap<>(after);
+        before.forEach((key, value) -> delta.merge(key, -value, Long::sum));
+        delta.values().removeIf(value -> value == 0L);
+        return delta;
+    }
+
+    static String categoryOf(String category) {
+        return category != null ? category : UNCATEGORIZED;
+    }
+
+    private static void addSubscription(Map<String, Long> contribution, String scope, Subscription subscription) {
+        add(contribution, scope, SUBSCRIPTIONS_TOTAL, 1);
+        if (subscription.getStatus() != null) {
+            add(contribution, scope, SUBSCRIPTIONS_STATUS + subscription.getStatus().name(), 1);
+            if (subscription.getStatus() == Subscription.SubscriptionStatus.ACTIVE && subscription.getPlanId() != null) {
+                add(contribution, scope, SUBSCRIPTIONS_ACTIVE_PLAN + subscription.getPlanId(), 1);
+            }
+        }
+    }
+
+    private static void add(Map<String, Long> contribution, String scope, String metric, long value) {
+        contribution.merge(qualify(scope, metric), value, Long::sum);
+    }
+}
@@ -0,0 +1,44 @@
+package com.bsa.campcard.service.dashboard;
+
+import com.bsa.campcard.dto.DashboardStreamMessage;
+
+/**
+ * Fan-out and coordination for dashboard broadcasts, selected with
+ * {@code campcard.websocket.broker.mode}.
+ *
+ * {@code simple} (default) keeps everything in this node's in-memory STOMP broker.
+ * {@code redis} relays broadcasts to every API node through Redis pub/sub and elects a
+ * single node to compute them, so clients behind the load balancer all see the same
+ * stream regardless of which node holds their connection.
+ */
+public interface DashboardBroadcastBroker {
+
+    /**
+     * Whether this node should compute broadcasts. Called before every broadcast cycle;
+     * implementations renew their leadership here.
+     */
+    boolean acquireLeadership();
+
+    /**
+     * Record that dashboard data changed on this node.
+     */
+    void markChanged();
+
+    /**
+     * Take the cluster-wide changed flag, resetting it. Returns true when the flag
+     * cannot be read, so the dashboard is republished rather than left stale.
+     */
+    boolean consumeChanged();
+
+    /**
+     * Deliver a payload to subscribers of a destination on every node.
+     */
+    void publish(String destination, Object payload);
+
+    void storeSnapshot(DashboardStreamMessage snapshot);
+
+    /**
+     * The last snapshot stored by the broadcasting node, or null if none has been stored.
+     */
+    DashboardStreamMessage currentSnapshot();
+}
@@ -0,0 +1,17 @@
+package com.bsa.campcard.service.dashboard;
+
+/**
+ * Visibility level of a dashboard view. Each scope has its own snapshot TTL
+ * ({@code campcard.dashboard.cache-ttl.*}); narrower scopes change more often
+ * and are cheaper to rebuild, so they expire sooner.
+ */
+public enum DashboardScope {
+    SCOUT,
+    TROOP,
+    COUNCIL,
+    NATIONAL;
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
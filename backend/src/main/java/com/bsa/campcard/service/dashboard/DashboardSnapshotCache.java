@@ -0,0 +1,228 @@
+package com.bsa.campcard.service.dashboard;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of computed dashboard snapshots, keyed by scope and scope id.
+ *
+ * Entries are refreshed ahead of expiry: once an entry is past {@link #REFRESH_AHEAD_RATIO}
+ * of its TTL it is rebuilt in the background while the current snapshot keeps being
+ * served, and expired entries are still served (and refreshed) rather than blocking the
+ * caller. Only the first request for a key ever waits for a build. Concurrent builds of
+ * the same key share a single in-flight computation.
+ *
+ * Metrics: {@code campcard.dashboard.cache.requests} (tags scope, result=hit|stale|miss),
+ * {@code campcard.dashboard.cache.rebuild} (timer, tag scope) and
+ * {@code campcard.dashboard.cache.size}.
+ */
+@Component
+@Slf4j
+public class DashboardSnapshotCache {
+
+    static final double REFRESH_AHEAD_RATIO = 0.8;
+
+    // Entries nobody has read for this many TTLs are dropped instead of refreshed
+    private static final int IDLE_EVICTION_TTLS = 3;
+
+    private final Map<DashboardScope, Duration> ttls = new EnumMap<>(DashboardScope.class);
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    public DashboardSnapshotCache(
+            MeterRegistry meterRegistry,
+            @Value("${campcard.dashboard.cache-ttl.scout:60}") long scoutTtlSeconds,
+            @Value("${campcard.dashboard.cache-ttl.troop:60}") long troopTtlSeconds,
+            @Value("${campcard.dashboard.cache-ttl.council:300}") long councilTtlSeconds,
+            @Value("${campcard.dashboard.cache-ttl.national:600}") long nationalTtlSeconds) {
+        this(meterRegistry, Clock.systemUTC(), Map.of(
+                DashboardScope.SCOUT, Duration.ofSeconds(scoutTtlSeconds),
+                DashboardScope.TROOP, Duration.ofSeconds(troopTtlSeconds),
+                DashboardScope.COUNCIL, Duration.ofSeconds(councilTtlSeconds),
+                DashboardScope.NATIONAL, Duration.ofSeconds(nationalTtlSeconds)));
+    }
+
+    DashboardSnapshotCache(MeterRegistry meterRegistry, Clock clock, Map<DashboardScope, Duration> ttls) {
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.ttls.putAll(ttls);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.refreshExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-refresh-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("campcard.dashboard.cache.size", entries, Map::size)
+                .description("Cached dashboard snapshots")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cached snapshot for the given scope, building it with {@code loader} on first use.
+     * The returned object is shared; callers must copy it before modifying it.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(DashboardScope scope, Object scopeId, Supplier<T> loader) {
+        String key = key(scope, scopeId);
+        long now = clock.millis();
+
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.lastAccessAt = now;
+            if (now < entry.refreshAt) {
+                record(scope, "hit");
+            } else {
+                record(scope, now < entry.expiresAt ? "hit" : "stale");
+                refreshAsync(scope, key, loader);
+            }
+            return (T) entry.value;
+        }
+
+        record(scope, "miss");
+        try {
+            return (T) build(scope, key, loader).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    public void invalidate(DashboardScope scope, Object scopeId) {
+        entries.remove(key(scope, scopeId));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Refresh entries that are due and still being read, and drop idle ones, so that
+     * popular snapshots never reach expiry.
+     */
+    @Scheduled(fixedDelay = 5000)
+    public void refreshDueEntries() {
+        long now = clock.millis();
+        entries.forEach((key, entry) -> {
+            long ttlMillis = ttl(entry.scope).toMillis();
+            if (now - entry.lastAccessAt > ttlMillis * IDLE_EVICTION_TTLS) {
+                entries.remove(key, entry);
+            } else if (now >= entry.refreshAt) {
+                refreshAsync(entry.scope, key, entry.loader);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private void refreshAsync(DashboardScope scope, String key, Supplier<?> loader) {
+        if (inFlight.containsKey(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> build(scope, key, loader).exceptionally(e -> {
+                log.warn("Background refresh of dashboard snapshot {} failed: {}", key, e.getMessage());
+                return null;
+            }));
+        } catch (Exception e) {
+            log.debug("Dashboard refresh executor unavailable: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Build a snapshot, joining an already running build of the same key if there is one.
+     */
+    private CompletableFuture<Object> build(DashboardScope scope, String key, Supplier<?> loader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            return running;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Object value = loader.get();
+            long now = clock.millis();
+            long ttlMillis = ttl(scope).toMillis();
+            Entry previous = entries.get(key);
+            Entry entry = new Entry(scope, value, loader,
+                    now + (long) (ttlMillis * REFRESH_AHEAD_RATIO), now + ttlMillis,
+                    previous != null ? previous.lastAccessAt : now);
+            entries.put(key, entry);
+            future.complete(value);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            sample.stop(Timer.builder("campcard.dashboard.cache.rebuild")
+                    .description("Time to rebuild a dashboard snapshot")
+                    .tag("scope", scope.tag())
+                    .register(meterRegistry));
+            inFlight.remove(key, future);
+        }
+        return future;
+    }
+
+    private Duration ttl(DashboardScope scope) {
+        return ttls.getOrDefault(scope, Duration.ofMinutes(1));
+    }
+
+    private void record(DashboardScope scope, String result) {
+        Counter.builder("campcard.dashboard.cache.requests")
+                .description("Dashboard snapshot cache lookups")
+                .tag("scope", scope.tag())
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String key(DashboardScope scope, Object scopeId) {
+        return scope.tag() + ":" + (scopeId != null ? scopeId : "all");
+    }
+
+    private static final class Entry {
+        final DashboardScope scope;
+        final Object value;
+        final Supplier<?> loader;
+        final long refreshAt;
+        final long expiresAt;
+        volatile long lastAccessAt;
+
+        Entry(DashboardScope scope, Object value, Supplier<?> loader,
+              long refreshAt, long expiresAt, long lastAccessAt) {
+            this.scope = scope;
+            this.value = value;
+            this.loader = loader;
+            this.refreshAt = refreshAt;
+            this.expiresAt = expiresAt;
+            this.lastAccessAt = lastAccessAt;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.bsa.campcard.service.dashboard;
+
+import com.bsa.campcard.dto.DashboardResponse;
+import com.bsa.campcard.dto.DashboardStreamMessage;
+import com.bsa.campcard.service.DashboardService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Change feed for the live dashboard on {@code /topic/dashboard}.
+ *
+ * Committed aggregate deltas from {@link DashboardAggregateService} only mark the
+ * dashboard dirty; once per coalescing window the dashboard is rebuilt at most once and
+ * subscribers receive a JSON Patch of the fields and leaderboard rows that changed. Full payloads are only sent to clients
+ * when they subscribe or explicitly ask for a refresh.
+ *
+ * With a clustered {@link DashboardBroadcastBroker} only the elected node builds and
+ * publishes; every node relays the patches and serves the shared snapshot.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardStreamService {
+
+    public static final String DASHBOARD_TOPIC = "/topic/dashboard";
+
+    // Without events, still pick up changes from background snapshot refreshes
+    private static final long IDLE_CHECK_INTERVAL_MS = 30_000;
+
+    private final DashboardBroadcastBroker broker;
+    private final DashboardService dashboardService;
+    private final DashboardSnapshotCache snapshotCache;
+    private final ObjectMapper objectMapper;
+
+    private long version;
+    private JsonNode publishedTree;
+    private long lastCheckAt;
+
+    /**
+     * Record that dashboard data changed; the change is published with the next window.
+     */
+    public void markChanged() {
+        broker.markChanged();
+    }
+
+    /**
+     * Full dashboard at the current stream version, for a newly subscribed client.
+     */
+    public DashboardStreamMessage snapshot() {
+        DashboardStreamMessage snapshot = broker.currentSnapshot();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        if (broker.acquireLeadership()) {
+            return advanceTo(dashboardService.getDashboardData());
+        }
+        // The broadcasting node has not published yet; version 0 makes the client
+        // re-request a snapshot after the first patch
+        return DashboardStreamMessage.builder()
+                .type(DashboardStreamMessage.MessageType.SNAPSHOT)
+                .version(0L)
+                .data(dashboardService.getDashboardData())
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${campcard.dashboard.stream.coalesce-window-ms:2000}")
+    public synchronized void flush() {
+        if (!broker.acquireLeadership()) {
+            // Another node may take over later; it must not start from our stale baseline
+            publishedTree = null;
+            return;
+        }
+
+        boolean changed = broker.consumeChanged();
+        long now = System.currentTimeMillis();
+        if (!changed && now - lastCheckAt < IDLE_CHECK_INTERVAL_MS) {
+            return;
+        }
+        lastCheckAt = now;
+
+        try {
+            if (changed) {
+                snapshotCache.invalidate(DashboardScope.NATIONAL, null);
+            }
+            publishChanges(dashboardService.getDashboardData());
+        } catch (Exception e) {
+            log.error("WebSocket: Failed to publish dashboard changes", e);
+        }
+    }
+
+    synchronized void publishChanges(DashboardResponse current) {
+        if (publishedTree == null && !resumeFromSnapshot()) {
+            // Nobody has a baseline yet; subscribers get a snapshot when they join
+            advanceTo(current);
+            return;
+        }
+
+        JsonNode currentTree = objectMapper.valueToTree(current);
+        ArrayNode patch = JsonPatchDiff.diff(publishedTree, currentTree);
+        if (patch.isEmpty()) {
+            return;
+        }
+
+        advanceTo(current, currentTree);
+        broker.publish(DASHBOARD_TOPIC, DashboardStreamMessage.builder()
+                .type(DashboardStreamMessage.MessageType.PATCH)
+                .version(version)
+                .patch(patch)
+                .build());
+        log.debug("WebSocket: Published {} dashboard change(s) at version {}", patch.size(), version);
+    }
+
+    private boolean resumeFromSnapshot() {
+        DashboardStreamMessage snapshot = broker.currentSnapshot();
+        if (snapshot == null || snapshot.getData() == null) {
+            return false;
+        }
+        version = snapshot.getVersion();
+        publishedTree = objectMapper.valueToTree(snapshot.getData());
+        return true;
+    }
+
+    private synchronized DashboardStreamMessage advanceTo(DashboardResponse current) {
+        return advanceTo(current, objectMapper.valueToTree(current));
+    }
+
+    private DashboardStreamMessage advanceTo(DashboardResponse current, JsonNode currentTree) {
+        version++;
+        publishedTree = currentTree;
+        DashboardStreamMessage snapshot = DashboardStreamMessage.builder()
+                .type(DashboardStreamMessage.MessageType.SNAPSHOT)
+                .version(version)
+                .data(current)
+                .build();
+        broker.storeSnapshot(snapshot);
+        return snapshot;
+    }
+}
@@ -0,0 +1,76 @@
+package com.bsa.campcard.service.dashboard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Minimal RFC 6902 JSON Patch generator for dashboard payloads.
+ *
+ * Objects are diffed field by field. Arrays of equal length are diffed element by
+ * element, so a leaderboard whose rows changed produces one operation per changed
+ * row field; arrays whose length changed are replaced as a whole.
+ */
+public final class JsonPatchDiff {
+
+    private JsonPatchDiff() {
+    }
+
+    public static ArrayNode diff(JsonNode before, JsonNode after) {
+        ArrayNode operations = JsonNodeFactory.instance.arrayNode();
+        diff("", before, after, operations);
+        return operations;
+    }
+
+    private static void diff(String path, JsonNode before, JsonNode after, ArrayNode operations) {
+        if (before.equals(after)) {
+            return;
+        }
+
+        if (before.isObject() && after.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = after.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String fieldPath = path + "/" + escape(field.getKey());
+                JsonNode previous = before.get(field.getKey());
+                if (previous == null) {
+                    operation(operations, "add", fieldPath).set("value", field.getValue());
+                } else {
+                    diff(fieldPath, previous, field.getValue(), operations);
+                }
+            }
+            Iterator<String> previousFields = before.fieldNames();
+            while (previousFields.hasNext()) {
+                String name = previousFields.next();
+                if (!after.has(name)) {
+                    operation(operations, "remove", path + "/" + escape(name));
+                }
+            }
+            return;
+        }
+
+        if (before.isArray() && after.isArray() && before.size() == after.size()) {
+            for (int i = 0; i < after.size(); i++) {
+                diff(path + "/" + i, before.get(i), after.get(i), operations);
+            }
+            return;
+        }
+
+        operation(operations, "replace", path).set("value", after);
+    }
+
+    private static ObjectNode operation(ArrayNode operations, String op, String path) {
+        ObjectNode operation = operations.addObject();
+        operation.put("op", op);
+        operation.put("path", path);
+        return operation;
+    }
+
+    private static String escape(String key) {
+        return key.replace("~", "~0").replace("/", "~1");
+    }
+}
@@ -0,0 +1,53 @@
+package com.bsa.campcard.service.dashboard;
+
+import com.bsa.campcard.dto.DashboardStreamMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single-node broker: this node always broadcasts, straight to its in-memory STOMP broker.
+ */
+@Component
+@ConditionalOnProperty(name = "campcard.websocket.broker.mode", havingValue = "simple", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LocalDashboardBroadcastBroker implements DashboardBroadcastBroker {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final AtomicBoolean changed = new AtomicBoolean();
+    private volatile DashboardStreamMessage snapshot;
+
+    @Override
+    public boolean acquireLeadership() {
+        return true;
+    }
+
+    @Override
+    public void markChanged() {
+        changed.set(true);
+    }
+
+    @Override
+    public boolean consumeChanged() {
+        return changed.getAndSet(false);
+    }
+
+    @Override
+    public void publish(String destination, Object payload) {
+        messagingTemplate.convertAndSend(destination, payload);
+    }
+
+    @Override
+    public void storeSnapshot(DashboardStreamMessage snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public DashboardStreamMessage currentSnapshot() {
+        return snapshot;
+    }
+}
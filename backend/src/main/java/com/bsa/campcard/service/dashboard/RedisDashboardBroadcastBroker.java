@@ -0,0 +1,176 @@
+package com.bsa.campcard.service.dashboard;
+
+import com.bsa.campcard.dto.DashboardStreamMessage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cluster broker backed by Redis.
+ *
+ * Broadcasts are published on a pub/sub channel that every node (the publisher included)
+ * subscribes to and relays into its local STOMP broker. A lease key elects the single
+ * node that computes dashboard broadcasts; the others only relay. The changed flag and
+ * the latest snapshot live in Redis so any node can accept events and serve snapshots
+ * to new subscribers, and a new leader resumes the stream version where the old one
+ * stopped.
+ */
+@Component
+@ConditionalOnProperty(name = "campcard.websocket.broker.mode", havingValue = "redis")
+@Slf4j
+public class RedisDashboardBroadcastBroker implements DashboardBroadcastBroker {
+
+    static final String CHANNEL = "campcard:ws:broadcast";
+    static final String LEADER_KEY = "campcard:ws:dashboard:leader";
+    static final String CHANGED_KEY = "campcard:ws:dashboard:changed";
+    static final String SNAPSHOT_KEY = "campcard:ws:dashboard:snapshot";
+
+    // Acquire the lease if free, or renew it if this node already holds it
+    private static final RedisScript<Long> LEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then return 1 end\n" +
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then\n" +
+            "  redis.call('PEXPIRE', KEYS[1], ARGV[2])\n" +
+            "  return 1\n" +
+            "end\n" +
+            "return 0", Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end\n" +
+            "return 0", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final long leaseMillis;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private RedisMessageListenerContainer listenerContainer;
+    private volatile boolean leader;
+
+    public RedisDashboardBroadcastBroker(
+            StringRedisTemplate redisTemplate,
+            RedisConnectionFactory connectionFactory,
+            SimpMessagingTemplate messagingTemplate,
+            ObjectMapper objectMapper,
+            @Value("${campcard.websocket.broker.leader-lease-ms:15000}") long leaseMillis) {
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.leaseMillis = leaseMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener(this::relay, new ChannelTopic(CHANNEL));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+        log.info("WebSocket: Redis broadcast relay started for node {}", nodeId);
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+        if (leader) {
+            // Hand over immediately instead of waiting for the lease to expire
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(LEADER_KEY), nodeId);
+        }
+    }
+
+    @Override
+    public boolean acquireLeadership() {
+        boolean acquired;
+        try {
+            Long result = redisTemplate.execute(LEASE_SCRIPT, List.of(LEADER_KEY), nodeId, String.valueOf(leaseMillis));
+            acquired = result != null && result == 1L;
+        } catch (Exception e) {
+            log.warn("WebSocket: Could not renew dashboard broadcast lease: {}", e.getMessage());
+            acquired = false;
+        }
+        if (acquired != leader) {
+            log.info("WebSocket: Node {} {} dashboard broadcaster", nodeId, acquired ? "is now" : "is no longer");
+        }
+        leader = acquired;
+        return acquired;
+    }
+
+    @Override
+    public void markChanged() {
+        try {
+            redisTemplate.opsForValue().set(CHANGED_KEY, nodeId);
+        } catch (Exception e) {
+            log.warn("WebSocket: Failed to flag dashboard change: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean consumeChanged() {
+        try {
+            return redisTemplate.opsForValue().getAndDelete(CHANGED_KEY) != null;
+        } catch (Exception e) {
+            // Republish rather than risk missing a change
+            log.warn("WebSocket: Failed to read dashboard change flag: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    @Override
+    public void publish(String destination, Object payload) {
+        ObjectNode envelope = objectMapper.createObjectNode();
+        envelope.put("destination", destination);
+        envelope.set("payload", objectMapper.valueToTree(payload));
+        redisTemplate.convertAndSend(CHANNEL, envelope.toString());
+    }
+
+    @Override
+    public void storeSnapshot(DashboardStreamMessage snapshot) {
+        try {
+            redisTemplate.opsForValue().set(SNAPSHOT_KEY, objectMapper.writeValueAsString(snapshot));
+        } catch (Exception e) {
+            log.warn("WebSocket: Failed to store dashboard snapshot: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public DashboardStreamMessage currentSnapshot() {
+        try {
+            String json = redisTemplate.opsForValue().get(SNAPSHOT_KEY);
+            return json != null ? objectMapper.readValue(json, DashboardStreamMessage.class) : null;
+        } catch (Exception e) {
+            log.warn("WebSocket: Failed to load dashboard snapshot: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void relay(Message message, byte[] pattern) {
+        try {
+            JsonNode envelope = objectMapper.readTree(new String(message.getBody(), StandardCharsets.UTF_8));
+            messagingTemplate.convertAndSend(envelope.get("destination").asText(), envelope.get("payload"));
+        } catch (Exception e) {
+            log.warn("WebSocket: Failed to relay broadcast: {}", e.getMessage());
+        }
+    }
+}
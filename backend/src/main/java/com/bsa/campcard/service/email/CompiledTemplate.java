@@ -0,0 +1,125 @@
+package com.bsa.campcard.service.email;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An email template parsed once into literal text and placeholder slots.
+ *
+ * Placeholders are written {@code {{name}}}; {@code {{> partial}}} inlines a partial's
+ * source at compile time. Rendering copies each literal and appends the slot's value,
+ * so a render does no parsing or searching. A placeholder with no value renders as
+ * written, which leaves it for a later pass such as SES template data. Campaign content
+ * is compiled too, so anything that does not parse is kept as text rather than rejected.
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String name;
+    private final String[] literals;
+    private final String[] slots;
+    // Each slot as written, for rendering it unfilled
+    private final String[] rawSlots;
+    private final int literalLength;
+
+    private CompiledTemplate(String name, String[] literals, String[] slots, String[] rawSlots) {
+        this.name = name;
+        this.literals = literals;
+        this.slots = slots;
+        this.rawSlots = rawSlots;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Parse {@code source}, inlining partials from {@code partials} by name. An unknown
+     * partial is left as an unfilled placeholder.
+     *
+     * @throws IllegalArgumentException if partials nest more than 8 deep
+     */
+    public static CompiledTemplate compile(String name, String source, Map<String, String> partials) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        List<String> rawSlots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        parse(name, source, partials, literal, literals, slots, rawSlots, 0);
+        literals.add(literal.toString());
+        return new CompiledTemplate(name, literals.toArray(String[]::new),
+                slots.toArray(String[]::new), rawSlots.toArray(String[]::new));
+    }
+
+    private static void parse(String name, String source, Map<String, String> partials, StringBuilder literal,
+                              List<String> literals, List<String> slots, List<String> rawSlots, int depth) {
+        if (depth > 8) {
+            throw new IllegalArgumentException("Template " + name + " nests partials too deeply");
+        }
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                literal.append(source, position, source.length());
+                return;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                literal.append(source, position, source.length());
+                return;
+            }
+            literal.append(source, position, open);
+            String raw = source.substring(open, close + CLOSE.length());
+            String tag = source.substring(open + OPEN.length(), close).trim();
+            String partial = tag.startsWith(">") ? partials.get(tag.substring(1).trim()) : null;
+            if (partial != null) {
+                parse(name, partial, partials, literal, literals, slots, rawSlots, depth + 1);
+            } else {
+                literals.add(literal.toString());
+                literal.setLength(0);
+                slots.add(tag);
+                rawSlots.add(raw);
+            }
+            position = close + CLOSE.length();
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Placeholder names in the order they first appear
+     */
+    public List<String> placeholders() {
+        Map<String, Boolean> names = new LinkedHashMap<>();
+        for (String slot : slots) {
+            names.put(slot, Boolean.TRUE);
+        }
+        return List.copyOf(names.keySet());
+    }
+
+    /**
+     * Characters of fixed text, a lower bound on the rendered length
+     */
+    public int literalLength() {
+        return literalLength;
+    }
+
+    /**
+     * Append the template with {@code values} substituted to {@code out}
+     */
+    public void renderTo(StringBuilder out, Map<String, String> values) {
+        out.ensureCapacity(out.length() + literalLength);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            String value = values.get(slots[i]);
+            out.append(value != null ? value : rawSlots[i]);
+        }
+        out.append(literals[slots.length]);
+    }
+}
@@ -0,0 +1,244 @@
+package com.bsa.campcard.service.email;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiles the shared email layouts once at startup and renders them, and campaign
+ * content compiled on demand, into a per-thread buffer that is reused across sends.
+ *
+ * The layouts share the {@code document-start} and {@code document-end} partials;
+ * buttons are their own template so an email can carry several.
+ *
+ * Metrics, tagged with the template name: {@code campcard.email.render} (timer) and
+ * {@code campcard.email.render.allocated} (bytes allocated by the rendering thread,
+ * when the JVM supports measuring it).
+ */
+@Component
+@Slf4j
+public class EmailTemplateEngine {
+
+    public static final String LAYOUT = "layout";
+    public static final String CAMPAIGN_LAYOUT = "campaign-layout";
+    public static final String BUTTON = "button";
+
+    // A buffer grown past this by one large email is dropped rather than kept per thread
+    private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+
+    private static final Map<String, String> PARTIALS = Map.of(
+        "document-start", """
+            <!DOCTYPE html>
+            <html lang="en">
+            <head>
+                <meta charset="UTF-8">
+                <meta name="viewport" content="width=device-width, initial-scale=1.0">
+                <title>{{title}}</title>
+                <!--[if mso]>
+                <style type="text/css">
+                    table {border-collapse: collapse;}
+                    .button {padding: 14px 32px !important;}
+                </style>
+                <![endif]-->
+            </head>
+            <body style="margin: 0; padding: 0; font-family: -apple-system, BlinkMacSystemFont, 'Segoe UI', Roboto, 'Helvetica Neue', Arial, sans-serif; background-color: #f4f4f4;">
+                <table role="presentation" style="width: 100%; border-collapse: collapse;">
+                    <tr>
+                        <td style="padding: 20px 0;">
+                            <table role="presentation" style="max-width: 600px; margin: 0 auto; background-color: white; border-radius: 12px; overflow: hidden; box-shadow: 0 4px 6px rgba(0, 0, 0, 0.1);">
+            """,
+        "document-end", """
+                            </table>
+                        </td>
+                    </tr>
+                </table>
+            """
+    );
+
+    private static final Map<String, String> SOURCES = Map.of(
+        BUTTON, """
+            <p style="text-align: center; margin: 24px 0;">
+                <a href="{{url}}" style="display: inline-block; background-color: {{color}}; color: white; padding: 14px 32px; text-decoration: none; border-radius: 8px; font-weight: bold; font-size: 16px;">{{text}}</a>
+            </p>
+            """,
+        LAYOUT, """
+            {{> document-start}}
+                                <!-- Header -->
+                                <tr>
+                                    <td style="background: linear-gradient(135deg, #003f87 0%, #004494 100%); padding: 32px 24px; text-align: center;">
+                                        <table role="presentation" style="width: 100%;">
+                                            <tr>
+                                                <td style="text-align: center;">
+                                                    <!-- Camp Card Logo -->
+                                                    <img src="{{webPortalUrl}}/images/campcard-logo.png" alt="BSA Camp Card" style="max-width: 200px; height: auto; margin-bottom: 16px;" />
+                                                    <p style="color: rgba(255,255,255,0.9); margin: 8px 0 0 0; font-size: 14px;">Supporting Scouts, One Card at a Time</p>
+                                                </td>
+                                            </tr>
+                                        </table>
+                                    </td>
+                                </tr>
+
+                                <!-- Title Bar -->
+                                <tr>
+                                    <td style="background-color: {{headerColor}}; padding: 16px 24px; text-align: center;">
+                                        <h2 style="color: white; margin: 0; font-size: 20px;">{{title}}</h2>
+                                    </td>
+                                </tr>
+
+                                <!-- Content -->
+                                <tr>
+                                    <td style="padding: 32px 24px;">
+                                        {{content}}
+                                    </td>
+                                </tr>
+
+                                <!-- Footer -->
+                                <tr>
+                                    <td style="background-color: #f8f9fa; padding: 24px; border-top: 1px solid #dee2e6;">
+                                        <table role="presentation" style="width: 100%;">
+                                            <tr>
+                                                <td style="text-align: center;">
+                                                    <p style="margin: 0 0 8px 0; font-size: 14px; color: #666666;">
+                                                        <strong>BSA Camp Card</strong> | A Boy Scouts of America Fundraising Program
+                                                    </p>
+                                                    <p style="margin: 0 0 16px 0; font-size: 12px; color: #999999;">
+                                                        Questions? Contact us at <a href="mailto:support@campcardapp.org" style="color: #003f87;">support@campcardapp.org</a>
+                                                    </p>
+                                                    <p style="margin: 0; font-size: 11px; color: #aaaaaa;">
+                                                        © {{year}} Boy Scouts of America. All rights reserved.<br/>
+                                                        <a href="{{baseUrl}}/privacy" style="color: #999999;">Privacy Policy</a> |
+                                                        <a href="{{baseUrl}}/terms" style="color: #999999;">Terms of Service</a> |
+                                                        <a href="{{baseUrl}}/unsubscribe" style="color: #999999;">Unsubscribe</a>
+                                                    </p>
+                                                </td>
+                                            </tr>
+                                        </table>
+                                    </td>
+                                </tr>
+            {{> document-end}}
+            </body>
+            </html>
+            """,
+        CAMPAIGN_LAYOUT, """
+            {{> document-start}}
+                                <!-- Header -->
+                                <tr>
+                                    <td style="background: linear-gradient(135deg, #003f87 0%, #004494 100%); padding: 24px; text-align: center;">
+                                        <h1 style="color: white; margin: 0; font-size: 24px;">BSA Camp Card</h1>
+                                    </td>
+                                </tr>
+
+                                <!-- Content -->
+                                <tr>
+                                    <td style="padding: 32px 24px;">
+                                        {{content}}
+                                    </td>
+                                </tr>
+
+                                <!-- Footer -->
+                                <tr>
+                                    <td style="background-color: #f8f9fa; padding: 24px; border-top: 1px solid #dee2e6;">
+                                        <table role="presentation" style="width: 100%;">
+                                            <tr>
+                                                <td style="text-align: center;">
+                                                    <p style="margin: 0 0 8px 0; font-size: 14px; color: #666666;">
+                                                        <strong>BSA Camp Card</strong> | Supporting Scouts, One Card at a Time
+                                                    </p>
+                                                    <p style="margin: 0 0 8px 0; font-size: 12px; color: #999999;">
+                                                        You received this email because you're a BSA Camp Card member.
+                                                    </p>
+                                                    <p style="margin: 0; font-size: 11px; color: #aaaaaa;">
+                                                        <a href="{{unsubscribeUrl}}" style="color: #999999;">Unsubscribe</a> |
+                                                        <a href="{{baseUrl}}/privacy" style="color: #999999;">Privacy Policy</a>
+                                                    </p>
+                                                </td>
+                                            </tr>
+                                        </table>
+                                    </td>
+                                </tr>
+            {{> document-end}}
+                {{trackingPixel}}
+            </body>
+            </html>
+            """
+    );
+
+    private final Map<String, CompiledTemplate> templates = new ConcurrentHashMap<>();
+    private final Map<String, RenderMeters> meters = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(32 * 1024));
+    private final com.sun.management.ThreadMXBean allocation;
+    private final MeterRegistry meterRegistry;
+
+    public EmailTemplateEngine(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        SOURCES.forEach((name, source) -> templates.put(name, compile(name, source)));
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        this.allocation = threads instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled() ? bean : null;
+        log.info("Compiled {} email templates", templates.size());
+    }
+
+    /**
+     * Compile a template that may include the shared partials
+     */
+    public CompiledTemplate compile(String name, String source) {
+        return CompiledTemplate.compile(name, source, PARTIALS);
+    }
+
+    public String render(String templateName, Map<String, String> values) {
+        CompiledTemplate template = templates.get(templateName);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown email template " + templateName);
+        }
+        return render(template, values);
+    }
+
+    /**
+     * Render into this thread's buffer and return the result
+     */
+    public String render(CompiledTemplate template, Map<String, String> values) {
+        RenderMeters meter = meters.computeIfAbsent(template.name(), this::registerMeters);
+        long allocatedBefore = allocation != null ? allocation.getCurrentThreadAllocatedBytes() : 0;
+        long start = System.nanoTime();
+
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        template.renderTo(buffer, values);
+        String rendered = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            buffers.remove();
+        }
+
+        meter.timer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (allocation != null) {
+            meter.allocated().record(allocation.getCurrentThreadAllocatedBytes() - allocatedBefore);
+        }
+        return rendered;
+    }
+
+    private RenderMeters registerMeters(String templateName) {
+        return new RenderMeters(
+            Timer.builder("campcard.email.render")
+                .description("Time to render an email template")
+                .tag("template", templateName)
+                .register(meterRegistry),
+            DistributionSummary.builder("campcard.email.render.allocated")
+                .description("Bytes allocated rendering an email template")
+                .baseUnit("bytes")
+                .tag("template", templateName)
+                .register(meterRegistry)
+        );
+    }
+
+    private record RenderMeters(Timer timer, DistributionSummary allocated) {
+    }
+}
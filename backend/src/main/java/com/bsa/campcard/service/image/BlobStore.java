@@ -0,0 +1,20 @@
+package com.bsa.campcard.service.image;
+
+/**
+ * Immutable object storage for public assets such as offer images.
+ *
+ * Keys are content-addressed by the caller, so an existing object never needs to be
+ * overwritten and URLs can be cached indefinitely.
+ */
+public interface BlobStore {
+
+    /**
+     * Store the content under the key unless an object already exists there.
+     */
+    void putIfAbsent(String key, byte[] content, String contentType);
+
+    /**
+     * Public (CDN) URL for the key.
+     */
+    String publicUrl(String key);
+}
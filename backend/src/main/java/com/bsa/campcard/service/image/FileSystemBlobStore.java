@@ -0,0 +1,61 @@
+package com.bsa.campcard.service.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Local stand-in for {@link S3BlobStore}; files are served by {@link ImageResourceConfig}.
+ */
+@Component
+@ConditionalOnProperty(name = "campcard.images.store", havingValue = "filesystem")
+@Slf4j
+public class FileSystemBlobStore implements BlobStore {
+
+    private final Path root;
+    private final String publicBaseUrl;
+
+    public FileSystemBlobStore(@Value("${campcard.images.local-dir}") String localDir,
+                               @Value("${campcard.images.public-base-url}") String publicBaseUrl) {
+        this.root = Path.of(localDir).toAbsolutePath().normalize();
+        this.publicBaseUrl = publicBaseUrl.replaceAll("/+$", "");
+    }
+
+    @Override
+    public void putIfAbsent(String key, byte[] content, String contentType) {
+        Path target = resolve(key);
+        if (Files.exists(target)) {
+            return;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            // Write then rename so readers never see a partial file
+            Path temp = Files.createTempFile(target.getParent(), ".upload", ".tmp");
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store " + key, e);
+        }
+        log.debug("Stored {} ({} bytes)", target, content.length);
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        return publicBaseUrl + "/" + key;
+    }
+
+    Path resolve(String key) {
+        Path target = root.resolve(key).normalize();
+        if (!target.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        return target;
+    }
+}
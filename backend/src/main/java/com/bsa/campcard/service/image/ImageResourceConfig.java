@@ -0,0 +1,29 @@
+package com.bsa.campcard.service.image;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves {@link FileSystemBlobStore} files under /images for local runs.
+ */
+@Configuration
+@ConditionalOnProperty(name = "campcard.images.store", havingValue = "filesystem")
+public class ImageResourceConfig implements WebMvcConfigurer {
+
+    @Value("${campcard.images.local-dir}")
+    private String localDir;
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/images/**")
+                .addResourceLocations("file:" + Path.of(localDir).toAbsolutePath().normalize() + "/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable());
+    }
+}
@@ -0,0 +1,38 @@
+package com.bsa.campcard.service.image;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains legacy base64 rows from {@code offer_images} into the blob store, one
+ * transaction per batch. Rows that cannot be decoded are skipped and left in place.
+ */
+@Component
+@RequiredArgsConstructor
+public class OfferImageMigrationJob {
+
+    private final OfferImageService offerImageService;
+
+    @Value("${campcard.images.migration.batch-size:50}")
+    private int batchSize;
+
+    @Value("${campcard.images.migration.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    private long cursor;
+
+    @Scheduled(fixedDelayString = "${campcard.images.migration.interval-ms:60000}")
+    public synchronized void run() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Long lastId = offerImageService.migrateLegacyBatch(cursor, batchSize);
+            if (lastId == null) {
+                // Start over next run to retry skipped rows and pick up stragglers
+                cursor = 0;
+                return;
+            }
+            cursor = lastId;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.bsa.campcard.service.image;
+
+import com.bsa.campcard.entity.OfferImage;
+import com.bsa.campcard.repository.OfferImageRepository;
+import com.bsa.campcard.repository.OfferRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Stores offer images in the {@link BlobStore} and returns their URLs.
+ *
+ * Images are addressed by the SHA-256 of their bytes, so re-uploading the same image
+ * is a no-op and URLs can be cached forever. A resized thumbnail is stored next to
+ * each original. Uploads are limited in bytes ({@code max-bytes}) and, read from the
+ * image header before decoding, in pixels ({@code max-pixels}). Legacy base64 rows in
+ * {@code offer_images} are moved to the blob store in batches by
+ * {@link OfferImageMigrationJob}.
+ */
+@Service
+@Slf4j
+public class OfferImageService {
+
+    private static final String KEY_PREFIX = "offers/";
+
+    private final BlobStore blobStore;
+    private final OfferImageRepository offerImageRepository;
+    private final OfferRepository offerRepository;
+    private final int thumbnailWidth;
+    private final int maxBytes;
+    private final long maxPixels;
+
+    public OfferImageService(BlobStore blobStore,
+                             OfferImageRepository offerImageRepository,
+                             OfferRepository offerRepository,
+                             @Value("${campcard.images.thumbnail-width:400}") int thumbnailWidth,
+                             @Value("${campcard.images.max-bytes:5242880}") int maxBytes,
+                             @Value("${campcard.images.max-pixels:25000000}") long maxPixels) {
+        this.blobStore = blobStore;
+        this.offerImageRepository = offerImageRepository;
+        this.offerRepository = offerRepository;
+        this.thumbnailWidth = thumbnailWidth;
+        this.maxBytes = maxBytes;
+        this.maxPixels = maxPixels;
+    }
+
+    public record StoredImage(String url, String thumbnailUrl) {
+    }
+
+    /**
+     * Store an image given as a data URL ({@code data:image/png;base64,...}).
+     */
+    public StoredImage storeDataUrl(String dataUrl) {
+        int comma = dataUrl.indexOf(',');
+        if (!dataUrl.startsWith("data:") || comma < 0 || !dataUrl.substring(0, comma).endsWith(";base64")) {
+            throw new IllegalArgumentException("Image must be a base64 data URL");
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getMimeDecoder().decode(dataUrl.substring(comma + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Image is not valid base64");
+        }
+        return store(bytes);
+    }
+
+    public StoredImage store(byte[] bytes) {
+        if (bytes.length > maxBytes) {
+            throw new IllegalArgumentException("Image exceeds maximum size of " + maxBytes + " bytes");
+        }
+
+        DecodedImage decoded = decode(bytes);
+        String format = decoded.format();
+        BufferedImage image = decoded.image();
+        String hash = sha256(bytes);
+
+        String key = KEY_PREFIX + hash + "." + extension(format);
+        blobStore.putIfAbsent(key, bytes, "image/" + format);
+        String url = blobStore.publicUrl(key);
+
+        if (image.getWidth() <= thumbnailWidth) {
+            return new StoredImage(url, url);
+        }
+
+        boolean alpha = image.getColorModel().hasAlpha();
+        String thumbnailFormat = alpha ? "png" : "jpeg";
+        String thumbnailKey = KEY_PREFIX + hash + "_w" + thumbnailWidth + "." + extension(thumbnailFormat);
+        blobStore.putIfAbsent(thumbnailKey, resize(image, thumbnailWidth, alpha, thumbnailFormat), "image/" + thumbnailFormat);
+        return new StoredImage(url, blobStore.publicUrl(thumbnailKey));
+    }
+
+    /**
+     * Move up to {@code batchSize} legacy base64 images after {@code afterId} into the
+     * blob store, point their offers at the new URLs and delete the rows.
+     *
+     * @return the highest row ID examined, or {@code null} when there are no more rows
+     */
+    @Transactional
+    public Long migrateLegacyBatch(long afterId, int batchSize) {
+        List<OfferImage> batch = offerImageRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return null;
+        }
+
+        List<Long> migrated = new ArrayList<>();
+        for (OfferImage legacy : batch) {
+            try {
+                StoredImage stored = storeDataUrl(legacy.getImageData());
+                offerRepository.updateImageUrlsIfUnset(legacy.getOfferId(), stored.url(), stored.thumbnailUrl());
+                migrated.add(legacy.getId());
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping offer image {} for offer {}: {}", legacy.getId(), legacy.getOfferId(), e.getMessage());
+            }
+        }
+        if (!migrated.isEmpty()) {
+            offerImageRepository.deleteAllByIdInBatch(migrated);
+        }
+        log.info("Migrated {} of {} legacy offer images", migrated.size(), batch.size());
+        return batch.get(batch.size() - 1).getId();
+    }
+
+    private record DecodedImage(String format, BufferedImage image) {
+    }
+
+    /**
+     * Decode the image, checking its dimensions from the header first: a few KB of
+     * compressed data can declare enough pixels to exhaust the heap once decoded.
+     */
+    private DecodedImage decode(byte[] bytes) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IllegalArgumentException("Image exceeds maximum of " + maxPixels + " pixels");
+                }
+                return new DecodedImage(reader.getFormatName().toLowerCase(Locale.ROOT), reader.read(0));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unsupported image format");
+        }
+    }
+
+    private static byte[] resize(BufferedImage source, int width, boolean alpha, String format) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage target = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (!alpha) {
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            ImageIO.write(target, format, output);
+            return output.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode thumbnail", e);
+        }
+    }
+
+    private static String extension(String format) {
+        return switch (format) {
+            case "jpeg" -> "jpg";
+            default -> format;
+        };
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
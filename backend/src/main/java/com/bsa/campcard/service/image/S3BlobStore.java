@@ -0,0 +1,64 @@
+package com.bsa.campcard.service.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+/**
+ * Blob store backed by the assets S3 bucket, served through the CDN in front of it.
+ */
+@Component
+@ConditionalOnProperty(name = "campcard.images.store", havingValue = "s3", matchIfMissing = true)
+@Slf4j
+public class S3BlobStore implements BlobStore {
+
+    // Content-addressed objects never change
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private final S3Client s3Client;
+    private final String bucket;
+    private final String publicBaseUrl;
+
+    public S3BlobStore(S3Client s3Client,
+                       @Value("${aws.s3.bucket}") String bucket,
+                       @Value("${campcard.images.public-base-url}") String publicBaseUrl) {
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+        this.publicBaseUrl = publicBaseUrl.replaceAll("/+$", "");
+    }
+
+    @Override
+    public void putIfAbsent(String key, byte[] content, String contentType) {
+        if (exists(key)) {
+            return;
+        }
+        s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(contentType)
+                        .cacheControl(CACHE_CONTROL)
+                        .build(),
+                RequestBody.fromBytes(content));
+        log.debug("Stored s3://{}/{} ({} bytes)", bucket, key, content.length);
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        return publicBaseUrl + "/" + key;
+    }
+
+    private boolean exists(String key) {
+        try {
+            s3Client.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.bsa.campcard.service.qr;
+
+import java.util.UUID;
+
+/**
+ * Fields read from a QR redemption token.
+ *
+ * @param keyId          signing key the token names; 0 for legacy text tokens
+ * @param offerId        offer being redeemed
+ * @param userId         user the code was issued to
+ * @param expiresAt      expiry in epoch seconds
+ * @param signatureValid whether the MAC matched
+ */
+public record QrToken(int keyId, long offerId, UUID userId, long expiresAt, boolean signatureValid) {
+
+    public boolean isExpired(long nowEpochSeconds) {
+        return nowEpochSeconds > expiresAt;
+    }
+}
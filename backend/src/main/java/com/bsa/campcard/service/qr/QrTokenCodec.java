@@ -0,0 +1,158 @@
+package com.bsa.campcard.service.qr;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Encodes and verifies QR redemption tokens.
+ *
+ * Tokens are 40 bytes, base64url without padding (54 characters):
+ * <pre>
+ *  0      version (1)
+ *  1      key id, unsigned
+ *  2-9    offer id
+ *  10-25  user id, most then least significant bits
+ *  26-29  expiry, unsigned epoch seconds
+ *  30-39  HMAC-SHA256 of bytes 0-29, truncated to 80 bits
+ * </pre>
+ * Every field sits at a fixed offset, so a device holding the verification key can
+ * check the MAC and expiry without calling the API. The key id selects the signing
+ * key, letting {@code campcard.qr.retired-keys} keep verifying codes issued before a
+ * rotation until they expire.
+ *
+ * Legacy {@code offerId:userId:exp:signature} tokens are still verified against the
+ * current key so codes issued before the format change keep working.
+ */
+@Component
+public class QrTokenCodec {
+
+    static final byte VERSION = 1;
+    static final int MAC_LENGTH = 10;
+    static final int SIGNED_LENGTH = 30;
+    static final int TOKEN_LENGTH = SIGNED_LENGTH + MAC_LENGTH;
+    static final int ENCODED_LENGTH = 54;
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final int currentKeyId;
+    private final Map<Integer, ThreadLocal<Mac>> macs = new HashMap<>();
+
+    public QrTokenCodec(@Value("${campcard.qr.secret-key:campcard-qr-secret-key-2026}") String secretKey,
+                        @Value("${campcard.qr.key-id:1}") int keyId,
+                        @Value("${campcard.qr.retired-keys:}") String retiredKeys) {
+        if (keyId < 1 || keyId > 255) {
+            throw new IllegalArgumentException("campcard.qr.key-id must be between 1 and 255");
+        }
+        this.currentKeyId = keyId;
+        macs.put(keyId, macFor(secretKey));
+        for (String entry : retiredKeys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf(':');
+            if (separator < 1) {
+                throw new IllegalArgumentException("campcard.qr.retired-keys entries must be id:secret");
+            }
+            int retiredId = Integer.parseInt(entry.substring(0, separator).trim());
+            if (retiredId != keyId) {
+                macs.put(retiredId, macFor(entry.substring(separator + 1).trim()));
+            }
+        }
+    }
+
+    public String encode(long offerId, UUID userId, long expiresAt) {
+        ByteBuffer buffer = ByteBuffer.allocate(TOKEN_LENGTH)
+                .put(VERSION)
+                .put((byte) currentKeyId)
+                .putLong(offerId)
+                .putLong(userId.getMostSignificantBits())
+                .putLong(userId.getLeastSignificantBits())
+                .putInt((int) expiresAt);
+        byte[] token = buffer.array();
+        Mac mac = macs.get(currentKeyId).get();
+        mac.update(token, 0, SIGNED_LENGTH);
+        System.arraycopy(mac.doFinal(), 0, token, SIGNED_LENGTH, MAC_LENGTH);
+        return ENCODER.encodeToString(token);
+    }
+
+    /**
+     * Read a token and check its MAC.
+     *
+     * @throws IllegalArgumentException if the token is not in either format
+     */
+    public QrToken decode(String token) {
+        if (token.length() != ENCODED_LENGTH) {
+            return decodeLegacy(token);
+        }
+        byte[] bytes = DECODER.decode(token);
+        if (bytes.length != TOKEN_LENGTH || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Unsupported token version");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int keyId = Byte.toUnsignedInt(buffer.get(1));
+        long offerId = buffer.getLong(2);
+        UUID userId = new UUID(buffer.getLong(10), buffer.getLong(18));
+        long expiresAt = Integer.toUnsignedLong(buffer.getInt(26));
+
+        ThreadLocal<Mac> keyMac = macs.get(keyId);
+        boolean signatureValid = false;
+        if (keyMac != null) {
+            Mac mac = keyMac.get();
+            mac.update(bytes, 0, SIGNED_LENGTH);
+            signatureValid = equalPrefix(mac.doFinal(), bytes, SIGNED_LENGTH, MAC_LENGTH);
+        }
+        return new QrToken(keyId, offerId, userId, expiresAt, signatureValid);
+    }
+
+    private QrToken decodeLegacy(String token) {
+        String[] parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split(":");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Invalid token format");
+        }
+        long offerId = Long.parseLong(parts[0]);
+        UUID userId = UUID.fromString(parts[1]);
+        long expiresAt = Long.parseLong(parts[2]);
+
+        Mac mac = macs.get(currentKeyId).get();
+        byte[] expected = ENCODER.encode(mac.doFinal(
+                String.format("%d:%s:%d", offerId, userId, expiresAt).getBytes(StandardCharsets.UTF_8)));
+        byte[] provided = parts[3].getBytes(StandardCharsets.UTF_8);
+        boolean signatureValid = expected.length == provided.length
+                && equalPrefix(expected, provided, 0, expected.length);
+        return new QrToken(0, offerId, userId, expiresAt, signatureValid);
+    }
+
+    // Constant time, so a forger cannot learn the MAC a byte at a time
+    private static boolean equalPrefix(byte[] expected, byte[] token, int offset, int length) {
+        int diff = 0;
+        for (int i = 0; i < length; i++) {
+            diff |= expected[i] ^ token[offset + i];
+        }
+        return diff == 0;
+    }
+
+    private static ThreadLocal<Mac> macFor(String secret) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        return ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Failed to initialise QR token MAC", e);
+            }
+        });
+    }
+}
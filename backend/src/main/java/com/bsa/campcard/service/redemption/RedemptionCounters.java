@@ -0,0 +1,118 @@
+package com.bsa.campcard.service.redemption;
+
+import com.bsa.campcard.entity.Offer;
+import com.bsa.campcard.repository.MerchantRepository;
+import com.bsa.campcard.repository.OfferRepository;
+import com.bsa.campcard.service.catalog.OfferCatalog;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+/**
+ * Offer and merchant redemption totals.
+ *
+ * An offer with a usage limit is claimed with a conditional increment, so the limit holds
+ * across concurrent redemptions and API nodes. Every other total is only reported, so it
+ * is counted in memory once the redemption commits and added to the row every
+ * {@code counter-flush-ms}; redemptions of a popular offer no longer queue on its row.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RedemptionCounters {
+
+    private final OfferRepository offerRepository;
+    private final MerchantRepository merchantRepository;
+    private final OfferCatalog offerCatalog;
+
+    private final Map<Long, LongAdder> offerDeltas = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> merchantDeltas = new ConcurrentHashMap<>();
+
+    /**
+     * Count a redemption of the offer, joining the caller's transaction.
+     *
+     * @return false if the offer's usage limit has been reached
+     */
+    public boolean claim(Offer offer) {
+        boolean limited = offer.getUsageLimit() != null;
+        if (limited && offerRepository.claimLimitedRedemption(offer.getId(), LocalDateTime.now()) == 0) {
+            // Already sold out; the claim that took the last one marked the offer updated
+            offerCatalog.invalidate();
+            return false;
+        }
+
+        Runnable count = () -> {
+            if (!limited) {
+                add(offerDeltas, offer.getId());
+            }
+            add(merchantDeltas, offer.getMerchantId());
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    count.run();
+                }
+            });
+        } else {
+            count.run();
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${campcard.redemption.counter-flush-ms:5000}")
+    public void flush() {
+        offerDeltas.forEach((offerId, delta) ->
+                flush(delta, count -> offerRepository.incrementRedemptions(offerId, count), "offer", offerId));
+        merchantDeltas.forEach((merchantId, delta) ->
+                flush(delta, count -> merchantRepository.incrementRedemptions(merchantId, count), "merchant", merchantId));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    long pendingForOffer(Long offerId) {
+        return pending(offerDeltas, offerId);
+    }
+
+    long pendingForMerchant(Long merchantId) {
+        return pending(merchantDeltas, merchantId);
+    }
+
+    private static long pending(Map<Long, LongAdder> deltas, Long id) {
+        LongAdder delta = deltas.get(id);
+        return delta != null ? delta.sum() : 0;
+    }
+
+    private static void add(Map<Long, LongAdder> deltas, Long id) {
+        if (id != null) {
+            deltas.computeIfAbsent(id, key -> new LongAdder()).increment();
+        }
+    }
+
+    private static void flush(LongAdder delta, IntConsumer increment, String type, Long id) {
+        long count = delta.sumThenReset();
+        if (count == 0) {
+            return;
+        }
+        try {
+            increment.accept((int) count);
+        } catch (Exception e) {
+            // Keep the count for the next flush rather than losing it
+            delta.add(count);
+            log.warn("Failed to add {} redemptions to {} {}: {}", count, type, id, e.getMessage());
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package org.bsa.campcard.config;
 
 import com.bsa.campcard.security.JwtTokenProvider;
+import com.bsa.campcard.security.PrincipalCache;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bsa.campcard.domain.user.User;
 import org.bsa.campcard.domain.user.UserRepository;
@@ -19,15 +22,39 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Authenticates requests carrying a bearer access token.
+ *
+ * The token is verified and parsed once per request, and the user is resolved through
+ * {@link PrincipalCache} so an authenticated request does not hit the database.
+ * Outcomes are counted in {@code campcard.auth.requests} instead of being logged.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+
+    private final Counter authenticated;
+    private final Counter rejected;
+    private final Counter invalid;
+
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider,
+                                   UserRepository userRepository,
+                                   PrincipalCache principalCache,
+                                   MeterRegistry meterRegistry) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.authenticated = authCounter(meterRegistry, "authenticated");
+        this.rejected = authCounter(meterRegistry, "inactive");
+        this.invalid = authCounter(meterRegistry, "invalid");
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -36,28 +63,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtTokenProvider.validateToken(jwt)) {
-                UUID userId = jwtTokenProvider.getUserIdFromToken(jwt);
-                String role = jwtTokenProvider.getRoleFromToken(jwt);
-
-                User user = userRepository.findById(userId).orElse(null);
-
-                if (user != null && user.getIsActive()) {
-                    String authority = "ROLE_" + role;
-                    var authorities = Collections.singletonList(
-                        new SimpleGrantedAuthority(authority)
-                    );
-
-                    UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(user, null, authorities);
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                    log.info("AUTH: Set authentication for user: {} with role: {} (authority: {})",
-                        user.getEmail(), role, authority);
+            if (StringUtils.hasText(jwt)) {
+                Optional<Claims> claims = jwtTokenProvider.parseValidToken(jwt);
+                if (claims.isPresent()) {
+                    authenticate(request, claims.get());
                 } else {
-                    log.warn("AUTH: User not found or inactive. userId={}, user={}, isActive={}",
-                        userId, user != null ? user.getEmail() : "null", user != null ? user.getIsActive() : "null");
+                    invalid.increment();
                 }
             }
         } catch (Exception ex) {
@@ -67,6 +78,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private void authenticate(HttpServletRequest request, Claims claims) {
+        UUID userId = UUID.fromString(claims.getSubject());
+        String role = claims.get("role", String.class);
+
+        User user = principalCache.get(userId, userRepository::findById).orElse(null);
+
+        if (user != null && Boolean.TRUE.equals(user.getIsActive())) {
+            String authority = "ROLE_" + role;
+            var authorities = Collections.singletonList(
+                new SimpleGrantedAuthority(authority)
+            );
+
+            UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(user, null, authorities);
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            authenticated.increment();
+        } else {
+            rejected.increment();
+            log.debug("AUTH: User not found or inactive. userId={}", userId);
+        }
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -74,4 +109,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
+
+    private static Counter authCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("campcard.auth.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,141 @@
+package org.bsa.campcard.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bsa.campcard.domain.user.User;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Applies {@link RateLimitProperties} to every API request.
+ *
+ * Runs after JWT authentication so authenticated callers are limited per user (and
+ * may get a higher role limit) while anonymous callers are limited per client IP.
+ * The client IP is the request's remote address, which the container resolves from
+ * forwarded headers only when they come through a trusted proxy
+ * ({@code server.forward-headers-strategy}).
+ * Responses carry {@code RateLimit-Limit}, {@code RateLimit-Remaining},
+ * {@code RateLimit-Reset} and {@code RateLimit-Policy}; rejected requests get a 429
+ * with {@code Retry-After}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String DEFAULT_POLICY = "default";
+
+    private final RateLimitProperties properties;
+    private final RedisRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!properties.isEnabled() || "OPTIONS".equalsIgnoreCase(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        return properties.getExcludePaths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Policy policy = resolvePolicy(request, authentication);
+        String clientKey = clientKey(request, authentication);
+
+        RedisRateLimiter.Decision decision =
+                rateLimiter.tryConsume(policy.name() + ":" + clientKey, policy.limit(), policy.burst());
+
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(toSeconds(decision.resetMillis())));
+        response.setHeader("RateLimit-Policy", decision.limit() + ";w=60;policy=" + policy.name());
+
+        if (!decision.allowed()) {
+            log.warn("Rate limit exceeded: policy={}, client={}, path={}",
+                    policy.name(), clientKey, request.getRequestURI());
+            writeTooManyRequests(response, decision);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private Policy resolvePolicy(HttpServletRequest request, Authentication authentication) {
+        String path = request.getRequestURI();
+        for (RateLimitProperties.RoutePolicy route : properties.getPolicies()) {
+            boolean methodMatches = route.getMethods().isEmpty()
+                    || route.getMethods().stream().anyMatch(m -> m.equalsIgnoreCase(request.getMethod()));
+            if (methodMatches && pathMatcher.match(route.getPath(), path)) {
+                int burst = route.getBurst() != null ? route.getBurst() : properties.getBurstCapacity();
+                return new Policy(route.getName(), route.getLimit(), burst);
+            }
+        }
+
+        if (isAuthenticated(authentication)) {
+            for (GrantedAuthority authority : authentication.getAuthorities()) {
+                String role = authority.getAuthority().replaceFirst("^ROLE_", "");
+                Integer roleLimit = properties.getRoles().get(role);
+                if (roleLimit != null) {
+                    return new Policy("role-" + role.toLowerCase(), roleLimit, properties.getBurstCapacity());
+                }
+            }
+        }
+
+        return new Policy(DEFAULT_POLICY, properties.getDefaultLimit(), properties.getBurstCapacity());
+    }
+
+    private String clientKey(HttpServletRequest request, Authentication authentication) {
+        if (isAuthenticated(authentication) && authentication.getPrincipal() instanceof User user) {
+            return "user:" + user.getId();
+        }
+        // Never the raw X-Forwarded-For / X-Real-IP headers, which any client can set to get a
+        // fresh bucket; server.forward-headers-strategy resolves the address behind trusted proxies
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private boolean isAuthenticated(Authentication authentication) {
+        return authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof User;
+    }
+
+    private void writeTooManyRequests(HttpServletResponse response, RedisRateLimiter.Decision decision)
+            throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(Math.max(1, toSeconds(decision.retryAfterMillis()))));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("success", false);
+        body.put("error", "Too many requests. Please try again later.");
+        body.put("timestamp", LocalDateTime.now().toString());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static long toSeconds(long millis) {
+        return (millis + 999) / 1000;
+    }
+
+    private record Policy(String name, int limit, int burst) {
+    }
+}
@@ -0,0 +1,63 @@
+package org.bsa.campcard.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rate limit settings bound from {@code campcard.rate-limit}.
+ *
+ * Limits are token buckets: {@code limit} requests per minute refill the bucket and
+ * {@code burst} extra requests may be made back to back on top of that.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "campcard.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private String redisKeyPrefix = "rate_limit:";
+
+    /**
+     * Requests per minute when no route or role policy applies
+     */
+    private int defaultLimit = 100;
+
+    private int burstCapacity = 20;
+
+    /**
+     * Maximum number of clients remembered locally as blocked, to answer repeat
+     * requests from a throttled client without a Redis round trip
+     */
+    private int localBlockCacheSize = 10_000;
+
+    /**
+     * Paths that are never limited (health checks, WebSocket upgrades)
+     */
+    private List<String> excludePaths = new ArrayList<>(List.of("/actuator/**", "/ws/**"));
+
+    /**
+     * Route policies, checked in order; the first match wins over role limits
+     */
+    private List<RoutePolicy> policies = new ArrayList<>();
+
+    /**
+     * Requests per minute for authenticated users by role (e.g. ADMIN: 600)
+     */
+    private Map<String, Integer> roles = new HashMap<>();
+
+    @Data
+    public static class RoutePolicy {
+        private String name;
+        private String path;
+        private List<String> methods = new ArrayList<>();
+        private int limit;
+        private Integer burst;
+    }
+}
@@ -0,0 +1,122 @@
+package org.bsa.campcard.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token bucket rate limiter shared by all API nodes through Redis.
+ *
+ * Each bucket is a Redis hash updated by a single Lua script, so concurrent requests on
+ * different nodes cannot overdraw it; the script uses the Redis clock so node clock skew
+ * does not matter. Clients that have been throttled are remembered locally until their
+ * next token is due, so a client hammering the API is rejected without a Redis call.
+ * If Redis is unavailable requests are allowed.
+ */
+@Component
+@Slf4j
+public class RedisRateLimiter {
+
+    // KEYS[1] bucket; ARGV capacity, refill tokens per ms
+    // Returns allowed (0/1), remaining tokens, ms until next token, ms until full
+    private static final RedisScript<List> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>(
+            "local capacity = tonumber(ARGV[1])\n" +
+            "local rate = tonumber(ARGV[2])\n" +
+            "local time = redis.call('TIME')\n" +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n" +
+            "local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')\n" +
+            "local tokens = tonumber(bucket[1])\n" +
+            "local ts = tonumber(bucket[2])\n" +
+            "if tokens == nil or ts == nil then tokens = capacity; ts = now end\n" +
+            "tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)\n" +
+            "local allowed = 0\n" +
+            "if tokens >= 1 then tokens = tokens - 1; allowed = 1 end\n" +
+            "redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))\n" +
+            "local untilFull = math.ceil((capacity - tokens) / rate)\n" +
+            "redis.call('PEXPIRE', KEYS[1], untilFull + 1000)\n" +
+            "local untilNext = 0\n" +
+            "if tokens < 1 then untilNext = math.ceil((1 - tokens) / rate) end\n" +
+            "return {allowed, math.floor(tokens), untilNext, untilFull}",
+            List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RateLimitProperties properties;
+    private final Map<String, Long> blockedUntil = new ConcurrentHashMap<>();
+
+    public RedisRateLimiter(StringRedisTemplate redisTemplate, RateLimitProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Take one token from the bucket for {@code key}.
+     *
+     * @param limit requests per minute
+     * @param burst requests allowed on top of the per-minute rate
+     */
+    public Decision tryConsume(String key, int limit, int burst) {
+        int capacity = limit + burst;
+        long now = System.currentTimeMillis();
+
+        Long blocked = blockedUntil.get(key);
+        if (blocked != null) {
+            if (now < blocked) {
+                return new Decision(false, capacity, 0, blocked - now, blocked - now);
+            }
+            blockedUntil.remove(key, blocked);
+        }
+
+        double tokensPerMs = limit / 60_000.0;
+        List<?> result;
+        try {
+            result = redisTemplate.execute(TOKEN_BUCKET_SCRIPT,
+                    List.of(properties.getRedisKeyPrefix() + key),
+                    String.valueOf(capacity), String.valueOf(tokensPerMs));
+        } catch (Exception e) {
+            log.warn("Rate limiter unavailable, allowing request: {}", e.getMessage());
+            return Decision.unlimited(capacity);
+        }
+        if (result == null || result.size() < 4) {
+            return Decision.unlimited(capacity);
+        }
+
+        boolean allowed = toLong(result.get(0)) == 1L;
+        Decision decision = new Decision(allowed, capacity, toLong(result.get(1)),
+                toLong(result.get(2)), toLong(result.get(3)));
+        if (!allowed) {
+            rememberBlocked(key, now + decision.retryAfterMillis());
+        }
+        return decision;
+    }
+
+    private void rememberBlocked(String key, long until) {
+        if (blockedUntil.size() >= properties.getLocalBlockCacheSize()) {
+            long now = System.currentTimeMillis();
+            blockedUntil.values().removeIf(expiry -> expiry <= now);
+            if (blockedUntil.size() >= properties.getLocalBlockCacheSize()) {
+                return;
+            }
+        }
+        blockedUntil.put(key, until);
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(value));
+    }
+
+    /**
+     * Outcome of a rate limit check. Times are in milliseconds.
+     */
+    public record Decision(boolean allowed, long limit, long remaining, long retryAfterMillis, long resetMillis) {
+
+        static Decision unlimited(long limit) {
+            return new Decision(true, limit, limit, 0, 0);
+        }
+    }
+}
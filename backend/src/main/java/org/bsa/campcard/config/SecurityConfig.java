@@ -26,6 +26,7 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -41,6 +42,8 @@ public class SecurityConfig {
                 .requestMatchers("/api/v1/offers/**").permitAll()
                 .requestMatchers("/api/v1/merchants/**").permitAll()
                 .requestMatchers("/api/v1/location/**").permitAll()
+                // Locally stored offer images (filesystem blob store)
+                .requestMatchers("/images/**").permitAll()
                 // Public subscription purchase endpoints (Authorize.Net Accept Hosted)
                 .requestMatchers("/api/v1/payments/subscribe/**").permitAll()
                 // Public referral click tracking
@@ -63,7 +66,8 @@ public class SecurityConfig {
                 .anyRequest().authenticated()
             )
             .headers(headers -> headers.frameOptions(frame -> frame.sameOrigin()))
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -94,7 +98,8 @@ public class SecurityConfig {
             "Cache-Control",
             "Pragma"
         ));
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-Total-Count"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-Total-Count",
+            "RateLimit-Limit", "RateLimit-Remaining", "RateLimit-Reset", "RateLimit-Policy", "Retry-After"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         
@@ -1,5 +1,8 @@
 package org.bsa.campcard.domain.user;
 
+import com.bsa.campcard.entity.DashboardAggregated;
+import com.bsa.campcard.service.dashboard.DashboardAggregateListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,6 +15,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Period;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -24,12 +28,12 @@ import java.util.UUID;
     @Index(name = "idx_users_council_id", columnList = "council_id"),
     @Index(name = "idx_users_troop_id", columnList = "troop_id")
 })
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, DashboardAggregateListener.class})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class User {
+public class User implements DashboardAggregated {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -86,6 +90,11 @@ public class User {
     @Column(name = "referral_code", unique = true, length = 20)
     private String referralCode;
 
+    // First 8 hex digits of the ID, upper-cased; generated by the database.
+    // Resolves the mobile app's "SC-XXXXXXXX" fallback scout codes.
+    @Column(name = "short_code", length = 8, insertable = false, updatable = false)
+    private String shortCode;
+
     @Column(name = "card_number", unique = true, length = 20)
     private String cardNumber;
 
@@ -169,6 +178,11 @@ public class User {
     @Transient
     private String parentName;
 
+    // Dashboard counter contribution as of the last load/flush (see DashboardAggregateListener)
+    @Transient
+    @JsonIgnore
+    private transient Map<String, Long> aggregateSnapshot;
+
     /**
      * Consent status values for COPPA compliance tracking
      */
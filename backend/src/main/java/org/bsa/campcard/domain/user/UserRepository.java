@@ -3,10 +3,13 @@ package org.bsa.campcard.domain.user;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,7 +18,7 @@ import java.util.UUID;
  * Leverages PostgreSQL Row-Level Security for multi-tenancy
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User> {
 
     /**
      * Find user by email (unique)
@@ -130,6 +133,15 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      */
     Optional<User> findByReferralCode(String referralCode);
 
+    /**
+     * Find active scouts by the short code behind an "SC-" fallback code, oldest first.
+     * Served by the partial index on short_code; 8 hex digits can collide, so callers
+     * should ask for more than one row to detect ambiguity.
+     */
+    @Query("SELECT u FROM User u WHERE u.shortCode = :shortCode AND u.role = 'SCOUT' " +
+           "AND u.isActive = true AND u.deletedAt IS NULL ORDER BY u.createdAt ASC")
+    List<User> findActiveScoutsByShortCode(@Param("shortCode") String shortCode, Pageable pageable);
+
     /**
      * Check if referral code exists
      */
@@ -156,4 +168,9 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      */
     @Query("SELECT u FROM User u WHERE u.councilId = :councilId AND u.troopId IS NULL AND u.role = 'SCOUT' AND u.isActive = true AND u.deletedAt IS NULL")
     Page<User> findUnassignedScoutsByCouncil(@Param("councilId") UUID councilId, Pageable pageable);
+
+    @Query("SELECT u.isActive, COUNT(u) FROM User u GROUP BY u.isActive")
+    List<Object[]> countGroupedByActive();
+
+    long countByCreatedAtAfter(LocalDateTime since);
 }
@@ -1,6 +1,7 @@
 package org.bsa.campcard.domain.user;
 
 import com.bsa.campcard.repository.TroopRepository;
+import com.bsa.campcard.security.PrincipalCache;
 import com.bsa.campcard.service.ParentalConsentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -34,6 +35,7 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final ParentalConsentService parentalConsentService;
     private final TroopRepository troopRepository;
+    private final PrincipalCache principalCache;
 
     /**
      * Find user by ID
@@ -243,6 +245,7 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        principalCache.invalidate(id);
         log.info("Updated user with ID: {}", id);
 
         return updatedUser;
@@ -260,6 +263,7 @@ public class UserService {
             .orElseThrow(() -> new IllegalArgumentException(USER_NOT_FOUND + id));
 
         userRepository.delete(user);
+        principalCache.invalidate(id);
         log.info("Deleted user with ID: {}", id);
     }
 
@@ -335,6 +339,7 @@ public class UserService {
 
         user.setTroopId(troopId);
         User savedUser = userRepository.save(user);
+        principalCache.invalidate(userId);
 
         log.info("User {} assigned to troop {}", userId, troopId);
         return savedUser;
@@ -357,6 +362,7 @@ public class UserService {
 
         user.setTroopId(null);
         User savedUser = userRepository.save(user);
+        principalCache.invalidate(userId);
 
         log.info("User {} removed from troop", userId);
         return savedUser;
@@ -0,0 +1,77 @@
+package org.bsa.campcard.domain.user;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Composable query predicates over {@link User}, used to build audiences that are
+ * filtered by the database rather than in memory.
+ */
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    public static Specification<User> notDeleted() {
+        return (root, query, cb) -> cb.isNull(root.get("deletedAt"));
+    }
+
+    public static Specification<User> isActive(boolean active) {
+        return (root, query, cb) -> cb.equal(root.get("isActive"), active);
+    }
+
+    public static Specification<User> hasRole(User.UserRole role) {
+        return (root, query, cb) -> cb.equal(root.get("role"), role);
+    }
+
+    public static Specification<User> hasRoleIn(Collection<User.UserRole> roles) {
+        return (root, query, cb) -> root.get("role").in(roles);
+    }
+
+    public static Specification<User> inCouncil(UUID councilId) {
+        return (root, query, cb) -> cb.equal(root.get("councilId"), councilId);
+    }
+
+    public static Specification<User> createdBefore(LocalDateTime time, boolean inclusive) {
+        return (root, query, cb) -> inclusive
+                ? cb.lessThanOrEqualTo(root.get("createdAt"), time)
+                : cb.lessThan(root.get("createdAt"), time);
+    }
+
+    public static Specification<User> createdAfter(LocalDateTime time, boolean inclusive) {
+        return (root, query, cb) -> inclusive
+                ? cb.greaterThanOrEqualTo(root.get("createdAt"), time)
+                : cb.greaterThan(root.get("createdAt"), time);
+    }
+
+    /**
+     * Users who have not logged in since the given time; users who never logged in match.
+     */
+    public static Specification<User> lastLoginBefore(LocalDateTime time, boolean inclusive) {
+        return (root, query, cb) -> cb.or(
+                cb.isNull(root.get("lastLoginAt")),
+                inclusive
+                        ? cb.lessThanOrEqualTo(root.get("lastLoginAt"), time)
+                        : cb.lessThan(root.get("lastLoginAt"), time));
+    }
+
+    public static Specification<User> lastLoginAfter(LocalDateTime time, boolean inclusive) {
+        return (root, query, cb) -> inclusive
+                ? cb.greaterThanOrEqualTo(root.get("lastLoginAt"), time)
+                : cb.greaterThan(root.get("lastLoginAt"), time);
+    }
+
+    public static Specification<User> hasId(UUID id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    /**
+     * Keyset cursor: users ordered after the given ID.
+     */
+    public static Specification<User> idAfter(UUID id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+}
@@ -0,0 +1,100 @@
+-- Offer search index
+-- Replaces LIKE '%term%' scans with an indexed, ranked search over offer title and
+-- description, merchant name, category and location city.
+--
+-- search_vector: weighted full-text document (GIN), used for word and prefix matches
+-- search_text:   the same text flattened and lower-cased (GIN trigram), used for
+--                typo-tolerant matches
+--
+-- Both columns are maintained by triggers so merchant renames and location changes
+-- are reflected without application code.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE campcard.offers ADD COLUMN IF NOT EXISTS search_vector TSVECTOR;
+ALTER TABLE campcard.offers ADD COLUMN IF NOT EXISTS search_text TEXT;
+
+CREATE OR REPLACE FUNCTION campcard.offer_search_fields(p_offer campcard.offers,
+                                                        OUT vector TSVECTOR,
+                                                        OUT flat TEXT)
+LANGUAGE plpgsql STABLE AS $$
+DECLARE
+    v_merchant TEXT;
+    v_cities TEXT;
+BEGIN
+    SELECT concat_ws(' ', m.business_name, m.dba_name)
+      INTO v_merchant
+      FROM campcard.merchants m
+     WHERE m.id = p_offer.merchant_id;
+
+    IF p_offer.merchant_location_id IS NOT NULL THEN
+        SELECT l.city INTO v_cities
+          FROM campcard.merchant_locations l
+         WHERE l.id = p_offer.merchant_location_id;
+    ELSE
+        SELECT string_agg(DISTINCT l.city, ' ') INTO v_cities
+          FROM campcard.merchant_locations l
+         WHERE l.merchant_id = p_offer.merchant_id
+           AND l.deleted_at IS NULL;
+    END IF;
+
+    vector := setweight(to_tsvector('simple', coalesce(p_offer.title, '')), 'A')
+           || setweight(to_tsvector('simple', coalesce(v_merchant, '')), 'A')
+           || setweight(to_tsvector('simple', coalesce(p_offer.category, '')), 'B')
+           || setweight(to_tsvector('simple', coalesce(v_cities, '')), 'B')
+           || setweight(to_tsvector('simple', coalesce(p_offer.description, '')), 'C');
+    flat := lower(concat_ws(' ', p_offer.title, v_merchant, p_offer.category, v_cities));
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION campcard.offers_search_trigger()
+RETURNS TRIGGER LANGUAGE plpgsql AS $$
+DECLARE
+    v_fields RECORD;
+BEGIN
+    v_fields := campcard.offer_search_fields(NEW);
+    NEW.search_vector := v_fields.vector;
+    NEW.search_text := v_fields.flat;
+    RETURN NEW;
+END;
+$$;
+
+CREATE TRIGGER trg_offers_search
+    BEFORE INSERT OR UPDATE OF title, description, category, merchant_id, merchant_location_id
+    ON campcard.offers
+    FOR EACH ROW EXECUTE FUNCTION campcard.offers_search_trigger();
+
+-- Touching title re-fires the offers trigger for every affected offer
+CREATE OR REPLACE FUNCTION campcard.merchants_search_trigger()
+RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+    UPDATE campcard.offers SET title = title WHERE merchant_id = NEW.id;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_merchants_offer_search
+    AFTER UPDATE OF business_name, dba_name ON campcard.merchants
+    FOR EACH ROW
+    WHEN (OLD.business_name IS DISTINCT FROM NEW.business_name OR OLD.dba_name IS DISTINCT FROM NEW.dba_name)
+    EXECUTE FUNCTION campcard.merchants_search_trigger();
+
+CREATE OR REPLACE FUNCTION campcard.merchant_locations_search_trigger()
+RETURNS TRIGGER LANGUAGE plpgsql AS $$
+DECLARE
+    v_merchant_id BIGINT := CASE WHEN TG_OP = 'DELETE' THEN OLD.merchant_id ELSE NEW.merchant_id END;
+BEGIN
+    UPDATE campcard.offers SET title = title WHERE merchant_id = v_merchant_id;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_merchant_locations_offer_search
+    AFTER INSERT OR DELETE OR UPDATE OF city, deleted_at, merchant_id ON campcard.merchant_locations
+    FOR EACH ROW EXECUTE FUNCTION campcard.merchant_locations_search_trigger();
+
+-- Backfill existing offers
+UPDATE campcard.offers SET title = title;
+
+CREATE INDEX IF NOT EXISTS idx_offers_search_vector ON campcard.offers USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_offers_search_text_trgm ON campcard.offers USING GIN (search_text gin_trgm_ops);
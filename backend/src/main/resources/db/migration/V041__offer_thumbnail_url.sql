@@ -0,0 +1,6 @@
+-- V041: Offer images move to the blob store (S3/CDN)
+-- offers.image_url holds the content-addressed original; thumbnail_url holds the
+-- resized variant shown in lists. Legacy base64 rows in offer_images are migrated
+-- and deleted in batches by the application (OfferImageMigrationJob).
+
+ALTER TABLE campcard.offers ADD COLUMN IF NOT EXISTS thumbnail_url VARCHAR(500);
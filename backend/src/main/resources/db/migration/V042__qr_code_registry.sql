@@ -0,0 +1,18 @@
+-- V042: QR code registry
+-- Durable code -> owner mapping for user and card QR codes. Redis holds the hot copy
+-- (qr:code:{code} -> owner, qr:user:{id} / qr:card:{id} -> code); this table is the
+-- fallback when a key has been evicted or Redis is unavailable, so a code can be
+-- resolved without scanning Redis.
+
+CREATE TABLE IF NOT EXISTS campcard.qr_code_registry (
+    code VARCHAR(32) PRIMARY KEY,
+    owner_type VARCHAR(10) NOT NULL,
+    owner_id VARCHAR(64) NOT NULL,
+    expires_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_qr_code_registry_owner
+    ON campcard.qr_code_registry(owner_type, owner_id, created_at DESC);
+
+GRANT SELECT, INSERT, UPDATE, DELETE ON campcard.qr_code_registry TO campcard_app;
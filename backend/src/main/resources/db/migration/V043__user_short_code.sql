@@ -0,0 +1,12 @@
+-- V043: Indexed short code for scout fallback codes
+-- The mobile app falls back to "SC-" + the first 8 hex digits of the scout's user ID
+-- when the QR code API is unavailable. short_code is derived from the ID by the
+-- database so the code resolves with one index lookup instead of scanning scouts.
+
+ALTER TABLE campcard.users
+    ADD COLUMN IF NOT EXISTS short_code VARCHAR(8)
+    GENERATED ALWAYS AS (upper(left(id::text, 8))) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_users_scout_short_code
+    ON campcard.users(short_code)
+    WHERE role = 'SCOUT';
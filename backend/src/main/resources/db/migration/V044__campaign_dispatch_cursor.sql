@@ -0,0 +1,12 @@
+-- V044: Resumable campaign dispatch
+-- Campaigns are dispatched in chunks of users ordered by ID, each committed on its own.
+-- dispatch_cursor records the last user ID of the last committed chunk so a campaign
+-- interrupted by a crash or redeploy resumes after it instead of starting over.
+-- updated_at is bumped with every chunk and doubles as the dispatch heartbeat.
+
+ALTER TABLE campcard.marketing_campaigns
+    ADD COLUMN IF NOT EXISTS dispatch_cursor UUID;
+
+CREATE INDEX IF NOT EXISTS idx_marketing_campaigns_sending
+    ON campcard.marketing_campaigns(updated_at)
+    WHERE status = 'SENDING';
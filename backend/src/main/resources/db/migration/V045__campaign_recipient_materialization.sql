@@ -0,0 +1,24 @@
+-- V045: Set-based campaign recipient materialization
+-- A campaign's recipients are inserted in batches with
+-- INSERT ... ON CONFLICT (campaign_id, user_id, channel) DO NOTHING, so the unique
+-- index from V011 does the duplicate check instead of one query per user and channel.
+-- Promote it to the named constraint the entity declares.
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_campaign_user_channel') THEN
+        IF EXISTS (SELECT 1 FROM pg_indexes
+                   WHERE schemaname = 'campcard' AND indexname = 'idx_campaign_recipients_unique') THEN
+            ALTER TABLE campcard.campaign_recipients
+                ADD CONSTRAINT uk_campaign_user_channel UNIQUE USING INDEX idx_campaign_recipients_unique;
+        ELSE
+            ALTER TABLE campcard.campaign_recipients
+                ADD CONSTRAINT uk_campaign_user_channel UNIQUE (campaign_id, user_id, channel);
+        END IF;
+    END IF;
+END $$;
+
+-- Senders page through a campaign's pending recipients by ID
+CREATE INDEX IF NOT EXISTS idx_campaign_recipients_pending
+    ON campcard.campaign_recipients(campaign_id, id)
+    WHERE status = 'PENDING';
@@ -0,0 +1,13 @@
+-- V046: Indexes for the set-based expiry jobs
+-- The hourly job expires ACTIVE offers past valid_until in chunks ordered by
+-- (valid_until, id), and the nightly job expires PENDING redemptions older than a week
+-- in chunks ordered by (created_at, id). Each partial index matches its job's order and
+-- keeps the lookup to the rows still waiting to expire.
+
+CREATE INDEX IF NOT EXISTS idx_offers_active_valid_until
+    ON campcard.offers(valid_until, id)
+    WHERE status = 'ACTIVE';
+
+CREATE INDEX IF NOT EXISTS idx_offer_redemptions_pending_created_at
+    ON campcard.offer_redemptions(created_at, id)
+    WHERE status = 'PENDING';
@@ -0,0 +1,16 @@
+-- V047: Reindex both merchants' offers when a location moves between merchants
+-- The V040 trigger only reindexed the location's new merchant, so the old merchant's
+-- offers kept matching the moved location's city until they were next edited.
+
+CREATE OR REPLACE FUNCTION campcard.merchant_locations_search_trigger()
+RETURNS TRIGGER LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        UPDATE campcard.offers SET title = title WHERE merchant_id = OLD.merchant_id;
+    END IF;
+    IF TG_OP = 'INSERT' OR (TG_OP = 'UPDATE' AND OLD.merchant_id IS DISTINCT FROM NEW.merchant_id) THEN
+        UPDATE campcard.offers SET title = title WHERE merchant_id = NEW.merchant_id;
+    END IF;
+    RETURN NULL;
+END;
+$$;
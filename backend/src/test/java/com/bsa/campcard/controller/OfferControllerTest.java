@@ -534,7 +534,7 @@ class OfferControllerTest {
                     PageRequest.of(0, 20),
                     1
             );
-            when(offerService.getActiveOffers(any(Pageable.class))).thenReturn(offerPage);
+            when(offerService.getActiveOffers(isNull(), any(Pageable.class))).thenReturn(offerPage);
 
             mockMvc.perform(get(BASE_URL + "/active")
                             .contentType(JSON))
@@ -542,7 +542,7 @@ class OfferControllerTest {
                     .andExpect(jsonPath("$.content", hasSize(1)))
                     .andExpect(jsonPath("$.content[0].status").value("ACTIVE"));
 
-            verify(offerService, times(1)).getActiveOffers(any(Pageable.class));
+            verify(offerService, times(1)).getActiveOffers(isNull(), any(Pageable.class));
         }
 
         @Test
@@ -554,7 +554,7 @@ class OfferControllerTest {
                     PageRequest.of(2, 5),
                     20
             );
-            when(offerService.getActiveOffers(any(Pageable.class))).thenReturn(offerPage);
+            when(offerService.getActiveOffers(isNull(), any(Pageable.class))).thenReturn(offerPage);
 
             mockMvc.perform(get(BASE_URL + "/active")
                             .param("page", "2")
@@ -564,6 +564,26 @@ class OfferControllerTest {
                     .andExpect(jsonPath("$.pageable.pageNumber").value(2))
                     .andExpect(jsonPath("$.pageable.pageSize").value(5));
         }
+
+        @Test
+        @DisplayName("Should get active offers for one council")
+        @WithMockUser(roles = "SCOUT")
+        void shouldGetActiveOffersForCouncil() throws Exception {
+            Page<OfferResponse> offerPage = new PageImpl<>(
+                    List.of(sampleOfferResponse),
+                    PageRequest.of(0, 20),
+                    1
+            );
+            when(offerService.getActiveOffers(eq(100L), any(Pageable.class))).thenReturn(offerPage);
+
+            mockMvc.perform(get(BASE_URL + "/active")
+                            .param("councilId", "100")
+                            .contentType(JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(1)));
+
+            verify(offerService, times(1)).getActiveOffers(eq(100L), any(Pageable.class));
+        }
     }
 
     // ==================== GET ACTIVE OFFERS FOR USER TESTS ====================
@@ -584,7 +604,7 @@ class OfferControllerTest {
                     PageRequest.of(0, 20),
                     1
             );
-            when(offerService.getActiveOffersForUser(eq(testUserId), any(Pageable.class)))
+            when(offerService.getActiveOffersForUser(eq(testUserId), isNull(), any(Pageable.class)))
                     .thenReturn(offerPage);
 
             mockMvc.perform(get(BASE_URL + "/active/user/" + testUserId)
@@ -594,7 +614,7 @@ class OfferControllerTest {
                     .andExpect(jsonPath("$.content[0].userRedemptionCount").value(2))
                     .andExpect(jsonPath("$.content[0].userHasReachedLimit").value(false));
 
-            verify(offerService, times(1)).getActiveOffersForUser(eq(testUserId), any(Pageable.class));
+            verify(offerService, times(1)).getActiveOffersForUser(eq(testUserId), isNull(), any(Pageable.class));
         }
 
         @Test
@@ -609,7 +629,7 @@ class OfferControllerTest {
                     PageRequest.of(0, 20),
                     1
             );
-            when(offerService.getActiveOffersForUser(eq(testUserId), any(Pageable.class)))
+            when(offerService.getActiveOffersForUser(eq(testUserId), isNull(), any(Pageable.class)))
                     .thenReturn(offerPage);
 
             mockMvc.perform(get(BASE_URL + "/active/user/" + testUserId)
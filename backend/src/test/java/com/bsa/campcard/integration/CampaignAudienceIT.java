@@ -0,0 +1,198 @@
+package com.bsa.campcard.integration;
+
+import com.bsa.campcard.entity.Council;
+import com.bsa.campcard.entity.MarketingCampaign;
+import com.bsa.campcard.entity.MarketingSegment;
+import com.bsa.campcard.entity.MarketingSegment.SegmentType;
+import com.bsa.campcard.repository.CouncilRepository;
+import com.bsa.campcard.repository.MarketingSegmentRepository;
+import com.bsa.campcard.service.campaign.CampaignAudienceResolver;
+import org.bsa.campcard.domain.user.User;
+import org.bsa.campcard.domain.user.User.UserRole;
+import org.bsa.campcard.domain.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for campaign audience resolution: segment rules compiled to
+ * queries, council scoping, and keyset-paginated streaming.
+ */
+@DisplayName("Campaign Audience Integration Tests")
+class CampaignAudienceIT extends AbstractIntegrationTest {
+
+    @Autowired
+    private CampaignAudienceResolver audienceResolver;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CouncilRepository councilRepository;
+
+    @Autowired
+    private MarketingSegmentRepository segmentRepository;
+
+    private static final Map<String, Object> ACTIVE = Map.of("condition", "is_active", "operator", "=", "value", true);
+
+    private Council council;
+
+    @BeforeEach
+    void setUpCouncil() {
+        council = councilRepository.save(TestDataBuilder.createCouncil());
+    }
+
+    private User saveUser(UserRole role, boolean active) {
+        User user = TestDataBuilder.createUser(role);
+        user.setCouncilId(council.getUuid());
+        user.setIsActive(active);
+        return userRepository.save(user);
+    }
+
+    private MarketingCampaign campaignFor(MarketingSegment segment) {
+        return MarketingCampaign.builder()
+                .councilId(council.getId())
+                .segmentId(segment != null ? segment.getId() : null)
+                .build();
+    }
+
+    private MarketingSegment saveSegment(SegmentType type, Map<String, Object> rules) {
+        return segmentRepository.save(MarketingSegment.builder()
+                .name("Segment " + UUID.randomUUID())
+                .segmentType(type)
+                .rules(rules)
+                .build());
+    }
+
+    private Set<UUID> stream(MarketingCampaign campaign, int chunkSize) {
+        Specification<User> audience = audienceResolver.audienceOf(campaign).orElseThrow();
+        Set<UUID> ids = new HashSet<>();
+        audienceResolver.forEachChunk(audience, chunkSize, chunk -> chunk.forEach(u -> ids.add(u.getId())));
+        return ids;
+    }
+
+    @Nested
+    @DisplayName("Segments")
+    class SegmentTests {
+
+        @Test
+        @DisplayName("Should filter predefined segments by role in the database")
+        void shouldFilterByRole() {
+            User scout = saveUser(UserRole.SCOUT, true);
+            saveUser(UserRole.PARENT, true);
+            flushAndClear();
+
+            MarketingSegment segment = saveSegment(SegmentType.SCOUTS, ACTIVE);
+
+            assertThat(stream(campaignFor(segment), 10)).containsExactly(scout.getId());
+        }
+
+        @Test
+        @DisplayName("Should compile account age rules")
+        void shouldCompileAccountAgeRules() {
+            User recent = saveUser(UserRole.PARENT, true);
+            User old = saveUser(UserRole.PARENT, true);
+            flushAndClear();
+            entityManager.createNativeQuery("UPDATE users SET created_at = :createdAt WHERE id = :id")
+                    .setParameter("createdAt", LocalDateTime.now().minusDays(60))
+                    .setParameter("id", old.getId())
+                    .executeUpdate();
+
+            MarketingSegment segment = saveSegment(SegmentType.BEHAVIORAL,
+                    Map.of("condition", "account_age_days", "operator", "<=", "value", 7));
+
+            assertThat(stream(campaignFor(segment), 10)).containsExactly(recent.getId());
+        }
+
+        @Test
+        @DisplayName("Should resolve segments with uncompilable rules to no audience")
+        void shouldRejectUncompilableRules() {
+            MarketingSegment segment = saveSegment(SegmentType.BEHAVIORAL,
+                    Map.of("condition", "engagement_score", "operator", ">=", "value", 80));
+
+            assertThat(audienceResolver.audienceOf(campaignFor(segment))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should resolve segments without rules to no audience")
+        void shouldRejectSegmentsWithoutRules() {
+            saveUser(UserRole.SCOUT, true);
+            flushAndClear();
+
+            assertThat(audienceResolver.audienceOf(campaignFor(saveSegment(SegmentType.SCOUTS, Map.of())))).isEmpty();
+            assertThat(audienceResolver.audienceOf(campaignFor(saveSegment(SegmentType.ALL_USERS, Map.of())))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should check a single user's membership with one query")
+        void shouldCheckMembership() {
+            User scout = saveUser(UserRole.SCOUT, true);
+            User parent = saveUser(UserRole.PARENT, true);
+            flushAndClear();
+            MarketingSegment segment = saveSegment(SegmentType.SCOUTS, ACTIVE);
+
+            assertThat(audienceResolver.includes(campaignFor(segment), scout.getId())).isTrue();
+            assertThat(audienceResolver.includes(campaignFor(segment), parent.getId())).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Council scope")
+    class CouncilScopeTests {
+
+        @Test
+        @DisplayName("Should default to active users in the campaign's council")
+        void shouldDefaultToActiveCouncilUsers() {
+            User active = saveUser(UserRole.PARENT, true);
+            saveUser(UserRole.PARENT, false);
+            User elsewhere = TestDataBuilder.createUser(UserRole.PARENT);
+            elsewhere.setCouncilId(UUID.randomUUID());
+            userRepository.save(elsewhere);
+            flushAndClear();
+
+            assertThat(stream(campaignFor(null), 10)).containsExactly(active.getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Streaming")
+    class StreamingTests {
+
+        @Test
+        @DisplayName("Should stream every member exactly once across keyset chunks")
+        void shouldStreamAllMembersOnce() {
+            List<UUID> expected = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                expected.add(saveUser(UserRole.SCOUT, true).getId());
+            }
+            flushAndClear();
+
+            MarketingSegment segment = saveSegment(SegmentType.SCOUTS, ACTIVE);
+            Specification<User> audience = audienceResolver.audienceOf(campaignFor(segment)).orElseThrow();
+            List<Integer> chunkSizes = new ArrayList<>();
+            List<UUID> streamed = new ArrayList<>();
+
+            long total = audienceResolver.forEachChunk(audience, 10, chunk -> {
+                chunkSizes.add(chunk.size());
+                chunk.forEach(u -> streamed.add(u.getId()));
+            });
+
+            assertThat(total).isEqualTo(25);
+            assertThat(chunkSizes).containsExactly(10, 10, 5);
+            assertThat(streamed).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+}
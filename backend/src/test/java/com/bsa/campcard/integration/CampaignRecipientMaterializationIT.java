@@ -0,0 +1,170 @@
+package com.bsa.campcard.integration;
+
+import com.bsa.campcard.entity.CampaignRecipient;
+import com.bsa.campcard.entity.CampaignRecipient.Channel;
+import com.bsa.campcard.entity.CampaignRecipient.DeliveryStatus;
+import com.bsa.campcard.entity.MarketingCampaign;
+import com.bsa.campcard.entity.MarketingCampaign.CampaignType;
+import com.bsa.campcard.repository.CampaignRecipientRepository;
+import com.bsa.campcard.repository.MarketingCampaignRepository;
+import com.bsa.campcard.service.campaign.CampaignDispatchEngine;
+import com.bsa.campcard.service.campaign.CampaignDispatchEngine.ChunkResult;
+import lombok.extern.slf4j.Slf4j;
+import org.bsa.campcard.domain.user.User;
+import org.bsa.campcard.domain.user.User.UserRole;
+import org.bsa.campcard.domain.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for set-based campaign recipient materialization (V045) and the
+ * batched status flush of a send chunk.
+ */
+@Slf4j
+@DisplayName("Campaign Recipient Materialization Integration Tests")
+class CampaignRecipientMaterializationIT extends AbstractIntegrationTest {
+
+    @Autowired
+    private CampaignDispatchEngine dispatchEngine;
+
+    @Autowired
+    private CampaignRecipientRepository recipientRepository;
+
+    @Autowired
+    private MarketingCampaignRepository campaignRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private MarketingCampaign campaign;
+
+    @BeforeEach
+    void setUpCampaign() {
+        campaign = campaignRepository.save(MarketingCampaign.builder()
+                .name("Campaign " + TestDataBuilder.uniqueSuffix())
+                .campaignType(CampaignType.CUSTOM)
+                .channels(new String[]{"EMAIL", "SMS"})
+                .build());
+    }
+
+    private List<User> saveUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(userRepository.save(TestDataBuilder.createUser(UserRole.PARENT)));
+        }
+        flushAndClear();
+        users.sort((a, b) -> a.getId().compareTo(b.getId()));
+        return users;
+    }
+
+    private List<CampaignRecipient> pending(int limit) {
+        return recipientRepository.findByCampaignIdAndStatusAndIdGreaterThanOrderByIdAsc(
+                campaign.getId(), DeliveryStatus.PENDING, 0L, PageRequest.of(0, limit));
+    }
+
+    @Nested
+    @DisplayName("Materialization")
+    class MaterializationTests {
+
+        @Test
+        @DisplayName("Inserts one pending row per user and channel and advances the cursor")
+        void insertsPendingRows() {
+            List<User> users = saveUsers(3);
+
+            int inserted = dispatchEngine.materialize(campaign, List.of(Channel.EMAIL, Channel.SMS), users);
+            flushAndClear();
+
+            assertThat(inserted).isEqualTo(6);
+            assertThat(recipientRepository.countByCampaignIdAndStatus(campaign.getId(), DeliveryStatus.PENDING))
+                    .isEqualTo(6);
+            assertThat(campaignRepository.findById(campaign.getId()).orElseThrow().getDispatchCursor())
+                    .isEqualTo(users.get(2).getId());
+        }
+
+        @Test
+        @DisplayName("Leaves existing recipients alone when a batch is materialized again")
+        void dedupesOnConstraint() {
+            List<User> users = saveUsers(2);
+            recipientRepository.save(CampaignRecipient.builder()
+                    .campaignId(campaign.getId())
+                    .userId(users.get(0).getId())
+                    .channel(Channel.EMAIL)
+                    .status(DeliveryStatus.SENT)
+                    .triggeredByGeofence(true)
+                    .build());
+            flushAndClear();
+
+            int first = dispatchEngine.materialize(campaign, List.of(Channel.EMAIL), users);
+            int second = dispatchEngine.materialize(campaign, List.of(Channel.EMAIL), users);
+            flushAndClear();
+
+            assertThat(first).isEqualTo(1);
+            assertThat(second).isZero();
+            assertThat(recipientRepository.findByCampaignId(campaign.getId())).hasSize(2);
+            assertThat(recipientRepository.countByCampaignIdAndStatus(campaign.getId(), DeliveryStatus.SENT))
+                    .isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Fans out to 100k recipients in set-based batches")
+        void fansOutTo100kRecipients() {
+            entityManager.createNativeQuery(
+                    "INSERT INTO users (email, password_hash, first_name, last_name, role, is_active, " +
+                    "email_verified, created_at, updated_at) " +
+                    "SELECT 'fanout-' || gen_random_uuid() || '@test.com', 'hash', 'Fan', 'Out ' || g, " +
+                    "'PARENT', true, true, now(), now() FROM generate_series(1, 50000) g")
+                    .executeUpdate();
+            @SuppressWarnings("unchecked")
+            List<UUID> ids = entityManager.createNativeQuery(
+                    "SELECT id FROM users WHERE email LIKE 'fanout-%' ORDER BY id").getResultList();
+            List<User> users = ids.stream().map(id -> User.builder().id(id).build()).toList();
+
+            long start = System.nanoTime();
+            int inserted = 0;
+            for (int i = 0; i < users.size(); i += 5000) {
+                inserted += dispatchEngine.materialize(campaign, List.of(Channel.EMAIL, Channel.SMS),
+                        users.subList(i, Math.min(i + 5000, users.size())));
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            log.info("Materialized {} recipients in {} ms", inserted, elapsedMillis);
+
+            assertThat(inserted).isEqualTo(100_000);
+            assertThat(elapsedMillis).isLessThan(60_000);
+        }
+    }
+
+    @Nested
+    @DisplayName("Status flush")
+    class StatusFlushTests {
+
+        @Test
+        @DisplayName("Writes every outcome of a chunk and leaves no recipient pending")
+        void flushesChunkStatuses() {
+            List<User> users = saveUsers(3);
+            users.forEach(user -> user.setPhoneNumber(null));
+            userRepository.saveAll(users);
+            dispatchEngine.materialize(campaign, List.of(Channel.SMS), users);
+            flushAndClear();
+
+            // No phone numbers: every SMS is skipped without calling the provider
+            ChunkResult result = dispatchEngine.dispatchChunk(campaign, pending(10));
+            flushAndClear();
+
+            assertThat(result.failed()).isZero();
+            assertThat(pending(10)).isEmpty();
+            assertThat(recipientRepository.findByCampaignId(campaign.getId()))
+                    .extracting(CampaignRecipient::getStatus)
+                    .containsOnly(DeliveryStatus.SKIPPED);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.bsa.campcard.integration;
+
+import com.bsa.campcard.dto.DashboardResponse;
+import com.bsa.campcard.dto.DashboardStreamMessage;
+import com.bsa.campcard.service.dashboard.RedisDashboardBroadcastBroker;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two in-process API nodes sharing one Redis, as they would behind the load balancer.
+ */
+@Testcontainers
+@DisplayName("Redis dashboard broadcast cluster")
+class DashboardBroadcastClusterIT {
+
+    @SuppressWarnings("resource") // Container lifecycle managed by @Container annotation
+    @Container
+    static final GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private LettuceConnectionFactory connectionFactory;
+    private SimpMessagingTemplate messagingA;
+    private SimpMessagingTemplate messagingB;
+    private RedisDashboardBroadcastBroker nodeA;
+    private RedisDashboardBroadcastBroker nodeB;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+
+        messagingA = mock(SimpMessagingTemplate.class);
+        messagingB = mock(SimpMessagingTemplate.class);
+        nodeA = new RedisDashboardBroadcastBroker(redisTemplate, connectionFactory, messagingA, objectMapper, 2000);
+        nodeB = new RedisDashboardBroadcastBroker(redisTemplate, connectionFactory, messagingB, objectMapper, 2000);
+        nodeA.start();
+        nodeB.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        nodeA.stop();
+        nodeB.stop();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    @DisplayName("Exactly one node holds the broadcast lease, and it passes on when released")
+    void singleLeader() throws Exception {
+        assertThat(nodeA.acquireLeadership()).isTrue();
+        assertThat(nodeB.acquireLeadership()).isFalse();
+        assertThat(nodeA.acquireLeadership()).isTrue();
+
+        nodeA.stop();
+
+        assertThat(nodeB.acquireLeadership()).isTrue();
+    }
+
+    @Test
+    @DisplayName("A broadcast from one node is relayed by every node")
+    void relaysToAllNodes() {
+        nodeA.publish("/topic/dashboard", Map.of("version", 7));
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(messagingA, timeout(5000)).convertAndSend(eq("/topic/dashboard"), any(Object.class));
+        verify(messagingB, timeout(5000)).convertAndSend(eq("/topic/dashboard"), payload.capture());
+        assertThat(((JsonNode) payload.getValue()).get("version").asInt()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Changes flagged on one node are consumed once by the broadcasting node")
+    void sharedChangedFlag() {
+        nodeB.markChanged();
+
+        assertThat(nodeA.consumeChanged()).isTrue();
+        assertThat(nodeA.consumeChanged()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Snapshots stored by the broadcaster are served by every node")
+    void sharedSnapshot() {
+        nodeA.storeSnapshot(DashboardStreamMessage.builder()
+                .type(DashboardStreamMessage.MessageType.SNAPSHOT)
+                .version(3L)
+                .data(DashboardResponse.builder().totalScouts(42L).build())
+                .build());
+
+        DashboardStreamMessage snapshot = nodeB.currentSnapshot();
+
+        assertThat(snapshot.getVersion()).isEqualTo(3L);
+        assertThat(snapshot.getData().getTotalScouts()).isEqualTo(42L);
+    }
+}
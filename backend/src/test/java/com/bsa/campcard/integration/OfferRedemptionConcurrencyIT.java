@@ -0,0 +1,162 @@
+package com.bsa.campcard.integration;
+
+import com.bsa.campcard.dto.RedeemOfferRequest;
+import com.bsa.campcard.entity.Council;
+import com.bsa.campcard.entity.Merchant;
+import com.bsa.campcard.entity.Offer;
+import com.bsa.campcard.repository.CouncilRepository;
+import com.bsa.campcard.repository.MerchantRepository;
+import com.bsa.campcard.repository.OfferRepository;
+import com.bsa.campcard.service.OfferService;
+import com.bsa.campcard.service.redemption.RedemptionCounters;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.bsa.campcard.domain.user.User;
+import org.bsa.campcard.domain.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires 1,000 parallel redemptions at one offer. Runs outside the test transaction so
+ * each redemption commits on its own, as it would from separate tills.
+ */
+@Slf4j
+@Transactional(Transactional.TxType.NOT_SUPPORTED)
+@DisplayName("Offer Redemption Concurrency Integration Tests")
+class OfferRedemptionConcurrencyIT extends AbstractIntegrationTest {
+
+    private static final int REDEMPTIONS = 1000;
+    private static final int USERS = 50;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private OfferService offerService;
+
+    @Autowired
+    private RedemptionCounters redemptionCounters;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private MerchantRepository merchantRepository;
+
+    @Autowired
+    private CouncilRepository councilRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Council council;
+    private Merchant merchant;
+    private final List<UUID> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUpMerchant() {
+        council = councilRepository.save(TestDataBuilder.createCouncil());
+        merchant = merchantRepository.save(TestDataBuilder.createMerchant(council.getId()));
+        for (int i = 0; i < USERS; i++) {
+            User user = userRepository.save(TestDataBuilder.createUser());
+            userIds.add(user.getId());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM offer_redemptions WHERE merchant_id = ?", merchant.getId());
+        jdbcTemplate.update("DELETE FROM offers WHERE merchant_id = ?", merchant.getId());
+        merchantRepository.deleteById(merchant.getId());
+        councilRepository.deleteById(council.getId());
+        userRepository.deleteAllById(userIds);
+    }
+
+    @Test
+    @DisplayName("Should let exactly the usage limit through when redemptions race")
+    void enforcesUsageLimitUnderContention() throws Exception {
+        Offer offer = TestDataBuilder.createOffer(merchant.getId());
+        offer.setUsageLimit(100);
+        offer = offerRepository.save(offer);
+
+        int succeeded = redeemInParallel(offer.getId());
+        redemptionCounters.flush();
+
+        assertThat(succeeded).isEqualTo(100);
+        assertThat(offerRepository.findById(offer.getId()).orElseThrow().getTotalRedemptions()).isEqualTo(100);
+        assertThat(redemptionCount(offer.getId())).isEqualTo(100);
+        assertThat(merchantRepository.findById(merchant.getId()).orElseThrow().getTotalRedemptions()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Should count every redemption of an unlimited offer")
+    void countsUnlimitedRedemptions() throws Exception {
+        Offer offer = offerRepository.save(TestDataBuilder.createOffer(merchant.getId()));
+
+        long start = System.nanoTime();
+        int succeeded = redeemInParallel(offer.getId());
+        log.info("{} parallel redemptions of one offer in {} ms", REDEMPTIONS,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        redemptionCounters.flush();
+
+        assertThat(succeeded).isEqualTo(REDEMPTIONS);
+        assertThat(offerRepository.findById(offer.getId()).orElseThrow().getTotalRedemptions()).isEqualTo(REDEMPTIONS);
+        assertThat(merchantRepository.findById(merchant.getId()).orElseThrow().getTotalRedemptions())
+                .isEqualTo(REDEMPTIONS);
+    }
+
+    private int redeemInParallel(Long offerId) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < REDEMPTIONS; i++) {
+                RedeemOfferRequest request = new RedeemOfferRequest();
+                request.setOfferId(offerId);
+                request.setUserId(userIds.get(i % USERS));
+                request.setPurchaseAmount(new BigDecimal("20.00"));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        offerService.redeemOffer(request);
+                        succeeded.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        // Limit reached
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return succeeded.get();
+    }
+
+    private long redemptionCount(Long offerId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM offer_redemptions WHERE offer_id = ?", Long.class,
+                offerId);
+    }
+}
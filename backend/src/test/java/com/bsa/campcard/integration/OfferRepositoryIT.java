@@ -21,6 +21,7 @@ import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -290,6 +291,33 @@ class OfferRepositoryIT extends AbstractIntegrationTest {
             assertThat(results.getContent())
                     .noneMatch(o -> o.getUsageLimit() != null && o.getTotalRedemptions() >= o.getUsageLimit());
         }
+
+        @Test
+        @DisplayName("Should find offers listed before the catalog horizon")
+        void shouldFindOffersListedBeforeHorizon() {
+            // Given
+            LocalDateTime now = LocalDateTime.now();
+            Offer current = createOffer();
+            current.setValidFrom(now.minusDays(1));
+            Offer startingSoon = createOffer();
+            startingSoon.setValidFrom(now.plusMinutes(30));
+            Offer startingLater = createOffer();
+            startingLater.setValidFrom(now.plusHours(2));
+            Offer soldOut = createOffer();
+            soldOut.setUsageLimit(10);
+            soldOut.setTotalRedemptions(10);
+
+            List<Offer> saved = offerRepository.saveAll(List.of(current, startingSoon, startingLater, soldOut));
+            flushAndClear();
+
+            // When
+            List<Offer> results = offerRepository.findListedBetween(OfferStatus.ACTIVE, now, now.plusHours(1));
+
+            // Then
+            assertThat(results).extracting(Offer::getId)
+                    .contains(saved.get(0).getId(), saved.get(1).getId(), saved.get(3).getId())
+                    .doesNotContain(saved.get(2).getId());
+        }
     }
 
     @Nested
@@ -352,68 +380,6 @@ class OfferRepositoryIT extends AbstractIntegrationTest {
         }
     }
 
-    @Nested
-    @DisplayName("Find Featured Offers")
-    class FindFeaturedOffersTests {
-
-        @Test
-        @DisplayName("Should find featured offers")
-        void shouldFindFeaturedOffers() {
-            // Given
-            Offer featuredOffer = createOffer();
-            featuredOffer.setFeatured(true);
-
-            Offer regularOffer = createOffer();
-            regularOffer.setFeatured(false);
-
-            offerRepository.saveAll(List.of(featuredOffer, regularOffer));
-            flushAndClear();
-
-            // When
-            List<Offer> results = offerRepository.findFeaturedOffers(
-                    OfferStatus.ACTIVE,
-                    LocalDateTime.now(),
-                    PageRequest.of(0, 10)
-            );
-
-            // Then
-            assertThat(results)
-                    .isNotEmpty()
-                    .allMatch(o -> o.getFeatured());
-        }
-
-        @Test
-        @DisplayName("Should order featured offers by created date descending")
-        void shouldOrderFeaturedOffersByCreatedDateDesc() {
-            // Given
-            Offer olderOffer = createOffer();
-            olderOffer.setFeatured(true);
-            offerRepository.save(olderOffer);
-            flushAndClear();
-
-            // Add a slight delay to ensure different timestamps
-            Offer newerOffer = createOffer();
-            newerOffer.setFeatured(true);
-            offerRepository.save(newerOffer);
-            flushAndClear();
-
-            // When
-            List<Offer> results = offerRepository.findFeaturedOffers(
-                    OfferStatus.ACTIVE,
-                    LocalDateTime.now(),
-                    PageRequest.of(0, 10)
-            );
-
-            // Then
-            assertThat(results).hasSizeGreaterThanOrEqualTo(2);
-            // Results should be ordered by createdAt DESC
-            for (int i = 0; i < results.size() - 1; i++) {
-                assertThat(results.get(i).getCreatedAt())
-                        .isAfterOrEqualTo(results.get(i + 1).getCreatedAt());
-            }
-        }
-    }
-
     @Nested
     @DisplayName("Search Offers")
     class SearchOffersTests {
@@ -662,6 +628,35 @@ class OfferRepositoryIT extends AbstractIntegrationTest {
                     .isNotEmpty()
                     .allMatch(o -> o.getValidUntil().isBefore(LocalDateTime.now()));
         }
+
+        @Test
+        @DisplayName("Should expire due offers in chunks and recount the merchant's offers")
+        void shouldExpireDueOffersAndRecountMerchant() {
+            // Given
+            Offer due = createOffer();
+            due.setValidUntil(LocalDateTime.now().minusHours(1));
+            due = offerRepository.save(due);
+            Offer current = offerRepository.save(createOffer());
+            flushAndClear();
+
+            // When
+            List<Object[]> expired = new ArrayList<>();
+            List<Object[]> chunk;
+            do {
+                chunk = offerRepository.expireActiveOffers(LocalDateTime.now(), 100);
+                expired.addAll(chunk);
+            } while (chunk.size() == 100);
+            merchantRepository.recountOffers(List.of(testMerchant.getId()));
+            flushAndClear();
+
+            // Then
+            assertThat(expired).anyMatch(row -> ((Number) row[0]).longValue() == testMerchant.getId());
+            assertThat(offerRepository.findById(due.getId()).orElseThrow().getStatus()).isEqualTo(OfferStatus.EXPIRED);
+            assertThat(offerRepository.findById(current.getId()).orElseThrow().getStatus()).isEqualTo(OfferStatus.ACTIVE);
+            Merchant merchant = merchantRepository.findById(testMerchant.getId()).orElseThrow();
+            assertThat(merchant.getTotalOffers()).isEqualTo(2);
+            assertThat(merchant.getActiveOffers()).isEqualTo(1);
+        }
     }
 
     @Nested
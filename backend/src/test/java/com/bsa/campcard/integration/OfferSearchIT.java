@@ -0,0 +1,243 @@
+package com.bsa.campcard.integration;
+
+import com.bsa.campcard.entity.Council;
+import com.bsa.campcard.entity.Merchant;
+import com.bsa.campcard.entity.Merchant.MerchantStatus;
+import com.bsa.campcard.entity.Offer;
+import com.bsa.campcard.entity.Offer.DiscountType;
+import com.bsa.campcard.entity.Offer.OfferStatus;
+import com.bsa.campcard.repository.CouncilRepository;
+import com.bsa.campcard.repository.MerchantRepository;
+import com.bsa.campcard.repository.OfferRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the indexed offer search (V040, V047).
+ *
+ * The benchmark seeds 100k offers and checks that ranked search is served by the
+ * search indexes, logging latency next to the previous LIKE scan for comparison.
+ */
+@Slf4j
+@DisplayName("Offer Search Integration Tests")
+class OfferSearchIT extends AbstractIntegrationTest {
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private MerchantRepository merchantRepository;
+
+    @Autowired
+    private CouncilRepository councilRepository;
+
+    private Merchant testMerchant;
+
+    @BeforeEach
+    void setUpTestData() {
+        Council council = councilRepository.save(TestDataBuilder.createCouncil());
+
+        String uniqueId = TestDataBuilder.uniqueSuffix();
+        testMerchant = merchantRepository.save(Merchant.builder()
+                .councilId(council.getId())
+                .businessName("Giuseppe Trattoria " + uniqueId)
+                .contactName("Test Contact")
+                .contactEmail("merchant-" + uniqueId + "@test.com")
+                .status(MerchantStatus.APPROVED)
+                .build());
+        entityManager.createNativeQuery(
+                "INSERT INTO merchant_locations (merchant_id, location_name, street_address, city, state, zip_code) " +
+                "VALUES (:merchantId, 'Main', '1 Main St', 'Boulder', 'CO', '80301')")
+                .setParameter("merchantId", testMerchant.getId())
+                .executeUpdate();
+        flushAndClear();
+    }
+
+    private Offer createOffer(String title) {
+        return createOffer(testMerchant, title);
+    }
+
+    private Offer createOffer(Merchant merchant, String title) {
+        Offer offer = new Offer();
+        offer.setMerchantId(merchant.getId());
+        offer.setTitle(title);
+        offer.setDescription("A test offer for integration testing");
+        offer.setDiscountType(DiscountType.PERCENTAGE);
+        offer.setDiscountValue(new BigDecimal("10.00"));
+        offer.setCategory("RESTAURANTS");
+        offer.setStatus(OfferStatus.ACTIVE);
+        offer.setValidFrom(LocalDateTime.now().minusDays(1));
+        offer.setValidUntil(LocalDateTime.now().plusDays(30));
+        offer.setTotalRedemptions(0);
+        offer.setFeatured(false);
+        offer.setScoutExclusive(false);
+        return offerRepository.save(offer);
+    }
+
+    private Page<Offer> search(String tsQuery, String text) {
+        return offerRepository.searchRanked(tsQuery, text, LocalDateTime.now(), PageRequest.of(0, 10));
+    }
+
+    @Nested
+    @DisplayName("Ranked Search")
+    class RankedSearchTests {
+
+        @Test
+        @DisplayName("Should match title words by prefix")
+        void shouldMatchTitlePrefix() {
+            Offer offer = createOffer("Large Pepperoni Pizza Deal");
+            flushAndClear();
+
+            assertThat(search("pepp:*", "pepp").getContent())
+                    .extracting(Offer::getId)
+                    .contains(offer.getId());
+        }
+
+        @Test
+        @DisplayName("Should match merchant name and location city")
+        void shouldMatchMerchantAndCity() {
+            Offer offer = createOffer("Two for one pasta");
+            flushAndClear();
+
+            assertThat(search("giuseppe:* & boulder:*", "giuseppe boulder").getContent())
+                    .extracting(Offer::getId)
+                    .contains(offer.getId());
+        }
+
+        @Test
+        @DisplayName("Should tolerate typos through trigram similarity")
+        void shouldTolerateTypos() {
+            Offer offer = createOffer("Pepperoni Pizza");
+            flushAndClear();
+
+            assertThat(search("peperoni:* & piza:*", "peperoni piza").getContent())
+                    .extracting(Offer::getId)
+                    .contains(offer.getId());
+        }
+
+        @Test
+        @DisplayName("Should rank title matches above description matches")
+        void shouldRankTitleMatchesFirst() {
+            Offer descriptionMatch = createOffer("Weekday special");
+            descriptionMatch.setDescription("Includes a free burrito");
+            offerRepository.save(descriptionMatch);
+            Offer titleMatch = createOffer("Free Burrito Friday");
+            flushAndClear();
+
+            List<Offer> results = search("burrito:*", "burrito").getContent();
+
+            assertThat(results).extracting(Offer::getId)
+                    .containsSubsequence(titleMatch.getId(), descriptionMatch.getId());
+        }
+
+        @Test
+        @DisplayName("Should reindex offers when the merchant is renamed")
+        void shouldReindexOnMerchantRename() {
+            Offer offer = createOffer("Family meal");
+            testMerchant.setBusinessName("Renamed Taqueria");
+            merchantRepository.save(testMerchant);
+            flushAndClear();
+
+            assertThat(search("taqueria:*", "taqueria").getContent())
+                    .extracting(Offer::getId)
+                    .contains(offer.getId());
+        }
+
+        @Test
+        @DisplayName("Should reindex both merchants' offers when a location moves")
+        void shouldReindexOnLocationMove() {
+            Offer offer = createOffer("Lunch combo");
+            Merchant otherMerchant = merchantRepository.save(Merchant.builder()
+                    .councilId(testMerchant.getCouncilId())
+                    .businessName("Other Merchant " + TestDataBuilder.uniqueSuffix())
+                    .contactName("Test Contact")
+                    .contactEmail("merchant-" + TestDataBuilder.uniqueSuffix() + "@test.com")
+                    .status(MerchantStatus.APPROVED)
+                    .build());
+            Offer otherOffer = createOffer(otherMerchant, "Dinner combo");
+            flushAndClear();
+
+            entityManager.createNativeQuery(
+                    "UPDATE merchant_locations SET merchant_id = :otherId WHERE merchant_id = :merchantId")
+                    .setParameter("otherId", otherMerchant.getId())
+                    .setParameter("merchantId", testMerchant.getId())
+                    .executeUpdate();
+            flushAndClear();
+
+            assertThat(search("boulder:*", "boulder").getContent())
+                    .extracting(Offer::getId)
+                    .contains(otherOffer.getId())
+                    .doesNotContain(offer.getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Benchmark")
+    class BenchmarkTests {
+
+        private static final int OFFER_COUNT = 100_000;
+        private static final int RUNS = 20;
+
+        @Test
+        @DisplayName("Should serve search from the indexes over 100k offers")
+        void shouldUseIndexesOver100kOffers() {
+            entityManager.createNativeQuery(
+                    "INSERT INTO offers (merchant_id, title, description, discount_type, category, status, " +
+                    "valid_from, valid_until) " +
+                    "SELECT :merchantId, " +
+                    "(ARRAY['Pizza','Burger','Taco','Sushi','Coffee','Bagel','Smoothie','Oil Change','Car Wash','Haircut'])[1 + g % 10] " +
+                    "|| ' deal ' || g, " +
+                    "'Save on item ' || g, 'PERCENTAGE', " +
+                    "(ARRAY['RESTAURANTS','AUTOMOTIVE','SERVICES','RETAIL'])[1 + g % 4], 'ACTIVE', " +
+                    "now() - interval '1 day', now() + interval '30 days' " +
+                    "FROM generate_series(1, :count) g")
+                    .setParameter("merchantId", testMerchant.getId())
+                    .setParameter("count", OFFER_COUNT)
+                    .executeUpdate();
+            entityManager.createNativeQuery("ANALYZE offers").executeUpdate();
+
+            @SuppressWarnings("unchecked")
+            List<String> plan = entityManager.createNativeQuery(
+                    "EXPLAIN SELECT o.id FROM offers o " +
+                    "WHERE o.search_vector @@ to_tsquery('simple', 'smooth:*') OR 'smooth' <% o.search_text")
+                    .getResultList();
+            String planText = String.join("\n", plan);
+            log.info("Search plan over {} offers:\n{}", OFFER_COUNT, planText);
+            assertThat(planText).contains("idx_offers_search_vector").doesNotContain("Seq Scan");
+
+            long rankedMedian = medianMicros(() -> search("smooth:*", "smooth"));
+            long likeMedian = medianMicros(() -> offerRepository.searchOffers("smooth", OfferStatus.ACTIVE,
+                    PageRequest.of(0, 10)));
+            log.info("Offer search over {} offers: ranked median {} us, LIKE median {} us",
+                    OFFER_COUNT, rankedMedian, likeMedian);
+
+            assertThat(search("smooth:*", "smooth").getTotalElements()).isGreaterThanOrEqualTo(OFFER_COUNT / 10);
+        }
+
+        private long medianMicros(Runnable query) {
+            query.run(); // warm up
+            List<Long> timings = new ArrayList<>();
+            for (int i = 0; i < RUNS; i++) {
+                long start = System.nanoTime();
+                query.run();
+                timings.add((System.nanoTime() - start) / 1_000);
+            }
+            Collections.sort(timings);
+            return timings.get(RUNS / 2);
+        }
+    }
+}
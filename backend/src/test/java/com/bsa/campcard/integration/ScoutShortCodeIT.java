@@ -0,0 +1,143 @@
+package com.bsa.campcard.integration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bsa.campcard.domain.user.User;
+import org.bsa.campcard.domain.user.User.UserRole;
+import org.bsa.campcard.domain.user.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the indexed "SC-" fallback scout code lookup (V043).
+ *
+ * The load test seeds 50k scouts and checks the lookup is served by the partial
+ * short_code index, logging latency at 1k and 50k scouts for comparison.
+ */
+@Slf4j
+@DisplayName("Scout Short Code Integration Tests")
+class ScoutShortCodeIT extends AbstractIntegrationTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User saveScout() {
+        User scout = userRepository.save(TestDataBuilder.createUser(UserRole.SCOUT));
+        flushAndClear();
+        return userRepository.findById(scout.getId()).orElseThrow();
+    }
+
+    private List<User> lookup(String shortCode) {
+        return userRepository.findActiveScoutsByShortCode(shortCode, PageRequest.of(0, 2));
+    }
+
+    @Nested
+    @DisplayName("Lookup")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Should derive the short code from the user ID")
+        void shouldDeriveShortCode() {
+            User scout = saveScout();
+
+            assertThat(scout.getShortCode())
+                    .isEqualTo(scout.getId().toString().substring(0, 8).toUpperCase());
+        }
+
+        @Test
+        @DisplayName("Should find an active scout by short code")
+        void shouldFindActiveScout() {
+            User scout = saveScout();
+
+            assertThat(lookup(scout.getShortCode())).extracting(User::getId).containsExactly(scout.getId());
+        }
+
+        @Test
+        @DisplayName("Should ignore inactive and deleted scouts")
+        void shouldIgnoreInactiveScouts() {
+            User inactive = saveScout();
+            inactive.setIsActive(false);
+            userRepository.save(inactive);
+            User deleted = saveScout();
+            deleted.setDeletedAt(LocalDateTime.now());
+            userRepository.save(deleted);
+            flushAndClear();
+
+            assertThat(lookup(inactive.getShortCode())).isEmpty();
+            assertThat(lookup(deleted.getShortCode())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should ignore users that are not scouts")
+        void shouldIgnoreOtherRoles() {
+            User parent = userRepository.save(TestDataBuilder.createUser(UserRole.PARENT));
+            flushAndClear();
+            String shortCode = parent.getId().toString().substring(0, 8).toUpperCase();
+
+            assertThat(lookup(shortCode)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Load")
+    class LoadTests {
+
+        private static final int RUNS = 50;
+
+        @Test
+        @DisplayName("Should stay index-served from 1k to 50k scouts")
+        void shouldStayConstantTimeOver50kScouts() {
+            seedScouts(1_000);
+            User probe = saveScout();
+            long smallMedian = medianMicros(() -> lookup(probe.getShortCode()));
+
+            seedScouts(49_000);
+            entityManager.createNativeQuery("ANALYZE users").executeUpdate();
+            long largeMedian = medianMicros(() -> lookup(probe.getShortCode()));
+
+            @SuppressWarnings("unchecked")
+            List<String> plan = entityManager.createNativeQuery(
+                    "EXPLAIN SELECT u.id FROM users u WHERE u.short_code = :shortCode AND u.role = 'SCOUT' " +
+                    "AND u.is_active = true AND u.deleted_at IS NULL")
+                    .setParameter("shortCode", probe.getShortCode())
+                    .getResultList();
+            String planText = String.join("\n", plan);
+            log.info("Short code plan over 50k scouts:\n{}", planText);
+            log.info("Short code lookup median: {} us at 1k scouts, {} us at 50k scouts", smallMedian, largeMedian);
+
+            assertThat(planText).contains("idx_users_scout_short_code").doesNotContain("Seq Scan");
+            assertThat(lookup(probe.getShortCode())).extracting(User::getId).contains(probe.getId());
+        }
+
+        private void seedScouts(int count) {
+            entityManager.createNativeQuery(
+                    "INSERT INTO users (email, password_hash, first_name, last_name, role, is_active, " +
+                    "email_verified, created_at, updated_at) " +
+                    "SELECT 'load-scout-' || gen_random_uuid() || '@test.com', 'hash', 'Load', 'Scout ' || g, " +
+                    "'SCOUT', true, true, now(), now() FROM generate_series(1, :count) g")
+                    .setParameter("count", count)
+                    .executeUpdate();
+        }
+
+        private long medianMicros(Runnable query) {
+            query.run(); // warm up
+            List<Long> timings = new ArrayList<>();
+            for (int i = 0; i < RUNS; i++) {
+                long start = System.nanoTime();
+                query.run();
+                timings.add((System.nanoTime() - start) / 1_000);
+            }
+            Collections.sort(timings);
+            return timings.get(RUNS / 2);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.bsa.campcard.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bsa.campcard.domain.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PrincipalCache Tests")
+class PrincipalCacheTest {
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private PrincipalCache cache;
+    private AtomicInteger loads;
+    private UUID userId;
+    private Function<UUID, Optional<User>> loader;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new PrincipalCache(meterRegistry, clock, Duration.ofSeconds(30), 2);
+        loads = new AtomicInteger();
+        userId = UUID.randomUUID();
+        loader = id -> {
+            loads.incrementAndGet();
+            User user = new User();
+            user.setId(id);
+            user.setIsActive(true);
+            return Optional.of(user);
+        };
+    }
+
+    private double requests(String result) {
+        return meterRegistry.counter("campcard.auth.principal.cache", "result", result).count();
+    }
+
+    @Test
+    @DisplayName("Loads once and serves repeat lookups from cache")
+    void servesFromCache() {
+        User first = cache.get(userId, loader).orElseThrow();
+        User second = cache.get(userId, loader).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(requests("miss")).isEqualTo(1);
+        assertThat(requests("hit")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Reloads after the TTL expires")
+    void reloadsAfterTtl() {
+        cache.get(userId, loader);
+        clock.advance(Duration.ofSeconds(31));
+        cache.get(userId, loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Reloads after invalidation")
+    void reloadsAfterInvalidate() {
+        cache.get(userId, loader);
+        cache.invalidate(userId);
+        cache.get(userId, loader);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Does not cache missing users")
+    void doesNotCacheMissingUsers() {
+        AtomicInteger misses = new AtomicInteger();
+
+        cache.get(userId, id -> {
+            misses.incrementAndGet();
+            return Optional.empty();
+        });
+        Optional<User> result = cache.get(userId, id -> {
+            misses.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertThat(result).isEmpty();
+        assertThat(misses).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Stops caching new users once full")
+    void boundedSize() {
+        cache.get(UUID.randomUUID(), loader);
+        cache.get(UUID.randomUUID(), loader);
+        cache.get(userId, loader);
+        cache.get(userId, loader);
+
+        assertThat(loads).hasValue(4);
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
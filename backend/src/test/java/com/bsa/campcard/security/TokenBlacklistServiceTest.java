@@ -0,0 +1,145 @@
+package com.bsa.campcard.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenBlacklistService Tests")
+class TokenBlacklistServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisConnectionFactory connectionFactory;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private TokenBlacklistService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        service = new TokenBlacklistService(redisTemplate, connectionFactory, 1000, 300_000);
+    }
+
+    @Nested
+    @DisplayName("With a built filter")
+    class BuiltFilterTests {
+
+        @BeforeEach
+        void build() {
+            when(zSetOperations.rangeByScore(eq(TokenBlacklistService.REVOKED_INDEX), anyDouble(), anyDouble()))
+                    .thenReturn(Set.of("revoked-jti"));
+            service.rebuild();
+        }
+
+        @Test
+        @DisplayName("Answers unrevoked tokens without calling Redis")
+        void unrevokedWithoutRedis() {
+            assertThat(service.isRevoked(UUID.randomUUID().toString())).isFalse();
+
+            verify(redisTemplate, never()).hasKey(anyString());
+        }
+
+        @Test
+        @DisplayName("Confirms filter hits against Redis")
+        void confirmsHits() {
+            when(redisTemplate.hasKey(TokenBlacklistService.REVOKED_PREFIX + "revoked-jti")).thenReturn(true);
+
+            assertThat(service.isRevoked("revoked-jti")).isTrue();
+        }
+
+        @Test
+        @DisplayName("Adds local revocations to the filter and Redis")
+        void revokeLocally() {
+            when(redisTemplate.hasKey(TokenBlacklistService.REVOKED_PREFIX + "new-jti")).thenReturn(true);
+
+            service.revoke("new-jti", Instant.now().plus(Duration.ofMinutes(15)));
+
+            verify(valueOperations).set(eq(TokenBlacklistService.REVOKED_PREFIX + "new-jti"), eq("1"), any(Duration.class));
+            verify(zSetOperations).add(eq(TokenBlacklistService.REVOKED_INDEX), eq("new-jti"), anyDouble());
+            verify(redisTemplate).convertAndSend(TokenBlacklistService.CHANNEL, "new-jti");
+            assertThat(service.isRevoked("new-jti")).isTrue();
+        }
+
+        @Test
+        @DisplayName("Treats filter hits as revoked when Redis is unavailable")
+        void filterHitDuringOutage() {
+            when(redisTemplate.hasKey(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+            assertThat(service.isRevoked("revoked-jti")).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Ignores tokens that have already expired")
+    void ignoresExpiredTokens() {
+        service.revoke("old-jti", Instant.now().minusSeconds(1));
+
+        verifyNoInteractions(valueOperations, zSetOperations);
+    }
+
+    @Test
+    @DisplayName("Falls back to Redis until the filter can be rebuilt")
+    void fallsBackUntilRebuilt() {
+        when(zSetOperations.removeRangeByScore(anyString(), anyDouble(), anyDouble()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        service.rebuild();
+        when(redisTemplate.hasKey(anyString())).thenReturn(false);
+
+        assertThat(service.isRevoked("some-jti")).isFalse();
+        verify(redisTemplate).hasKey(TokenBlacklistService.REVOKED_PREFIX + "some-jti");
+
+        reset(zSetOperations);
+        when(zSetOperations.rangeByScore(anyString(), anyDouble(), anyDouble())).thenReturn(Set.of());
+        service.refresh();
+        service.isRevoked("some-jti");
+
+        verify(redisTemplate, times(1)).hasKey(anyString());
+    }
+
+    @Test
+    @DisplayName("Bloom filter has no false negatives and a low false positive rate")
+    void bloomFilterAccuracy() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("jti-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("jti-" + i)).isTrue();
+        }
+        long falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+}
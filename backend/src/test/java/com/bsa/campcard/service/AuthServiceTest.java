@@ -4,6 +4,7 @@ import com.bsa.campcard.dto.auth.*;
 import com.bsa.campcard.exception.AuthenticationException;
 import com.bsa.campcard.repository.SubscriptionRepository;
 import com.bsa.campcard.security.JwtTokenProvider;
+import com.bsa.campcard.security.PrincipalCache;
 import org.bsa.campcard.domain.user.User;
 import org.bsa.campcard.domain.user.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -48,6 +49,9 @@ class AuthServiceTest {
     @Mock
     private SubscriptionRepository subscriptionRepository;
 
+    @Mock
+    private PrincipalCache principalCache;
+
     @InjectMocks
     private AuthService authService;
 
@@ -0,0 +1,168 @@
+package com.bsa.campcard.service;
+
+import com.bsa.campcard.config.CampaignDispatchProperties;
+import com.bsa.campcard.entity.CampaignRecipient;
+import com.bsa.campcard.entity.CampaignRecipient.Channel;
+import com.bsa.campcard.entity.MarketingCampaign;
+import com.bsa.campcard.repository.CampaignRecipientRepository;
+import com.bsa.campcard.repository.MarketingCampaignRepository;
+import com.bsa.campcard.service.campaign.CampaignAudienceResolver;
+import com.bsa.campcard.service.campaign.CampaignChannelSender;
+import com.bsa.campcard.service.campaign.CampaignDispatchEngine;
+import com.bsa.campcard.service.campaign.CampaignDispatchEngine.ChunkResult;
+import com.bsa.campcard.service.campaign.GeofenceCampaignIndex;
+import com.bsa.campcard.service.campaign.GeofenceCampaignIndex.IndexedCampaign;
+import org.bsa.campcard.domain.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CampaignDispatchService Tests")
+class CampaignDispatchServiceTest {
+
+    @Mock
+    private MarketingCampaignRepository campaignRepository;
+
+    @Mock
+    private CampaignRecipientRepository recipientRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CampaignAudienceResolver audienceResolver;
+
+    @Mock
+    private CampaignDispatchEngine dispatchEngine;
+
+    @Mock
+    private CampaignChannelSender channelSender;
+
+    @Spy
+    private CampaignDispatchProperties dispatchProperties = new CampaignDispatchProperties();
+
+    @Mock
+    private GeofenceCampaignIndex geofenceIndex;
+
+    @InjectMocks
+    private CampaignDispatchService dispatchService;
+
+    @BeforeEach
+    void setUp() {
+        dispatchProperties.setConcurrentCampaigns(1);
+        dispatchService.startExecutors();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatchService.shutdown();
+    }
+
+    @Nested
+    @DisplayName("Stalled campaigns")
+    class StalledCampaignTests {
+
+        @Test
+        @DisplayName("Resumes a stalled campaign on a dispatch thread, not the scheduler thread")
+        void resumesOffSchedulerThread() throws Exception {
+            when(campaignRepository.findStalledDispatchIds(any(LocalDateTime.class))).thenReturn(List.of(7L));
+            CompletableFuture<String> claimThread = new CompletableFuture<>();
+            when(campaignRepository.claimStalledDispatch(eq(7L), any(), any())).thenAnswer(invocation -> {
+                claimThread.complete(Thread.currentThread().getName());
+                return 0;
+            });
+
+            dispatchService.resumeStalledCampaigns();
+
+            assertThat(claimThread.get(5, TimeUnit.SECONDS)).startsWith("campaign-dispatch-");
+        }
+
+        @Test
+        @DisplayName("Leaves campaigns unclaimed while every dispatch thread is busy")
+        void leavesCampaignsWhenBusy() throws Exception {
+            when(campaignRepository.findStalledDispatchIds(any(LocalDateTime.class))).thenReturn(List.of(1L, 2L));
+            CountDownLatch claimed = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            when(campaignRepository.claimStalledDispatch(eq(1L), any(), any())).thenAnswer(invocation -> {
+                claimed.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return 0;
+            });
+
+            try {
+                dispatchService.resumeStalledCampaigns();
+                assertThat(claimed.await(5, TimeUnit.SECONDS)).isTrue();
+            } finally {
+                release.countDown();
+            }
+
+            verify(campaignRepository, never()).claimStalledDispatch(eq(2L), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Geofence entries")
+    class GeofenceTests {
+
+        private final UUID userId = UUID.randomUUID();
+        private final MarketingCampaign campaign = MarketingCampaign.builder().id(5L).build();
+
+        @BeforeEach
+        void setUp() {
+            when(geofenceIndex.campaignsFor(userId)).thenReturn(List.of(
+                new IndexedCampaign(campaign, List.of(Channel.PUSH, Channel.EMAIL), true, Set.of(), null)));
+        }
+
+        @Test
+        @DisplayName("Records recipients first and sends only the inserted rows off the scheduler thread")
+        void sendsInsertedRows() throws Exception {
+            when(recipientRepository.insertGeofenceRecipients(eq(5L), eq(userId), eq(List.of("PUSH", "EMAIL")),
+                eq("camp-1"), eq(40.0), eq(-75.0), any())).thenReturn(List.of(11L));
+            List<CampaignRecipient> inserted = List.of(CampaignRecipient.builder().id(11L).build());
+            when(recipientRepository.findAllById(List.of(11L))).thenReturn(inserted);
+            CompletableFuture<String> sendThread = new CompletableFuture<>();
+            when(dispatchEngine.dispatchChunk(campaign, inserted)).thenAnswer(invocation -> {
+                sendThread.complete(Thread.currentThread().getName());
+                return new ChunkResult(1, 0);
+            });
+
+            dispatchService.onGeofenceEntry(userId, "camp-1", 40.0, -75.0);
+            dispatchService.processGeofenceEntries();
+
+            assertThat(sendThread.get(5, TimeUnit.SECONDS)).isEqualTo("campaign-geofence");
+        }
+
+        @Test
+        @DisplayName("Sends nothing when another node already recorded the recipients")
+        void skipsRecordedRecipients() {
+            when(recipientRepository.insertGeofenceRecipients(eq(5L), eq(userId), anyCollection(), any(),
+                anyDouble(), anyDouble(), any())).thenReturn(List.of());
+
+            dispatchService.onGeofenceEntry(userId, "camp-1", 40.0, -75.0);
+            dispatchService.processGeofenceEntries();
+
+            verify(dispatchEngine, never()).dispatchChunk(any(), any());
+            verify(recipientRepository, never()).findAllById(any());
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.bsa.campcard.service;
+
+import com.bsa.campcard.dto.DashboardResponse;
+import com.bsa.campcard.entity.Scout;
+import com.bsa.campcard.entity.Troop;
+import com.bsa.campcard.repository.*;
+import com.bsa.campcard.service.dashboard.DashboardAggregateService;
+import com.bsa.campcard.service.dashboard.DashboardAggregates;
+import com.bsa.campcard.service.dashboard.DashboardSnapshotCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bsa.campcard.domain.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardService Tests")
+class DashboardServiceTest {
+
+    @Mock private TroopRepository troopRepository;
+    @Mock private ScoutRepository scoutRepository;
+    @Mock private CouncilRepository councilRepository;
+    @Mock private MerchantRepository merchantRepository;
+    @Mock private OfferRepository offerRepository;
+    @Mock private ReferralRepository referralRepository;
+    @Mock private SubscriptionRepository subscriptionRepository;
+    @Mock private SubscriptionPlanRepository subscriptionPlanRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private CampCardRepository campCardRepository;
+    @Mock private CardOrderRepository cardOrderRepository;
+    @Mock private OfferRedemptionRepository offerRedemptionRepository;
+    @Mock private DashboardAggregateService dashboardAggregateService;
+
+    private DashboardSnapshotCache snapshotCache;
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        snapshotCache = new DashboardSnapshotCache(new SimpleMeterRegistry(), 60, 60, 300, 600);
+        dashboardService = new DashboardService(troopRepository, scoutRepository, councilRepository,
+                merchantRepository, offerRepository, referralRepository, subscriptionRepository,
+                subscriptionPlanRepository, userRepository, campCardRepository, cardOrderRepository,
+                offerRedemptionRepository, dashboardAggregateService, snapshotCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        snapshotCache.shutdown();
+    }
+
+    private void stubLeaderboards(int rows) {
+        List<Object[]> troopRows = new ArrayList<>();
+        List<Object[]> scoutSalesRows = new ArrayList<>();
+        List<Object[]> scoutReferralRows = new ArrayList<>();
+        List<Object[]> customerRows = new ArrayList<>();
+        for (long i = 1; i <= rows; i++) {
+            Troop troop = new Troop();
+            troop.setId(i);
+            troop.setTroopNumber(String.valueOf(100 + i));
+            troop.setTotalSales(BigDecimal.valueOf(1000 - i));
+            troopRows.add(new Object[]{troop, "Council " + i});
+
+            Scout scout = new Scout();
+            scout.setId(i);
+            scout.setFirstName("Scout");
+            scout.setLastName(String.valueOf(i));
+            scoutSalesRows.add(new Object[]{scout, String.valueOf(100 + i), 3L});
+
+            scoutReferralRows.add(new Object[]{i, "Scout", String.valueOf(i), String.valueOf(100 + i),
+                    4L, 1L, BigDecimal.TEN});
+            customerRows.add(new Object[]{UUID.randomUUID(), 5L, 2L, BigDecimal.valueOf(20),
+                    LocalDateTime.now()});
+        }
+        when(troopRepository.findTopPerformingTroopsWithCouncilName(any())).thenReturn(troopRows);
+        when(troopRepository.findTopRecruitingTroopsWithCouncilName(any())).thenReturn(troopRows);
+        when(scoutRepository.findTopSellersGlobalWithTroopAndReferrals(any())).thenReturn(scoutSalesRows);
+        when(scoutRepository.findTopReferrersWithStats(any())).thenReturn(scoutReferralRows);
+        when(referralRepository.findTopReferrersWithStats(any())).thenReturn(customerRows);
+        when(dashboardAggregateService.getAggregates(DashboardAggregates.NATIONAL_SCOPE))
+                .thenReturn(DashboardAggregates.empty());
+    }
+
+    private int repositoryCalls() {
+        return Stream.of(troopRepository, scoutRepository, councilRepository, merchantRepository,
+                        offerRepository, referralRepository, subscriptionRepository, subscriptionPlanRepository,
+                        userRepository, campCardRepository, cardOrderRepository, offerRedemptionRepository)
+                .mapToInt(mock -> mockingDetails(mock).getInvocations().size())
+                .sum();
+    }
+
+    @Nested
+    @DisplayName("Leaderboards")
+    class LeaderboardTests {
+
+        @Test
+        @DisplayName("Builds leaderboard rows from the joined queries")
+        void buildsRowsFromJoinedQueries() {
+            stubLeaderboards(2);
+
+            DashboardResponse response = dashboardService.getDashboardData();
+
+            assertThat(response.getTroopSales()).hasSize(2);
+            assertThat(response.getTroopSales().get(0).getCouncil()).isEqualTo("Council 1");
+            assertThat(response.getScoutSales().get(0).getTroop()).isEqualTo("Troop 101");
+            assertThat(response.getScoutSales().get(0).getReferrals()).isEqualTo(3);
+            assertThat(response.getScoutReferrals().get(1).getName()).isEqualTo("Scout 2");
+            assertThat(response.getScoutReferrals().get(1).getConversionRate()).isEqualTo(25.0);
+            assertThat(response.getCustomerReferrals().get(0).getAvgOrderValue())
+                    .isEqualByComparingTo(BigDecimal.valueOf(10));
+        }
+
+        @Test
+        @DisplayName("Query count does not grow with the number of leaderboard rows")
+        void queryCountIndependentOfRows() {
+            stubLeaderboards(1);
+            dashboardService.getDashboardData();
+            int callsForOneRow = repositoryCalls();
+
+            clearInvocations(troopRepository, scoutRepository, councilRepository, merchantRepository,
+                    offerRepository, referralRepository, subscriptionRepository, subscriptionPlanRepository,
+                    userRepository, campCardRepository, cardOrderRepository, offerRedemptionRepository);
+            snapshotCache.invalidateAll();
+            stubLeaderboards(20);
+            dashboardService.getDashboardData();
+
+            assertThat(repositoryCalls()).isEqualTo(callsForOneRow);
+            verify(councilRepository, never()).findById(any());
+            verify(troopRepository, never()).findById(any());
+            verify(referralRepository, never()).findByReferrerId(any());
+            verify(referralRepository, never()).findAll();
+            verify(scoutRepository, never()).findAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("Troop summary")
+    class TroopSummaryTests {
+
+        @Test
+        @DisplayName("Counts referrals and redemptions for all troop scouts in batched queries")
+        void batchesPerScoutCounts() {
+            Troop troop = new Troop();
+            troop.setId(1L);
+            troop.setStatus(Troop.TroopStatus.ACTIVE);
+            List<Scout> scouts = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                Scout scout = new Scout();
+                scout.setUserId(UUID.randomUUID());
+                scouts.add(scout);
+            }
+            when(troopRepository.findById(1L)).thenReturn(java.util.Optional.of(troop));
+            when(scoutRepository.findActiveTroopMembers(1L)).thenReturn(scouts);
+            when(offerRedemptionRepository.countCompletedByUserIds(anyList())).thenReturn(12L);
+            when(referralRepository.sumReferralStatsByReferrerIds(anyList()))
+                    .thenReturn(List.<Object[]>of(new Object[]{8L, 2L}));
+
+            DashboardResponse response = dashboardService.getTroopSummary(1L);
+
+            assertThat(response.getTotalRedemptions()).isEqualTo(12L);
+            assertThat(response.getTotalReferrals()).isEqualTo(8L);
+            assertThat(response.getReferralConversionRate()).isEqualTo(25.0);
+            verify(offerRedemptionRepository, times(1)).countCompletedByUserIds(anyList());
+            verify(referralRepository, times(1)).sumReferralStatsByReferrerIds(anyList());
+            verify(referralRepository, never()).findByReferrerId(any());
+        }
+    }
+}
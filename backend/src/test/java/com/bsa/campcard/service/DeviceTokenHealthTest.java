@@ -0,0 +1,178 @@
+package com.bsa.campcard.service;
+
+import com.bsa.campcard.repository.DeviceTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DeviceTokenHealth Tests")
+class DeviceTokenHealthTest {
+
+    @Mock
+    private DeviceTokenRepository deviceTokenRepository;
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private DeviceTokenHealth tokenHealth;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        meterRegistry = new SimpleMeterRegistry();
+        tokenHealth = new DeviceTokenHealth(deviceTokenRepository, meterRegistry, clock,
+                3, Duration.ofMinutes(1), Duration.ofHours(1), 2);
+    }
+
+    private double churn(String event) {
+        return meterRegistry.counter("campcard.push.tokens.churn", "event", event).count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<String> flushedTokens() {
+        ArgumentCaptor<Collection<String>> tokens = ArgumentCaptor.forClass(Collection.class);
+        verify(deviceTokenRepository).deactivateTokens(tokens.capture(), any());
+        return tokens.getValue();
+    }
+
+    @Test
+    @DisplayName("Deactivates every permanently failed token in one update")
+    void flushesPermanentFailuresTogether() {
+        when(deviceTokenRepository.deactivateTokens(anyCollection(), any())).thenReturn(500);
+        IntStream.range(0, 500).forEach(i -> tokenHealth.recordPermanentFailure("token-" + i));
+
+        tokenHealth.flush();
+
+        assertThat(flushedTokens()).hasSize(500);
+        assertThat(churn("deactivated")).isEqualTo(500);
+        assertThat(tokenHealth.isBackedOff("token-0")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Skips a permanently failed token until it is flushed")
+    void skipsPendingDeactivation() {
+        tokenHealth.recordPermanentFailure("dead");
+
+        assertThat(tokenHealth.isBackedOff("dead")).isTrue();
+        assertThat(tokenHealth.isBackedOff("alive")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Backs a flaky token off exponentially")
+    void backsOffExponentially() {
+        tokenHealth.recordTransientFailure("flaky");
+        assertThat(tokenHealth.isBackedOff("flaky")).isTrue();
+        clock.advance(Duration.ofSeconds(61));
+        assertThat(tokenHealth.isBackedOff("flaky")).isFalse();
+
+        tokenHealth.recordTransientFailure("flaky");
+        clock.advance(Duration.ofSeconds(61));
+        assertThat(tokenHealth.isBackedOff("flaky")).isTrue();
+        clock.advance(Duration.ofSeconds(60));
+        assertThat(tokenHealth.isBackedOff("flaky")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deactivates a token after consecutive transient failures")
+    void deactivatesAfterMaxFailures() {
+        tokenHealth.recordTransientFailure("flaky");
+        tokenHealth.recordTransientFailure("flaky");
+        tokenHealth.flush();
+        verifyNoInteractions(deviceTokenRepository);
+
+        tokenHealth.recordTransientFailure("flaky");
+        tokenHealth.flush();
+
+        assertThat(flushedTokens()).containsExactly("flaky");
+    }
+
+    @Test
+    @DisplayName("A successful send resets the failure count")
+    void successResets() {
+        tokenHealth.recordTransientFailure("flaky");
+        tokenHealth.recordTransientFailure("flaky");
+        tokenHealth.recordSuccess("flaky");
+        tokenHealth.recordTransientFailure("flaky");
+        tokenHealth.flush();
+
+        verifyNoInteractions(deviceTokenRepository);
+    }
+
+    @Test
+    @DisplayName("Re-registering a token cancels its deactivation and counts toward churn")
+    void registrationClearsState() {
+        tokenHealth.recordPermanentFailure("token");
+        tokenHealth.recordRegistration("token");
+        tokenHealth.flush();
+
+        verifyNoInteractions(deviceTokenRepository);
+        assertThat(tokenHealth.isBackedOff("token")).isFalse();
+        assertThat(churn("registered")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Keeps queued tokens for the next flush when the update fails")
+    void retriesFailedFlush() {
+        when(deviceTokenRepository.deactivateTokens(anyCollection(), any()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(1);
+        tokenHealth.recordPermanentFailure("dead");
+
+        tokenHealth.flush();
+        assertThat(tokenHealth.isBackedOff("dead")).isTrue();
+        tokenHealth.flush();
+
+        verify(deviceTokenRepository, times(2)).deactivateTokens(anyCollection(), any());
+        assertThat(churn("deactivated")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Stops tracking new flaky tokens once full")
+    void boundedTracking() {
+        tokenHealth.recordTransientFailure("a");
+        tokenHealth.recordTransientFailure("b");
+        tokenHealth.recordTransientFailure("c");
+
+        assertThat(tokenHealth.isBackedOff("a")).isTrue();
+        assertThat(tokenHealth.isBackedOff("c")).isFalse();
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
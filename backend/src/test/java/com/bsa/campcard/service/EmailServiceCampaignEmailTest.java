@@ -0,0 +1,228 @@
+package com.bsa.campcard.service;
+
+import com.bsa.campcard.service.EmailService.CampaignEmailDestination;
+import com.bsa.campcard.service.FakeSesClient.SentEmail;
+import com.bsa.campcard.service.email.EmailTemplateEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.ses.model.BulkEmailDestinationStatus;
+import software.amazon.awssdk.services.ses.model.BulkEmailStatus;
+import software.amazon.awssdk.services.ses.model.DeleteTemplateRequest;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("EmailService campaign email Tests")
+class EmailServiceCampaignEmailTest {
+
+    private FakeSesClient ses;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        ses = new FakeSesClient();
+        meterRegistry = new SimpleMeterRegistry();
+        emailService = new EmailService(ses, new EmailTemplateEngine(meterRegistry));
+        ReflectionTestUtils.setField(emailService, "fromEmail", "no-reply@campcardapp.org");
+        ReflectionTestUtils.setField(emailService, "baseUrl", "https://api.campcardapp.org");
+        ReflectionTestUtils.setField(emailService, "emailEnabled", true);
+    }
+
+    private String register() {
+        return emailService.registerCampaignTemplate("42", "Hi {{first_name}}",
+                "<p>Hello {{firstName}}, see <a href=\"https://example.com/deal\">the deal</a></p>",
+                "Hello {{first_name}}");
+    }
+
+    @Nested
+    @DisplayName("Template registration")
+    class RegistrationTests {
+
+        @Test
+        @DisplayName("Registers a campaign's template once")
+        void registersOnce() {
+            String first = register();
+            String second = register();
+
+            assertThat(second).isEqualTo(first).isEqualTo("campcard-campaign-42");
+            assertThat(ses.createTemplateCalls()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Updates the campaign's template when the content changes")
+        void updatesTemplateForNewContent() {
+            String original = register();
+            String edited = emailService.registerCampaignTemplate("42", "Hi", "<p>Edited</p>", null);
+
+            assertThat(edited).isEqualTo(original);
+            assertThat(ses.createTemplateCalls()).isEqualTo(1);
+            assertThat(ses.updateTemplateCalls()).isEqualTo(1);
+            assertThat(ses.templateNames()).containsExactly("campcard-campaign-42");
+        }
+
+        @Test
+        @DisplayName("Deletes the template and registers it again if the campaign sends later")
+        void deletesTemplate() {
+            register();
+
+            emailService.deleteCampaignTemplate("42");
+            assertThat(ses.templateNames()).isEmpty();
+
+            register();
+            assertThat(ses.createTemplateCalls()).isEqualTo(2);
+            assertThat(ses.templateNames()).containsExactly("campcard-campaign-42");
+        }
+
+        @Test
+        @DisplayName("Registers the template again after another node deleted it")
+        void reregistersAfterRemoteDelete() {
+            String template = register();
+            ses.deleteTemplate(DeleteTemplateRequest.builder().templateName(template).build());
+            List<CampaignEmailDestination> destinations =
+                    List.of(new CampaignEmailDestination("ann@test.com", "Ann", UUID.randomUUID()));
+
+            assertThatThrownBy(() -> emailService.sendCampaignEmailBatch(template, "42", destinations))
+                    .isInstanceOf(RuntimeException.class);
+            emailService.sendCampaignEmailBatch(register(), "42", destinations);
+
+            assertThat(ses.sent()).extracting(SentEmail::to).containsExactly("ann@test.com");
+        }
+
+        @Test
+        @DisplayName("Reuses a template another node already registered")
+        void toleratesExistingTemplate() {
+            register();
+            EmailService otherNode = new EmailService(ses, new EmailTemplateEngine(meterRegistry));
+            ReflectionTestUtils.setField(otherNode, "baseUrl", "https://api.campcardapp.org");
+
+            assertThatCode(() -> otherNode.registerCampaignTemplate("42", "Hi {{first_name}}",
+                    "<p>Hello {{firstName}}, see <a href=\"https://example.com/deal\">the deal</a></p>",
+                    "Hello {{first_name}}")).doesNotThrowAnyException();
+            assertThat(ses.updateTemplateCalls()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulk send")
+    class BulkSendTests {
+
+        @Test
+        @DisplayName("Personalizes each destination in one call")
+        void personalizes() {
+            String template = register();
+            UUID trackingId = UUID.randomUUID();
+
+            List<BulkEmailDestinationStatus> statuses = emailService.sendCampaignEmailBatch(template, "42", List.of(
+                    new CampaignEmailDestination("ann@test.com", "Ann", trackingId),
+                    new CampaignEmailDestination("anon@test.com", null, UUID.randomUUID())));
+
+            assertThat(ses.bulkCalls()).isEqualTo(1);
+            assertThat(statuses).extracting(BulkEmailDestinationStatus::status)
+                    .containsExactly(BulkEmailStatus.SUCCESS, BulkEmailStatus.SUCCESS);
+            SentEmail ann = ses.sent().get(0);
+            assertThat(ann.subject()).isEqualTo("Hi Ann");
+            assertThat(ann.text()).startsWith("Hello Ann")
+                    .contains("https://api.campcardapp.org/unsubscribe?email=ann%40test.com&campaign=42");
+            assertThat(ann.html())
+                    .contains("Hello Ann")
+                    .contains("/api/v1/campaigns/42/track/open?rid=" + trackingId)
+                    .contains("/api/v1/campaigns/42/track/click?rid=" + trackingId + "&url=https%3A%2F%2Fexample.com%2Fdeal");
+            assertThat(ses.sent().get(1).subject()).isEqualTo("Hi there");
+        }
+
+        @Test
+        @DisplayName("Returns each destination's status in order")
+        void mapsStatuses() {
+            String template = register();
+            ses.reject("bounce@test.com");
+
+            List<BulkEmailDestinationStatus> statuses = emailService.sendCampaignEmailBatch(template, "42", List.of(
+                    new CampaignEmailDestination("ok@test.com", "Ok", UUID.randomUUID()),
+                    new CampaignEmailDestination("bounce@test.com", "Bo", UUID.randomUUID())));
+
+            assertThat(statuses).extracting(BulkEmailDestinationStatus::status)
+                    .containsExactly(BulkEmailStatus.SUCCESS, BulkEmailStatus.MESSAGE_REJECTED);
+            assertThat(ses.sent()).extracting(SentEmail::to).containsExactly("ok@test.com");
+        }
+
+        @Test
+        @DisplayName("Rejects more than 50 destinations")
+        void enforcesBatchLimit() {
+            String template = register();
+            List<CampaignEmailDestination> destinations = IntStream.range(0, EmailService.MAX_BULK_DESTINATIONS + 1)
+                    .mapToObj(i -> new CampaignEmailDestination("user" + i + "@test.com", null, UUID.randomUUID()))
+                    .toList();
+
+            assertThatThrownBy(() -> emailService.sendCampaignEmailBatch(template, "42", destinations))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(ses.bulkCalls()).isZero();
+        }
+
+        @Test
+        @DisplayName("Fails the whole batch when SES rejects the call")
+        void failsOnSesError() {
+            List<CampaignEmailDestination> destinations =
+                    List.of(new CampaignEmailDestination("ann@test.com", "Ann", UUID.randomUUID()));
+
+            assertThatThrownBy(() -> emailService.sendCampaignEmailBatch("campcard-campaign-missing", "42", destinations))
+                    .isInstanceOf(RuntimeException.class)
+                    .hasMessage("Failed to send bulk email");
+        }
+    }
+
+    @Nested
+    @DisplayName("Per-recipient send")
+    class PerRecipientTests {
+
+        private static final String HTML =
+                "<p>Hello {{first_name}}, see <a href=\"https://example.com/deal\">the deal</a></p>";
+
+        @Test
+        @DisplayName("Personalizes tracking and greeting for each recipient")
+        void personalizesEachRecipient() {
+            emailService.sendCampaignEmail("ann@test.com", "Ann", "Spring Sale", HTML, "Hi {{firstName}}", "42");
+            emailService.sendCampaignEmail("bob@test.com", "Bob", "Spring Sale", HTML, "Hi {{firstName}}", "42");
+
+            SentEmail ann = ses.sent().get(0);
+            assertThat(ann.subject()).isEqualTo("Spring Sale");
+            assertThat(ann.html())
+                    .contains("Hello Ann")
+                    .contains("/api/v1/campaigns/42/track/open?email=ann%40test.com")
+                    .contains("/api/v1/campaigns/42/track/click?email=ann%40test.com&url=https%3A%2F%2Fexample.com%2Fdeal")
+                    .contains("/unsubscribe?email=ann%40test.com&campaign=42")
+                    .doesNotContain("{{");
+            assertThat(ann.text()).startsWith("Hi Ann")
+                    .endsWith("To unsubscribe: https://api.campcardapp.org/unsubscribe?email=ann%40test.com&campaign=42");
+            assertThat(ses.sent().get(1).html()).contains("Hello Bob").doesNotContain("ann%40test.com");
+        }
+
+        @Test
+        @DisplayName("Compiles a campaign's content once and again after an edit")
+        void compilesOncePerContent() {
+            emailService.sendCampaignEmail("ann@test.com", "Ann", "Spring Sale", HTML, null, "42");
+            emailService.sendCampaignEmail("bob@test.com", "Bob", "Spring Sale", HTML, null, "42");
+            emailService.sendCampaignEmail("bob@test.com", "Bob", "Spring Sale", "<p>Edited</p>", null, "42");
+
+            // One layout render per compile, one body render per send
+            assertThat(meterRegistry.timer("campcard.email.render", "template", "campaign-layout").count()).isEqualTo(2);
+            assertThat(meterRegistry.timer("campcard.email.render", "template", "campaign-email").count()).isEqualTo(3);
+            assertThat(ses.sent().get(2).html()).contains("Edited");
+        }
+
+        @Test
+        @DisplayName("Leaves the greeting placeholder when the first name is unknown")
+        void keepsPlaceholderWithoutName() {
+            emailService.sendCampaignEmail("ann@test.com", null, "Spring Sale", HTML, null, "42");
+
+            assertThat(ses.sent().get(0).html()).contains("Hello {{first_name}}");
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.bsa.campcard.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.model.AlreadyExistsException;
+import software.amazon.awssdk.services.ses.model.BulkEmailDestination;
+import software.amazon.awssdk.services.ses.model.BulkEmailDestinationStatus;
+import software.amazon.awssdk.services.ses.model.BulkEmailStatus;
+import software.amazon.awssdk.services.ses.model.CreateTemplateRequest;
+import software.amazon.awssdk.services.ses.model.CreateTemplateResponse;
+import software.amazon.awssdk.services.ses.model.DeleteTemplateRequest;
+import software.amazon.awssdk.services.ses.model.DeleteTemplateResponse;
+import software.amazon.awssdk.services.ses.model.Message;
+import software.amazon.awssdk.services.ses.model.SendBulkTemplatedEmailRequest;
+import software.amazon.awssdk.services.ses.model.SendBulkTemplatedEmailResponse;
+import software.amazon.awssdk.services.ses.model.SendEmailRequest;
+import software.amazon.awssdk.services.ses.model.SendEmailResponse;
+import software.amazon.awssdk.services.ses.model.SesException;
+import software.amazon.awssdk.services.ses.model.Template;
+import software.amazon.awssdk.services.ses.model.TemplateDoesNotExistException;
+import software.amazon.awssdk.services.ses.model.UpdateTemplateRequest;
+import software.amazon.awssdk.services.ses.model.UpdateTemplateResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory SES that records sent email and renders bulk templated sends the way SES
+ * does, so tests can check what each destination would receive.
+ */
+class FakeSesClient implements SesClient {
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{(\\w+)}}");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+    private final Set<String> rejectedAddresses = new HashSet<>();
+    private final List<SentEmail> sent = new ArrayList<>();
+    private int createTemplateCalls;
+    private int updateTemplateCalls;
+    private int bulkCalls;
+
+    record SentEmail(String to, String subject, String html, String text) {
+    }
+
+    void reject(String address) {
+        rejectedAddresses.add(address);
+    }
+
+    List<SentEmail> sent() {
+        return sent;
+    }
+
+    int createTemplateCalls() {
+        return createTemplateCalls;
+    }
+
+    int updateTemplateCalls() {
+        return updateTemplateCalls;
+    }
+
+    Set<String> templateNames() {
+        return templates.keySet();
+    }
+
+    int bulkCalls() {
+        return bulkCalls;
+    }
+
+    @Override
+    public synchronized CreateTemplateResponse createTemplate(CreateTemplateRequest request) {
+        createTemplateCalls++;
+        Template template = request.template();
+        if (templates.putIfAbsent(template.templateName(), template) != null) {
+            throw AlreadyExistsException.builder().message("Template " + template.templateName() + " already exists").build();
+        }
+        return CreateTemplateResponse.builder().build();
+    }
+
+    @Override
+    public synchronized UpdateTemplateResponse updateTemplate(UpdateTemplateRequest request) {
+        updateTemplateCalls++;
+        Template template = request.template();
+        if (templates.replace(template.templateName(), template) == null) {
+            throw TemplateDoesNotExistException.builder().message("Template " + template.templateName() + " does not exist").build();
+        }
+        return UpdateTemplateResponse.builder().build();
+    }
+
+    @Override
+    public synchronized DeleteTemplateResponse deleteTemplate(DeleteTemplateRequest request) {
+        templates.remove(request.templateName());
+        return DeleteTemplateResponse.builder().build();
+    }
+
+    @Override
+    public synchronized SendBulkTemplatedEmailResponse sendBulkTemplatedEmail(SendBulkTemplatedEmailRequest request) {
+        bulkCalls++;
+        Template template = templates.get(request.template());
+        if (template == null) {
+            throw TemplateDoesNotExistException.builder().message("Template " + request.template() + " does not exist").build();
+        }
+        if (request.destinations().size() > 50) {
+            throw SesException.builder().message("Too many destinations").statusCode(400).build();
+        }
+
+        Map<String, String> defaults = data(request.defaultTemplateData());
+        List<BulkEmailDestinationStatus> statuses = new ArrayList<>();
+        for (BulkEmailDestination destination : request.destinations()) {
+            String to = destination.destination().toAddresses().get(0);
+            if (rejectedAddresses.contains(to)) {
+                statuses.add(BulkEmailDestinationStatus.builder()
+                        .status(BulkEmailStatus.MESSAGE_REJECTED)
+                        .error("Address blacklisted")
+                        .build());
+                continue;
+            }
+            Map<String, String> values = new HashMap<>(defaults);
+            values.putAll(data(destination.replacementTemplateData()));
+            sent.add(new SentEmail(to, render(template.subjectPart(), values),
+                    render(template.htmlPart(), values), render(template.textPart(), values)));
+            statuses.add(BulkEmailDestinationStatus.builder()
+                    .status(BulkEmailStatus.SUCCESS)
+                    .messageId("fake-" + sent.size())
+                    .build());
+        }
+        return SendBulkTemplatedEmailResponse.builder().status(statuses).build();
+    }
+
+    @Override
+    public synchronized SendEmailResponse sendEmail(SendEmailRequest request) {
+        Message message = request.message();
+        sent.add(new SentEmail(request.destination().toAddresses().get(0), message.subject().data(),
+                message.body().html().data(), message.body().text().data()));
+        return SendEmailResponse.builder().messageId("fake-" + sent.size()).build();
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static Map<String, String> data(String json) {
+        if (json == null) {
+            return Map.of();
+        }
+        try {
+            return MAPPER.readValue(json, new TypeReference<Map<String, String>>() {
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String render(String part, Map<String, String> values) {
+        Matcher matcher = VARIABLE.matcher(part);
+        StringBuilder rendered = new StringBuilder();
+        while (matcher.find()) {
+            matcher.appendReplacement(rendered, Matcher.quoteReplacement(values.getOrDefault(matcher.group(1), "")));
+        }
+        matcher.appendTail(rendered);
+        return rendered.toString();
+    }
+}
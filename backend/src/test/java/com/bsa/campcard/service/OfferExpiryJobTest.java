@@ -0,0 +1,143 @@
+package com.bsa.campcard.service;
+
+import com.bsa.campcard.repository.MerchantRepository;
+import com.bsa.campcard.repository.OfferRedemptionRepository;
+import com.bsa.campcard.repository.OfferRepository;
+import com.bsa.campcard.service.dashboard.DashboardAggregateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OfferExpiryJob Tests")
+class OfferExpiryJobTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private OfferRepository offerRepository;
+
+    @Mock
+    private OfferRedemptionRepository redemptionRepository;
+
+    @Mock
+    private MerchantRepository merchantRepository;
+
+    @Mock
+    private DashboardAggregateService dashboardAggregateService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OfferExpiryJob job;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new OfferExpiryJob(offerRepository, redemptionRepository, merchantRepository,
+                dashboardAggregateService, transactionManager, meterRegistry, BATCH_SIZE);
+    }
+
+    private static Object[] row(long merchantId, String category) {
+        return new Object[]{merchantId, category};
+    }
+
+    private double rows(String job) {
+        return meterRegistry.get("campcard.jobs.rows").tag("job", job).counter().count();
+    }
+
+    @Nested
+    @DisplayName("Offer expiry")
+    class OfferTests {
+
+        @Test
+        @DisplayName("Expires offers in chunks until a short chunk and recounts each merchant once")
+        void expiresInChunks() {
+            when(offerRepository.expireActiveOffers(any(LocalDateTime.class), eq(BATCH_SIZE)))
+                    .thenReturn(List.of(row(1L, "RESTAURANTS"), row(2L, "RESTAURANTS")))
+                    .thenReturn(List.of(row(1L, "AUTOMOTIVE"), row(3L, null)))
+                    .thenReturn(List.<Object[]>of(row(3L, "RESTAURANTS")));
+            List<List<Long>> recounted = new ArrayList<>();
+            when(merchantRepository.recountOffers(anyCollection())).thenAnswer(invocation -> {
+                recounted.add(new ArrayList<>(invocation.<Collection<Long>>getArgument(0)));
+                return 1;
+            });
+
+            assertThat(job.expireOffers()).isEqualTo(5);
+
+            verify(offerRepository, times(3)).expireActiveOffers(any(), eq(BATCH_SIZE));
+            assertThat(recounted).containsExactly(List.of(1L, 2L), List.of(3L));
+            assertThat(rows(OfferExpiryJob.OFFER_EXPIRY)).isEqualTo(5);
+            assertThat(meterRegistry.get("campcard.jobs.duration").tag("job", OfferExpiryJob.OFFER_EXPIRY)
+                    .timer().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Moves expired offers from ACTIVE to EXPIRED on the dashboard")
+        @SuppressWarnings("unchecked")
+        void recordsDashboardDelta() {
+            when(offerRepository.expireActiveOffers(any(LocalDateTime.class), eq(BATCH_SIZE)))
+                    .thenReturn(List.<Object[]>of(row(1L, "RESTAURANTS")));
+
+            job.expireOffers();
+
+            ArgumentCaptor<Map<String, Long>> delta = ArgumentCaptor.forClass(Map.class);
+            verify(dashboardAggregateService).record(delta.capture());
+            assertThat(delta.getValue())
+                    .hasSize(3)
+                    .containsValues(-1L, -1L, 1L);
+            assertThat(delta.getValue().keySet())
+                    .anyMatch(key -> key.endsWith("offers.status.ACTIVE"))
+                    .anyMatch(key -> key.endsWith("offers.status.EXPIRED"))
+                    .anyMatch(key -> key.endsWith("offers.active_category.RESTAURANTS"));
+        }
+
+        @Test
+        @DisplayName("Skips the merchant recount when nothing expired")
+        void nothingToExpire() {
+            when(offerRepository.expireActiveOffers(any(LocalDateTime.class), eq(BATCH_SIZE))).thenReturn(List.of());
+
+            assertThat(job.expireOffers()).isZero();
+
+            verifyNoInteractions(merchantRepository);
+            assertThat(rows(OfferExpiryJob.OFFER_EXPIRY)).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Redemption expiry")
+    class RedemptionTests {
+
+        @Test
+        @DisplayName("Expires week-old pending redemptions in chunks")
+        void expiresInChunks() {
+            when(redemptionRepository.expirePendingBefore(any(LocalDateTime.class), eq(BATCH_SIZE)))
+                    .thenReturn(2, 2, 1);
+
+            assertThat(job.expireRedemptions()).isEqualTo(5);
+
+            ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+            verify(redemptionRepository, times(3)).expirePendingBefore(cutoff.capture(), eq(BATCH_SIZE));
+            assertThat(cutoff.getValue()).isBefore(LocalDateTime.now().minusDays(6));
+            assertThat(rows(OfferExpiryJob.REDEMPTION_EXPIRY)).isEqualTo(5);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.bsa.campcard.service;
+
+import com.bsa.campcard.entity.DeviceToken;
+import com.bsa.campcard.entity.DeviceToken.DeviceType;
+import com.bsa.campcard.repository.DeviceTokenRepository;
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.MulticastMessage;
+import com.google.firebase.messaging.SendResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PushNotificationService Tests")
+class PushNotificationServiceTest {
+
+    @Mock
+    private DeviceTokenRepository deviceTokenRepository;
+
+    @Mock
+    private FcmMulticastSender fcmSender;
+
+    @Mock
+    private DeviceTokenHealth tokenHealth;
+
+    @InjectMocks
+    private PushNotificationService pushNotificationService;
+
+    private static long nextId = 1;
+
+    private static DeviceToken token(DeviceType type, String value) {
+        return DeviceToken.builder().id(nextId++).userId(1L).deviceType(type).token(value).build();
+    }
+
+    private static List<DeviceToken> tokens(DeviceType type, int count) {
+        return IntStream.range(0, count).mapToObj(i -> token(type, type + "-" + i)).toList();
+    }
+
+    private static BatchResponse allDelivered(int count) {
+        BatchResponse response = mock(BatchResponse.class);
+        lenient().when(response.getSuccessCount()).thenReturn(count);
+        lenient().when(response.getFailureCount()).thenReturn(0);
+        return response;
+    }
+
+    private void verifyMulticasts(int times) {
+        verify(fcmSender, times(times)).submit(any(MulticastMessage.class));
+    }
+
+    @Nested
+    @DisplayName("Bulk notification")
+    class BulkNotificationTests {
+
+        @Test
+        @DisplayName("Packs tokens into 500-token multicasts per platform")
+        void packsTokensPerPlatform() {
+            List<DeviceToken> all = new ArrayList<>(tokens(DeviceType.ANDROID, 1200));
+            all.addAll(tokens(DeviceType.IOS, 10));
+            all.addAll(tokens(DeviceType.WEB, 5));
+            when(deviceTokenRepository.findByUserIdInAndActiveTrue(anyList())).thenReturn(all);
+            BatchResponse delivered = allDelivered(500);
+            when(fcmSender.submit(any())).thenReturn(CompletableFuture.completedFuture(delivered));
+
+            pushNotificationService.sendBulkNotification(List.of(1L, 2L), "Title", "Body",
+                    PushNotificationService.CHANNEL_OFFER, Map.of("type", "offer"));
+
+            // 500 + 500 + 200 Android, 10 iOS; web tokens are not sent through FCM
+            verifyMulticasts(4);
+        }
+
+        @Test
+        @DisplayName("Loads tokens a page of users at a time")
+        void pagesUserIds() {
+            List<Long> userIds = LongStream.rangeClosed(1, 2500).boxed().toList();
+            when(deviceTokenRepository.findByUserIdInAndActiveTrue(anyList())).thenReturn(List.of());
+
+            pushNotificationService.sendBulkNotification(userIds, "Title", "Body",
+                    PushNotificationService.CHANNEL_GENERAL, Map.of());
+
+            verify(deviceTokenRepository, times(3)).findByUserIdInAndActiveTrue(anyList());
+            verifyNoInteractions(fcmSender);
+        }
+
+        @Test
+        @DisplayName("Reports each token's outcome to token health")
+        void reportsTokenOutcomes() {
+            List<DeviceToken> all = List.of(
+                    token(DeviceType.ANDROID, "good"),
+                    token(DeviceType.ANDROID, "stale"),
+                    token(DeviceType.ANDROID, "flaky"),
+                    token(DeviceType.IOS, "bad"));
+            when(deviceTokenRepository.findByUserIdInAndActiveTrue(anyList())).thenReturn(all);
+
+            BatchResponse android = mock(BatchResponse.class);
+            List<SendResponse> androidResponses = List.of(delivered(),
+                    rejected(MessagingErrorCode.UNREGISTERED), rejected(MessagingErrorCode.UNAVAILABLE));
+            when(android.getResponses()).thenReturn(androidResponses);
+            BatchResponse ios = mock(BatchResponse.class);
+            List<SendResponse> iosResponses = List.of(rejected(MessagingErrorCode.INVALID_ARGUMENT));
+            when(ios.getResponses()).thenReturn(iosResponses);
+            // Partly filled buffers are flushed in platform order: iOS, then Android
+            when(fcmSender.submit(any()))
+                    .thenReturn(CompletableFuture.completedFuture(ios))
+                    .thenReturn(CompletableFuture.completedFuture(android));
+
+            pushNotificationService.sendBulkNotification(List.of(1L), "Title", "Body",
+                    PushNotificationService.CHANNEL_GENERAL, Map.of());
+
+            verify(tokenHealth).recordSuccess("good");
+            verify(tokenHealth).recordPermanentFailure("stale");
+            verify(tokenHealth).recordPermanentFailure("bad");
+            verify(tokenHealth).recordTransientFailure("flaky");
+            verify(deviceTokenRepository, never()).deactivateTokens(any(), any());
+            verify(deviceTokenRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Skips tokens that are backing off")
+        void skipsBackedOffTokens() {
+            when(deviceTokenRepository.findByUserIdInAndActiveTrue(anyList()))
+                    .thenReturn(List.of(token(DeviceType.ANDROID, "flaky")));
+            when(tokenHealth.isBackedOff("flaky")).thenReturn(true);
+
+            pushNotificationService.sendBulkNotification(List.of(1L), "Title", "Body",
+                    PushNotificationService.CHANNEL_GENERAL, Map.of());
+
+            verifyNoInteractions(fcmSender);
+        }
+
+        @Test
+        @DisplayName("Counts a failed multicast without stopping the others")
+        void survivesFailedMulticast() {
+            when(deviceTokenRepository.findByUserIdInAndActiveTrue(anyList()))
+                    .thenReturn(List.of(token(DeviceType.ANDROID, "a"), token(DeviceType.IOS, "i")));
+            BatchResponse delivered = allDelivered(1);
+            when(fcmSender.submit(any()))
+                    .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("FCM unavailable")))
+                    .thenReturn(CompletableFuture.completedFuture(delivered));
+
+            assertThatCode(() -> pushNotificationService.sendBulkNotification(List.of(1L), "Title", "Body",
+                    PushNotificationService.CHANNEL_GENERAL, Map.of())).doesNotThrowAnyException();
+
+            verifyMulticasts(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Announcement")
+    class AnnouncementTests {
+
+        @Test
+        @DisplayName("Streams every active token by keyset page per platform")
+        void streamsTokensByPage() {
+            List<DeviceToken> firstPage = tokens(DeviceType.ANDROID, 5000);
+            List<DeviceToken> lastPage = tokens(DeviceType.ANDROID, 3);
+            long lastIdOfFirstPage = firstPage.get(firstPage.size() - 1).getId();
+            when(deviceTokenRepository.findByDeviceTypeAndActiveTrueAndIdGreaterThanOrderByIdAsc(
+                    eq(DeviceType.ANDROID), eq(0L), any(Pageable.class))).thenReturn(firstPage);
+            when(deviceTokenRepository.findByDeviceTypeAndActiveTrueAndIdGreaterThanOrderByIdAsc(
+                    eq(DeviceType.ANDROID), eq(lastIdOfFirstPage), any(Pageable.class))).thenReturn(lastPage);
+            when(deviceTokenRepository.findByDeviceTypeAndActiveTrueAndIdGreaterThanOrderByIdAsc(
+                    eq(DeviceType.IOS), eq(0L), any(Pageable.class))).thenReturn(List.of());
+            BatchResponse delivered = allDelivered(500);
+            when(fcmSender.submit(any())).thenReturn(CompletableFuture.completedFuture(delivered));
+
+            pushNotificationService.sendAnnouncementNotification("Camp season", "Cards are on sale", Map.of());
+
+            // 5003 tokens = 10 full multicasts + 1 partial
+            verifyMulticasts(11);
+        }
+    }
+
+    private static SendResponse delivered() {
+        SendResponse response = mock(SendResponse.class);
+        when(response.isSuccessful()).thenReturn(true);
+        return response;
+    }
+
+    private static SendResponse rejected(MessagingErrorCode errorCode) {
+        FirebaseMessagingException exception = mock(FirebaseMessagingException.class);
+        when(exception.getMessagingErrorCode()).thenReturn(errorCode);
+        SendResponse response = mock(SendResponse.class);
+        when(response.isSuccessful()).thenReturn(false);
+        when(response.getException()).thenReturn(exception);
+        return response;
+    }
+}
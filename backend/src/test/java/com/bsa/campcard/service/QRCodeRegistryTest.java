@@ -0,0 +1,173 @@
+package com.bsa.campcard.service;
+
+import com.bsa.campcard.entity.QrCodeRegistration;
+import com.bsa.campcard.entity.QrCodeRegistration.OwnerType;
+import com.bsa.campcard.repository.QrCodeRegistrationRepository;
+import com.bsa.campcard.service.QRCodeRegistry.Owner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QRCodeRegistry Tests")
+class QRCodeRegistryTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @Mock
+    private QrCodeRegistrationRepository registrationRepository;
+
+    @InjectMocks
+    private QRCodeRegistry registry;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Nested
+    @DisplayName("resolve")
+    class ResolveTests {
+
+        @Test
+        @DisplayName("Resolves a code with a single Redis GET")
+        void resolvesFromRedis() {
+            when(valueOperations.get("qr:code:ABC123")).thenReturn("USER:" + userId);
+
+            assertThat(registry.resolve("ABC123")).contains(Owner.user(userId));
+
+            verify(valueOperations, times(1)).get(anyString());
+            verifyNoInteractions(registrationRepository);
+            verify(redisTemplate, never()).keys(anyString());
+        }
+
+        @Test
+        @DisplayName("Falls back to the registry table and re-caches the code")
+        void fallsBackToTable() {
+            LocalDateTime expiresAt = LocalDateTime.now().plusDays(10);
+            when(registrationRepository.findById("CARD42")).thenReturn(Optional.of(QrCodeRegistration.builder()
+                    .code("CARD42").ownerType(OwnerType.CARD).ownerId("42").expiresAt(expiresAt).build()));
+
+            assertThat(registry.resolve("CARD42")).contains(Owner.card(42L));
+
+            verify(valueOperations).set(eq("qr:code:CARD42"), eq("CARD:42"), any(Duration.class));
+            verify(valueOperations, never()).set(eq("qr:card:42"), any(), any(Duration.class));
+        }
+
+        @Test
+        @DisplayName("Uses the registry table when Redis is unavailable")
+        void redisDown() {
+            when(valueOperations.get(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+            when(registrationRepository.findById("ABC123")).thenReturn(Optional.of(QrCodeRegistration.builder()
+                    .code("ABC123").ownerType(OwnerType.USER).ownerId(userId.toString()).build()));
+
+            assertThat(registry.resolve("ABC123")).contains(Owner.user(userId));
+        }
+
+        @Test
+        @DisplayName("Ignores expired registrations")
+        void ignoresExpired() {
+            when(registrationRepository.findById("OLD")).thenReturn(Optional.of(QrCodeRegistration.builder()
+                    .code("OLD").ownerType(OwnerType.USER).ownerId(userId.toString())
+                    .expiresAt(LocalDateTime.now().minusMinutes(1)).build()));
+
+            assertThat(registry.resolve("OLD")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Ignores malformed owners in Redis")
+        void ignoresMalformedOwner() {
+            when(valueOperations.get("qr:code:BAD")).thenReturn("USER:not-a-uuid");
+
+            assertThat(registry.resolve("BAD")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("register")
+    class RegisterTests {
+
+        @Test
+        @DisplayName("Writes both directions and the registry row")
+        void writesBothDirections() {
+            registry.register(Owner.user(userId), "ABC123", Duration.ofDays(30));
+
+            verify(valueOperations).set("qr:code:ABC123", "USER:" + userId, Duration.ofDays(30));
+            verify(valueOperations).set("qr:user:" + userId, "ABC123", Duration.ofDays(30));
+            ArgumentCaptor<QrCodeRegistration> saved = ArgumentCaptor.forClass(QrCodeRegistration.class);
+            verify(registrationRepository).save(saved.capture());
+            assertThat(saved.getValue().getOwnerType()).isEqualTo(OwnerType.USER);
+            assertThat(saved.getValue().getOwnerId()).isEqualTo(userId.toString());
+            assertThat(saved.getValue().getExpiresAt()).isAfter(LocalDateTime.now().plusDays(29));
+        }
+
+        @Test
+        @DisplayName("Aliases do not replace the owner's current code")
+        void aliasKeepsCurrentCode() {
+            registry.registerAlias(Owner.user(userId), "SC-12345678", Duration.ofDays(30));
+
+            verify(valueOperations).set("qr:code:SC-12345678", "USER:" + userId, Duration.ofDays(30));
+            verify(valueOperations, never()).set(eq("qr:user:" + userId), any(), any(Duration.class));
+        }
+
+        @Test
+        @DisplayName("Still records the code when Redis is unavailable")
+        void redisDown() {
+            doThrow(new RedisConnectionFailureException("down"))
+                    .when(valueOperations).set(anyString(), any(), any(Duration.class));
+
+            registry.register(Owner.card(7L), "CARDCODE", Duration.ofDays(365));
+
+            verify(registrationRepository).save(any(QrCodeRegistration.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("currentCode")
+    class CurrentCodeTests {
+
+        @Test
+        @DisplayName("Reads the owner key from Redis")
+        void fromRedis() {
+            when(valueOperations.get("qr:user:" + userId)).thenReturn("ABC123");
+
+            assertThat(registry.currentCode(Owner.user(userId))).contains("ABC123");
+            verifyNoInteractions(registrationRepository);
+        }
+
+        @Test
+        @DisplayName("Restores an evicted owner key from the registry table")
+        void fromTable() {
+            when(registrationRepository.findFirstByOwnerTypeAndOwnerIdOrderByCreatedAtDesc(OwnerType.USER, userId.toString()))
+                    .thenReturn(Optional.of(QrCodeRegistration.builder().code("ABC123").ownerType(OwnerType.USER)
+                            .ownerId(userId.toString()).expiresAt(LocalDateTime.now().plusDays(5)).build()));
+
+            assertThat(registry.currentCode(Owner.user(userId))).contains("ABC123");
+            verify(valueOperations).set(eq("qr:user:" + userId), eq("ABC123"), any(Duration.class));
+        }
+    }
+}
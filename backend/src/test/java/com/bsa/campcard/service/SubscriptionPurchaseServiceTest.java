@@ -17,15 +17,18 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,10 +51,7 @@ class SubscriptionPurchaseServiceTest {
     private JwtTokenProvider jwtTokenProvider;
 
     @Mock
-    private RedisTemplate<String, Object> redisTemplate;
-
-    @Mock
-    private ValueOperations<String, Object> valueOperations;
+    private QRCodeRegistry qrCodeRegistry;
 
     @InjectMocks
     private SubscriptionPurchaseService subscriptionPurchaseService;
@@ -311,6 +311,83 @@ class SubscriptionPurchaseServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Scout Code Attribution Tests")
+    class ScoutCodeAttributionTests {
+
+        private final UUID scoutId = UUID.fromString("945f31bb-1234-4abc-8def-000000000001");
+
+        @BeforeEach
+        void stubPurchase() {
+            User savedUser = User.builder()
+                    .id(UUID.randomUUID())
+                    .email("test@example.com")
+                    .firstName("John")
+                    .lastName("Doe")
+                    .role(User.UserRole.PARENT)
+                    .build();
+
+            when(paymentService.verifySubscriptionPayment("TX123456"))
+                    .thenReturn(PaymentResponse.builder().status("SUCCESS").transactionId("TX123456").build());
+            when(userRepository.existsByEmail("test@example.com")).thenReturn(false);
+            when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
+            when(userRepository.save(any(User.class))).thenReturn(savedUser);
+            when(subscriptionRepository.existsByCardNumber(anyString())).thenReturn(false);
+            when(subscriptionRepository.save(any(Subscription.class))).thenAnswer(i -> i.getArgument(0));
+        }
+
+        private User activeScout() {
+            return User.builder().id(scoutId).role(User.UserRole.SCOUT).isActive(true).build();
+        }
+
+        private UUID attributedScout() {
+            ArgumentCaptor<Subscription> captor = ArgumentCaptor.forClass(Subscription.class);
+            verify(subscriptionRepository).save(captor.capture());
+            return captor.getValue().getRootScoutId();
+        }
+
+        @Test
+        @DisplayName("Should resolve SC- fallback codes through the indexed short code")
+        void shouldResolveShortCode() {
+            validRequest.setScoutCode("SC-945f31bb");
+            when(userRepository.findActiveScoutsByShortCode(eq("945F31BB"), any(Pageable.class)))
+                    .thenReturn(List.of(activeScout()));
+
+            assertTrue(subscriptionPurchaseService.completePurchase(validRequest).isSuccess());
+
+            assertEquals(scoutId, attributedScout());
+            verify(userRepository, never()).findByRole(any(), any(Pageable.class));
+            verify(qrCodeRegistry).registerAlias(QRCodeRegistry.Owner.user(scoutId), "SC-945f31bb", Duration.ofDays(30));
+        }
+
+        @Test
+        @DisplayName("Should use the earliest scout when a short code is ambiguous")
+        void shouldUseEarliestOnCollision() {
+            validRequest.setScoutCode("SC-945F31BB");
+            User other = User.builder().id(UUID.fromString("945f31bb-ffff-4abc-8def-000000000002"))
+                    .role(User.UserRole.SCOUT).isActive(true).build();
+            when(userRepository.findActiveScoutsByShortCode(eq("945F31BB"), any(Pageable.class)))
+                    .thenReturn(List.of(activeScout(), other));
+
+            subscriptionPurchaseService.completePurchase(validRequest);
+
+            assertEquals(scoutId, attributedScout());
+        }
+
+        @Test
+        @DisplayName("Should resolve registered QR codes without a short code lookup")
+        void shouldResolveRegisteredCode() {
+            validRequest.setScoutCode("ABCDEF123456");
+            when(qrCodeRegistry.resolve("ABCDEF123456")).thenReturn(Optional.of(QRCodeRegistry.Owner.user(scoutId)));
+            when(userRepository.findById(scoutId)).thenReturn(Optional.of(activeScout()));
+
+            subscriptionPurchaseService.completePurchase(validRequest);
+
+            assertEquals(scoutId, attributedScout());
+            verify(userRepository, never()).findActiveScoutsByShortCode(anyString(), any(Pageable.class));
+        }
+    }
+
     @Nested
     @DisplayName("Card Number Generation Tests")
     class CardNumberGenerationTests {
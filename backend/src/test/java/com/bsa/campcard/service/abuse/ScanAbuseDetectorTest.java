@@ -0,0 +1,189 @@
+package com.bsa.campcard.service.abuse;
+
+import com.bsa.campcard.entity.OfferScanAttempt;
+import com.bsa.campcard.repository.OfferScanAttemptRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScanAbuseDetector Tests")
+class ScanAbuseDetectorTest {
+
+    private static final Instant NOW = Instant.parse("2026-06-01T12:00:00Z");
+
+    // Dallas and Houston, about 360 km apart
+    private static final BigDecimal DALLAS_LAT = new BigDecimal("32.7767");
+    private static final BigDecimal DALLAS_LON = new BigDecimal("-96.7970");
+    private static final BigDecimal HOUSTON_LAT = new BigDecimal("29.7604");
+    private static final BigDecimal HOUSTON_LON = new BigDecimal("-95.3698");
+
+    @Mock
+    private OfferScanAttemptRepository scanAttemptRepository;
+
+    private InMemoryScanStateStore stateStore;
+    private ScanAbuseDetector detector;
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        stateStore = new InMemoryScanStateStore(Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofHours(24), Duration.ofDays(30));
+        detector = new ScanAbuseDetector(stateStore, scanAttemptRepository);
+    }
+
+    private ScanEvent scan(String token, String device, Long merchantId, Instant at) {
+        return new ScanEvent(UUID.randomUUID(), token, userId, merchantId, device, null, null, at);
+    }
+
+    private ScanEvent scanAt(String token, BigDecimal latitude, BigDecimal longitude, Instant at) {
+        return new ScanEvent(UUID.randomUUID(), token, userId, null, "phone", latitude, longitude, at);
+    }
+
+    @Nested
+    @DisplayName("Token checks")
+    class TokenTests {
+
+        @Test
+        @DisplayName("Flags the third scan of a token")
+        void flagsRepeatedScans() {
+            assertThat(detector.check(scan("t", "phone", null, NOW)).isAbusive()).isFalse();
+            assertThat(detector.check(scan("t", "phone", null, NOW)).isAbusive()).isFalse();
+
+            AbuseCheckResult third = detector.check(scan("t", "phone", null, NOW));
+
+            assertThat(third.isAbusive()).isTrue();
+            assertThat(third.reason()).startsWith("QR code scanned 3 times (limit: 2)");
+            verifyNoInteractions(scanAttemptRepository);
+        }
+
+        @Test
+        @DisplayName("Flags a token scanned from a second device")
+        void flagsSecondDevice() {
+            detector.check(scan("t", "phone", null, NOW));
+
+            assertThat(detector.check(scan("t", "tablet", null, NOW)).reason())
+                    .startsWith("QR code scanned from multiple devices");
+        }
+
+        @Test
+        @DisplayName("Flags impossible travel since the last located scan")
+        void flagsImpossibleTravel() {
+            detector.check(scanAt("t", DALLAS_LAT, DALLAS_LON, NOW));
+
+            AbuseCheckResult result = detector.check(scanAt("t", HOUSTON_LAT, HOUSTON_LON, NOW.plusSeconds(600)));
+
+            assertThat(result.reason()).startsWith("Impossible travel detected").endsWith("in 10 minutes");
+        }
+
+        @Test
+        @DisplayName("Allows the same trip once the travel window has passed")
+        void allowsSlowTravel() {
+            detector.check(scanAt("t", DALLAS_LAT, DALLAS_LON, NOW));
+
+            assertThat(detector.check(scanAt("t", HOUSTON_LAT, HOUSTON_LON, NOW.plus(Duration.ofHours(5)))).isAbusive())
+                    .isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("User and merchant checks")
+    class HistoryTests {
+
+        @Test
+        @DisplayName("Flags a user with three prior flagged scans")
+        void flagsRepeatOffender() {
+            for (int i = 0; i < 3; i++) {
+                String token = "shared-" + i;
+                detector.check(scan(token, "phone", null, NOW));
+                detector.check(scan(token, "tablet", null, NOW));
+            }
+
+            assertThat(detector.check(scan("fresh", "phone", null, NOW)).reason())
+                    .isEqualTo("User has multiple prior suspicious scan attempts");
+        }
+
+        @Test
+        @DisplayName("Flags a merchant scanning faster than the velocity limit")
+        void flagsMerchantVelocity() {
+            for (int i = 0; i < ScanAbuseDetector.MAX_MERCHANT_SCANS_PER_MINUTE; i++) {
+                stateStore.record(new ScanEvent(UUID.randomUUID(), "t" + i, UUID.randomUUID(), 9L, null, null, null, NOW));
+            }
+
+            assertThat(detector.check(scan("next", null, 9L, NOW.plusSeconds(30))).reason())
+                    .startsWith("Merchant scanning too rapidly: 11 scans");
+            assertThat(detector.check(scan("later", null, 9L, NOW.plusSeconds(61))).isAbusive()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Flags a merchant scanning the same user's codes repeatedly")
+        void flagsMerchantRepeatUser() {
+            for (int i = 0; i < ScanAbuseDetector.MAX_MERCHANT_SCANS_SAME_USER; i++) {
+                detector.check(scan("t" + i, null, 9L, NOW.plus(Duration.ofMinutes(i))));
+            }
+
+            assertThat(detector.check(scan("t-next", null, 9L, NOW.plus(Duration.ofMinutes(5)))).reason())
+                    .startsWith("Merchant has scanned this user's QR codes 4 times");
+        }
+    }
+
+    @Nested
+    @DisplayName("Fallback")
+    class FallbackTests {
+
+        @Test
+        @DisplayName("Rebuilds history from the database when the store is unavailable")
+        void queriesDatabaseWhenStoreUnavailable() {
+            ScanStateStore unavailable = mock(ScanStateStore.class);
+            when(unavailable.record(any())).thenReturn(Optional.empty());
+            detector = new ScanAbuseDetector(unavailable, scanAttemptRepository);
+            OfferScanAttempt dallas = OfferScanAttempt.builder()
+                    .latitude(DALLAS_LAT).longitude(DALLAS_LON)
+                    .scannedAt(LocalDateTime.ofInstant(NOW.minusSeconds(300), ZoneId.systemDefault()))
+                    .build();
+            when(scanAttemptRepository.countByRedemptionToken("t")).thenReturn(1L);
+            when(scanAttemptRepository.hasScansFromDifferentDevice("t", "phone")).thenReturn(false);
+            when(scanAttemptRepository.findScansWithLocationForToken(eq("t"), any())).thenReturn(List.of(dallas));
+            when(scanAttemptRepository.countByUserIdAndIsSuspiciousTrue(userId)).thenReturn(0L);
+
+            AbuseCheckResult result = detector.check(scanAt("t", HOUSTON_LAT, HOUSTON_LON, NOW));
+
+            assertThat(result.reason()).startsWith("Impossible travel detected").endsWith("in 5 minutes");
+            verify(unavailable).recordSuspicious(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("InMemoryScanStateStore")
+    class MemoryStoreTests {
+
+        @Test
+        @DisplayName("Prunes tokens past their lifetime")
+        void prunesExpiredTokens() {
+            stateStore.record(scan("old", "phone", null, NOW.minus(Duration.ofHours(25))));
+            stateStore.record(scan("new", "phone", null, NOW));
+
+            stateStore.prune();
+
+            assertThat(stateStore.trackedTokens()).isEqualTo(1);
+        }
+    }
+}
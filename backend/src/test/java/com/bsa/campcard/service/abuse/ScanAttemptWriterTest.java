@@ -0,0 +1,72 @@
+package com.bsa.campcard.service.abuse;
+
+import com.bsa.campcard.entity.OfferScanAttempt;
+import com.bsa.campcard.repository.OfferScanAttemptRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScanAttemptWriter Tests")
+class ScanAttemptWriterTest {
+
+    @Mock
+    private OfferScanAttemptRepository scanAttemptRepository;
+
+    private static OfferScanAttempt attempt(long offerId) {
+        return OfferScanAttempt.builder().offerId(offerId).redemptionToken("t").build();
+    }
+
+    @Test
+    @DisplayName("Inserts queued attempts in batches")
+    void flushesInBatches() {
+        ScanAttemptWriter writer = new ScanAttemptWriter(scanAttemptRepository, 2000);
+        IntStream.range(0, 1200).forEach(i -> writer.write(attempt(i)));
+        verifyNoInteractions(scanAttemptRepository);
+
+        writer.flush();
+
+        // 500 + 500 + 200
+        verify(scanAttemptRepository, times(3)).saveAll(anyList());
+        assertThat(writer.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("Saves on the caller's thread when the queue is full")
+    void savesDirectlyWhenFull() {
+        ScanAttemptWriter writer = new ScanAttemptWriter(scanAttemptRepository, 1);
+        writer.write(attempt(1));
+        OfferScanAttempt overflow = attempt(2);
+
+        writer.write(overflow);
+
+        verify(scanAttemptRepository).save(overflow);
+        assertThat(writer.pending()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Saves attempts one by one when the batch insert fails")
+    void fallsBackToSingleSaves() {
+        ScanAttemptWriter writer = new ScanAttemptWriter(scanAttemptRepository, 10);
+        OfferScanAttempt good = attempt(1);
+        OfferScanAttempt bad = attempt(2);
+        writer.write(good);
+        writer.write(bad);
+        when(scanAttemptRepository.saveAll(anyList())).thenThrow(new IllegalStateException("constraint violation"));
+        when(scanAttemptRepository.save(bad)).thenThrow(new IllegalStateException("constraint violation"));
+
+        writer.flush();
+
+        verify(scanAttemptRepository).saveAll(anyList());
+        verify(scanAttemptRepository).save(good);
+        verify(scanAttemptRepository).save(bad);
+    }
+}
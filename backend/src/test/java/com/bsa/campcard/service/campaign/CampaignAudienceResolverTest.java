@@ -0,0 +1,94 @@
+package com.bsa.campcard.service.campaign;
+
+import com.bsa.campcard.entity.MarketingSegment;
+import com.bsa.campcard.entity.MarketingSegment.SegmentType;
+import com.bsa.campcard.repository.CouncilRepository;
+import com.bsa.campcard.repository.MarketingSegmentRepository;
+import org.bsa.campcard.domain.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CampaignAudienceResolver Tests")
+class CampaignAudienceResolverTest {
+
+    private static final Map<String, Object> ACTIVE = Map.of("condition", "is_active", "operator", "=", "value", true);
+    private static final Map<String, Object> UNCOMPILABLE =
+            Map.of("condition", "engagement_score", "operator", ">=", "value", 80);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MarketingSegmentRepository segmentRepository;
+
+    @Mock
+    private CouncilRepository councilRepository;
+
+    private CampaignAudienceResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new CampaignAudienceResolver(userRepository, segmentRepository, councilRepository);
+    }
+
+    private static MarketingSegment segment(SegmentType type, Map<String, Object> rules) {
+        return MarketingSegment.builder()
+                .id(1L)
+                .name("Segment")
+                .segmentType(type)
+                .rules(rules)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Segment rules")
+    class SegmentRuleTests {
+
+        @ParameterizedTest
+        @EnumSource(SegmentType.class)
+        @DisplayName("Resolves a segment with null rules to no audience")
+        void nullRules(SegmentType type) {
+            assertThat(resolver.compileSegment(segment(type, null))).isEmpty();
+        }
+
+        @ParameterizedTest
+        @EnumSource(SegmentType.class)
+        @DisplayName("Resolves a segment with empty rules to no audience")
+        void emptyRules(SegmentType type) {
+            assertThat(resolver.compileSegment(segment(type, Map.of()))).isEmpty();
+        }
+
+        @ParameterizedTest
+        @EnumSource(SegmentType.class)
+        @DisplayName("Compiles a segment with rules")
+        void compilesRules(SegmentType type) {
+            assertThat(resolver.compileSegment(segment(type, ACTIVE))).isPresent();
+        }
+
+        @ParameterizedTest
+        @EnumSource(value = SegmentType.class, names = {"ALL_USERS", "ACTIVE_SUBSCRIBERS", "SCOUTS", "PARENTS", "UNIT_LEADERS"})
+        @DisplayName("Resolves a predefined segment with uncompilable rules to its whole type")
+        void uncompilableRulesOnPredefined(SegmentType type) {
+            assertThat(resolver.compileSegment(segment(type, UNCOMPILABLE))).isPresent();
+        }
+
+        @ParameterizedTest
+        @EnumSource(value = SegmentType.class, names = {"ALL_USERS", "ACTIVE_SUBSCRIBERS", "SCOUTS", "PARENTS", "UNIT_LEADERS"},
+                mode = EnumSource.Mode.EXCLUDE)
+        @DisplayName("Resolves a custom segment with uncompilable rules to no audience")
+        void uncompilableRules(SegmentType type) {
+            assertThat(resolver.compileSegment(segment(type, UNCOMPILABLE))).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.bsa.campcard.service.campaign;
+
+import com.bsa.campcard.config.CampaignDispatchProperties;
+import com.bsa.campcard.config.CampaignDispatchProperties.ChannelSettings;
+import com.bsa.campcard.entity.CampaignRecipient;
+import com.bsa.campcard.entity.CampaignRecipient.Channel;
+import com.bsa.campcard.entity.CampaignRecipient.DeliveryStatus;
+import com.bsa.campcard.entity.MarketingCampaign;
+import com.bsa.campcard.entity.Notification;
+import com.bsa.campcard.repository.CampaignRecipientRepository;
+import com.bsa.campcard.repository.MarketingCampaignRepository;
+import com.bsa.campcard.repository.NotificationRepository;
+import com.bsa.campcard.service.campaign.CampaignDispatchEngine.ChunkResult;
+import jakarta.persistence.EntityManager;
+import org.bsa.campcard.domain.user.User;
+import org.bsa.campcard.domain.user.UserRepository;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CampaignDispatchEngine Tests")
+class CampaignDispatchEngineTest {
+
+    @Mock
+    private CampaignRecipientRepository recipientRepository;
+
+    @Mock
+    private MarketingCampaignRepository campaignRepository;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CampaignChannelSender sender;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CampaignDispatchProperties properties;
+    private CampaignDispatchEngine engine;
+    private MarketingCampaign campaign;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CampaignDispatchProperties();
+        properties.setEmail(new ChannelSettings(4, 0, 100));
+        properties.setPush(new ChannelSettings(2, 0, 100));
+        // Email goes through the per-recipient path here; the bulk path is covered below
+        properties.setBulkEmail(false);
+        engine = newEngine();
+        campaign = MarketingCampaign.builder().id(7L).uuid(UUID.randomUUID()).name("Spring Sale").build();
+        lenient().when(entityManager.unwrap(Session.class)).thenReturn(session);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    private CampaignDispatchEngine newEngine() {
+        return new CampaignDispatchEngine(recipientRepository, campaignRepository, notificationRepository,
+                userRepository, sender, entityManager, transactionManager, properties);
+    }
+
+    private List<User> users(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder().id(UUID.randomUUID()).email("user" + i + "@test.com").build());
+        }
+        users.sort(Comparator.comparing(User::getId));
+        return users;
+    }
+
+    /**
+     * Pending recipients for the users on each channel, as the sender stage loads them,
+     * with the users and the managed rows the status flush will load
+     */
+    private List<CampaignRecipient> pending(List<User> users, Channel... channels) {
+        List<CampaignRecipient> recipients = new ArrayList<>();
+        long id = 1;
+        for (User user : users) {
+            for (Channel channel : channels) {
+                recipients.add(CampaignRecipient.builder().id(id++).campaignId(7L).userId(user.getId())
+                        .channel(channel).status(DeliveryStatus.PENDING).build());
+            }
+        }
+        lenient().when(userRepository.findAllById(anyIterable())).thenReturn(users);
+        List<CampaignRecipient> managed = recipients.stream()
+                .map(r -> CampaignRecipient.builder().id(r.getId()).campaignId(7L).userId(r.getUserId())
+                        .channel(r.getChannel()).status(DeliveryStatus.PENDING).build())
+                .toList();
+        lenient().when(recipientRepository.findAllById(anyIterable())).thenReturn(managed);
+        return recipients;
+    }
+
+    private void sendSucceeds() {
+        doAnswer(invocation -> {
+            invocation.getArgument(2, CampaignRecipient.class).setStatus(DeliveryStatus.SENT);
+            return null;
+        }).when(sender).send(any(), any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<CampaignRecipient> flushedRecipients() {
+        ArgumentCaptor<Iterable<Long>> ids = ArgumentCaptor.forClass(Iterable.class);
+        verify(recipientRepository).findAllById(ids.capture());
+        return recipientRepository.findAllById(ids.getValue());
+    }
+
+    @Nested
+    @DisplayName("materialize")
+    class MaterializeTests {
+
+        @Test
+        @DisplayName("Inserts the batch with one statement and advances the cursor")
+        void insertsBatchAndAdvancesCursor() {
+            List<User> batch = users(3);
+            when(recipientRepository.insertPendingRecipients(eq(7L), anyCollection(), anyCollection(), any()))
+                    .thenReturn(6);
+
+            int inserted = engine.materialize(campaign, List.of(Channel.EMAIL, Channel.PUSH), batch);
+
+            assertThat(inserted).isEqualTo(6);
+            verify(recipientRepository).insertPendingRecipients(eq(7L),
+                    eq(batch.stream().map(User::getId).toList()), eq(List.of("EMAIL", "PUSH")), any());
+            verify(campaignRepository).advanceDispatchCursor(eq(7L), eq(batch.get(2).getId()), any(LocalDateTime.class));
+            verify(recipientRepository, never()).save(any());
+            verify(recipientRepository, never()).existsByCampaignIdAndUserIdAndChannel(any(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("dispatchChunk")
+    class DispatchChunkTests {
+
+        @Test
+        @DisplayName("Sends every recipient and flushes all statuses in one transaction")
+        void sendsAndFlushesOnce() {
+            List<CampaignRecipient> chunk = pending(users(3), Channel.EMAIL, Channel.IN_APP);
+            sendSucceeds();
+            when(sender.inAppNotification(any(), any(), any())).thenAnswer(invocation -> {
+                invocation.getArgument(2, CampaignRecipient.class).setStatus(DeliveryStatus.DELIVERED);
+                return Notification.builder().title("Spring Sale").build();
+            });
+
+            ChunkResult result = engine.dispatchChunk(campaign, chunk);
+
+            assertThat(result).isEqualTo(new ChunkResult(6, 0));
+            assertThat(flushedRecipients())
+                    .hasSize(6)
+                    .allSatisfy(r -> assertThat(r.getStatus()).isIn(DeliveryStatus.SENT, DeliveryStatus.DELIVERED));
+            verify(session).setJdbcBatchSize(6);
+            verify(notificationRepository).saveAll(argThat(notifications ->
+                    ((List<?>) notifications).size() == 3));
+            verify(campaignRepository).recordDispatchHeartbeat(eq(7L), any(LocalDateTime.class));
+            verify(recipientRepository, never()).save(any());
+            verify(recipientRepository, never()).saveAll(any());
+        }
+
+        @Test
+        @DisplayName("Skips recipients whose user no longer exists")
+        void skipsMissingUsers() {
+            List<User> users = users(2);
+            List<CampaignRecipient> chunk = pending(users, Channel.EMAIL);
+            when(userRepository.findAllById(anyIterable())).thenReturn(List.of(users.get(1)));
+            sendSucceeds();
+
+            ChunkResult result = engine.dispatchChunk(campaign, chunk);
+
+            assertThat(result).isEqualTo(new ChunkResult(1, 0));
+            assertThat(chunk.get(0).getStatus()).isEqualTo(DeliveryStatus.SKIPPED);
+            verify(sender, times(1)).send(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Counts failed sends without failing the chunk")
+        void countsFailures() {
+            List<User> users = users(4);
+            List<CampaignRecipient> chunk = pending(users, Channel.PUSH);
+            doAnswer(invocation -> {
+                CampaignRecipient recipient = invocation.getArgument(2);
+                User user = invocation.getArgument(1);
+                recipient.setStatus(user == users.get(0) ? DeliveryStatus.FAILED : DeliveryStatus.SENT);
+                return null;
+            }).when(sender).send(any(), any(), any());
+
+            ChunkResult result = engine.dispatchChunk(campaign, chunk);
+
+            assertThat(result).isEqualTo(new ChunkResult(3, 1));
+            assertThat(flushedRecipients()).extracting(CampaignRecipient::getStatus)
+                    .containsOnly(DeliveryStatus.FAILED, DeliveryStatus.SENT);
+        }
+
+        @Test
+        @DisplayName("Sends in parallel up to the channel's concurrency")
+        void boundsConcurrency() {
+            List<CampaignRecipient> chunk = pending(users(40), Channel.EMAIL);
+            AtomicInteger inFlight = new AtomicInteger();
+            AtomicInteger maxInFlight = new AtomicInteger();
+            doAnswer(invocation -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                TimeUnit.MILLISECONDS.sleep(10);
+                inFlight.decrementAndGet();
+                invocation.getArgument(2, CampaignRecipient.class).setStatus(DeliveryStatus.SENT);
+                return null;
+            }).when(sender).send(any(), any(), any());
+
+            ChunkResult result = engine.dispatchChunk(campaign, chunk);
+
+            // Four workers; the queue never fills, so the dispatching thread does not send
+            assertThat(maxInFlight.get()).isBetween(2, 4);
+            assertThat(result.sent()).isEqualTo(40);
+        }
+
+        @Test
+        @DisplayName("Runs sends on the dispatching thread when the queue is full")
+        void callerRunsWhenQueueFull() {
+            engine.shutdown();
+            properties.setEmail(new ChannelSettings(1, 0, 1));
+            engine = newEngine();
+            List<CampaignRecipient> chunk = pending(users(10), Channel.EMAIL);
+            Thread dispatcher = Thread.currentThread();
+            AtomicInteger onDispatcher = new AtomicInteger();
+            doAnswer(invocation -> {
+                if (Thread.currentThread() == dispatcher) {
+                    onDispatcher.incrementAndGet();
+                }
+                TimeUnit.MILLISECONDS.sleep(5);
+                invocation.getArgument(2, CampaignRecipient.class).setStatus(DeliveryStatus.SENT);
+                return null;
+            }).when(sender).send(any(), any(), any());
+
+            ChunkResult result = engine.dispatchChunk(campaign, chunk);
+
+            assertThat(result.sent()).isEqualTo(10);
+            assertThat(onDispatcher.get()).isPositive();
+        }
+
+        @Test
+        @DisplayName("Sends email as bulk batches of 50 recipients")
+        void batchesBulkEmail() {
+            engine.shutdown();
+            properties.setBulkEmail(true);
+            engine = newEngine();
+            List<CampaignRecipient> chunk = pending(users(120), Channel.EMAIL, Channel.PUSH);
+            sendSucceeds();
+            List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+            doAnswer(invocation -> {
+                List<CampaignRecipient> batch = invocation.getArgument(1);
+                batchSizes.add(batch.size());
+                batch.forEach(recipient -> recipient.setStatus(DeliveryStatus.SENT));
+                return null;
+            }).when(sender).sendEmails(any(), anyList(), anyMap());
+
+            ChunkResult result = engine.dispatchChunk(campaign, chunk);
+
+            assertThat(result).isEqualTo(new ChunkResult(240, 0));
+            assertThat(batchSizes).containsExactlyInAnyOrder(50, 50, 20);
+            verify(sender, times(120)).send(any(), any(), argThat(r -> r.getChannel() == Channel.PUSH));
+            verify(sender, never()).send(any(), any(), argThat(r -> r.getChannel() == Channel.EMAIL));
+        }
+
+        @Test
+        @DisplayName("Commits nothing when the workers have shut down")
+        void commitsNothingAfterShutdown() {
+            List<CampaignRecipient> chunk = pending(users(2), Channel.EMAIL);
+            engine.shutdown();
+
+            assertThatThrownBy(() -> engine.dispatchChunk(campaign, chunk))
+                    .isInstanceOf(RejectedExecutionException.class);
+
+            verify(recipientRepository, never()).findAllById(any());
+            verify(campaignRepository, never()).recordDispatchHeartbeat(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("ChannelRateLimiter")
+    class RateLimiterTests {
+
+        private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+        @Test
+        @DisplayName("Spaces sends one interval apart")
+        void spacesSends() {
+            ChannelRateLimiter limiter = new ChannelRateLimiter(10);
+            long now = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+
+            assertThat(limiter.reserve(now)).isZero();
+            assertThat(limiter.reserve(now)).isEqualTo(INTERVAL);
+            assertThat(limiter.reserve(now)).isEqualTo(2 * INTERVAL);
+        }
+
+        @Test
+        @DisplayName("Does not bank idle time into a burst")
+        void noBurstAfterIdle() {
+            ChannelRateLimiter limiter = new ChannelRateLimiter(10);
+            long now = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+            limiter.reserve(now);
+
+            long later = now + TimeUnit.SECONDS.toNanos(5);
+            assertThat(limiter.reserve(later)).isZero();
+            assertThat(limiter.reserve(later)).isEqualTo(INTERVAL);
+        }
+
+        @Test
+        @DisplayName("Counts a bulk send as one interval per message")
+        void spacesBulkSends() {
+            ChannelRateLimiter limiter = new ChannelRateLimiter(10);
+            long now = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+
+            assertThat(limiter.reserve(now, 50)).isZero();
+            assertThat(limiter.reserve(now, 20)).isEqualTo(50 * INTERVAL);
+            assertThat(limiter.reserve(now)).isEqualTo(70 * INTERVAL);
+        }
+
+        @Test
+        @DisplayName("Never waits when unlimited")
+        void unlimited() {
+            ChannelRateLimiter limiter = new ChannelRateLimiter(0);
+            long now = System.nanoTime();
+
+            for (int i = 0; i < 100; i++) {
+                assertThat(limiter.reserve(now)).isZero();
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.bsa.campcard.service.campaign;
+
+import com.bsa.campcard.entity.CampaignRecipient.Channel;
+import com.bsa.campcard.entity.MarketingCampaign;
+import com.bsa.campcard.entity.MarketingSegment;
+import com.bsa.campcard.repository.MarketingCampaignRepository;
+import com.bsa.campcard.repository.MarketingSegmentRepository;
+import com.bsa.campcard.service.campaign.GeofenceCampaignIndex.IndexedCampaign;
+import org.bsa.campcard.domain.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GeofenceCampaignIndex Tests")
+class GeofenceCampaignIndexTest {
+
+    @Mock
+    private MarketingCampaignRepository campaignRepository;
+
+    @Mock
+    private MarketingSegmentRepository segmentRepository;
+
+    @Mock
+    private CampaignAudienceResolver audienceResolver;
+
+    @Mock
+    private Specification<User> audience;
+
+    private GeofenceCampaignIndex index;
+    private final UUID member = UUID.randomUUID();
+    private final UUID outsider = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        index = new GeofenceCampaignIndex(campaignRepository, segmentRepository, audienceResolver, 2);
+    }
+
+    private MarketingCampaign campaign(Long id, Long segmentId, Map<String, Object> targetAudience) {
+        return MarketingCampaign.builder()
+                .id(id)
+                .name("Campaign " + id)
+                .channels(new String[]{"push", "EMAIL"})
+                .segmentId(segmentId)
+                .targetAudience(targetAudience)
+                .updatedAt(LocalDateTime.of(2026, 1, 1, 12, 0))
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void streamAudience(List<UUID> userIds) {
+        when(audienceResolver.forEachChunk(eq(audience), anyInt(), isNull(), any())).thenAnswer(invocation -> {
+            List<User> chunk = userIds.stream().map(id -> User.builder().id(id).build()).toList();
+            ((Predicate<List<User>>) invocation.getArgument(3)).test(chunk);
+            return (long) chunk.size();
+        });
+    }
+
+    @Nested
+    @DisplayName("Membership")
+    class MembershipTests {
+
+        @Test
+        @DisplayName("Matches every user for a campaign without targeting")
+        void untargetedCampaignMatchesEveryone() {
+            MarketingCampaign untargeted = campaign(1L, null, null);
+            when(campaignRepository.findActiveCampaignsWithGeofencing()).thenReturn(List.of(untargeted));
+
+            index.rebuild();
+
+            assertThat(index.campaignsFor(outsider))
+                    .extracting(IndexedCampaign::campaign)
+                    .containsExactly(untargeted);
+            assertThat(index.campaignsFor(outsider).get(0).channels()).containsExactly(Channel.PUSH, Channel.EMAIL);
+            verifyNoInteractions(audienceResolver);
+        }
+
+        @Test
+        @DisplayName("Answers from the indexed audience without querying")
+        void matchesIndexedMembers() {
+            MarketingCampaign targeted = campaign(2L, null, Map.of("roles", List.of("SCOUT")));
+            when(campaignRepository.findActiveCampaignsWithGeofencing()).thenReturn(List.of(targeted));
+            when(audienceResolver.audienceOf(targeted)).thenReturn(Optional.of(audience));
+            streamAudience(List.of(member));
+
+            index.rebuild();
+
+            assertThat(index.campaignsFor(member)).extracting(IndexedCampaign::campaign).containsExactly(targeted);
+            assertThat(index.campaignsFor(outsider)).isEmpty();
+            verify(audienceResolver, never()).includes(any(Specification.class), any());
+        }
+
+        @Test
+        @DisplayName("Skips a campaign whose segment no longer exists")
+        void skipsCampaignWithoutAudience() {
+            MarketingCampaign orphaned = campaign(3L, 99L, null);
+            when(campaignRepository.findActiveCampaignsWithGeofencing()).thenReturn(List.of(orphaned));
+            when(audienceResolver.audienceOf(orphaned)).thenReturn(Optional.empty());
+
+            index.rebuild();
+
+            assertThat(index.campaignsFor(member)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Falls back to a query per event when the audience exceeds the cap")
+        void queriesOversizedAudience() {
+            MarketingCampaign broad = campaign(4L, null, Map.of("roles", List.of("PARENT")));
+            when(campaignRepository.findActiveCampaignsWithGeofencing()).thenReturn(List.of(broad));
+            when(audienceResolver.audienceOf(broad)).thenReturn(Optional.of(audience));
+            streamAudience(List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()));
+            when(audienceResolver.includes(audience, member)).thenReturn(true);
+
+            index.rebuild();
+
+            assertThat(index.campaignsFor(member)).extracting(IndexedCampaign::campaign).containsExactly(broad);
+            verify(audienceResolver).includes(audience, member);
+        }
+    }
+
+    @Nested
+    @DisplayName("Refresh")
+    class RefreshTests {
+
+        @Test
+        @DisplayName("Builds the index on the first change check")
+        void firstCheckBuilds() {
+            MarketingCampaign untargeted = campaign(1L, null, null);
+            when(campaignRepository.findActiveCampaignsWithGeofencing()).thenReturn(List.of(untargeted));
+
+            index.rebuildIfChanged();
+
+            assertThat(index.campaignsFor(member)).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("Rebuilds only when a campaign or its segment changes")
+        void rebuildsOnChange() {
+            MarketingCampaign targeted = campaign(2L, 10L, null);
+            MarketingSegment segment = MarketingSegment.builder().id(10L)
+                    .updatedAt(LocalDateTime.of(2026, 1, 1, 12, 0)).build();
+            when(campaignRepository.findActiveCampaignsWithGeofencing()).thenReturn(List.of(targeted));
+            when(segmentRepository.findAllById(List.of(10L))).thenReturn(List.of(segment));
+            when(audienceResolver.audienceOf(targeted)).thenReturn(Optional.of(audience));
+            streamAudience(List.of(member));
+
+            index.rebuildIfChanged();
+            index.rebuildIfChanged();
+            verify(audienceResolver, times(1)).audienceOf(targeted);
+
+            segment.setUpdatedAt(LocalDateTime.of(2026, 1, 2, 12, 0));
+            index.rebuildIfChanged();
+            verify(audienceResolver, times(2)).audienceOf(targeted);
+        }
+    }
+}
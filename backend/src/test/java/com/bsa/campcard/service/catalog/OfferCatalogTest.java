@@ -0,0 +1,278 @@
+package com.bsa.campcard.service.catalog;
+
+import com.bsa.campcard.entity.Merchant;
+import com.bsa.campcard.entity.Offer;
+import com.bsa.campcard.entity.Offer.OfferStatus;
+import com.bsa.campcard.repository.MerchantRepository;
+import com.bsa.campcard.repository.OfferRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OfferCatalog Tests")
+class OfferCatalogTest {
+
+    // 10:20 UTC; the hour boundary is 40 minutes away
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 14, 10, 20);
+
+    @Mock
+    private OfferRepository offerRepository;
+
+    @Mock
+    private MerchantRepository merchantRepository;
+
+    private MutableClock clock;
+    private OfferCatalog catalog;
+    private final List<Offer> offers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        catalog = new OfferCatalog(offerRepository, merchantRepository, new SimpleMeterRegistry(), clock);
+
+        when(offerRepository.findListedBetween(eq(OfferStatus.ACTIVE), any(), any())).thenAnswer(invocation -> {
+            LocalDateTime now = invocation.getArgument(1);
+            LocalDateTime horizon = invocation.getArgument(2);
+            return offers.stream()
+                    .filter(offer -> !offer.getValidFrom().isAfter(horizon) && !offer.getValidUntil().isBefore(now))
+                    .toList();
+        });
+        lenient().when(merchantRepository.findAllById(anySet())).thenReturn(List.of(
+                merchant(1L, 100L, "Pizza Place"),
+                merchant(2L, 200L, "Auto Shop"),
+                merchant(3L, null, "Online Store")));
+        when(offerRepository.countAndLastUpdate()).thenAnswer(invocation ->
+                List.<Object[]>of(new Object[]{(long) offers.size(), offers.stream()
+                        .map(Offer::getUpdatedAt).max(Comparator.naturalOrder()).orElse(null)}));
+    }
+
+    private static Merchant merchant(Long id, Long councilId, String name) {
+        return Merchant.builder()
+                .id(id)
+                .councilId(councilId)
+                .businessName(name)
+                .logoUrl("https://example.com/" + id + ".png")
+                .build();
+    }
+
+    private Offer offer(long id, long merchantId, String category, int createdMinutesAgo) {
+        Offer offer = new Offer();
+        offer.setId(id);
+        offer.setMerchantId(merchantId);
+        offer.setCategory(category);
+        offer.setDiscountType(Offer.DiscountType.PERCENTAGE);
+        offer.setStatus(OfferStatus.ACTIVE);
+        offer.setValidFrom(NOW.minusDays(1));
+        offer.setValidUntil(NOW.plusDays(30));
+        offer.setTotalRedemptions(0);
+        offer.setFeatured(false);
+        offer.setCreatedAt(NOW.minusMinutes(createdMinutesAgo));
+        offer.setUpdatedAt(offer.getCreatedAt());
+        offers.add(offer);
+        return offer;
+    }
+
+    private static List<Long> ids(List<OfferCatalog.Entry> entries) {
+        return entries.stream().map(entry -> entry.offer().getId()).toList();
+    }
+
+    @Nested
+    @DisplayName("Snapshot contents")
+    class ContentTests {
+
+        @Test
+        @DisplayName("Lists offers newest first, joined with their merchant")
+        void listsNewestFirst() {
+            offer(1L, 1L, "RESTAURANTS", 30);
+            offer(2L, 2L, "AUTOMOTIVE", 10);
+            offer(3L, 1L, "RESTAURANTS", 20);
+
+            OfferCatalog.Snapshot snapshot = catalog.snapshot();
+
+            assertThat(ids(snapshot.all().active())).containsExactly(2L, 3L, 1L);
+            assertThat(snapshot.all().active().get(0).merchantName()).isEqualTo("Auto Shop");
+            assertThat(snapshot.all().active().get(0).toResponse().getMerchantLogoUrl())
+                    .isEqualTo("https://example.com/2.png");
+        }
+
+        @Test
+        @DisplayName("Splits offers by council, category and featured")
+        void splitsViews() {
+            offer(1L, 1L, "RESTAURANTS", 30).setFeatured(true);
+            offer(2L, 2L, "AUTOMOTIVE", 10);
+            offer(3L, 1L, "RESTAURANTS", 20);
+            offer(4L, 3L, null, 5);
+
+            OfferCatalog.Snapshot snapshot = catalog.snapshot();
+
+            assertThat(ids(snapshot.view(100L).active())).containsExactly(3L, 1L);
+            assertThat(ids(snapshot.view(200L).active())).containsExactly(2L);
+            assertThat(snapshot.view(300L).active()).isEmpty();
+            assertThat(ids(snapshot.view(null).active())).containsExactly(4L, 2L, 3L, 1L);
+            assertThat(ids(snapshot.all().category("RESTAURANTS"))).containsExactly(3L, 1L);
+            assertThat(snapshot.all().category("TRAVEL")).isEmpty();
+            assertThat(ids(snapshot.all().featured())).containsExactly(1L);
+            assertThat(ids(snapshot.view(200L).featured())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Leaves out sold out offers and offers that have not started")
+        void leavesOutUnavailable() {
+            Offer soldOut = offer(1L, 1L, "RESTAURANTS", 30);
+            soldOut.setUsageLimit(10);
+            soldOut.setTotalRedemptions(10);
+            Offer limited = offer(2L, 1L, "RESTAURANTS", 20);
+            limited.setUsageLimit(10);
+            limited.setTotalRedemptions(9);
+            offer(3L, 1L, "RESTAURANTS", 10).setValidFrom(NOW.plusMinutes(15));
+
+            assertThat(ids(catalog.snapshot().all().active())).containsExactly(2L);
+        }
+
+        @Test
+        @DisplayName("Snapshots are immutable")
+        void immutable() {
+            offer(1L, 1L, "RESTAURANTS", 30);
+
+            OfferCatalog.Snapshot snapshot = catalog.snapshot();
+
+            assertThatThrownBy(() -> snapshot.all().active().clear()).isInstanceOf(UnsupportedOperationException.class);
+            assertThatThrownBy(() -> snapshot.all().category("RESTAURANTS").clear())
+                    .isInstanceOf(UnsupportedOperationException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Rebuilds")
+    class RebuildTests {
+
+        @Test
+        @DisplayName("Serves the same snapshot until the hour boundary")
+        void rebuildsOnTheHour() {
+            offer(1L, 1L, "RESTAURANTS", 30);
+
+            OfferCatalog.Snapshot first = catalog.snapshot();
+            assertThat(first.expiresAt()).isEqualTo(NOW.withMinute(0).plusHours(1));
+
+            clock.advance(Duration.ofMinutes(39));
+            assertThat(catalog.snapshot()).isSameAs(first);
+
+            clock.advance(Duration.ofMinutes(1));
+            OfferCatalog.Snapshot second = catalog.snapshot();
+            assertThat(second.version()).isEqualTo(first.version() + 1);
+            verify(offerRepository, times(2)).findListedBetween(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Rebuilds when an offer starts or ends before the hour boundary")
+        void rebuildsOnOfferWindows() {
+            offer(1L, 1L, "RESTAURANTS", 30).setValidUntil(NOW.plusMinutes(5));
+            offer(2L, 1L, "RESTAURANTS", 20).setValidFrom(NOW.plusMinutes(10));
+
+            assertThat(ids(catalog.snapshot().all().active())).containsExactly(1L);
+
+            clock.advance(Duration.ofMinutes(5));
+            assertThat(ids(catalog.snapshot().all().active())).containsExactly(1L);
+
+            clock.advance(Duration.ofSeconds(1));
+            assertThat(catalog.snapshot().all().active()).isEmpty();
+
+            clock.advance(Duration.ofMinutes(5));
+            assertThat(ids(catalog.snapshot().all().active())).containsExactly(2L);
+        }
+
+        @Test
+        @DisplayName("Builds on the first change check and then only when offers or merchants change")
+        void rebuildsOnChange() {
+            offer(1L, 1L, "RESTAURANTS", 30);
+
+            catalog.rebuildIfChanged();
+            catalog.rebuildIfChanged();
+            assertThat(catalog.snapshot().version()).isEqualTo(1);
+
+            offer(2L, 1L, "RESTAURANTS", 20);
+            catalog.rebuildIfChanged();
+            assertThat(ids(catalog.snapshot().all().active())).containsExactly(2L, 1L);
+
+            when(merchantRepository.findLastUpdate()).thenReturn(NOW);
+            catalog.rebuildIfChanged();
+            assertThat(catalog.snapshot().version()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Drops an offer on the next change check once its last redemption is claimed")
+        void dropsSoldOutOffer() {
+            Offer limited = offer(1L, 1L, "RESTAURANTS", 30);
+            limited.setUsageLimit(10);
+            limited.setTotalRedemptions(9);
+            catalog.rebuildIfChanged();
+            assertThat(ids(catalog.snapshot().all().active())).containsExactly(1L);
+
+            // What claimLimitedRedemption writes when it takes the last redemption
+            limited.setTotalRedemptions(10);
+            limited.setUpdatedAt(NOW.plusSeconds(5));
+            clock.advance(Duration.ofSeconds(30));
+            catalog.rebuildIfChanged();
+
+            assertThat(catalog.snapshot().all().active()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Rebuilds on the next change check after a sell-out is reported")
+        void rebuildsWhenInvalidated() {
+            Offer limited = offer(1L, 1L, "RESTAURANTS", 30);
+            limited.setUsageLimit(10);
+            catalog.rebuildIfChanged();
+
+            limited.setTotalRedemptions(10);
+            catalog.invalidate();
+            assertThat(catalog.snapshot().all().active()).hasSize(1);
+
+            catalog.rebuildIfChanged();
+            assertThat(catalog.snapshot().all().active()).isEmpty();
+            assertThat(catalog.snapshot().version()).isEqualTo(2);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now = NOW.atZone(ZoneId.of("UTC")).toInstant();
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.bsa.campcard.service.dashboard;
+
+import com.bsa.campcard.repository.CardOrderRepository;
+import com.bsa.campcard.repository.OfferRepository;
+import com.bsa.campcard.repository.ReferralRepository;
+import com.bsa.campcard.repository.SubscriptionRepository;
+import org.bsa.campcard.domain.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardAggregateService Tests")
+class DashboardAggregateServiceTest {
+
+    private static final String NATIONAL_KEY = "dashboard:aggregates:national";
+    private static final String LOCK_KEY = "dashboard:aggregates:rebuild-lock";
+    private static final String JOURNAL_KEY = "dashboard:aggregates:journal";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private ReferralRepository referralRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CardOrderRepository cardOrderRepository;
+
+    @Mock
+    private OfferRepository offerRepository;
+
+    @Mock
+    private DashboardBroadcastBroker broadcastBroker;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DashboardAggregateService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DashboardAggregateService(redisTemplate, subscriptionRepository, referralRepository,
+                userRepository, cardOrderRepository, offerRepository, broadcastBroker, jdbcTemplate,
+                transactionManager);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Nested
+    @DisplayName("Rebuilds")
+    class RebuildTests {
+
+        @BeforeEach
+        void setUp() {
+            when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+            when(jdbcTemplate.queryForObject("SELECT CAST(txid_current_snapshot() AS text)", String.class))
+                    .thenReturn("100:105:101,103");
+            when(userRepository.countGroupedByActive()).thenReturn(List.<Object[]>of(new Object[]{true, 7L}));
+        }
+
+        @Test
+        @DisplayName("Replaces hashes with counts from the locked snapshot and releases the lock")
+        @SuppressWarnings("unchecked")
+        void replacesUnderLock() {
+            when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(true);
+            when(redisTemplate.opsForSet()).thenReturn(setOperations);
+
+            Map<String, DashboardAggregates> rebuilt = service.rebuild(Set.of());
+
+            assertThat(rebuilt.get(DashboardAggregates.NATIONAL_SCOPE).get(DashboardAggregates.USERS_ACTIVE))
+                    .isEqualTo(7L);
+            ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+            verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(NATIONAL_KEY, JOURNAL_KEY)),
+                    args.capture());
+            assertThat(args.getValue()).startsWith("100", "105", "101,103", "_built");
+            assertThat(args.getValue()).containsSequence("users.active", "7");
+            verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(LOCK_KEY, JOURNAL_KEY)), any(Object[].class));
+        }
+
+        @Test
+        @DisplayName("Returns computed counts without storing them while another node rebuilds")
+        @SuppressWarnings("unchecked")
+        void skipsStoreWhenLocked() {
+            when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(false);
+
+            Map<String, DashboardAggregates> rebuilt = service.rebuild(Set.of());
+
+            assertThat(rebuilt.get(DashboardAggregates.NATIONAL_SCOPE).get(DashboardAggregates.USERS_TOTAL))
+                    .isEqualTo(7L);
+            verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Deltas")
+    class DeltaTests {
+
+        @Test
+        @DisplayName("Applies a committed delta tagged with its transaction ID")
+        @SuppressWarnings("unchecked")
+        void tagsDeltaWithTransactionId() {
+            when(jdbcTemplate.queryForObject("SELECT txid_current()", Long.class)).thenReturn(42L);
+            TransactionSynchronizationManager.initSynchronization();
+
+            service.record(Map.of("national|users.total", 1L));
+            verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+            ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+            verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(NATIONAL_KEY, LOCK_KEY, JOURNAL_KEY)),
+                    args.capture());
+            assertThat(args.getValue()).containsExactly("42", "users.total", "1");
+            verify(broadcastBroker).markChanged();
+        }
+
+        @Test
+        @DisplayName("Drops a rolled back delta")
+        @SuppressWarnings("unchecked")
+        void dropsRolledBackDelta() {
+            when(jdbcTemplate.queryForObject("SELECT txid_current()", Long.class)).thenReturn(42L);
+            TransactionSynchronizationManager.initSynchronization();
+
+            service.record(Map.of("national|users.total", 1L));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+            verify(broadcastBroker, never()).markChanged();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.bsa.campcard.service.dashboard;
+
+import com.bsa.campcard.entity.Offer;
+import com.bsa.campcard.entity.Subscription;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+
+import static com.bsa.campcard.service.dashboard.DashboardAggregates.*;
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("DashboardAggregates Tests")
+class DashboardAggregatesTest {
+
+    private Subscription subscription(Subscription.SubscriptionStatus status) {
+        return Subscription.builder()
+                .councilId(7L)
+                .planId(3L)
+                .status(status)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Entity contributions")
+    class ContributionTests {
+
+        @Test
+        @DisplayName("Active subscription counts toward national and council scopes")
+        void activeSubscriptionContributesToBothScopes() {
+            Map<String, Long> contribution = contributionOf(subscription(Subscription.SubscriptionStatus.ACTIVE));
+
+            assertThat(contribution)
+                    .containsEntry(qualify(NATIONAL_SCOPE, SUBSCRIPTIONS_TOTAL), 1L)
+                    .containsEntry(qualify(NATIONAL_SCOPE, SUBSCRIPTIONS_STATUS + "ACTIVE"), 1L)
+                    .containsEntry(qualify(NATIONAL_SCOPE, SUBSCRIPTIONS_ACTIVE_PLAN + "3"), 1L)
+                    .containsEntry(qualify(councilScope(7L), SUBSCRIPTIONS_TOTAL), 1L)
+                    .containsEntry(qualify(councilScope(7L), SUBSCRIPTIONS_ACTIVE_PLAN + "3"), 1L);
+        }
+
+        @Test
+        @DisplayName("Soft-deleted subscription contributes nothing")
+        void deletedSubscriptionContributesNothing() {
+            Subscription subscription = subscription(Subscription.SubscriptionStatus.ACTIVE);
+            subscription.setDeletedAt(LocalDateTime.now());
+
+            assertThat(contributionOf(subscription)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Active offer without category is counted as uncategorized")
+        void activeOfferWithoutCategory() {
+            Offer offer = new Offer();
+            offer.setStatus(Offer.OfferStatus.ACTIVE);
+
+            assertThat(contributionOf(offer))
+                    .containsEntry(qualify(NATIONAL_SCOPE, OFFERS_TOTAL), 1L)
+                    .containsEntry(qualify(NATIONAL_SCOPE, OFFERS_ACTIVE_CATEGORY + UNCATEGORIZED), 1L);
+        }
+
+        @Test
+        @DisplayName("Untracked entities contribute nothing")
+        void untrackedEntity() {
+            assertThat(contributionOf("not an entity")).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Deltas")
+    class DeltaTests {
+
+        @Test
+        @DisplayName("Status change moves counters between buckets without touching totals")
+        void statusChangeDelta() {
+            Map<String, Long> before = contributionOf(subscription(Subscription.SubscriptionStatus.ACTIVE));
+            Map<String, Long> after = contributionOf(subscription(Subscription.SubscriptionStatus.CANCELED));
+
+            Map<String, Long> delta = delta(before, after);
+
+            assertThat(delta)
+                    .containsEntry(qualify(NATIONAL_SCOPE, SUBSCRIPTIONS_STATUS + "ACTIVE"), -1L)
+                    .containsEntry(qualify(NATIONAL_SCOPE, SUBSCRIPTIONS_STATUS + "CANCELED"), 1L)
+                    .containsEntry(qualify(NATIONAL_SCOPE, SUBSCRIPTIONS_ACTIVE_PLAN + "3"), -1L)
+                    .doesNotContainKey(qualify(NATIONAL_SCOPE, SUBSCRIPTIONS_TOTAL));
+        }
+
+        @Test
+        @DisplayName("Removal negates the full contribution")
+        void removalDelta() {
+            Map<String, Long> before = contributionOf(subscription(Subscription.SubscriptionStatus.ACTIVE));
+
+            assertThat(delta(before, Collections.emptyMap()).values()).allMatch(value -> value == -1L);
+        }
+    }
+
+    @Test
+    @DisplayName("withPrefix strips the prefix from counter names")
+    void withPrefix() {
+        DashboardAggregates aggregates = new DashboardAggregates(Map.of(
+                SUBSCRIPTIONS_ACTIVE_PLAN + "1", 4L,
+                SUBSCRIPTIONS_ACTIVE_PLAN + "2", 6L,
+                SUBSCRIPTIONS_TOTAL, 10L));
+
+        assertThat(aggregates.withPrefix(SUBSCRIPTIONS_ACTIVE_PLAN))
+                .containsOnly(entry("1", 4L), entry("2", 6L));
+        assertThat(aggregates.get(USERS_TOTAL)).isZero();
+    }
+}
@@ -0,0 +1,163 @@
+package com.bsa.campcard.service.dashboard;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("DashboardSnapshotCache Tests")
+class DashboardSnapshotCacheTest {
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private DashboardSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new DashboardSnapshotCache(meterRegistry, clock, Map.of(
+                DashboardScope.TROOP, Duration.ofSeconds(60),
+                DashboardScope.NATIONAL, Duration.ofSeconds(600)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    private double requests(String scope, String result) {
+        return meterRegistry.counter("campcard.dashboard.cache.requests", "scope", scope, "result", result).count();
+    }
+
+    @Test
+    @DisplayName("Builds once and serves subsequent reads from cache")
+    void servesFromCache() {
+        AtomicInteger builds = new AtomicInteger();
+
+        String first = cache.get(DashboardScope.NATIONAL, null, () -> "v" + builds.incrementAndGet());
+        String second = cache.get(DashboardScope.NATIONAL, null, () -> "v" + builds.incrementAndGet());
+
+        assertThat(first).isEqualTo("v1");
+        assertThat(second).isEqualTo("v1");
+        assertThat(builds).hasValue(1);
+        assertThat(requests("national", "miss")).isEqualTo(1);
+        assertThat(requests("national", "hit")).isEqualTo(1);
+        assertThat(meterRegistry.timer("campcard.dashboard.cache.rebuild", "scope", "national").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Keys are separated by scope id")
+    void separatesScopeIds() {
+        assertThat(cache.get(DashboardScope.TROOP, 1L, () -> "troop-1")).isEqualTo("troop-1");
+        assertThat(cache.get(DashboardScope.TROOP, 2L, () -> "troop-2")).isEqualTo("troop-2");
+    }
+
+    @Test
+    @DisplayName("Expired entry is served stale while it refreshes in the background")
+    void servesStaleAndRefreshes() throws Exception {
+        AtomicInteger builds = new AtomicInteger();
+        cache.get(DashboardScope.TROOP, 1L, () -> "v" + builds.incrementAndGet());
+
+        clock.advance(Duration.ofSeconds(61));
+        String stale = cache.get(DashboardScope.TROOP, 1L, () -> "v" + builds.incrementAndGet());
+
+        assertThat(stale).isEqualTo("v1");
+        assertThat(requests("troop", "stale")).isEqualTo(1);
+        waitFor(() -> builds.get() == 2);
+        waitFor(() -> "v2".equals(cache.get(DashboardScope.TROOP, 1L, () -> "unused")));
+    }
+
+    @Test
+    @DisplayName("Concurrent misses for the same key share one build")
+    void singleFlight() throws Exception {
+        AtomicInteger builds = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[4];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit(() -> cache.get(DashboardScope.NATIONAL, null, () -> {
+                    builds.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "built";
+                }));
+            }
+            waitFor(() -> builds.get() == 1);
+            Thread.sleep(50);
+            release.countDown();
+            for (Future<?> future : futures) {
+                assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("built");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(builds).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Idle entries are evicted instead of refreshed")
+    void evictsIdleEntries() {
+        cache.get(DashboardScope.TROOP, 1L, () -> "v1");
+
+        clock.advance(Duration.ofMinutes(10));
+        cache.refreshDueEntries();
+
+        assertThat(requests("troop", "miss")).isEqualTo(1);
+        assertThat(cache.get(DashboardScope.TROOP, 1L, () -> "v2")).isEqualTo("v2");
+        assertThat(requests("troop", "miss")).isEqualTo(2);
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within 5 seconds");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
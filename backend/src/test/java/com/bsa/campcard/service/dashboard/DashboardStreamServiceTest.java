@@ -0,0 +1,103 @@
+package com.bsa.campcard.service.dashboard;
+
+import com.bsa.campcard.dto.DashboardResponse;
+import com.bsa.campcard.dto.DashboardStreamMessage;
+import com.bsa.campcard.repository.CardOrderRepository;
+import com.bsa.campcard.repository.OfferRepository;
+import com.bsa.campcard.repository.ReferralRepository;
+import com.bsa.campcard.repository.SubscriptionRepository;
+import com.bsa.campcard.service.DashboardService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bsa.campcard.domain.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardStreamService Tests")
+class DashboardStreamServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private DashboardService dashboardService;
+
+    @Mock
+    private DashboardSnapshotCache snapshotCache;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DashboardAggregateService aggregateService;
+    private DashboardStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        LocalDashboardBroadcastBroker broker = new LocalDashboardBroadcastBroker(messagingTemplate);
+        aggregateService = new DashboardAggregateService(redisTemplate, mock(SubscriptionRepository.class),
+                mock(ReferralRepository.class), mock(UserRepository.class), mock(CardOrderRepository.class),
+                mock(OfferRepository.class), broker, jdbcTemplate, transactionManager);
+        streamService = new DashboardStreamService(broker, dashboardService, snapshotCache, new ObjectMapper());
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Publishes a patch in the first window after a sale commits")
+    void publishesCommittedSale() {
+        when(dashboardService.getDashboardData())
+                .thenReturn(DashboardResponse.builder().totalCardsSold(1).build())
+                .thenReturn(DashboardResponse.builder().totalCardsSold(1).build())
+                .thenReturn(DashboardResponse.builder().totalCardsSold(2).build());
+        when(jdbcTemplate.queryForObject("SELECT txid_current()", Long.class)).thenReturn(42L);
+        assertThat(streamService.snapshot().getVersion()).isEqualTo(1L);
+        // First window runs the idle check, leaving only marked changes for the next ones
+        streamService.flush();
+
+        TransactionSynchronizationManager.initSynchronization();
+        aggregateService.record(Map.of("national|cards.sold", 1L));
+        streamService.flush();
+        verifyNoInteractions(messagingTemplate, snapshotCache);
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        streamService.flush();
+
+        verify(snapshotCache).invalidate(DashboardScope.NATIONAL, null);
+        ArgumentCaptor<Object> message = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSend(eq(DashboardStreamService.DASHBOARD_TOPIC), message.capture());
+        DashboardStreamMessage patch = (DashboardStreamMessage) message.getValue();
+        assertThat(patch.getType()).isEqualTo(DashboardStreamMessage.MessageType.PATCH);
+        assertThat(patch.getVersion()).isEqualTo(2L);
+        assertThat(patch.getPatch().toString()).contains("/totalCardsSold");
+    }
+}
@@ -0,0 +1,73 @@
+package com.bsa.campcard.service.dashboard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("JsonPatchDiff Tests")
+class JsonPatchDiffTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JsonNode json(String value) throws Exception {
+        return objectMapper.readTree(value.replace('\'', '"'));
+    }
+
+    @Test
+    @DisplayName("Identical documents produce an empty patch")
+    void noChanges() throws Exception {
+        JsonNode document = json("{'totalScouts': 5, 'scoutSales': [{'id': 1, 'sales': 10}]}");
+
+        assertThat(JsonPatchDiff.diff(document, document.deepCopy())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Changed scalar fields produce replace operations")
+    void replacesChangedFields() throws Exception {
+        ArrayNode patch = JsonPatchDiff.diff(
+                json("{'totalScouts': 5, 'totalTroops': 2}"),
+                json("{'totalScouts': 6, 'totalTroops': 2}"));
+
+        assertThat(patch).hasSize(1);
+        assertThat(patch.get(0)).isEqualTo(json("{'op': 'replace', 'path': '/totalScouts', 'value': 6}"));
+    }
+
+    @Test
+    @DisplayName("Leaderboard rows are patched individually when the length is unchanged")
+    void patchesLeaderboardRows() throws Exception {
+        ArrayNode patch = JsonPatchDiff.diff(
+                json("{'scoutSales': [{'id': 1, 'sales': 10}, {'id': 2, 'sales': 8}]}"),
+                json("{'scoutSales': [{'id': 1, 'sales': 10}, {'id': 2, 'sales': 9}]}"));
+
+        assertThat(patch).hasSize(1);
+        assertThat(patch.get(0)).isEqualTo(json("{'op': 'replace', 'path': '/scoutSales/1/sales', 'value': 9}"));
+    }
+
+    @Test
+    @DisplayName("Arrays that change length are replaced as a whole")
+    void replacesResizedArrays() throws Exception {
+        ArrayNode patch = JsonPatchDiff.diff(
+                json("{'scoutSales': [{'id': 1}]}"),
+                json("{'scoutSales': [{'id': 1}, {'id': 2}]}"));
+
+        assertThat(patch).hasSize(1);
+        assertThat(patch.get(0).get("op").asText()).isEqualTo("replace");
+        assertThat(patch.get(0).get("path").asText()).isEqualTo("/scoutSales");
+    }
+
+    @Test
+    @DisplayName("Added and removed fields produce add and remove operations with escaped paths")
+    void addsAndRemovesFields() throws Exception {
+        ArrayNode patch = JsonPatchDiff.diff(
+                json("{'a/b': 1}"),
+                json("{'c~d': 2}"));
+
+        assertThat(patch).containsExactlyInAnyOrder(
+                json("{'op': 'add', 'path': '/c~0d', 'value': 2}"),
+                json("{'op': 'remove', 'path': '/a~1b'}"));
+    }
+}
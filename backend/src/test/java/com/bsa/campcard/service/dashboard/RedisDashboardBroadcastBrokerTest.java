@@ -0,0 +1,69 @@
+package com.bsa.campcard.service.dashboard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RedisDashboardBroadcastBroker Tests")
+class RedisDashboardBroadcastBrokerTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private RedisConnectionFactory connectionFactory;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private RedisDashboardBroadcastBroker broker;
+
+    @BeforeEach
+    void setUp() {
+        broker = new RedisDashboardBroadcastBroker(redisTemplate, connectionFactory, messagingTemplate,
+                new ObjectMapper(), 15000);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Nested
+    @DisplayName("Change flag")
+    class ChangeFlagTests {
+
+        @Test
+        @DisplayName("Consumes the flag once")
+        void consumesFlag() {
+            when(valueOperations.getAndDelete(RedisDashboardBroadcastBroker.CHANGED_KEY))
+                    .thenReturn("node-1")
+                    .thenReturn(null);
+
+            assertThat(broker.consumeChanged()).isTrue();
+            assertThat(broker.consumeChanged()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Reports a change when Redis is unavailable so the leader republishes")
+        void reportsChangeWhenRedisDown() {
+            when(valueOperations.getAndDelete(RedisDashboardBroadcastBroker.CHANGED_KEY))
+                    .thenThrow(new RedisConnectionFailureException("down"));
+
+            assertThat(broker.consumeChanged()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.bsa.campcard.service.email;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("EmailTemplateEngine Tests")
+class EmailTemplateEngineTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmailTemplateEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        engine = new EmailTemplateEngine(meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("CompiledTemplate")
+    class CompileTests {
+
+        @Test
+        @DisplayName("Fills every occurrence of a placeholder")
+        void fillsPlaceholders() {
+            CompiledTemplate template = CompiledTemplate.compile("t", "Hi {{name}}, bye {{ name }}!", Map.of());
+
+            assertThat(engine.render(template, Map.of("name", "Ann"))).isEqualTo("Hi Ann, bye Ann!");
+            assertThat(template.placeholders()).containsExactly("name");
+            assertThat(template.literalLength()).isEqualTo("Hi , bye !".length());
+        }
+
+        @Test
+        @DisplayName("Inlines partials at compile time")
+        void inlinesPartials() {
+            CompiledTemplate template = CompiledTemplate.compile("t", "[{{> header}}]{{body}}",
+                    Map.of("header", "<h1>{{title}}</h1>"));
+
+            assertThat(template.placeholders()).containsExactly("title", "body");
+            assertThat(engine.render(template, Map.of("title", "T", "body", "B"))).isEqualTo("[<h1>T</h1>]B");
+        }
+
+        @Test
+        @DisplayName("Renders unfilled placeholders and stray braces as written")
+        void keepsWhatItCannotFill() {
+            CompiledTemplate template = CompiledTemplate.compile("t",
+                    "{{ firstName }} {{> missing}} {{unclosed", Map.of());
+
+            assertThat(engine.render(template, Map.of())).isEqualTo("{{ firstName }} {{> missing}} {{unclosed");
+        }
+
+        @Test
+        @DisplayName("Does not re-parse substituted values")
+        void valuesAreLiteral() {
+            CompiledTemplate template = CompiledTemplate.compile("t", "{{content}}", Map.of());
+
+            assertThat(engine.render(template, Map.of("content", "{{firstName}}", "firstName", "Ann")))
+                    .isEqualTo("{{firstName}}");
+        }
+
+        @Test
+        @DisplayName("Rejects partials that include themselves")
+        void rejectsRecursivePartials() {
+            assertThatThrownBy(() -> CompiledTemplate.compile("t", "{{> loop}}", Map.of("loop", "{{> loop}}")))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Layouts")
+    class LayoutTests {
+
+        @Test
+        @DisplayName("Renders the shared layout with its partials")
+        void rendersLayout() {
+            String html = engine.render(EmailTemplateEngine.LAYOUT, Map.of(
+                    "title", "Welcome",
+                    "headerColor", "#003f87",
+                    "content", "<p>Body</p>",
+                    "webPortalUrl", "https://admin.example.com",
+                    "baseUrl", "https://api.example.com",
+                    "year", "2026"));
+
+            assertThat(html)
+                    .startsWith("<!DOCTYPE html>")
+                    .contains("<title>Welcome</title>")
+                    .contains("<p>Body</p>")
+                    .contains("https://admin.example.com/images/campcard-logo.png")
+                    .contains("© 2026 Boy Scouts of America")
+                    .endsWith("</html>\n")
+                    .doesNotContain("{{");
+        }
+
+        @Test
+        @DisplayName("Rejects an unknown template name")
+        void unknownTemplate() {
+            assertThatThrownBy(() -> engine.render("missing", Map.of()))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Times each render by template")
+        void recordsMetrics() {
+            engine.render(EmailTemplateEngine.BUTTON, Map.of("url", "u", "color", "c", "text", "t"));
+            engine.render(EmailTemplateEngine.BUTTON, Map.of("url", "u", "color", "c", "text", "t"));
+
+            assertThat(meterRegistry.timer("campcard.email.render", "template", "button").count()).isEqualTo(2);
+        }
+    }
+}
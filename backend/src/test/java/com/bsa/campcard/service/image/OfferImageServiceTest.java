@@ -0,0 +1,174 @@
+package com.bsa.campcard.service.image;
+
+import com.bsa.campcard.entity.OfferImage;
+import com.bsa.campcard.repository.OfferImageRepository;
+import com.bsa.campcard.repository.OfferRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OfferImageService Tests")
+class OfferImageServiceTest {
+
+    @Mock
+    private OfferImageRepository offerImageRepository;
+
+    @Mock
+    private OfferRepository offerRepository;
+
+    private InMemoryBlobStore blobStore;
+    private OfferImageService service;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new InMemoryBlobStore();
+        service = new OfferImageService(blobStore, offerImageRepository, offerRepository, 400, 1_000_000, 4_000_000);
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+
+    private static String dataUrl(byte[] bytes) {
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(bytes);
+    }
+
+    @Nested
+    @DisplayName("store Tests")
+    class StoreTests {
+
+        @Test
+        @DisplayName("Should store large images with a resized thumbnail")
+        void storesThumbnail() throws IOException {
+            OfferImageService.StoredImage stored = service.storeDataUrl(dataUrl(png(1200, 600)));
+
+            assertThat(stored.url()).matches("https://cdn\\.test/offers/[0-9a-f]{64}\\.png");
+            assertThat(stored.thumbnailUrl()).matches("https://cdn\\.test/offers/[0-9a-f]{64}_w400\\.jpg");
+
+            BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(blobStore.get(stored.thumbnailUrl())));
+            assertThat(thumbnail.getWidth()).isEqualTo(400);
+            assertThat(thumbnail.getHeight()).isEqualTo(200);
+        }
+
+        @Test
+        @DisplayName("Should use the original as thumbnail for small images")
+        void smallImage() throws IOException {
+            OfferImageService.StoredImage stored = service.store(png(200, 100));
+
+            assertThat(stored.thumbnailUrl()).isEqualTo(stored.url());
+            assertThat(blobStore.objects).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("Should address identical uploads to the same object")
+        void contentAddressed() throws IOException {
+            byte[] image = png(800, 800);
+
+            OfferImageService.StoredImage first = service.store(image);
+            OfferImageService.StoredImage second = service.store(image);
+
+            assertThat(second).isEqualTo(first);
+            assertThat(blobStore.objects).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("Should reject non-image data")
+        void rejectsNonImage() {
+            assertThatThrownBy(() -> service.store("not an image".getBytes()))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Unsupported image format");
+        }
+
+        @Test
+        @DisplayName("Should reject images over the pixel limit before decoding them")
+        void rejectsDecompressionBomb() throws IOException {
+            // A blank 4000x1001 PNG compresses to a few KB but decodes to ~16 MB
+            byte[] bomb = png(4000, 1001);
+            assertThat(bomb.length).isLessThan(1_000_000);
+
+            assertThatThrownBy(() -> service.store(bomb))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("maximum of 4000000 pixels");
+            assertThat(blobStore.objects).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should reject images over the size limit")
+        void rejectsOversized() {
+            assertThatThrownBy(() -> service.store(new byte[1_000_001]))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("maximum size");
+        }
+    }
+
+    @Nested
+    @DisplayName("migrateLegacyBatch Tests")
+    class MigrateTests {
+
+        @Test
+        @DisplayName("Should move legacy images to the blob store and delete the rows")
+        void migratesBatch() throws IOException {
+            OfferImage good = OfferImage.builder().id(10L).offerId(1L).imageData(dataUrl(png(100, 100))).build();
+            OfferImage corrupt = OfferImage.builder().id(11L).offerId(2L).imageData("data:image/png;base64,AAAA").build();
+            when(offerImageRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                    .thenReturn(List.of(good, corrupt));
+
+            Long lastId = service.migrateLegacyBatch(0L, 50);
+
+            assertThat(lastId).isEqualTo(11L);
+            verify(offerRepository).updateImageUrlsIfUnset(eq(1L), startsWith("https://cdn.test/offers/"), anyString());
+            verify(offerRepository, never()).updateImageUrlsIfUnset(eq(2L), anyString(), anyString());
+            verify(offerImageRepository).deleteAllByIdInBatch(List.of(10L));
+        }
+
+        @Test
+        @DisplayName("Should return null when no rows remain")
+        void emptyBatch() {
+            when(offerImageRepository.findByIdGreaterThanOrderByIdAsc(eq(5L), any(Pageable.class)))
+                    .thenReturn(List.of());
+
+            assertThat(service.migrateLegacyBatch(5L, 50)).isNull();
+        }
+    }
+
+    private static final class InMemoryBlobStore implements BlobStore {
+        private final Map<String, byte[]> objects = new HashMap<>();
+
+        @Override
+        public void putIfAbsent(String key, byte[] content, String contentType) {
+            objects.putIfAbsent(key, content);
+        }
+
+        @Override
+        public String publicUrl(String key) {
+            return "https://cdn.test/" + key;
+        }
+
+        byte[] get(String url) {
+            return objects.get(url.substring("https://cdn.test/".length()));
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.bsa.campcard.service.qr;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * The benchmark encodes and verifies tokens in both formats, logging throughput next
+ * to the previous text format (a new Mac per call) for comparison.
+ */
+@Slf4j
+@DisplayName("QrTokenCodec Tests")
+class QrTokenCodecTest {
+
+    private static final String SECRET = "test-qr-secret";
+    private static final long EXPIRES_AT = 1_790_000_000L;
+
+    private final QrTokenCodec codec = new QrTokenCodec(SECRET, 2, "");
+    private final UUID userId = UUID.randomUUID();
+
+    @Nested
+    @DisplayName("Binary tokens")
+    class BinaryTests {
+
+        @Test
+        @DisplayName("Round trips the offer, user, expiry and key id")
+        void roundTrips() {
+            String token = codec.encode(42L, userId, EXPIRES_AT);
+
+            QrToken decoded = codec.decode(token);
+
+            assertThat(token).hasSize(QrTokenCodec.ENCODED_LENGTH);
+            assertThat(decoded).isEqualTo(new QrToken(2, 42L, userId, EXPIRES_AT, true));
+            assertThat(decoded.isExpired(EXPIRES_AT)).isFalse();
+            assertThat(decoded.isExpired(EXPIRES_AT + 1)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Rejects a token whose fields were changed")
+        void rejectsTamperedToken() {
+            byte[] bytes = Base64.getUrlDecoder().decode(codec.encode(42L, userId, EXPIRES_AT));
+            bytes[9] = 43; // offer id, low byte
+
+            QrToken decoded = codec.decode(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes));
+
+            assertThat(decoded.offerId()).isEqualTo(43L);
+            assertThat(decoded.signatureValid()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Rejects a token signed with another secret")
+        void rejectsOtherSecret() {
+            String forged = new QrTokenCodec("guessed-secret", 2, "").encode(42L, userId, EXPIRES_AT);
+
+            assertThat(codec.decode(forged).signatureValid()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Verifies tokens signed with a retired key")
+        void verifiesRetiredKey() {
+            String issuedBeforeRotation = codec.encode(42L, userId, EXPIRES_AT);
+            QrTokenCodec rotated = new QrTokenCodec("next-secret", 3, "2:" + SECRET);
+
+            assertThat(rotated.decode(issuedBeforeRotation).signatureValid()).isTrue();
+            assertThat(rotated.decode(rotated.encode(42L, userId, EXPIRES_AT)).keyId()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Rejects tokens naming an unknown key")
+        void rejectsUnknownKey() {
+            String token = new QrTokenCodec(SECRET, 9, "").encode(42L, userId, EXPIRES_AT);
+
+            assertThat(codec.decode(token).signatureValid()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Throws on malformed tokens")
+        void throwsOnMalformed() {
+            assertThatThrownBy(() -> codec.decode("not a token"))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> codec.decode("A".repeat(QrTokenCodec.ENCODED_LENGTH)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Legacy tokens")
+    class LegacyTests {
+
+        @Test
+        @DisplayName("Verifies text tokens issued before the binary format")
+        void verifiesLegacyToken() {
+            QrToken decoded = codec.decode(legacyToken(SECRET, 42L, userId, EXPIRES_AT));
+
+            assertThat(decoded).isEqualTo(new QrToken(0, 42L, userId, EXPIRES_AT, true));
+        }
+
+        @Test
+        @DisplayName("Rejects text tokens with a wrong signature")
+        void rejectsLegacyForgery() {
+            assertThat(codec.decode(legacyToken("guessed-secret", 42L, userId, EXPIRES_AT)).signatureValid())
+                    .isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Benchmark")
+    class BenchmarkTests {
+
+        private static final int TOKENS = 20_000;
+        private static final int RUNS = 5;
+
+        @Test
+        @DisplayName("Should encode and verify binary tokens alongside the text format")
+        void comparesFormats() {
+            String binarySample = codec.encode(1L, userId, EXPIRES_AT);
+            String legacySample = legacyToken(SECRET, 1L, userId, EXPIRES_AT);
+            log.info("QR token length: binary {} chars, text {} chars", binarySample.length(), legacySample.length());
+
+            long binaryRate = tokensPerSecond(offerId -> codec.encode(offerId, userId, EXPIRES_AT),
+                    token -> codec.decode(token).signatureValid());
+            long legacyRate = tokensPerSecond(offerId -> legacyToken(SECRET, offerId, userId, EXPIRES_AT),
+                    this::verifyLegacy);
+            log.info("QR encode + verify over {} tokens: binary {}/s, text {}/s", TOKENS, binaryRate, legacyRate);
+
+            assertThat(binarySample.length()).isLessThan(legacySample.length() / 2);
+        }
+
+        private long tokensPerSecond(LongFunction<String> encode, Predicate<String> verify) {
+            long best = 0;
+            for (int run = 0; run <= RUNS; run++) {
+                int verified = 0;
+                long start = System.nanoTime();
+                for (int i = 0; i < TOKENS; i++) {
+                    if (verify.test(encode.apply(i))) {
+                        verified++;
+                    }
+                }
+                long rate = TOKENS * 1_000_000_000L / Math.max(1, System.nanoTime() - start);
+                assertThat(verified).isEqualTo(TOKENS);
+                if (run > 0) { // first run warms up
+                    best = Math.max(best, rate);
+                }
+            }
+            return best;
+        }
+
+        // Verification as OfferQrService did it before the binary format
+        private boolean verifyLegacy(String token) {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            String expected = legacyToken(SECRET, Long.parseLong(parts[0]), UUID.fromString(parts[1]),
+                    Long.parseLong(parts[2]));
+            return expected.equals(token);
+        }
+    }
+
+    // The text format OfferQrService issued before the binary format, a new Mac per call
+    private static String legacyToken(String secret, long offerId, UUID userId, long expiresAt) {
+        try {
+            String data = String.format("%d:%s:%d", offerId, userId, expiresAt);
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            String signature = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+            return Base64.getUrlEncoder().encodeToString((data + ":" + signature).getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.bsa.campcard.service.redemption;
+
+import com.bsa.campcard.entity.Offer;
+import com.bsa.campcard.repository.MerchantRepository;
+import com.bsa.campcard.repository.OfferRepository;
+import com.bsa.campcard.service.catalog.OfferCatalog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RedemptionCounters Tests")
+class RedemptionCountersTest {
+
+    private static final int REDEMPTIONS = 1000;
+
+    @Mock
+    private OfferRepository offerRepository;
+
+    @Mock
+    private MerchantRepository merchantRepository;
+
+    @Mock
+    private OfferCatalog offerCatalog;
+
+    private RedemptionCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new RedemptionCounters(offerRepository, merchantRepository, offerCatalog);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Offer offer(Integer usageLimit) {
+        Offer offer = new Offer();
+        offer.setId(7L);
+        offer.setMerchantId(3L);
+        offer.setUsageLimit(usageLimit);
+        offer.setTotalRedemptions(0);
+        return offer;
+    }
+
+    @Test
+    @DisplayName("Counts 1,000 parallel redemptions of an unlimited offer in one update")
+    void countsParallelRedemptions() throws Exception {
+        Offer offer = offer(null);
+
+        assertThat(claimInParallel(offer)).isEqualTo(REDEMPTIONS);
+        counters.flush();
+
+        verify(offerRepository, never()).claimLimitedRedemption(any(), any());
+        verify(offerRepository).incrementRedemptions(7L, REDEMPTIONS);
+        verify(merchantRepository).incrementRedemptions(3L, REDEMPTIONS);
+        assertThat(counters.pendingForOffer(7L)).isZero();
+    }
+
+    @Test
+    @DisplayName("Lets exactly the usage limit through 1,000 parallel claims")
+    void enforcesUsageLimit() throws Exception {
+        // Stands in for the conditional UPDATE, which the database applies one at a time
+        AtomicInteger total = new AtomicInteger();
+        when(offerRepository.claimLimitedRedemption(eq(7L), any())).thenAnswer(invocation ->
+                total.getAndUpdate(value -> value < 100 ? value + 1 : value) < 100 ? 1 : 0);
+
+        assertThat(claimInParallel(offer(100))).isEqualTo(100);
+        counters.flush();
+
+        verify(offerRepository, never()).incrementRedemptions(anyLong(), anyInt());
+        verify(merchantRepository).incrementRedemptions(3L, 100);
+        verify(offerCatalog, atLeastOnce()).invalidate();
+    }
+
+    @Test
+    @DisplayName("Counts only after the redemption commits")
+    void countsAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        counters.claim(offer(null));
+        assertThat(counters.pendingForMerchant(3L)).isZero();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(counters.pendingForMerchant(3L)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Keeps the count when a flush fails")
+    void keepsCountOnFailedFlush() {
+        when(offerRepository.incrementRedemptions(7L, 2)).thenThrow(new IllegalStateException("connection reset"));
+        counters.claim(offer(null));
+        counters.claim(offer(null));
+
+        counters.flush();
+
+        assertThat(counters.pendingForOffer(7L)).isEqualTo(2);
+        assertThat(counters.pendingForMerchant(3L)).isZero();
+    }
+
+    private int claimInParallel(Offer offer) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < REDEMPTIONS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return counters.claim(offer);
+                }));
+            }
+            start.countDown();
+            int claimed = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    claimed++;
+                }
+            }
+            return claimed;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package org.bsa.campcard.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bsa.campcard.domain.user.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RateLimitFilter Tests")
+class RateLimitFilterTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private RateLimitProperties properties;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        RateLimitProperties.RoutePolicy scan = new RateLimitProperties.RoutePolicy();
+        scan.setName("qr-scan");
+        scan.setPath("/api/v1/offers/qr-code/scan");
+        scan.setMethods(List.of("POST"));
+        scan.setLimit(30);
+        scan.setBurst(10);
+        properties.setPolicies(List.of(scan));
+        properties.setRoles(Map.of("ADMIN", 600));
+
+        filter = new RateLimitFilter(properties, new RedisRateLimiter(redisTemplate, properties), new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void redisReturns(Object... result) {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(List.of(result));
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Nested
+    @DisplayName("Allowed requests")
+    class AllowedTests {
+
+        @Test
+        @DisplayName("Should add RateLimit headers and continue the chain")
+        void addsHeaders() throws Exception {
+            redisReturns(1L, 119L, 0L, 500L);
+
+            MockHttpServletResponse response = perform(new MockHttpServletRequest("GET", "/api/v1/offers"));
+
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(response.getHeader("RateLimit-Limit")).isEqualTo("120");
+            assertThat(response.getHeader("RateLimit-Remaining")).isEqualTo("119");
+            assertThat(response.getHeader("RateLimit-Reset")).isEqualTo("1");
+            assertThat(response.getHeader("RateLimit-Policy")).isEqualTo("120;w=60;policy=default");
+        }
+
+        @Test
+        @DisplayName("Should key anonymous requests by client IP and route policy")
+        @SuppressWarnings("unchecked")
+        void usesRoutePolicyAndClientIp() throws Exception {
+            redisReturns(1L, 39L, 0L, 2000L);
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/offers/qr-code/scan");
+            request.setRemoteAddr("203.0.113.7");
+
+            MockHttpServletResponse response = perform(request);
+
+            assertThat(response.getHeader("RateLimit-Limit")).isEqualTo("40");
+            verify(redisTemplate).execute(any(RedisScript.class),
+                    eq(List.of("rate_limit:qr-scan:ip:203.0.113.7")), eq("40"), any());
+        }
+
+        @Test
+        @DisplayName("Should apply role limit to authenticated users")
+        @SuppressWarnings("unchecked")
+        void usesRoleLimit() throws Exception {
+            redisReturns(1L, 619L, 0L, 100L);
+            User user = new User();
+            user.setId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    user, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+
+            perform(new MockHttpServletRequest("GET", "/api/v1/offers"));
+
+            verify(redisTemplate).execute(any(RedisScript.class),
+                    eq(List.of("rate_limit:role-admin:user:00000000-0000-0000-0000-000000000001")),
+                    eq("620"), any());
+        }
+
+        @Test
+        @DisplayName("Should allow requests when Redis is unavailable")
+        @SuppressWarnings("unchecked")
+        void failsOpen() throws Exception {
+            when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
+                    .thenThrow(new RedisConnectionFailureException("down"));
+
+            MockHttpServletResponse response = perform(new MockHttpServletRequest("GET", "/api/v1/offers"));
+
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+
+        @Test
+        @DisplayName("Should skip excluded paths")
+        @SuppressWarnings("unchecked")
+        void skipsExcludedPaths() throws Exception {
+            MockHttpServletResponse response = perform(new MockHttpServletRequest("GET", "/actuator/health"));
+
+            assertThat(response.getHeader("RateLimit-Limit")).isNull();
+            verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Rejected requests")
+    class RejectedTests {
+
+        @Test
+        @DisplayName("Should return 429 with Retry-After when the bucket is empty")
+        void rejects() throws Exception {
+            redisReturns(0L, 0L, 1500L, 60000L);
+
+            MockHttpServletResponse response = perform(new MockHttpServletRequest("GET", "/api/v1/offers"));
+
+            assertThat(response.getStatus()).isEqualTo(429);
+            assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+            assertThat(response.getHeader("RateLimit-Remaining")).isEqualTo("0");
+            assertThat(response.getContentAsString()).contains("\"success\":false");
+        }
+
+        @Test
+        @DisplayName("Should reject repeat requests from a blocked client without calling Redis")
+        @SuppressWarnings("unchecked")
+        void localPreCheck() throws Exception {
+            redisReturns(0L, 0L, 30000L, 60000L);
+
+            perform(new MockHttpServletRequest("GET", "/api/v1/offers"));
+            MockHttpServletResponse second = perform(new MockHttpServletRequest("GET", "/api/v1/offers"));
+
+            assertThat(second.getStatus()).isEqualTo(429);
+            verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should not give a blocked client a new bucket for a spoofed forwarding header")
+        @SuppressWarnings("unchecked")
+        void ignoresSpoofedForwardingHeaders() throws Exception {
+            redisReturns(0L, 0L, 30000L, 60000L);
+            MockHttpServletRequest first = new MockHttpServletRequest("GET", "/api/v1/offers");
+            first.setRemoteAddr("203.0.113.7");
+            perform(first);
+
+            MockHttpServletRequest spoofed = new MockHttpServletRequest("GET", "/api/v1/offers");
+            spoofed.setRemoteAddr("203.0.113.7");
+            spoofed.addHeader("X-Forwarded-For", "198.51.100.1");
+            spoofed.addHeader("X-Real-IP", "198.51.100.2");
+            MockHttpServletResponse response = perform(spoofed);
+
+            assertThat(response.getStatus()).isEqualTo(429);
+            verify(redisTemplate, times(1)).execute(any(RedisScript.class),
+                    eq(List.of("rate_limit:default:ip:203.0.113.7")), any(), any());
+            verify(redisTemplate, never()).execute(any(RedisScript.class),
+                    eq(List.of("rate_limit:default:ip:198.51.100.1")), any(), any());
+        }
+    }
+}